@@ -40,18 +40,22 @@ import net.es.sense.rm.api.common.Error;
 import net.es.sense.rm.api.common.*;
 import net.es.sense.rm.api.config.SenseProperties;
 import net.es.sense.rm.driver.api.*;
+import net.es.sense.rm.driver.api.mrml.SubgraphQuery;
 import net.es.sense.rm.measurements.MeasurementController;
 import net.es.sense.rm.measurements.db.MeasurementType;
 import net.es.sense.rm.measurements.db.MetricType;
 import net.es.sense.rm.model.DeltaRequest;
 import net.es.sense.rm.model.DeltaResource;
 import net.es.sense.rm.model.ModelResource;
+import org.springframework.boot.convert.DurationStyle;
 import org.springframework.context.ApplicationContext;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import org.springframework.web.util.UriComponentsBuilder;
 
@@ -61,10 +65,15 @@ import java.lang.reflect.Method;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
-import java.util.concurrent.ExecutionException;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
 
 /**
  * The SENSE RM API web services module based on Spring REST annotations.
@@ -92,6 +101,12 @@ public class SenseRmController {
 
   private final MeasurementController measurementController;
 
+  // Encoded models returned for encode=true requests.
+  private final EncodedModelCache encodedModelCache;
+
+  // Server-sent event subscribers to model and delta changes.
+  private final EventBroker eventBroker;
+
   // Transformer to manipulate URL path in case there are mapping issues.
   private UrlTransform utilities;
 
@@ -105,12 +120,17 @@ public class SenseRmController {
    * @param context
    * @param config
    * @param measurementController
+   * @param encodedModelCache
+   * @param eventBroker
    */
   public SenseRmController(ApplicationContext context, SenseProperties config,
-                           MeasurementController measurementController) {
+                           MeasurementController measurementController, EncodedModelCache encodedModelCache,
+                           EventBroker eventBroker) {
     this.context = context;
     this.config = config;
     this.measurementController = measurementController;
+    this.encodedModelCache = encodedModelCache;
+    this.eventBroker = eventBroker;
   }
 
   /**
@@ -126,6 +146,72 @@ public class SenseRmController {
     log.info("SenseRmController: loading driver {} as {}", config.getDriver(), forName.getName());
   }
 
+  /**
+   * Builds a response from the result of a driver operation.
+   *
+   * @param <T> The driver response type.
+   */
+  @FunctionalInterface
+  private interface ResponseHandler<T> {
+    ResponseEntity<?> apply(T response) throws Exception;
+  }
+
+  /**
+   * Issue a driver operation and build the response once it completes.  The
+   * driver operation runs on the driver executor so the request thread is
+   * released while it is in progress.  A failure of the operation or of
+   * building the response is returned as an INTERNAL_SERVER_ERROR, and a
+   * SERVICE_UNAVAILABLE is returned if the driver executor is saturated.
+   *
+   * @param <T> The driver response type.
+   * @param operation The name of the controller operation for logging.
+   * @param request Issues the driver operation.
+   * @param handler Builds the response from the driver result.
+   * @return A future completed with the response.
+   */
+  private <T> CompletableFuture<ResponseEntity<?>> handle(String operation,
+          Supplier<CompletableFuture<T>> request, ResponseHandler<T> handler) {
+    CompletableFuture<T> future;
+    try {
+      future = request.get();
+    } catch (TaskRejectedException ex) {
+      return CompletableFuture.completedFuture(toErrorResponse(operation, ex));
+    }
+
+    return future.handle((response, failure) -> {
+      Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+              ? failure.getCause() : failure;
+      if (cause == null) {
+        try {
+          return handler.apply(response);
+        } catch (Exception ex) {
+          cause = ex;
+        }
+      }
+
+      return toErrorResponse(operation, cause);
+    });
+  }
+
+  /**
+   * Build the error response for a failed driver operation.
+   *
+   * @param operation The name of the controller operation for logging.
+   * @param cause The cause of the failure.
+   * @return SERVICE_UNAVAILABLE if the driver executor is saturated, otherwise INTERNAL_SERVER_ERROR.
+   */
+  private ResponseEntity<?> toErrorResponse(String operation, Throwable cause) {
+    HttpStatus status = cause instanceof TaskRejectedException
+            ? HttpStatus.SERVICE_UNAVAILABLE : HttpStatus.INTERNAL_SERVER_ERROR;
+    log.error("[SenseRmController] {} failed", operation, cause);
+    Error error = Error.builder()
+            .error(status.getReasonPhrase())
+            .error_description(cause.getMessage())
+            .build();
+    log.error("[SenseRmController] {} returning error:\n{}", operation, error);
+    return new ResponseEntity<>(error, status);
+  }
+
   /**
    * Returns a list of available SENSE service API resource URLs.
    *
@@ -249,6 +335,13 @@ public class SenseRmController {
    *
    * @param model Specify the model schema format (TURTLE, JSON-LD, etc.).
    *
+   * @param stream If stream=true then models are written to the response one
+   *    at a time as they are read. Default value is stream=false.
+   *
+   * @param wait With current=true, hold the request for up to this long
+   *    (for example wait=30s) until a model newer than If-Modified-Since
+   *    is created. The request thread is not held while waiting.
+   *
    * @return A RESTful response.
    */
   @Operation(
@@ -340,7 +433,7 @@ public class SenseRmController {
           produces = {MediaType.APPLICATION_JSON_VALUE})
   @ResponseBody
   @ResourceAnnotation(name = "models", version = "v1")
-  public ResponseEntity<?> getModels(
+  public CompletableFuture<ResponseEntity<?>> getModels(
           @RequestHeader(value = HttpConstants.ACCEPT_NAME, defaultValue = MediaType.APPLICATION_JSON_VALUE)
           @Parameter(description = HttpConstants.ACCEPT_MSG, required = false) String accept,
           @RequestHeader(value = HttpConstants.IF_MODIFIED_SINCE_NAME, required = false)
@@ -352,7 +445,17 @@ public class SenseRmController {
           @RequestParam(value = HttpConstants.ENCODE_NAME, defaultValue = "false")
           @Parameter(description = HttpConstants.ENCODE_MSG, required = false) boolean encode,
           @RequestParam(value = HttpConstants.MODEL_NAME, defaultValue = HttpConstants.MODEL_TURTLE)
-          @Parameter(description = HttpConstants.MODEL_MSG, required = false) String model) {
+          @Parameter(description = HttpConstants.MODEL_MSG, required = false) String model,
+          @RequestParam(value = HttpConstants.STREAM_NAME, defaultValue = "false")
+          @Parameter(description = HttpConstants.STREAM_MSG, required = false) boolean stream,
+          @RequestParam(value = HttpConstants.WAIT_NAME, required = false)
+          @Parameter(description = HttpConstants.WAIT_MSG, required = false) String wait,
+          @RequestParam(value = HttpConstants.ROOT_NAME, required = false)
+          @Parameter(description = HttpConstants.ROOT_MSG, required = false) List<String> root,
+          @RequestParam(value = HttpConstants.TYPE_NAME, required = false)
+          @Parameter(description = HttpConstants.TYPE_MSG, required = false) List<String> type,
+          @RequestParam(value = HttpConstants.DEPTH_NAME, defaultValue = "1")
+          @Parameter(description = HttpConstants.DEPTH_MSG, required = false) int depth) {
 
     // We need the request URL to build fully qualified resource URLs.
     final URI location;
@@ -365,11 +468,12 @@ public class SenseRmController {
               .error_description(ex.getMessage())
               .build();
       log.error("[SenseRmController] getModels returning error:\n{}", error);
-      return new ResponseEntity<>(error, HttpStatus.INTERNAL_SERVER_ERROR);
+      return CompletableFuture.completedFuture(new ResponseEntity<>(error, HttpStatus.INTERNAL_SERVER_ERROR));
     }
 
     log.info("[SenseRmController] GET operation = {}, accept = {}, If-Modified-Since = {}, current = {}, "
-            + "summary = {}, model = {}", location, accept, ifModifiedSince, current, summary, model);
+            + "summary = {}, model = {}, stream = {}, wait = {}, root = {}, type = {}, depth = {}", location, accept,
+            ifModifiedSince, current, summary, model, stream, wait, root, type, depth);
 
     // Parse the If-Modified-Since header if it is present.
     long ifms = Common.parseIfModifiedSince(ifModifiedSince);
@@ -378,77 +482,138 @@ public class SenseRmController {
     final HttpHeaders headers = new HttpHeaders();
     headers.add(HttpHeaders.CONTENT_LOCATION, location.toASCIIString());
 
-    try {
-      // Track matching models here.
-      List<ModelResource> models = new ArrayList<>();
+    // Stream the list of models rather than assembling it in memory.
+    if (stream && !current && !summary) {
+      return streamModels(location, headers, model, ifms, encode);
+    }
 
-      // Keep track of the most recently updated model date.
-      long newest = 0;
+    // First case is to handle a targeted request for the current model.
+    if (current) {
+      // If asked to wait then park the request until a newer model exists,
+      // and if asked for a subgraph return only the selected resources.
+      final Duration timeout;
+      final SubgraphQuery query;
+      try {
+        timeout = parseWait(wait);
+        query = SubgraphQuery.of(root, type, depth);
+      } catch (IllegalArgumentException ex) {
+        log.error("[SenseRmController] getModels invalid wait = {}, depth = {}", wait, depth, ex);
+        Error error = Error.builder()
+                .error(HttpStatus.BAD_REQUEST.getReasonPhrase())
+                .error_description(ex.getMessage())
+                .build();
+        return CompletableFuture.completedFuture(new ResponseEntity<>(error, HttpStatus.BAD_REQUEST));
+      }
 
-      // Query the driver for a list of models.
-      Collection<ModelResource> result = new ArrayList<>();
+      Supplier<CompletableFuture<ModelResponse>> request = timeout.isZero()
+              ? () -> driver.getCurrentModel(model, ifms, query)
+              : () -> driver.awaitCurrentModel(model, ifms, timeout, query);
 
-      // First case is to handle a targeted request for the current model.
-      if (current) {
-        ModelResponse response = driver.getCurrentModel(model, ifms).get();
+      return handle("getModels", request, response -> {
         if (response == null || response.getStatus() != Status.OK) {
           return Common.toResponseEntity(headers, response);
         }
 
-        response.getModel().ifPresent(result::add);
-      } else {
-        ModelsResponse response = driver.getModels(model, ifms).get();
-        if (response == null || response.getStatus() != Status.OK) {
-          return Common.toResponseEntity(headers, response);
+        // A subgraph is specific to this request so is encoded without caching.
+        List<ModelResource> result = response.getModel().stream().toList();
+        if (query != null && encode && !summary) {
+          for (ModelResource m : result) {
+            m.setModel(m.getModel() == null ? null : Encoder.encode(m.getModel()));
+          }
+          return toModelsResponse(location, headers, ifModifiedSince, summary, false, model, result);
         }
 
-        result.addAll(response.getModels());
+        return toModelsResponse(location, headers, ifModifiedSince, summary, encode, model, result);
+      });
+    }
+
+    // Query the driver for a list of models.
+    return handle("getModels", () -> driver.getModels(model, ifms, summary), response -> {
+      if (response == null || response.getStatus() != Status.OK) {
+        return Common.toResponseEntity(headers, response);
       }
 
-      // The requester asked for a list of models so apply any filtering criteria.
-      for (ModelResource m : result) {
-        long creationTime = XmlUtilities.xmlGregorianCalendar(m.getCreationTime())
-                .toGregorianCalendar().getTimeInMillis();
+      return toModelsResponse(location, headers, ifModifiedSince, summary, encode, model, response.getModels());
+    });
+  }
 
-        log.info("[SenseRmController] returning model id = {}, creationTime = {}, If-Modified-Since = {}\n{}",
-                m.getId(), m.getCreationTime(), ifModifiedSince, Encoder.encode(m.getModel()));
+  /**
+   * Parse the long-poll wait request parameter, limited to the configured
+   * maximum wait.  Values such as "30s", "2m", and "PT30S" are accepted, and
+   * a plain number is taken as seconds.
+   *
+   * @param wait The wait request parameter.
+   * @return The duration to wait, which is zero if no wait was requested.
+   */
+  private Duration parseWait(String wait) {
+    if (Strings.isNullOrEmpty(wait)) {
+      return Duration.ZERO;
+    }
 
-        // Create the unique resource URL.
-        m.setHref(UrlHelper.append(location.toASCIIString(), m.getId()));
+    Duration duration = DurationStyle.detectAndParse(wait, ChronoUnit.SECONDS);
+    if (duration.isNegative()) {
+      throw new IllegalArgumentException("Invalid wait = " + wait);
+    }
 
-        // If summary results are requested we do not return the model.
-        if (summary) {
-          m.setModel(null);
-        } else {
-          // If they requested an encoded transfer we will encode the model contents.
-          if (encode) {
-            m.setModel(Encoder.encode(m.getModel()));
-          }
-        }
+    Duration max = Duration.ofSeconds(config.getMaxModelWait());
+    return duration.compareTo(max) > 0 ? max : duration;
+  }
 
-        // Save this model and update If-Modified-Since with the creation time.
-        models.add(m);
+  /**
+   * Build the response for a list of models returned from the driver.
+   *
+   * @param location The request URL used to build resource URLs.
+   * @param headers The response headers.
+   * @param ifModifiedSince The If-Modified-Since header of the request.
+   * @param summary Return only the model meta-data.
+   * @param encode Gzip/base64 encode the model contents.
+   * @param model The requested model encoding.
+   * @param result The models returned from the driver.
+   * @return The response entity containing the models.
+   */
+  private ResponseEntity<?> toModelsResponse(URI location, HttpHeaders headers, String ifModifiedSince,
+          boolean summary, boolean encode, String model, Collection<ModelResource> result)
+          throws DatatypeConfigurationException, IOException {
+    // Track matching models here.
+    List<ModelResource> models = new ArrayList<>();
+
+    // Keep track of the most recently updated model date.
+    long newest = 0;
+
+    // The requester asked for a list of models so apply any filtering criteria.
+    for (ModelResource m : result) {
+      long creationTime = XmlUtilities.xmlGregorianCalendar(m.getCreationTime())
+              .toGregorianCalendar().getTimeInMillis();
+
+      log.info("[SenseRmController] returning model id = {}, creationTime = {}, If-Modified-Since = {}, size = {}",
+              m.getId(), m.getCreationTime(), ifModifiedSince, m.getModel() == null ? 0 : m.getModel().length());
 
-        if (creationTime > newest) {
-            newest = creationTime;
+      // Create the unique resource URL.
+      m.setHref(UrlHelper.append(location.toASCIIString(), m.getId()));
+
+      // If summary results are requested we do not return the model.
+      if (summary) {
+        m.setModel(null);
+      } else {
+        // If they requested an encoded transfer we will encode the model contents.
+        if (encode) {
+          m.setModel(encodedModelCache.encode(m, model));
         }
       }
 
-      // Update the LastModified header with the value of the newest model.
-      headers.setLastModified(newest);
+      // Save this model and update If-Modified-Since with the creation time.
+      models.add(m);
 
-      // We have success so return the models we have found.
-      return new ResponseEntity<>(models, headers, HttpStatus.OK);
-    } catch (InterruptedException | IOException | DatatypeConfigurationException | IllegalArgumentException |
-            ExecutionException ex) {
-      log.error("[SenseRmController] getModels failed", ex);
-      Error error = Error.builder()
-              .error(HttpStatus.INTERNAL_SERVER_ERROR.getReasonPhrase())
-              .error_description(ex.getMessage())
-              .build();
-      log.error("[SenseRmController] getModels returning error:\n{}", error);
-      return new ResponseEntity<>(error, HttpStatus.INTERNAL_SERVER_ERROR);
+      if (creationTime > newest) {
+          newest = creationTime;
+      }
     }
+
+    // Update the LastModified header with the value of the newest model.
+    headers.setLastModified(newest);
+
+    // We have success so return the models we have found.
+    return new ResponseEntity<>(models, headers, HttpStatus.OK);
   }
 
   /**
@@ -579,7 +744,7 @@ public class SenseRmController {
           method = RequestMethod.GET,
           produces = {MediaType.APPLICATION_JSON_VALUE})
   @ResponseBody
-  public ResponseEntity<?> getModel(
+  public CompletableFuture<ResponseEntity<?>> getModel(
           @RequestHeader(value = HttpConstants.ACCEPT_NAME, defaultValue = MediaType.APPLICATION_JSON_VALUE)
           @Parameter(description = HttpConstants.ACCEPT_MSG, required = false) String accept,
           @RequestHeader(value = HttpConstants.IF_MODIFIED_SINCE_NAME, required = false)
@@ -588,6 +753,12 @@ public class SenseRmController {
           @Parameter(description = HttpConstants.MODEL_MSG, required = false) String model,
           @RequestParam(value = HttpConstants.ENCODE_NAME, defaultValue = "false")
           @Parameter(description = HttpConstants.ENCODE_MSG, required = false) boolean encode,
+          @RequestParam(value = HttpConstants.ROOT_NAME, required = false)
+          @Parameter(description = HttpConstants.ROOT_MSG, required = false) List<String> root,
+          @RequestParam(value = HttpConstants.TYPE_NAME, required = false)
+          @Parameter(description = HttpConstants.TYPE_MSG, required = false) List<String> type,
+          @RequestParam(value = HttpConstants.DEPTH_NAME, defaultValue = "1")
+          @Parameter(description = HttpConstants.DEPTH_MSG, required = false) int depth,
           @PathVariable(HttpConstants.ID_NAME)
           @Parameter(description = HttpConstants.ID_MSG, required = true) String id) {
 
@@ -601,11 +772,24 @@ public class SenseRmController {
               .error_description(ex.getMessage())
               .build();
       log.error("[SenseRmController] getModel returning error:\n{}", error);
-      return new ResponseEntity<>(error, HttpStatus.INTERNAL_SERVER_ERROR);
+      return CompletableFuture.completedFuture(new ResponseEntity<>(error, HttpStatus.INTERNAL_SERVER_ERROR));
     }
 
-    log.info("[SenseRmController] operation = {}, id = {}, accept = {}, ifModifiedSince = {}, model = {}",
-            location, id, accept, ifModifiedSince, model);
+    log.info("[SenseRmController] operation = {}, id = {}, accept = {}, ifModifiedSince = {}, model = {}, "
+            + "root = {}, type = {}, depth = {}", location, id, accept, ifModifiedSince, model, root, type, depth);
+
+    // If asked for a subgraph return only the selected resources.
+    final SubgraphQuery query;
+    try {
+      query = SubgraphQuery.of(root, type, depth);
+    } catch (IllegalArgumentException ex) {
+      log.error("[SenseRmController] getModel invalid depth = {}", depth, ex);
+      Error error = Error.builder()
+              .error(HttpStatus.BAD_REQUEST.getReasonPhrase())
+              .error_description(ex.getMessage())
+              .build();
+      return CompletableFuture.completedFuture(new ResponseEntity<>(error, HttpStatus.BAD_REQUEST));
+    }
 
     // Parse the If-Modified-Since header if it is present.
     long ifms = Common.parseIfModifiedSince(ifModifiedSince);
@@ -614,10 +798,8 @@ public class SenseRmController {
     final HttpHeaders headers = new HttpHeaders();
     headers.add(HttpHeaders.CONTENT_LOCATION, location.toASCIIString());
 
-    try {
-      // Retrieve the model if newer than specified If-Modified-Since header.
-      ModelResponse response = driver.getModel(id, model, ifms).get();
-
+    // Retrieve the model if newer than specified If-Modified-Since header.
+    return handle("getModel", () -> driver.getModel(id, model, ifms, query), response -> {
       if (response == null || response.getStatus() != Status.OK || response.getModel().isEmpty()) {
         return Common.toResponseEntity(headers, response);
       }
@@ -629,25 +811,20 @@ public class SenseRmController {
               .toGregorianCalendar().getTimeInMillis();
       headers.setLastModified(creationTime);
 
-      log.info("[SenseRmController] returning id = {}, creationTime = {}, queried If-Modified-Since = {}\n{}",
-              m.getId(), m.getCreationTime(), ifModifiedSince, Encoder.encode(m.getModel()));
+      log.info("[SenseRmController] returning id = {}, creationTime = {}, queried If-Modified-Since = {}, size = {}",
+              m.getId(), m.getCreationTime(), ifModifiedSince, m.getModel() == null ? 0 : m.getModel().length());
 
       // Update the HREF to point to the absolute URL for the resource.
       m.setHref(location.toASCIIString());
-      if (encode) {
-        m.setModel(Encoder.encode(m.getModel()));
+      if (encode && query != null) {
+        // A subgraph is specific to this request so is encoded without caching.
+        m.setModel(m.getModel() == null ? null : Encoder.encode(m.getModel()));
+      } else if (encode) {
+        m.setModel(encodedModelCache.encode(m, model));
       }
 
       return new ResponseEntity<>(m, headers, HttpStatus.OK);
-    } catch (InterruptedException | IOException | DatatypeConfigurationException | ExecutionException ex) {
-      log.error("[SenseRmController] getModel failed", ex);
-      Error error = Error.builder()
-              .error(HttpStatus.INTERNAL_SERVER_ERROR.getReasonPhrase())
-              .error_description(ex.getMessage())
-              .build();
-      log.error("[SenseRmController] getModel returning error:\n{}", error);
-      return new ResponseEntity<>(error, HttpStatus.INTERNAL_SERVER_ERROR);
-    }
+    });
   }
 
   /**
@@ -771,7 +948,7 @@ public class SenseRmController {
           produces = {MediaType.APPLICATION_JSON_VALUE}
   )
   @ResponseBody
-  public ResponseEntity<?> getModelDeltas(
+  public CompletableFuture<ResponseEntity<?>> getModelDeltas(
           @RequestHeader(
                   value = HttpConstants.ACCEPT_NAME,
                   defaultValue = MediaType.APPLICATION_JSON_VALUE)
@@ -798,7 +975,7 @@ public class SenseRmController {
               .error_description(ex.getMessage())
               .build();
       log.error("[SenseRmController] getModelDeltas returning error:\n{}", error);
-      return new ResponseEntity<>(error, HttpStatus.INTERNAL_SERVER_ERROR);
+      return CompletableFuture.completedFuture(new ResponseEntity<>(error, HttpStatus.INTERNAL_SERVER_ERROR));
     }
 
     log.info("[SenseRmController] GET location = {}, accept = {}, If-Modified-Since = {}, "
@@ -811,15 +988,14 @@ public class SenseRmController {
     final HttpHeaders headers = new HttpHeaders();
     headers.add(HttpHeaders.CONTENT_LOCATION, location.toASCIIString());
 
-    try {
+    // Query the driver for a list of deltas.
+    return handle("getModelDeltas", () -> driver.getDeltas(model, ifms), response -> {
       // Track matching deltas here.
       List<DeltaResource> deltas = new ArrayList<>();
 
       // Keep track of the most recently updated delta date.
       long newest = 0;
 
-      // Query the driver for a list of deltas.
-      DeltasResponse response = driver.getDeltas(model, ifms).get();
       if (response == null || response.getStatus() != Status.OK) {
         return Common.toResponseEntity(headers, response);
       }
@@ -862,16 +1038,7 @@ public class SenseRmController {
 
       // We have success so return the models we have found.
       return new ResponseEntity<>(deltas, headers, HttpStatus.OK);
-    } catch (InterruptedException | IOException | DatatypeConfigurationException | IllegalArgumentException |
-            ExecutionException ex) {
-      log.error("[SenseRmController] getModelDeltas failed", ex);
-      Error error = Error.builder()
-              .error(HttpStatus.INTERNAL_SERVER_ERROR.getReasonPhrase())
-              .error_description(ex.getMessage())
-              .build();
-      log.error("[SenseRmController] getModelDeltas returning error:\n{}", error);
-      return new ResponseEntity<>(error, HttpStatus.INTERNAL_SERVER_ERROR);
-    }
+    });
   }
 
   /**
@@ -990,7 +1157,7 @@ public class SenseRmController {
           method = RequestMethod.GET,
           produces = {MediaType.APPLICATION_JSON_VALUE})
   @ResponseBody
-  public ResponseEntity<?> getModelDelta(
+  public CompletableFuture<ResponseEntity<?>> getModelDelta(
           @RequestHeader(value = HttpConstants.ACCEPT_NAME, defaultValue = MediaType.APPLICATION_JSON_VALUE)
           @Parameter(description = HttpConstants.ACCEPT_MSG, required = false) String accept,
           @RequestHeader(value = HttpConstants.IF_MODIFIED_SINCE_NAME, defaultValue = HttpConstants.IF_MODIFIED_SINCE_DEFAULT)
@@ -1015,7 +1182,7 @@ public class SenseRmController {
               .error_description(ex.getMessage())
               .build();
       log.error("[SenseRmController] getModelDelta returning error:\n{}", error);
-      return new ResponseEntity<>(error, HttpStatus.INTERNAL_SERVER_ERROR);
+      return CompletableFuture.completedFuture(new ResponseEntity<>(error, HttpStatus.INTERNAL_SERVER_ERROR));
     }
 
     log.info("[SenseRmController] operation = {}, id = {}, deltaId = {}, accept = {}, ifModifiedSince = {}, model = {}",
@@ -1027,8 +1194,7 @@ public class SenseRmController {
     final HttpHeaders headers = new HttpHeaders();
     headers.add(HttpHeaders.CONTENT_LOCATION, location.toASCIIString());
 
-    try {
-      DeltaResponse response = driver.getDelta(deltaId, model, ifms).get();
+    return handle("getModelDelta", () -> driver.getDelta(deltaId, model, ifms), response -> {
       if (response == null || response.getDelta().isEmpty() || response.getStatus() != Status.OK) {
         return Common.toResponseEntity(headers, response);
       }
@@ -1053,15 +1219,7 @@ public class SenseRmController {
               d.getId(), d.getLastModified(), ifModifiedSince);
 
       return new ResponseEntity<>(d, headers, HttpStatus.OK);
-    } catch (InterruptedException | ExecutionException | IOException | DatatypeConfigurationException ex) {
-      log.error("getDelta failed", ex);
-      Error error = Error.builder()
-              .error(HttpStatus.INTERNAL_SERVER_ERROR.getReasonPhrase())
-              .error_description(ex.getMessage())
-              .build();
-      log.error("[SenseRmController] getModelDelta returning error:\n{}", error);
-      return new ResponseEntity<>(error, HttpStatus.INTERNAL_SERVER_ERROR);
-    }
+    });
   }
 
   /**
@@ -1241,6 +1399,7 @@ public class SenseRmController {
    * @param encode
    * @param model If model=turtle then the returned addition, reduction, and m elements will contain the full
  topology model in a TURTLE representation. Default value is model=turtle.
+   * @param stream If stream=true then deltas are written to the response one at a time as they are read.
    * @return A RESTful response.
    */
   @Operation(
@@ -1341,7 +1500,7 @@ public class SenseRmController {
           produces = {MediaType.APPLICATION_JSON_VALUE})
   @ResponseBody
   @ResourceAnnotation(name = "deltas", version = "v1")
-  public ResponseEntity<?> getDeltas(
+  public CompletableFuture<ResponseEntity<?>> getDeltas(
           @RequestHeader(value = HttpConstants.ACCEPT_NAME, defaultValue = MediaType.APPLICATION_JSON_VALUE)
           @Parameter(description = HttpConstants.ACCEPT_MSG, required = false) String accept,
           @RequestHeader(value = HttpConstants.IF_MODIFIED_SINCE_NAME,
@@ -1352,7 +1511,9 @@ public class SenseRmController {
           @RequestParam(value = HttpConstants.MODEL_NAME, defaultValue = HttpConstants.MODEL_TURTLE)
           @Parameter(description = HttpConstants.MODEL_MSG, required = false) String model,
           @RequestParam(value = HttpConstants.ENCODE_NAME, defaultValue = "false")
-          @Parameter(description = HttpConstants.ENCODE_MSG, required = false) boolean encode) {
+          @Parameter(description = HttpConstants.ENCODE_MSG, required = false) boolean encode,
+          @RequestParam(value = HttpConstants.STREAM_NAME, defaultValue = "false")
+          @Parameter(description = HttpConstants.STREAM_MSG, required = false) boolean stream) {
 
     // We need the request URL to build fully qualified resource URLs.
     final URI location;
@@ -1365,11 +1526,11 @@ public class SenseRmController {
               .error_description(ex.getMessage())
               .build();
       log.error("[SenseRmController] getDeltas returning error:\n{}", error);
-      return new ResponseEntity<>(error, HttpStatus.INTERNAL_SERVER_ERROR);
+      return CompletableFuture.completedFuture(new ResponseEntity<>(error, HttpStatus.INTERNAL_SERVER_ERROR));
     }
 
     log.info("[SenseRmController] GET location = {}, accept = {}, If-Modified-Since = {}, "
-            + "summary = {}, model = {}", location, accept, ifModifiedSince, summary, model);
+            + "summary = {}, model = {}, stream = {}", location, accept, ifModifiedSince, summary, model, stream);
 
     // Parse the If-Modified-Since header if it is present.
     long ifms = Common.parseIfModifiedSince(ifModifiedSince);
@@ -1378,15 +1539,19 @@ public class SenseRmController {
     final HttpHeaders headers = new HttpHeaders();
     headers.add(HttpHeaders.CONTENT_LOCATION, location.toASCIIString());
 
-    try {
+    // Stream the list of deltas rather than assembling it in memory.
+    if (stream && !summary) {
+      return streamDeltas(location, headers, model, ifms, encode);
+    }
+
+    // Query the driver for a list of deltas.
+    return handle("getDeltas", () -> driver.getDeltas(model, ifms), response -> {
       // Track matching deltas here.
       List<DeltaResource> deltas = new ArrayList<>();
 
       // Keep track of the most recently updated delta date.
       long newest = 0;
 
-      // Query the driver for a list of deltas.
-      DeltasResponse response = driver.getDeltas(model, ifms).get();
       if (response == null || response.getStatus() != Status.OK) {
         return Common.toResponseEntity(headers, response);
       }
@@ -1429,16 +1594,109 @@ public class SenseRmController {
 
       // We have success so return the models we have found.
       return new ResponseEntity<>(deltas, headers, HttpStatus.OK);
-    } catch (InterruptedException | IOException | DatatypeConfigurationException | IllegalArgumentException |
-            ExecutionException ex) {
-      log.error("[SenseRmController] getDeltas failed", ex);
-      Error error = Error.builder()
-              .error(HttpStatus.INTERNAL_SERVER_ERROR.getReasonPhrase())
-              .error_description(ex.getMessage())
-              .build();
-      log.error("[SenseRmController] getDeltas returning error:\n{}", error);
-      return new ResponseEntity<>(error, HttpStatus.INTERNAL_SERVER_ERROR);
-    }
+    });
+  }
+
+  /**
+   * Build a streamed list of model resources.  The matching model identifiers
+   * are determined from a metadata only query, and each model is then read,
+   * encoded, and written to the response one at a time so at most one model
+   * is held in memory.  Models are read on the serializing request thread
+   * rather than queued on the driver executor so a busy executor cannot
+   * truncate a committed response.
+   *
+   * @param location The request URL used to build resource URLs.
+   * @param headers The response headers.
+   * @param model The requested model encoding.
+   * @param ifms The If-Modified-Since value in milliseconds.
+   * @param encode Gzip/base64 encode the model contents.
+   * @return The response entity containing the streamed models.
+   */
+  private CompletableFuture<ResponseEntity<?>> streamModels(URI location, HttpHeaders headers, String model,
+          long ifms, boolean encode) {
+    return handle("streamModels", () -> driver.getModels(model, ifms, true), response -> {
+      if (response == null || response.getStatus() != Status.OK) {
+        return Common.toResponseEntity(headers, response);
+      }
+
+      // Keep track of the most recently updated model date.
+      long newest = 0;
+      List<String> ids = new ArrayList<>();
+      for (ModelResource m : response.getModels()) {
+        long creationTime = XmlUtilities.xmlGregorianCalendar(m.getCreationTime())
+                .toGregorianCalendar().getTimeInMillis();
+        newest = Math.max(newest, creationTime);
+        ids.add(m.getId());
+      }
+
+      // Update the LastModified header with the value of the newest model.
+      headers.setLastModified(newest);
+
+      log.info("[SenseRmController] streaming {} models", ids.size());
+
+      return new ResponseEntity<>(new ResourceStream<>(ids, id -> {
+        Optional<ModelResource> m = driver.lookupModel(id, model).getModel();
+        if (m.isPresent()) {
+          m.get().setHref(UrlHelper.append(location.toASCIIString(), id));
+          if (encode) {
+            m.get().setModel(encodedModelCache.encode(m.get(), model));
+          }
+        }
+        return m;
+      }), headers, HttpStatus.OK);
+    });
+  }
+
+  /**
+   * Build a streamed list of delta resources.  The matching delta identifiers
+   * are determined from a metadata only query, and each delta is then read,
+   * encoded, and written to the response one at a time so at most one delta
+   * is held in memory.  Deltas are read on the serializing request thread
+   * rather than queued on the driver executor so a busy executor cannot
+   * truncate a committed response.
+   *
+   * @param location The request URL used to build resource URLs.
+   * @param headers The response headers.
+   * @param model The requested model encoding.
+   * @param ifms The If-Modified-Since value in milliseconds.
+   * @param encode Gzip/base64 encode the delta contents.
+   * @return The response entity containing the streamed deltas.
+   */
+  private CompletableFuture<ResponseEntity<?>> streamDeltas(URI location, HttpHeaders headers, String model,
+          long ifms, boolean encode) {
+    return handle("streamDeltas", () -> driver.getDeltas(model, ifms, true), response -> {
+      if (response == null || response.getStatus() != Status.OK) {
+        return Common.toResponseEntity(headers, response);
+      }
+
+      // Keep track of the most recently updated delta date.
+      long newest = 0;
+      List<String> ids = new ArrayList<>();
+      for (DeltaResource d : response.getDeltas()) {
+        long lastModified = XmlUtilities.xmlGregorianCalendar(d.getLastModified())
+                .toGregorianCalendar().getTimeInMillis();
+        newest = Math.max(newest, lastModified);
+        ids.add(d.getId());
+      }
+
+      // Update the LastModified header with the value of the newest delta.
+      headers.setLastModified(newest);
+
+      log.info("[SenseRmController] streaming {} deltas", ids.size());
+
+      return new ResponseEntity<>(new ResourceStream<>(ids, id -> {
+        Optional<DeltaResource> d = driver.lookupDelta(id, model).getDelta();
+        if (d.isPresent()) {
+          d.get().setHref(UrlHelper.append(location.toASCIIString(), id));
+          if (encode) {
+            d.get().setAddition(Encoder.encode(d.get().getAddition()));
+            d.get().setReduction(Encoder.encode(d.get().getReduction()));
+            d.get().setResult(Encoder.encode(d.get().getResult()));
+          }
+        }
+        return d;
+      }), headers, HttpStatus.OK);
+    });
   }
 
   /**
@@ -1558,7 +1816,7 @@ public class SenseRmController {
       method = RequestMethod.GET,
       produces = {MediaType.APPLICATION_JSON_VALUE})
   @ResponseBody
-  public ResponseEntity<?> getDelta(
+  public CompletableFuture<ResponseEntity<?>> getDelta(
           @RequestHeader(value = HttpConstants.ACCEPT_NAME, defaultValue = MediaType.APPLICATION_JSON_VALUE)
           @Parameter(description = HttpConstants.ACCEPT_MSG, required = false) String accept,
           @RequestHeader(value = HttpConstants.IF_MODIFIED_SINCE_NAME, required = false)
@@ -1583,7 +1841,7 @@ public class SenseRmController {
               .error_description(ex.getMessage())
               .build();
       log.error("[SenseRmController] getDelta returning error:\n{}", error);
-      return new ResponseEntity<>(error, HttpStatus.INTERNAL_SERVER_ERROR);
+      return CompletableFuture.completedFuture(new ResponseEntity<>(error, HttpStatus.INTERNAL_SERVER_ERROR));
     }
 
     log.info("[SenseRmController] operation = {}, id = {}, accept = {}, ifModifiedSince = {}, model = {}",
@@ -1596,9 +1854,8 @@ public class SenseRmController {
     final HttpHeaders headers = new HttpHeaders();
     headers.add(HttpHeaders.CONTENT_LOCATION, location.toASCIIString());
 
-    try {
-      // Query for the requested delta.
-      DeltaResponse response = driver.getDelta(deltaId, model, ifms).get();
+    // Query for the requested delta.
+    return handle("getDelta", () -> driver.getDelta(deltaId, model, ifms), response -> {
       if (response == null || response.getStatus() != Status.OK) {
         return Common.toResponseEntity(headers, response);
       }
@@ -1640,15 +1897,7 @@ public class SenseRmController {
       log.info("[SenseRmController] getDelta returning id = {}, creationTime = {}, queried If-Modified-Since = {}.",
               d.getId(), d.getLastModified(), ifModifiedSince);
       return new ResponseEntity<>(d, headers, HttpStatus.OK);
-    } catch (InterruptedException | ExecutionException | IOException | DatatypeConfigurationException ex) {
-      log.error("[SenseRmController] getDelta failed, deltaId = {}", deltaId, ex);
-      Error error = Error.builder()
-              .error(HttpStatus.INTERNAL_SERVER_ERROR.getReasonPhrase())
-              .error_description(ex.getMessage())
-              .build();
-      log.error("[SenseRmController] getDelta returning error:\n{}", error);
-      return new ResponseEntity<>(error, HttpStatus.INTERNAL_SERVER_ERROR);
-    }
+    });
   }
 
   /**
@@ -1662,7 +1911,6 @@ public class SenseRmController {
    * @param encode
    * @param model
    * @return
-   * @throws java.net.URISyntaxException
    */
   @Operation(
       summary = "Submits a proposed model delta to the Resource Manager based on the model "
@@ -1774,7 +2022,7 @@ public class SenseRmController {
           method = RequestMethod.POST,
           consumes = {MediaType.APPLICATION_JSON_VALUE},
           produces = {MediaType.APPLICATION_JSON_VALUE})
-  public ResponseEntity<?> propagateDelta(
+  public CompletableFuture<ResponseEntity<?>> propagateDelta(
           @RequestHeader(value = HttpConstants.ACCEPT_NAME, defaultValue = MediaType.APPLICATION_JSON_VALUE)
           @Parameter(description = HttpConstants.ACCEPT_MSG, required = false) String accept,
           @RequestParam(value = HttpConstants.MODEL_NAME, defaultValue = HttpConstants.MODEL_TURTLE)
@@ -1785,7 +2033,7 @@ public class SenseRmController {
           @Parameter(description = "A JSON structure-containing the model reduction and/or addition "
                   + " elements. If provided, the model reduction element is applied first, "
                   + " followed by the model addition element.", required = true) DeltaRequest deltaRequest
-  ) throws URISyntaxException {
+  ) {
 
     // Get the requested resource URL.
     final URI location;
@@ -1798,7 +2046,7 @@ public class SenseRmController {
               .error_description(ex.getMessage())
               .build();
       log.error("[SenseRmController] propagateDelta returning error:\n{}", error);
-      return new ResponseEntity<>(error, HttpStatus.INTERNAL_SERVER_ERROR);
+      return CompletableFuture.completedFuture(new ResponseEntity<>(error, HttpStatus.INTERNAL_SERVER_ERROR));
     }
 
     log.info("[SenseRmController] POST operation = {}, accept = {}, deltaId = {}, modelId = {}, deltaRequest = {}",
@@ -1820,15 +2068,23 @@ public class SenseRmController {
           deltaRequest.setReduction(Decoder.decode(deltaRequest.getReduction()));
         }
       }
+    } catch (IOException ex) {
+      log.error("[SenseRmController] propagateDelta failed to decode delta", ex);
+      Error error = Error.builder()
+              .error(HttpStatus.INTERNAL_SERVER_ERROR.getReasonPhrase())
+              .error_description(ex.getMessage())
+              .build();
+      log.error("[SenseRmController] propagateDelta returning error:\n{}", error);
+      return CompletableFuture.completedFuture(new ResponseEntity<>(error, HttpStatus.INTERNAL_SERVER_ERROR));
+    }
 
-      // We need to return the current location of this resource in the response header.
-      final HttpHeaders headers = new HttpHeaders();
-
-      // Propagate the requested delta.
-      long start = System.currentTimeMillis();
+    // We need to return the current location of this resource in the response header.
+    final HttpHeaders headers = new HttpHeaders();
 
-      DeltaResponse response = driver.propagateDelta(deltaRequest, model).get();
+    // Propagate the requested delta.
+    long start = System.currentTimeMillis();
 
+    return handle("propagateDelta", () -> driver.propagateDelta(deltaRequest, model), response -> {
       // Record measurement associated with the delta duration.
       measurementController.add(
               MeasurementType.DELTA_RESERVE,
@@ -1875,15 +2131,7 @@ public class SenseRmController {
               delta.getId(), delta.getLastModified());
 
       return new ResponseEntity<>(delta, headers, HttpStatus.CREATED);
-    } catch (InterruptedException | ExecutionException | IOException | DatatypeConfigurationException ex) {
-      log.error("pullModel failed", ex);
-      Error error = Error.builder()
-              .error(HttpStatus.INTERNAL_SERVER_ERROR.getReasonPhrase())
-              .error_description(ex.getMessage())
-              .build();
-      log.error("[SenseRmController] propagateDelta returning error:\n{}", error);
-      return new ResponseEntity<>(error, HttpStatus.INTERNAL_SERVER_ERROR);
-    }
+    });
   }
 
   /**
@@ -1976,7 +2224,7 @@ public class SenseRmController {
           method = RequestMethod.PUT,
           produces = {MediaType.APPLICATION_JSON_VALUE})
   @ResponseBody
-  public ResponseEntity<?> commitDelta(
+  public CompletableFuture<ResponseEntity<?>> commitDelta(
           @PathVariable(HttpConstants.DELTAID_NAME)
           @Parameter(description = HttpConstants.DELTAID_MSG, required = true) String deltaId
   ) {
@@ -1992,22 +2240,19 @@ public class SenseRmController {
               .error_description(ex.getMessage())
               .build();
       log.error("[SenseRmController] commitDelta returning error:\n{}", error);
-      return new ResponseEntity<>(error, HttpStatus.INTERNAL_SERVER_ERROR);
+      return CompletableFuture.completedFuture(new ResponseEntity<>(error, HttpStatus.INTERNAL_SERVER_ERROR));
     }
 
     log.info("[SenseRmController] operation = {}, deltaId = {}", location, deltaId);
 
-    DeltaResource d;
-    try {
-      // We need to return the current location of this resource in the response header.
-      final HttpHeaders headers = new HttpHeaders();
-      headers.add(HttpHeaders.CONTENT_LOCATION, location.toASCIIString());
-
-      // Query for the requested delta.
-      long start = System.currentTimeMillis();
+    // We need to return the current location of this resource in the response header.
+    final HttpHeaders headers = new HttpHeaders();
+    headers.add(HttpHeaders.CONTENT_LOCATION, location.toASCIIString());
 
-      DeltaResponse response = driver.commitDelta(deltaId).get();
+    // Query for the requested delta.
+    long start = System.currentTimeMillis();
 
+    return handle("commitDelta", () -> driver.commitDelta(deltaId), response -> {
       measurementController.add(
               MeasurementType.DELTA_COMMIT,
               deltaId,
@@ -2023,14 +2268,53 @@ public class SenseRmController {
       log.info("[SenseRmController] commitDelta deltaId = {}, lastModified = {}", delta.getId(), delta.getLastModified());
 
       return new ResponseEntity<>(headers, HttpStatus.NO_CONTENT);
-    } catch (InterruptedException | ExecutionException ex) {
-      log.error("getDelta failed", ex);
-      Error error = Error.builder()
-              .error(HttpStatus.INTERNAL_SERVER_ERROR.getReasonPhrase())
-              .error_description(ex.getMessage())
-              .build();
-      log.error("[SenseRmController] commitDelta returning error:\n{}", error);
-      return new ResponseEntity<>(error, HttpStatus.INTERNAL_SERVER_ERROR);
-    }
+    });
+  }
+
+  /**
+   * Subscribe to a stream of server-sent events signalling the creation of
+   * new model resources and delta resource state changes.
+   *
+   * Each event is named "model" or "delta" and carries a JSON object with the
+   * resource type, id, modelId, delta state, and time of the change.  A
+   * subscriber unable to keep up with the event rate is disconnected and
+   * should reconnect and resynchronize using the models and deltas queries.
+   *
+   * Operation: GET /api/sense/v1/events
+   *
+   * @return A server-sent event stream.
+   */
+  @Operation(
+      summary = "Subscribe to model and delta change events.",
+      description = "Returns a server-sent event stream of new model resources and delta state changes.",
+      tags = {"getEvents", "get"},
+      method = "GET")
+  @ApiResponses(
+      value = {
+          @ApiResponse(
+              responseCode = HttpConstants.OK_CODE,
+              description = HttpConstants.OK_MSG,
+              content = @Content(schema = @Schema(implementation = ResourceEvent.class),
+                  mediaType = MediaType.TEXT_EVENT_STREAM_VALUE)),
+          @ApiResponse(
+              responseCode = HttpConstants.UNAUTHORIZED_CODE,
+              description = HttpConstants.UNAUTHORIZED_MSG,
+              content = @Content(schema = @Schema(implementation = net.es.sense.rm.api.common.Error.class),
+                  mediaType = MediaType.APPLICATION_JSON_VALUE)),
+          @ApiResponse(
+              responseCode = HttpConstants.FORBIDDEN_CODE,
+              description = HttpConstants.FORBIDDEN_MSG,
+              content = @Content(schema = @Schema(implementation = net.es.sense.rm.api.common.Error.class),
+                  mediaType = MediaType.APPLICATION_JSON_VALUE)),
+      })
+  @RequestMapping(
+      value = "/events",
+      method = RequestMethod.GET,
+      produces = {MediaType.TEXT_EVENT_STREAM_VALUE})
+  @ResponseBody
+  @ResourceAnnotation(name = "events", version = "v1")
+  public SseEmitter getEvents() {
+    log.info("[SenseRmController] GET /events, subscribers = {}", eventBroker.getSubscriberCount());
+    return eventBroker.subscribe();
   }
 }
@@ -0,0 +1,71 @@
+package net.es.sense.rm.api.common;
+
+import com.google.common.base.Strings;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import lombok.extern.slf4j.Slf4j;
+import net.es.sense.rm.api.config.SenseProperties;
+import net.es.sense.rm.model.ModelResource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * A bounded cache of the gzip/base64 encoded form of model resources returned
+ * with encode=true.  A model resource is immutable for a given model identifier,
+ * encoding, and creation time, so the encoded form is computed once and shared
+ * by every request for that model version.
+ *
+ * @author hacksaw
+ */
+@Slf4j
+@Component
+public class EncodedModelCache {
+  private final Cache<String, String> cache;
+
+  public EncodedModelCache(SenseProperties config) {
+    this.cache = CacheBuilder.newBuilder()
+        .maximumSize(config.getEncodedModelCacheSize())
+        .recordStats()
+        .build();
+  }
+
+  /**
+   * Get the gzip/base64 encoded form of the model contained in the model
+   * resource, encoding and caching it if not already present.
+   *
+   * @param model The model resource containing the model to encode.
+   * @param modelType The encoding of the model contained in the resource.
+   * @return The encoded model, or null if the resource contains no model.
+   * @throws IOException If the model could not be encoded.
+   */
+  public String encode(ModelResource model, String modelType) throws IOException {
+    if (Strings.isNullOrEmpty(model.getModel())) {
+      return null;
+    }
+
+    String key = model.getId() + "/" + modelType + "/" + model.getCreationTime();
+    try {
+      // Concurrent requests for the same model version wait on a single encoding.
+      return cache.get(key, () -> Encoder.encode(model.getModel()));
+    } catch (ExecutionException | UncheckedExecutionException ex) {
+      log.error("[EncodedModelCache] failed to encode model id = {}", model.getId(), ex);
+      throw new IOException("Failed to encode model " + model.getId(), ex.getCause());
+    }
+  }
+
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  public long size() {
+    return cache.size();
+  }
+
+  public CacheStats stats() {
+    return cache.stats();
+  }
+}
@@ -0,0 +1,246 @@
+package net.es.sense.rm.api.common;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import net.es.sense.rm.api.config.SenseProperties;
+import net.es.sense.rm.driver.api.ResourceEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fans out model and delta resource events published by the driver to the
+ * server-sent event subscribers of the events endpoint.
+ *
+ * Each subscriber has a bounded buffer drained by its own delivery task, so
+ * publishing an event never blocks on a subscriber's connection and a
+ * subscriber blocked on a write never holds back delivery to the others.  A
+ * subscriber that falls more than a full buffer behind, or whose write does
+ * not complete within the send timeout, is disconnected and is expected to
+ * reconnect and resynchronize using the models and deltas queries.
+ *
+ * @author hacksaw
+ */
+@Slf4j
+@Component
+public class EventBroker {
+  // Subscribers currently receiving events.
+  private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+  // Threads writing buffered events, at most one per subscriber.
+  private final ExecutorService delivery;
+
+  // Drops subscribers whose write has not completed within the send timeout.
+  private final ScheduledExecutorService watchdog;
+
+  // Sequence number used as the event identifier.
+  private final AtomicLong sequence = new AtomicLong();
+
+  // Number of subscribers disconnected for falling behind.
+  private final AtomicLong dropped = new AtomicLong();
+
+  private final int bufferSize;
+  private final long timeout;
+  private final long sendTimeout;
+
+  /**
+   * Sends a single event to a subscriber.
+   */
+  @FunctionalInterface
+  interface Sender {
+    void send(long id, ResourceEvent event) throws Exception;
+  }
+
+  public EventBroker(SenseProperties config) {
+    this.bufferSize = config.getEventBufferSize();
+    this.timeout = TimeUnit.SECONDS.toMillis(config.getEventStreamTimeout());
+    this.sendTimeout = TimeUnit.SECONDS.toMillis(config.getEventSendTimeout());
+
+    AtomicInteger count = new AtomicInteger();
+    this.delivery = Executors.newCachedThreadPool(r -> {
+      Thread thread = new Thread(r, "event-" + count.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.watchdog = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread thread = new Thread(r, "event-watchdog");
+      thread.setDaemon(true);
+      return thread;
+    });
+
+    log.info("[EventBroker] bufferSize = {}, sendTimeout = {}, timeout = {}",
+        bufferSize, config.getEventSendTimeout(), config.getEventStreamTimeout());
+  }
+
+  /**
+   * Open a new server-sent event stream receiving all subsequent events.
+   *
+   * @return The emitter for the new subscriber.
+   */
+  public SseEmitter subscribe() {
+    SseEmitter emitter = new SseEmitter(timeout);
+    Subscriber subscriber = subscribe((id, event) -> emitter.send(SseEmitter.event()
+            .id(Long.toString(id))
+            .name(event.getType().name().toLowerCase(Locale.ROOT))
+            .data(event, MediaType.APPLICATION_JSON)),
+        emitter::complete);
+    emitter.onCompletion(() -> unsubscribe(subscriber));
+    emitter.onTimeout(() -> unsubscribe(subscriber));
+    emitter.onError(ex -> unsubscribe(subscriber));
+    return emitter;
+  }
+
+  /**
+   * Register a subscriber.
+   *
+   * @param sender Sends an event to the subscriber.
+   * @param close Closes the subscriber's connection once it is dropped.
+   * @return The new subscriber.
+   */
+  Subscriber subscribe(Sender sender, Runnable close) {
+    Subscriber subscriber = new Subscriber(sender, close);
+    subscribers.add(subscriber);
+    log.debug("[EventBroker] subscribed, subscribers = {}", subscribers.size());
+    return subscriber;
+  }
+
+  /**
+   * Stop delivering events to a subscriber.
+   *
+   * @param subscriber The subscriber to remove.
+   * @return True if the subscriber was subscribed.
+   */
+  boolean unsubscribe(Subscriber subscriber) {
+    if (subscribers.remove(subscriber)) {
+      log.debug("[EventBroker] unsubscribed, subscribers = {}", subscribers.size());
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Queue a driver event for delivery to all subscribers.  This never blocks
+   * the publishing thread.
+   *
+   * @param event The published resource event.
+   */
+  @EventListener
+  public void publish(ResourceEvent event) {
+    long id = sequence.incrementAndGet();
+    for (Subscriber subscriber : subscribers) {
+      subscriber.offer(id, event);
+    }
+  }
+
+  public int getSubscriberCount() {
+    return subscribers.size();
+  }
+
+  public long getDroppedCount() {
+    return dropped.get();
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    subscribers.clear();
+    watchdog.shutdownNow();
+    delivery.shutdownNow();
+  }
+
+  /**
+   * A subscriber's buffered events awaiting delivery.
+   */
+  class Subscriber {
+    private final Sender sender;
+    private final Runnable close;
+    private final BlockingQueue<Entry> queue = new ArrayBlockingQueue<>(bufferSize);
+
+    // True while a delivery task is scheduled for this subscriber.
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+
+    Subscriber(Sender sender, Runnable close) {
+      this.sender = sender;
+      this.close = close;
+    }
+
+    private void offer(long id, ResourceEvent event) {
+      if (!queue.offer(new Entry(id, event))) {
+        drop("after " + bufferSize + " buffered events");
+        return;
+      }
+      schedule();
+    }
+
+    private void drop(String reason) {
+      // Closing may block behind a slow write so do it on a delivery thread.
+      if (unsubscribe(this)) {
+        dropped.incrementAndGet();
+        queue.clear();
+        log.info("[EventBroker] dropping slow subscriber {}", reason);
+        execute(close);
+      }
+    }
+
+    private void schedule() {
+      if (scheduled.compareAndSet(false, true)) {
+        execute(this::drain);
+      }
+    }
+
+    private void drain() {
+      try {
+        Entry entry;
+        while (subscribers.contains(this) && (entry = queue.poll()) != null) {
+          ScheduledFuture<?> expired = watchdog.schedule(() -> drop("after a " + sendTimeout + " ms send"),
+              sendTimeout, TimeUnit.MILLISECONDS);
+          try {
+            sender.send(entry.getId(), entry.getEvent());
+          } finally {
+            expired.cancel(false);
+          }
+        }
+      } catch (Exception ex) {
+        log.debug("[EventBroker] send failed, removing subscriber", ex);
+        unsubscribe(this);
+        queue.clear();
+      } finally {
+        scheduled.set(false);
+      }
+
+      // Reschedule if events arrived after the queue was found empty.
+      if (!queue.isEmpty() && subscribers.contains(this)) {
+        schedule();
+      }
+    }
+
+    private void execute(Runnable task) {
+      try {
+        delivery.execute(task);
+      } catch (RejectedExecutionException ex) {
+        log.debug("[EventBroker] delivery stopped", ex);
+      }
+    }
+  }
+
+  @lombok.Value
+  private static class Entry {
+    long id;
+    ResourceEvent event;
+  }
+}
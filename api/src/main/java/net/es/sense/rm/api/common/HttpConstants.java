@@ -64,10 +64,38 @@ public class HttpConstants {
           "If summary=true then a summary collection of models will be returned including the "
           + "model meta-data while excluding the model element. Default value is summary=false.";
 
+  public static final String WAIT_NAME = "wait";
+  public static final String WAIT_MSG =
+          "If current=true and wait is specified (for example wait=30s) the request is held "
+          + "until a model newer than If-Modified-Since is created or the wait expires, in which "
+          + "case a 304 NOT_MODIFIED is returned.  The wait is limited to a configured maximum.";
+
+  public static final String ROOT_NAME = "root";
+  public static final String ROOT_MSG =
+          "Return only the subgraph of the model rooted at the resource with this URI.  May be "
+          + "repeated and combined with type to select multiple root resources.";
+
+  public static final String TYPE_NAME = "type";
+  public static final String TYPE_MSG =
+          "Return only the subgraph of the model rooted at resources of this rdf:type, specified as "
+          + "a URI or prefixed name (for example type=mrs:SwitchingSubnet).  May be repeated.";
+
+  public static final String DEPTH_NAME = "depth";
+  public static final String DEPTH_MSG =
+          "When root or type is specified, the number of hops from a root resource to include in "
+          + "the returned subgraph.  depth=0 returns only the root resources.  Default value is depth=1.";
+
+  public static final String STREAM_NAME = "stream";
+  public static final String STREAM_MSG =
+          "If stream=true then the collection is written to the response one resource at a time "
+          + "as each is read, rather than being assembled in memory before it is returned.  Default "
+          + "value is stream=false.";
+
   public static final String MODEL_NAME = "model";
   public static final String MODEL_MSG =
           "If model=turtle then the returned model element will contain the full topology model "
-          + "in a TURTLE representation. Default value is model=turtle.";
+          + "in a TURTLE representation.  The binary RDF encodings model=rdf-thrift and model=rdf-proto "
+          + "are returned base64 encoded.  Default value is model=turtle.";
   public static final String MODEL_TURTLE = "turtle";
 
   public static final String ENCODE_NAME = "encode";
@@ -0,0 +1,82 @@
+package net.es.sense.rm.api.common;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+/**
+ * A collection of resources that are loaded one at a time as they are
+ * iterated.  Returned as a response body, Jackson serializes it as a JSON
+ * array by iterating it and writing each resource directly to the response
+ * stream, so only one full resource is held in memory at a time instead of
+ * the whole collection.  Resources that no longer exist when they are loaded
+ * are skipped.
+ *
+ * @param <T> The resource type.
+ *
+ * @author hacksaw
+ */
+public class ResourceStream<T> implements Iterable<T> {
+  private final List<String> ids;
+  private final Loader<T> loader;
+
+  /**
+   * Loads a single resource by identifier.
+   *
+   * @param <T> The resource type.
+   */
+  @FunctionalInterface
+  public interface Loader<T> {
+    /**
+     * @param id The resource identifier.
+     * @return The resource, or empty if it no longer exists.
+     * @throws Exception If the resource could not be loaded.
+     */
+    Optional<T> load(String id) throws Exception;
+  }
+
+  /**
+   * Create a resource stream.
+   *
+   * @param ids The identifiers of the resources in the order they are to be returned.
+   * @param loader Loads each resource as it is reached.
+   */
+  public ResourceStream(Collection<String> ids, Loader<T> loader) {
+    this.ids = new ArrayList<>(ids);
+    this.loader = loader;
+  }
+
+  @Override
+  public Iterator<T> iterator() {
+    return new Iterator<>() {
+      private final Iterator<String> next = ids.iterator();
+      private T resource;
+
+      @Override
+      public boolean hasNext() {
+        while (resource == null && next.hasNext()) {
+          String id = next.next();
+          try {
+            resource = loader.load(id).orElse(null);
+          } catch (Exception ex) {
+            throw new IllegalStateException("Failed to load resource " + id, ex);
+          }
+        }
+        return resource != null;
+      }
+
+      @Override
+      public T next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        T result = resource;
+        resource = null;
+        return result;
+      }
+    };
+  }
+}
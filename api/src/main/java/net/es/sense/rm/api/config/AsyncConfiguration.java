@@ -0,0 +1,101 @@
+package net.es.sense.rm.api.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.AsyncConfigurer;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Enables asynchronous execution of the @Async driver operations on a
+ * dedicated, bounded executor so they no longer run on the web server's
+ * request threads.  Controllers return the driver's CompletableFuture
+ * and the request thread is released while the operation is in progress.
+ *
+ * Tasks beyond the maximum pool size and queue capacity are rejected rather
+ * than queued without bound.  The executor pool gauges are published by the
+ * actuator under the bean name "driverExecutor", and queue wait, run time,
+ * and rejections are recorded by this configuration.
+ *
+ * @author hacksaw
+ */
+@Slf4j
+@Configuration
+@EnableAsync(proxyTargetClass = true)
+public class AsyncConfiguration implements AsyncConfigurer, WebMvcConfigurer {
+  public static final String DRIVER_EXECUTOR = "driverExecutor";
+  public static final String REJECTED_COUNTER = "sense.driver.task.rejected";
+
+  private final SenseProperties config;
+  private final MeterRegistry registry;
+
+  public AsyncConfiguration(SenseProperties config, MeterRegistry registry) {
+    this.config = config;
+    this.registry = registry;
+  }
+
+  /**
+   * The executor running driver operations.
+   *
+   * @return The bounded driver executor.
+   */
+  @Bean(name = DRIVER_EXECUTOR)
+  public ThreadPoolTaskExecutor driverExecutor() {
+    Counter rejected = Counter.builder(REJECTED_COUNTER)
+        .description("Driver tasks rejected because the driver executor is saturated")
+        .register(registry);
+
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setThreadNamePrefix("driver-");
+    executor.setCorePoolSize(config.getDriverPoolSize());
+    executor.setMaxPoolSize(config.getDriverMaxPoolSize());
+    executor.setQueueCapacity(config.getDriverQueueCapacity());
+    executor.setTaskDecorator(new DriverTaskDecorator(registry));
+    executor.setRejectedExecutionHandler((runnable, pool) -> {
+      rejected.increment();
+      log.error("[AsyncConfiguration] driver executor saturated, active = {}, queued = {}",
+          pool.getActiveCount(), pool.getQueue().size());
+      throw new RejectedExecutionException("Driver executor saturated, active = "
+          + pool.getActiveCount() + ", queued = " + pool.getQueue().size());
+    });
+    executor.setWaitForTasksToCompleteOnShutdown(true);
+    executor.setAwaitTerminationSeconds(30);
+
+    log.info("[AsyncConfiguration] driver executor corePoolSize = {}, maxPoolSize = {}, queueCapacity = {}",
+        config.getDriverPoolSize(), config.getDriverMaxPoolSize(), config.getDriverQueueCapacity());
+    return executor;
+  }
+
+  @Override
+  public Executor getAsyncExecutor() {
+    return driverExecutor();
+  }
+
+  @Override
+  public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
+    return (ex, method, params) -> log.error("[AsyncConfiguration] uncaught exception in {}",
+        method.getName(), ex);
+  }
+
+  /**
+   * Requests waiting on a driver operation may take as long as the NSI
+   * operations they wait on, so extend the default asynchronous request
+   * timeout to cover them.
+   *
+   * @param configurer The asynchronous request configuration.
+   */
+  @Override
+  public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+    configurer.setDefaultTimeout(TimeUnit.SECONDS.toMillis(config.getAsyncRequestTimeout()));
+  }
+}
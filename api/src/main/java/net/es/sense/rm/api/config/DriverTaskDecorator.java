@@ -0,0 +1,51 @@
+package net.es.sense.rm.api.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.core.task.TaskDecorator;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Instruments tasks submitted to the driver executor, recording the time each
+ * task spent queued waiting for a thread, the time it spent running, and the
+ * number of tasks currently running.
+ *
+ * @author hacksaw
+ */
+public class DriverTaskDecorator implements TaskDecorator {
+  public static final String WAIT_TIMER = "sense.driver.task.wait";
+  public static final String RUN_TIMER = "sense.driver.task.run";
+  public static final String ACTIVE_GAUGE = "sense.driver.task.active";
+
+  private final Timer wait;
+  private final Timer run;
+  private final AtomicInteger active = new AtomicInteger();
+
+  public DriverTaskDecorator(MeterRegistry registry) {
+    this.wait = Timer.builder(WAIT_TIMER)
+        .description("Time driver tasks spend queued waiting for a thread")
+        .register(registry);
+    this.run = Timer.builder(RUN_TIMER)
+        .description("Time driver tasks spend running")
+        .register(registry);
+    registry.gauge(ACTIVE_GAUGE, active);
+  }
+
+  @Override
+  public Runnable decorate(Runnable runnable) {
+    final long queued = System.nanoTime();
+    return () -> {
+      long start = System.nanoTime();
+      wait.record(start - queued, TimeUnit.NANOSECONDS);
+      active.incrementAndGet();
+      try {
+        runnable.run();
+      } finally {
+        active.decrementAndGet();
+        run.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+      }
+    };
+  }
+}
@@ -40,4 +40,27 @@ public class SenseProperties {
   private String root;
   private String proxy;
   private String driver;
+
+  // Maximum number of gzip/base64 encoded models held for encode=true requests.
+  private long encodedModelCacheSize = 32;
+
+  // Bounded executor running driver operations off the request threads.
+  private int driverPoolSize = 8;
+  private int driverMaxPoolSize = 32;
+  private int driverQueueCapacity = 256;
+
+  // Seconds a request may wait on its driver operation before timing out.
+  private long asyncRequestTimeout = 600;
+
+  // Maximum seconds a long-poll for a new current model may wait.
+  private long maxModelWait = 120;
+
+  // Events buffered per event stream subscriber before a slow subscriber is dropped.
+  private int eventBufferSize = 256;
+
+  // Seconds a write to an event stream subscriber may block before the subscriber is dropped.
+  private long eventSendTimeout = 30;
+
+  // Seconds an event stream subscription stays open before the client must reconnect.
+  private long eventStreamTimeout = 3600;
 }
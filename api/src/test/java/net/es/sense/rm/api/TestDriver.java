@@ -37,7 +37,6 @@ import java.io.FileReader;
 import java.io.IOException;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 /**
@@ -79,7 +78,7 @@ public class TestDriver implements Driver {
 
   @Override
   @Async
-  public Future<ModelResponse> getModel(String id, String modelType, long ifModifiedSince) {
+  public CompletableFuture<ModelResponse> getModel(String id, String modelType, long ifModifiedSince) {
 
     ModelResponse response = new ModelResponse();
     CompletableFuture<ModelResponse> cf = new CompletableFuture<>();
@@ -122,13 +121,13 @@ public class TestDriver implements Driver {
 
   @Override
   @Async
-  public Future<ModelResponse> getModel(String id, String modelType) {
+  public CompletableFuture<ModelResponse> getModel(String id, String modelType) {
     return this.getModel(id, modelType, 0L);
   }
 
   @Override
   @Async
-  public Future<ModelsResponse> getModels(String modelType, long ifModifiedSince) {
+  public CompletableFuture<ModelsResponse> getModels(String modelType, long ifModifiedSince) {
 
     ModelsResponse response = new ModelsResponse();
     CompletableFuture<ModelsResponse> cf = new CompletableFuture<>();
@@ -170,13 +169,13 @@ public class TestDriver implements Driver {
 
   @Override
   @Async
-  public Future<ModelsResponse> getModels(String modelType) {
+  public CompletableFuture<ModelsResponse> getModels(String modelType) {
     return this.getModels(modelType, 0L);
   }
 
   @Override
   @Async
-  public Future<ModelResponse> getCurrentModel(String modelType, long ifModifiedSince) {
+  public CompletableFuture<ModelResponse> getCurrentModel(String modelType, long ifModifiedSince) {
 
     ModelResponse response = new ModelResponse();
     CompletableFuture<ModelResponse> cf = new CompletableFuture<>();
@@ -225,13 +224,13 @@ public class TestDriver implements Driver {
 
   @Override
   @Async
-  public Future<ModelResponse> getCurrentModel(String modelType) {
+  public CompletableFuture<ModelResponse> getCurrentModel(String modelType) {
     return this.getCurrentModel(modelType, 0);
   }
 
   @Override
   @Async
-  public Future<DeltaResponse> propagateDelta(DeltaRequest deltaRequest, String modelType) {
+  public CompletableFuture<DeltaResponse> propagateDelta(DeltaRequest deltaRequest, String modelType) {
     DeltaResponse response = new DeltaResponse();
     CompletableFuture<DeltaResponse> cf = new CompletableFuture<>();
 
@@ -289,7 +288,7 @@ public class TestDriver implements Driver {
 
   @Override
   @Async
-  public Future<DeltaResponse> commitDelta(String deltaId) {
+  public CompletableFuture<DeltaResponse> commitDelta(String deltaId) {
     DeltaResponse response = new DeltaResponse();
     CompletableFuture<DeltaResponse> cf = new CompletableFuture<>();
 
@@ -335,7 +334,7 @@ public class TestDriver implements Driver {
 
   @Override
   @Async
-  public Future<DeltaResponse> getDelta(String id, String modelType, long ifModifiedSince) {
+  public CompletableFuture<DeltaResponse> getDelta(String id, String modelType, long ifModifiedSince) {
     DeltaResponse response = new DeltaResponse();
     CompletableFuture<DeltaResponse> cf = new CompletableFuture<>();
 
@@ -376,7 +375,7 @@ public class TestDriver implements Driver {
 
   @Override
   @Async
-  public Future<DeltaResponse> getDelta(String id, String modelType) {
+  public CompletableFuture<DeltaResponse> getDelta(String id, String modelType) {
     return this.getDelta(id, modelType, 0L);
   }
 
@@ -421,7 +420,7 @@ public class TestDriver implements Driver {
 
   @Override
   @Async
-  public Future<DeltasResponse> getDeltas(String modelType) {
+  public CompletableFuture<DeltasResponse> getDeltas(String modelType) {
       return this.getDeltas(modelType, 0L);
   }
 }
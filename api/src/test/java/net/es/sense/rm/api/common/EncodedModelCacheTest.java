@@ -0,0 +1,145 @@
+package net.es.sense.rm.api.common;
+
+import lombok.extern.slf4j.Slf4j;
+import net.es.sense.rm.api.config.SenseProperties;
+import net.es.sense.rm.model.ModelResource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test the encoded model cache.
+ *
+ * @author hacksaw
+ */
+@Slf4j
+public class EncodedModelCacheTest {
+  private EncodedModelCache cache;
+
+  @BeforeEach
+  public void before() {
+    SenseProperties config = new SenseProperties();
+    config.setEncodedModelCacheSize(8);
+    cache = new EncodedModelCache(config);
+  }
+
+  private static ModelResource model(String id, String creationTime, String contents) {
+    ModelResource model = new ModelResource();
+    model.setId(id);
+    model.setCreationTime(creationTime);
+    model.setModel(contents);
+    return model;
+  }
+
+  /**
+   * Build a model of roughly the size of a production MRML model.
+   */
+  private static String largeModel() {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; sb.length() < 500 * 1024; i++) {
+      sb.append("<urn:ogf:network:es.net:2013::port-").append(i)
+          .append("> a <http://schemas.ogf.org/nml/2013/03/base#BidirectionalPort> ;\n")
+          .append("    <http://schemas.ogf.org/nml/2013/03/base#name> \"port-").append(i).append("\" .\n");
+    }
+    return sb.toString();
+  }
+
+  @Test
+  public void testEncodeOnce() throws IOException {
+    ModelResource m = model("model1", "2024-01-01T00:00:00.000Z", "model contents");
+    String encoded = cache.encode(m, "turtle");
+    assertEquals(Encoder.encode("model contents"), encoded);
+    assertSame(encoded, cache.encode(m, "turtle"));
+    assertEquals(1, cache.stats().missCount());
+    assertEquals(1, cache.stats().hitCount());
+
+    // A different encoding of the same model is a different entry.
+    cache.encode(model("model1", "2024-01-01T00:00:00.000Z", "other contents"), "rdf/xml");
+    assertEquals(2, cache.stats().missCount());
+  }
+
+  @Test
+  public void testEmpty() throws IOException {
+    assertNull(cache.encode(model("model1", "2024-01-01T00:00:00.000Z", null), "turtle"));
+    assertNull(cache.encode(model("model1", "2024-01-01T00:00:00.000Z", ""), "turtle"));
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void testNewVersion() throws IOException {
+    cache.encode(model("model1", "2024-01-01T00:00:00.000Z", "model contents"), "turtle");
+
+    // A model resource with a new creation time must not be served the old encoding.
+    String encoded = cache.encode(model("model1", "2024-01-02T00:00:00.000Z", "new contents"), "turtle");
+    assertEquals(Encoder.encode("new contents"), encoded);
+    assertEquals(2, cache.stats().missCount());
+    assertEquals(0, cache.stats().hitCount());
+  }
+
+  @Test
+  public void testConcurrentPollers() throws Exception {
+    final String contents = largeModel();
+    poll(8, 10, () -> cache.encode(model("model1", "2024-01-01T00:00:00.000Z", contents), "turtle"));
+
+    // The model is encoded once regardless of the number of pollers.
+    assertEquals(1, cache.stats().loadCount());
+  }
+
+  /**
+   * Compare the latency seen by concurrent pollers of the same model with and
+   * without the cache.
+   */
+  @Test
+  @Tag("benchmark")
+  public void testConcurrentPollerBenchmark() throws Exception {
+    final int pollers = 8;
+    final int requests = 10;
+    final String contents = largeModel();
+
+    long uncached = poll(pollers, requests, () -> Encoder.encode(contents));
+    long cached = poll(pollers, requests,
+        () -> cache.encode(model("model1", "2024-01-01T00:00:00.000Z", contents), "turtle"));
+
+    log.info("[EncodedModelCacheTest] {} pollers x {} requests of {} byte model, mean latency uncached = {} us, "
+        + "cached = {} us", pollers, requests, contents.length(), uncached, cached);
+  }
+
+  /**
+   * Run concurrent pollers and return the mean request latency in microseconds.
+   */
+  private static long poll(int pollers, int requests, Callable<String> request) throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(pollers);
+    try {
+      List<Future<Long>> results = new ArrayList<>();
+      for (int i = 0; i < pollers; i++) {
+        results.add(executor.submit(() -> {
+          long total = 0;
+          for (int j = 0; j < requests; j++) {
+            long start = System.nanoTime();
+            assertNotNull(request.call());
+            total += System.nanoTime() - start;
+          }
+          return total;
+        }));
+      }
+
+      long total = 0;
+      for (Future<Long> result : results) {
+        total += result.get();
+      }
+      return total / (pollers * requests) / 1000;
+    } finally {
+      executor.shutdown();
+    }
+  }
+}
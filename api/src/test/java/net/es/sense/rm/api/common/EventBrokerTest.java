@@ -0,0 +1,122 @@
+package net.es.sense.rm.api.common;
+
+import net.es.sense.rm.api.config.SenseProperties;
+import net.es.sense.rm.driver.api.ResourceEvent;
+import net.es.sense.rm.model.DeltaState;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test delivery of resource events to fast and slow subscribers.
+ *
+ * @author hacksaw
+ */
+public class EventBrokerTest {
+  private static final int BUFFER = 4;
+  private static final long SEND_TIMEOUT = 1;
+
+  private EventBroker broker;
+
+  @BeforeEach
+  public void before() {
+    SenseProperties config = new SenseProperties();
+    config.setEventBufferSize(BUFFER);
+    config.setEventSendTimeout(SEND_TIMEOUT);
+    broker = new EventBroker(config);
+  }
+
+  @AfterEach
+  public void after() {
+    broker.shutdown();
+  }
+
+  @Test
+  public void testDelivered() throws Exception {
+    List<Long> ids = new CopyOnWriteArrayList<>();
+    List<ResourceEvent> events = new CopyOnWriteArrayList<>();
+    CountDownLatch received = new CountDownLatch(2);
+    broker.subscribe((id, event) -> {
+      ids.add(id);
+      events.add(event);
+      received.countDown();
+    }, () -> { });
+
+    ResourceEvent model = ResourceEvent.model("m1", 1000L);
+    ResourceEvent delta = ResourceEvent.delta("d1", "m1", DeltaState.Committed, 2000L);
+    broker.publish(model);
+    broker.publish(delta);
+
+    // Events arrive in order with increasing identifiers.
+    assertTrue(received.await(10, TimeUnit.SECONDS));
+    assertEquals(List.of(model, delta), events);
+    assertEquals(List.of(1L, 2L), ids);
+    assertEquals(1, broker.getSubscriberCount());
+    assertEquals(0, broker.getDroppedCount());
+  }
+
+  @Test
+  public void testSlowSubscriberDropped() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch closed = new CountDownLatch(1);
+    Semaphore received = new Semaphore(0);
+
+    // A subscriber blocked on its first send never drains its buffer.
+    broker.subscribe((id, event) -> release.await(), closed::countDown);
+    broker.subscribe((id, event) -> received.release(), () -> { });
+
+    // The publisher is never held up by the blocked subscriber while the
+    // other subscriber keeps receiving every event.
+    int count = BUFFER * 3;
+    for (int i = 0; i < count; i++) {
+      long start = System.nanoTime();
+      broker.publish(ResourceEvent.model("m" + i, i));
+      assertTrue(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start) < 1);
+      assertTrue(received.tryAcquire(10, TimeUnit.SECONDS));
+    }
+
+    // The slow subscriber is dropped and closed once its buffer overflows.
+    assertTrue(closed.await(10, TimeUnit.SECONDS));
+    assertEquals(1, broker.getSubscriberCount());
+    assertEquals(1, broker.getDroppedCount());
+    release.countDown();
+  }
+
+  @Test
+  public void testBlockedSubscriberDoesNotDelayOthers() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch closed = new CountDownLatch(1);
+
+    // More subscribers blocked on their first write than a fixed pool of delivery threads.
+    for (int i = 0; i < 8; i++) {
+      broker.subscribe((id, event) -> release.await(), closed::countDown);
+    }
+    Semaphore received = new Semaphore(0);
+    broker.subscribe((id, event) -> received.release(), () -> { });
+
+    // The other subscriber receives each event well within the send timeout.
+    for (int i = 0; i < BUFFER - 1; i++) {
+      broker.publish(ResourceEvent.model("m" + i, i));
+      assertTrue(received.tryAcquire(TimeUnit.SECONDS.toMillis(SEND_TIMEOUT) / 2, TimeUnit.MILLISECONDS));
+    }
+
+    // The blocked subscribers are dropped once the send timeout expires
+    // even though their buffers never overflowed.
+    assertTrue(closed.await(10, TimeUnit.SECONDS));
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+    while (broker.getSubscriberCount() > 1 && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+    assertEquals(1, broker.getSubscriberCount());
+    assertEquals(8, broker.getDroppedCount());
+    release.countDown();
+  }
+}
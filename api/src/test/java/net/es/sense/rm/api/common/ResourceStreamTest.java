@@ -0,0 +1,70 @@
+package net.es.sense.rm.api.common;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.es.sense.rm.model.ModelResource;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test the lazily loaded resource stream.
+ *
+ * @author hacksaw
+ */
+public class ResourceStreamTest {
+  private final ObjectMapper mapper = new ObjectMapper();
+
+  private static ModelResource model(String id) {
+    ModelResource model = new ModelResource();
+    model.setId(id);
+    model.setModel("model contents " + id);
+    return model;
+  }
+
+  @Test
+  public void testSerializedAsArray() throws IOException {
+    ResourceStream<ModelResource> stream = new ResourceStream<>(List.of("a", "b", "c"),
+        id -> "b".equals(id) ? Optional.empty() : Optional.of(model(id)));
+
+    // Missing resources are skipped.
+    List<ModelResource> expected = List.of(model("a"), model("c"));
+    assertEquals(mapper.writeValueAsString(expected), mapper.writeValueAsString(stream));
+    assertEquals("[]", mapper.writeValueAsString(new ResourceStream<ModelResource>(List.of(),
+        id -> Optional.of(model(id)))));
+  }
+
+  @Test
+  public void testLoadedOneAtATime() {
+    AtomicInteger loaded = new AtomicInteger();
+    ResourceStream<ModelResource> stream = new ResourceStream<>(List.of("a", "b"), id -> {
+      loaded.incrementAndGet();
+      return Optional.of(model(id));
+    });
+    assertEquals(0, loaded.get());
+
+    // Each resource is loaded only when the iteration reaches it.
+    Iterator<ModelResource> it = stream.iterator();
+    assertTrue(it.hasNext());
+    assertEquals(1, loaded.get());
+    assertEquals("a", it.next().getId());
+    assertEquals(1, loaded.get());
+    assertTrue(it.hasNext());
+    assertEquals(2, loaded.get());
+    assertEquals("b", it.next().getId());
+    assertFalse(it.hasNext());
+  }
+
+  @Test
+  public void testLoadFailure() {
+    ResourceStream<ModelResource> stream = new ResourceStream<>(List.of("a"), id -> {
+      throw new IOException("failed");
+    });
+    assertThrows(IllegalStateException.class, () -> stream.iterator().hasNext());
+  }
+}
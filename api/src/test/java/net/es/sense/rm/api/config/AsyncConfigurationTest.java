@@ -0,0 +1,69 @@
+package net.es.sense.rm.api.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test the bounded, instrumented driver executor.
+ *
+ * @author hacksaw
+ */
+public class AsyncConfigurationTest {
+  private SimpleMeterRegistry registry;
+  private ThreadPoolTaskExecutor executor;
+
+  @BeforeEach
+  public void before() {
+    SenseProperties config = new SenseProperties();
+    config.setDriverPoolSize(1);
+    config.setDriverMaxPoolSize(1);
+    config.setDriverQueueCapacity(1);
+    registry = new SimpleMeterRegistry();
+    executor = new AsyncConfiguration(config, registry).driverExecutor();
+    executor.initialize();
+  }
+
+  @AfterEach
+  public void after() {
+    executor.shutdown();
+  }
+
+  @Test
+  public void testBounded() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch running = new CountDownLatch(1);
+
+    // One task running and one queued saturates the executor.
+    CompletableFuture<String> first = executor.submitCompletable(() -> {
+      running.countDown();
+      release.await();
+      return "first";
+    });
+    assertTrue(running.await(10, TimeUnit.SECONDS));
+    CompletableFuture<String> second = executor.submitCompletable(() -> Thread.currentThread().getName());
+
+    assertThrows(TaskRejectedException.class, () -> executor.submitCompletable(() -> "third"));
+    assertEquals(1.0, registry.get(AsyncConfiguration.REJECTED_COUNTER).counter().count());
+    assertEquals(1.0, registry.get(DriverTaskDecorator.ACTIVE_GAUGE).gauge().value());
+
+    // Once released the queued task runs on a driver thread.
+    release.countDown();
+    assertEquals("first", first.get(10, TimeUnit.SECONDS));
+    assertTrue(second.get(10, TimeUnit.SECONDS).startsWith("driver-"));
+
+    // Shutdown waits for the tasks to complete so their timings are recorded.
+    executor.shutdown();
+    assertEquals(2, registry.get(DriverTaskDecorator.WAIT_TIMER).timer().count());
+    assertEquals(2, registry.get(DriverTaskDecorator.RUN_TIMER).timer().count());
+  }
+}
@@ -3,10 +3,13 @@ package net.es.sense.rm.driver.api;
 import jakarta.ws.rs.BadRequestException;
 import jakarta.ws.rs.InternalServerErrorException;
 import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.core.Response;
+import net.es.sense.rm.driver.api.mrml.SubgraphQuery;
 import net.es.sense.rm.model.DeltaRequest;
 import org.springframework.scheduling.annotation.Async;
 
-import java.util.concurrent.Future;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
 
 /**
  *
@@ -31,7 +34,7 @@ public interface Driver {
    * @return A Future promise to return a ModelResponse matching id if one exists.
    */
   @Async
-  public Future<ModelResponse> getModel(String id, String modelType, long ifModifiedSince);
+  public CompletableFuture<ModelResponse> getModel(String id, String modelType, long ifModifiedSince);
 
   /**
    * Get a specific MRML model identified by <b>id</b>.
@@ -43,7 +46,41 @@ public interface Driver {
    * @return A Future promise to return a ModelResource matching id if one exists.
    */
   @Async
-  public Future<ModelResponse> getModel(String id, String modelType);
+  public CompletableFuture<ModelResponse> getModel(String id, String modelType);
+
+  /**
+   * Get a specific MRML model identified by <b>id</b> on the calling thread
+   * rather than queuing on the driver executor.  Used when the caller is
+   * already on a request thread, such as when streaming a response.
+   *
+   * @param id The model identifier to return.
+   *
+   * @param modelType Specifies the model encoding to use (i.e. turtle, ttl, json-ld, etc).
+   *
+   * @return A ModelResponse matching id if one exists.
+   */
+  public default ModelResponse lookupModel(String id, String modelType) {
+    return getModel(id, modelType).join();
+  }
+
+  /**
+   * Get the subgraph of a specific MRML model identified by <b>id</b>.
+   *
+   * @param id The model identifier to return.
+   *
+   * @param modelType Specifies the model encoding to use (i.e. turtle, ttl, json-ld, etc).
+   *
+   * @param ifModifiedSince Return model only if newer than this date, otherwise throw NotModifiedException.
+   *
+   * @param query The subgraph to return, or null for the complete model.
+   *
+   * @return A Future promise to return a ModelResponse matching id if one exists.
+   */
+  @Async
+  public default CompletableFuture<ModelResponse> getModel(String id, String modelType, long ifModifiedSince,
+                                                           SubgraphQuery query) {
+    return getModel(id, modelType, ifModifiedSince).thenApply(r -> applySubgraph(r, modelType, query));
+  }
 
   /**
    * Get the current MRML model.
@@ -60,10 +97,65 @@ public interface Driver {
    * @throws BadRequestException The query contains invalid parameters that halted processing.
    */
   @Async
-  public Future<ModelResponse> getCurrentModel(String modelType, long ifModifiedSince);
+  public CompletableFuture<ModelResponse> getCurrentModel(String modelType, long ifModifiedSince);
 
   @Async
-  public Future<ModelResponse> getCurrentModel(String modelType);
+  public CompletableFuture<ModelResponse> getCurrentModel(String modelType);
+
+  /**
+   * Get the subgraph of the current MRML model.
+   *
+   * @param modelType Specifies the model encoding to use (i.e. turtle, ttl, json-ld, etc).
+   *
+   * @param ifModifiedSince Return model only if newer than this date, otherwise throw NotModifiedException.
+   *
+   * @param query The subgraph to return, or null for the complete model.
+   *
+   * @return A Future promise to return a ModelResponse containing the current MRML model.
+   */
+  @Async
+  public default CompletableFuture<ModelResponse> getCurrentModel(String modelType, long ifModifiedSince,
+                                                                  SubgraphQuery query) {
+    return getCurrentModel(modelType, ifModifiedSince).thenApply(r -> applySubgraph(r, modelType, query));
+  }
+
+  /**
+   * Wait for a current MRML model newer than <b>ifModifiedSince</b> to be
+   * created.  This is not run on the driver executor and must not block the
+   * caller, the returned future is completed when the newer model exists or
+   * the timeout expires.  Drivers unable to signal new models complete the
+   * future immediately.
+   *
+   * @param ifModifiedSince Wait for a model newer than this date.
+   *
+   * @param timeout The maximum time to wait.
+   *
+   * @return A Future promise completed with true if a newer model exists, or
+   *    false if the timeout expired first.
+   */
+  public default CompletableFuture<Boolean> awaitCurrentModel(long ifModifiedSince, Duration timeout) {
+    return CompletableFuture.completedFuture(true);
+  }
+
+  /**
+   * Wait for a current MRML model newer than the specified date and return
+   * it, or NOT_MODIFIED if the timeout expires first.
+   *
+   * @param modelType Specifies the model encoding to use (i.e. turtle, ttl, json-ld, etc).
+   *
+   * @param ifModifiedSince Wait for a model newer than this date.
+   *
+   * @param timeout The maximum time to wait.
+   *
+   * @param query The subgraph to return, or null for the complete model.
+   *
+   * @return A Future promise to return a ModelResponse containing the current MRML model.
+   */
+  public default CompletableFuture<ModelResponse> awaitCurrentModel(String modelType, long ifModifiedSince,
+                                                                    Duration timeout, SubgraphQuery query) {
+    return awaitCurrentModel(ifModifiedSince, timeout)
+        .thenCompose(newer -> getCurrentModel(modelType, ifModifiedSince, query));
+  }
 
   /**
    * Get a list of MRML models.
@@ -80,16 +172,32 @@ public interface Driver {
    * @throws BadRequestException The query contains invalid parameters that halted processing.
    */
   @Async
-  public Future<ModelsResponse> getModels(String modelType, long ifModifiedSince);
+  public CompletableFuture<ModelsResponse> getModels(String modelType, long ifModifiedSince);
 
   @Async
-  public Future<ModelsResponse> getModels(String modelType);
+  public CompletableFuture<ModelsResponse> getModels(String modelType);
 
+  /**
+   * Get a list of MRML models, optionally without the model contents.
+   *
+   * @param modelType Specifies the model encoding to use (i.e. turtle, ttl, json-ld, etc).
+   *
+   * @param ifModifiedSince Return model only if newer than this date, otherwise throw NotModifiedException.
+   *
+   * @param summary If true only the model metadata is required so a driver may omit the model contents.
+   *
+   * @return A Future promise to return a Collection of ModelResource matching query.
+   */
   @Async
-  public Future<DeltaResponse> propagateDelta(DeltaRequest delta, String modelType);
+  public default CompletableFuture<ModelsResponse> getModels(String modelType, long ifModifiedSince, boolean summary) {
+    return getModels(modelType, ifModifiedSince);
+  }
 
   @Async
-  public Future<DeltaResponse> commitDelta(String deltaId);
+  public CompletableFuture<DeltaResponse> propagateDelta(DeltaRequest delta, String modelType);
+
+  @Async
+  public CompletableFuture<DeltaResponse> commitDelta(String deltaId);
 
   /**
    * Get a specific delta resource identified by <b>deltaId</b>.
@@ -111,10 +219,25 @@ public interface Driver {
    * @throws NotModifiedException The target delta resource exists but was not modified.
    */
   @Async
-  public Future<DeltaResponse> getDelta(String deltaId, String modelType, long ifModifiedSince);
+  public CompletableFuture<DeltaResponse> getDelta(String deltaId, String modelType, long ifModifiedSince);
 
   @Async
-  public Future<DeltaResponse> getDelta(String deltaId, String modelType);
+  public CompletableFuture<DeltaResponse> getDelta(String deltaId, String modelType);
+
+  /**
+   * Get a specific delta resource identified by <b>id</b> on the calling
+   * thread rather than queuing on the driver executor.  Used when the caller
+   * is already on a request thread, such as when streaming a response.
+   *
+   * @param deltaId The identifier of the delta to return.
+   *
+   * @param modelType Specifies the model encoding to use (i.e. turtle, ttl, json-ld, etc).
+   *
+   * @return A DeltaResponse matching id if one exists.
+   */
+  public default DeltaResponse lookupDelta(String deltaId, String modelType) {
+    return getDelta(deltaId, modelType).join();
+  }
 
   /**
    *
@@ -126,9 +249,41 @@ public interface Driver {
    * @throws NotModifiedException
    */
   @Async
-  public Future<DeltasResponse> getDeltas(String modelType, long ifModifiedSince);
+  public CompletableFuture<DeltasResponse> getDeltas(String modelType, long ifModifiedSince);
 
   @Async
-  public Future<DeltasResponse> getDeltas(String modelType);
-}
+  public CompletableFuture<DeltasResponse> getDeltas(String modelType);
 
+  /**
+   * Get a list of delta resources, optionally without the delta models.
+   *
+   * @param modelType Specifies the model encoding to use (i.e. turtle, ttl, json-ld, etc).
+   *
+   * @param ifModifiedSince Return deltas only if newer than this date, otherwise throw NotModifiedException.
+   *
+   * @param summary If true only the delta metadata is required so a driver may omit the
+   *    reduction, addition, and result models.
+   *
+   * @return A Future promise to return a Collection of DeltaResource matching query.
+   */
+  @Async
+  public default CompletableFuture<DeltasResponse> getDeltas(String modelType, long ifModifiedSince, boolean summary) {
+    return getDeltas(modelType, ifModifiedSince);
+  }
+
+  /**
+   * Reduce a model response to the requested subgraph for drivers with no
+   * indexed model graph of their own.
+   *
+   * @param response The complete model response.
+   * @param modelType The model encoding.
+   * @param query The subgraph to return, or null for the complete model.
+   * @return The model response.
+   */
+  private static ModelResponse applySubgraph(ModelResponse response, String modelType, SubgraphQuery query) {
+    if (query != null && response.getStatus() == Response.Status.OK) {
+      response.getModel().ifPresent(m -> m.setModel(query.apply(m.getModel(), modelType)));
+    }
+    return response;
+  }
+}
@@ -0,0 +1,40 @@
+/*
+ * SENSE Resource Manager (SENSE-RM) Copyright (c) 2016, The Regents
+ * of the University of California, through Lawrence Berkeley National
+ * Laboratory (subject to receipt of any required approvals from the
+ * U.S. Dept. of Energy).  All rights reserved.
+ *
+ * If you have questions about your rights to use or distribute this
+ * software, please contact Berkeley Lab's Innovation & Partnerships
+ * Office at IPO@lbl.gov.
+ *
+ * NOTICE.  This Software was developed under funding from the
+ * U.S. Department of Energy and the U.S. Government consequently retains
+ * certain rights. As such, the U.S. Government has been granted for
+ * itself and others acting on its behalf a paid-up, nonexclusive,
+ * irrevocable, worldwide license in the Software to reproduce,
+ * distribute copies to the public, prepare derivative works, and perform
+ * publicly and display publicly, and to permit other to do so.
+ *
+ */
+package net.es.sense.rm.driver.api;
+
+/**
+ * A runtime exception indicating a delta was rejected because the resources
+ * it touches are held by another delta still in progress.  Mapped to
+ * {@link jakarta.ws.rs.core.Response.Status#CONFLICT conflict}.
+ *
+ * @author hacksaw
+ */
+public class ResourceConflictException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Construct a new resource conflict exception.
+     *
+     * @param message Describes the conflicting delta and resource.
+     */
+    public ResourceConflictException(String message) {
+        super(message);
+    }
+}
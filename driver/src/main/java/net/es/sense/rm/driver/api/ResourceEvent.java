@@ -0,0 +1,49 @@
+package net.es.sense.rm.driver.api;
+
+import net.es.sense.rm.model.DeltaState;
+
+/**
+ * An application event published by a driver when a new model resource is
+ * created or a delta resource changes state.
+ *
+ * @author hacksaw
+ */
+@lombok.Value
+public class ResourceEvent {
+  public enum Type { MODEL, DELTA }
+
+  // The type of resource that changed.
+  Type type;
+
+  // The model or delta identifier.
+  String id;
+
+  // The model identifier, or the model a delta is applied against.
+  String modelId;
+
+  // The new delta state, null for models.
+  DeltaState state;
+
+  // The model creation time or delta lastModified time in milliseconds.
+  long time;
+
+  /**
+   * @param modelId The new model identifier.
+   * @param created The model creation time.
+   * @return An event signalling the creation of a new model.
+   */
+  public static ResourceEvent model(String modelId, long created) {
+    return new ResourceEvent(Type.MODEL, modelId, modelId, null, created);
+  }
+
+  /**
+   * @param deltaId The delta identifier.
+   * @param modelId The model the delta is applied against.
+   * @param state The new delta state.
+   * @param lastModified The time of the state change.
+   * @return An event signalling a delta state change.
+   */
+  public static ResourceEvent delta(String deltaId, String modelId, DeltaState state, long lastModified) {
+    return new ResourceEvent(Type.DELTA, deltaId, modelId, state, lastModified);
+  }
+}
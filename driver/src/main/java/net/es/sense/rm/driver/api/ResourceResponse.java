@@ -17,6 +17,8 @@ public class ResourceResponse {
   public static Status exceptionToStatus(Exception ex) {
     if (ex instanceof IllegalArgumentException) {
       return Status.BAD_REQUEST;
+    } else if (ex instanceof ResourceConflictException) {
+      return Status.CONFLICT;
     } else {
       return Status.INTERNAL_SERVER_ERROR;
     }
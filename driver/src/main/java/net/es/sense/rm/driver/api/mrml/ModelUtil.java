@@ -3,10 +3,9 @@ package net.es.sense.rm.driver.api.mrml;
 import com.google.common.base.Strings;
 import lombok.extern.slf4j.Slf4j;
 import net.es.sense.rm.driver.schema.*;
+import org.apache.jena.graph.compose.Delta;
 import org.apache.jena.ontology.ObjectProperty;
-import org.apache.jena.ontology.OntDocumentManager;
 import org.apache.jena.ontology.OntModel;
-import org.apache.jena.ontology.OntModelSpec;
 import org.apache.jena.rdf.model.*;
 import org.apache.jena.riot.Lang;
 import org.apache.jena.riot.RiotException;
@@ -14,13 +13,19 @@ import org.apache.jena.shared.PrefixMapping;
 import org.apache.jena.vocabulary.*;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
+import java.util.Base64;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 /**
@@ -47,8 +52,13 @@ public class ModelUtil {
       Lang.TTL,
       Lang.RDFJSON,
       Lang.RDFXML,
+      Lang.RDFTHRIFT,
+      Lang.RDFPROTO,
   };
 
+  // The binary encodings, carried in a model string as base64.
+  public static final List<Lang> BINARY_ENCODINGS = List.of(Lang.RDFTHRIFT, Lang.RDFPROTO);
+
   // The list of ontology imports we need for our base MRML model.
   public static final List<Schema> SCHEMA_IMPORTS = List.of(
       new Schema(Rdf.getURI(), "/schema/rdf.ttl", Lang.TURTLE),
@@ -59,31 +69,51 @@ public class ModelUtil {
       new Schema(Mrs.getURI(), "/schema/mrs.ttl", Lang.TURTLE));
 
   /**
-   * Create a new empty MRML OntModel with OWL reasoning turned on.
+   * Create a new empty MRML OntModel with OWL reasoning turned on.  The schema
+   * import models are parsed once and shared read-only across all MRML models
+   * through the SchemaRegistry.
    *
    * @return OntModel initialized with import models for MRML.
    * @throws IOException If there are issues loading dependent models.
    */
   public static OntModel newMrmlModel() throws IOException {
     // Create a new ontology model with reasoning enabled.
-    final OntModel model = ModelFactory.createOntologyModel(OntModelSpec.OWL_MEM_MICRO_RULE_INF);
+    final OntModel model = ModelFactory.createOntologyModel(SchemaRegistry.getInstance().getSpec());
     model.setNsPrefixes(PREFIXES);
+    return model;
+  }
 
-    // Configure the document manager with imported schema models.
-    OntDocumentManager dm = model.getDocumentManager();
-    for (Schema schema : SCHEMA_IMPORTS) {
-      log.debug("[newSchemaModel] loading import {} {} {}", schema.getUri(), schema.getPath(), schema.getType());
-      try (InputStream file = ModelUtil.class.getResourceAsStream(schema.getPath())) {
-        OntModel impModel = ModelFactory.createOntologyModel(OntModelSpec.OWL_MEM_MICRO_RULE_INF);
-        impModel.read(file, null, schema.getType().getName());
-        dm.addModel(schema.getUri(), impModel);
-      } catch (IOException e) {
-        throw new IOException(String.format("failure to load schema ontology models, %s", e.getMessage()));
-      }
-    }
+  /**
+   * Create a new empty MRML model backed by a plain in-memory graph with no
+   * reasoner and no schema imports.  Use this when building a model only to
+   * serialize it, as the serialized form is identical to that of the base
+   * model of newMrmlModel().
+   *
+   * @return Model initialized with the MRML prefixes.
+   */
+  public static Model newMrmlBaseModel() {
+    Model model = ModelFactory.createDefaultModel();
+    model.setNsPrefixes(PREFIXES);
     return model;
   }
 
+  /**
+   * Create a new MRML OntModel over a copy-on-write view of an existing
+   * model.  The view reads through to the existing model while additions and
+   * removals are recorded in the view alone, so a shared read-only model can
+   * be modified cheaply without parsing or copying it.
+   *
+   * @param model The model to view, which is never modified through the view.
+   * @return OntModel initialized with import models for MRML.
+   * @throws IOException If there are issues loading dependent models.
+   */
+  public static OntModel newCopyOnWriteOntModel(Model model) throws IOException {
+    Model view = ModelFactory.createModelForGraph(new Delta(model.getGraph()));
+    OntModel result = ModelFactory.createOntologyModel(SchemaRegistry.getInstance().getSpec(), view);
+    result.setNsPrefixes(PREFIXES);
+    return result;
+  }
+
   /**
    * Determine if the specified model encoding is supported by this class.
    *
@@ -95,17 +125,93 @@ public class ModelUtil {
   }
 
   /**
-   * Unmarshal the serialized ontology using the specified encoding.
+   * Get the supported encoding matching the requested encoding type.
+   *
+   * @param type The requested encoding type.
+   * @return The matching encoding, or empty if the encoding type is not supported.
+   */
+  public static Optional<Lang> getSupportedEncoding(String type) {
+    return Arrays.stream(SUPPORTED_ENCODINGS).filter(s -> s.getName().equalsIgnoreCase(type)).findFirst();
+  }
+
+  /**
+   * Determine if the specified model encoding is a binary encoding carried
+   * as base64 in a serialized model string.
    *
+   * @param type The requested encoding type.
+   * @return True if the encoding is binary, false otherwise.
+   */
+  public static boolean isBinary(String type) {
+    return getSupportedEncoding(type).map(BINARY_ENCODINGS::contains).orElse(false);
+  }
+
+  /**
+   * Read a serialized model into the provided model.  Binary encodings are
+   * base64 decoded before parsing.
+   *
+   * @param model The model to populate.
    * @param serialized A string containing the serialized model.
    * @param encoding The encoding used on the serialized model.
+   */
+  private static void read(Model model, String serialized, String encoding) throws RiotException {
+    byte[] bytes;
+    if (isBinary(encoding)) {
+      try {
+        bytes = Base64.getMimeDecoder().decode(serialized);
+      } catch (IllegalArgumentException ex) {
+        throw new RiotException("Invalid base64 " + encoding + " model: " + ex.getMessage());
+      }
+    } else {
+      bytes = serialized.getBytes(StandardCharsets.UTF_8);
+    }
+    model.read(new ByteArrayInputStream(bytes), null, encoding);
+  }
+
+  /**
+   * Write a model into a string.  Binary encodings are base64 encoded.
+   *
+   * @param model The model to serialize.
+   * @param encoding The encoding to use for serialization.
+   * @return A string containing the serialized model.
+   */
+  private static String write(Model model, String encoding) {
+    if (isBinary(encoding)) {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      model.write(out, encoding);
+      return Base64.getEncoder().encodeToString(out.toByteArray());
+    }
+
+    StringWriter out = new StringWriter();
+    model.write(out, encoding);
+    return out.toString();
+  }
+
+  /**
+   * Unmarshal the serialized ontology using the specified encoding.
+   *
+   * @param serialized A string containing the serialized model, base64 encoded for binary encodings.
+   * @param encoding The encoding used on the serialized model.
    * @return An OntModel containing the unmarshalled model.
    * @throws IOException If there was an issue unmarshalling the serialized model.
    */
   public static OntModel unmarshalOntModel(String serialized, String encoding) throws IOException, RiotException {
     // Get a new MRML ontology model pre-populated with imported schema.
     OntModel model = newMrmlModel();
-    model.read(new ByteArrayInputStream(serialized.getBytes()), null, encoding);
+    read(model, serialized, encoding);
+    return model;
+  }
+
+  /**
+   * Unmarshal the serialized model into a plain model with no reasoner or
+   * schema imports, for use when the model is only being re-encoded.
+   *
+   * @param serialized A string containing the serialized model, base64 encoded for binary encodings.
+   * @param encoding The encoding used on the serialized model.
+   * @return A Model containing the unmarshalled model.
+   */
+  public static Model unmarshalModel(String serialized, String encoding) throws RiotException {
+    Model model = newMrmlBaseModel();
+    read(model, serialized, encoding);
     return model;
   }
 
@@ -167,12 +273,10 @@ public class ModelUtil {
    *
    * @param model The model to serialize.
    * @param encoding The encoding to use for serialization.
-   * @return A string containing the serialized model.
+   * @return A string containing the serialized model, base64 encoded for binary encodings.
    */
   public static String marshalOntModel(OntModel model, String encoding) {
-    StringWriter out = new StringWriter();
-    model.write(out, encoding);
-    return out.toString();
+    return write(model, encoding);
   }
 
   /**
@@ -180,12 +284,42 @@ public class ModelUtil {
    *
    * @param model The model to serialize.
    * @param encoding The encoding to use for serialization.
-   * @return A string containing the serialized model.
+   * @return A string containing the serialized model, base64 encoded for binary encodings.
    */
   public static String marshalModel(Model model, String encoding) {
+    return write(model, encoding);
+  }
+
+  /**
+   * Compute a canonical hash of the statements in a model.  The model is
+   * serialized to N-Triples and the lines sorted before hashing so the result
+   * is independent of statement order, prefixes, and serialization layout.
+   * Blank node labels are not canonicalized so a model containing blank
+   * nodes will only produce a stable hash if it labels them consistently.
+   *
+   * @param model The model to hash.
+   * @return The hex encoded SHA-256 hash of the sorted N-Triples.
+   */
+  public static String getContentHash(Model model) {
     StringWriter out = new StringWriter();
-    model.write(out, encoding);
-    return out.toString();
+    model.write(out, Lang.NTRIPLES.getName());
+
+    MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException ex) {
+      throw new IllegalStateException("SHA-256 not supported", ex);
+    }
+
+    out.toString().lines()
+        .filter(line -> !line.isBlank())
+        .sorted()
+        .forEach(line -> {
+          digest.update(line.getBytes(StandardCharsets.UTF_8));
+          digest.update((byte) '\n');
+        });
+
+    return HexFormat.of().formatHex(digest.digest());
   }
 
   /**
@@ -0,0 +1,130 @@
+package net.es.sense.rm.driver.api.mrml;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.jena.ontology.OntDocumentManager;
+import org.apache.jena.ontology.OntModel;
+import org.apache.jena.ontology.OntModelSpec;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.sparql.graph.GraphReadOnly;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A process-wide registry of the schema ontologies imported by every MRML
+ * model.  Each schema is parsed from the classpath exactly once and then
+ * shared read-only through a dedicated OntDocumentManager, so creating a new
+ * MRML model no longer pays the cost of parsing the schema files.
+ *
+ * @author hacksaw
+ */
+@Slf4j
+public class SchemaRegistry {
+  // The singleton instance, created on first use or explicitly at startup.
+  private static volatile SchemaRegistry instance;
+
+  // Read-only schema models indexed by ontology URI.
+  private final Map<String, OntModel> schemas;
+
+  // Document manager pre-populated with the schema models.
+  private final OntDocumentManager documentManager;
+
+  // The ontology specification used to create new MRML models.
+  private final OntModelSpec spec;
+
+  /**
+   * Get the shared schema registry, loading the schema models on first access.
+   *
+   * @return The schema registry.
+   * @throws IOException If there are issues loading the schema models.
+   */
+  public static SchemaRegistry getInstance() throws IOException {
+    SchemaRegistry result = instance;
+    if (result == null) {
+      synchronized (SchemaRegistry.class) {
+        result = instance;
+        if (result == null) {
+          result = new SchemaRegistry(ModelUtil.SCHEMA_IMPORTS);
+          instance = result;
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Parse the list of schema imports and build the shared document manager.
+   *
+   * @param imports The schema ontologies to load.
+   * @throws IOException If there are issues loading the schema models.
+   */
+  private SchemaRegistry(List<Schema> imports) throws IOException {
+    long start = System.currentTimeMillis();
+
+    // The schema models are wrapped without a reasoner or import processing;
+    // inference and imports are handled by the MRML model importing them.
+    OntDocumentManager wrapper = new OntDocumentManager();
+    wrapper.setProcessImports(false);
+    OntModelSpec schemaSpec = new OntModelSpec(OntModelSpec.OWL_MEM);
+    schemaSpec.setDocumentManager(wrapper);
+
+    Map<String, OntModel> loaded = new LinkedHashMap<>();
+    for (Schema schema : imports) {
+      log.debug("[SchemaRegistry] loading import {} {} {}", schema.getUri(), schema.getPath(), schema.getType());
+      try (InputStream file = SchemaRegistry.class.getResourceAsStream(schema.getPath())) {
+        if (file == null) {
+          throw new IOException(String.format("schema resource not found %s", schema.getPath()));
+        }
+        Model model = ModelFactory.createDefaultModel();
+        model.read(file, null, schema.getType().getName());
+        Model readOnly = ModelFactory.createModelForGraph(new GraphReadOnly(model.getGraph()));
+        loaded.put(schema.getUri(), ModelFactory.createOntologyModel(schemaSpec, readOnly));
+      } catch (IOException e) {
+        throw new IOException(String.format("failure to load schema ontology models, %s", e.getMessage()));
+      }
+    }
+    this.schemas = Collections.unmodifiableMap(loaded);
+
+    this.documentManager = new OntDocumentManager();
+    schemas.forEach(documentManager::addModel);
+
+    this.spec = new OntModelSpec(OntModelSpec.OWL_MEM_MICRO_RULE_INF);
+    this.spec.setDocumentManager(documentManager);
+
+    log.info("[SchemaRegistry] loaded {} schema models in {} ms", schemas.size(),
+        System.currentTimeMillis() - start);
+  }
+
+  /**
+   * Get the read-only schema models indexed by ontology URI.
+   *
+   * @return Unmodifiable map of schema models.
+   */
+  public Map<String, OntModel> getSchemas() {
+    return schemas;
+  }
+
+  /**
+   * Get the document manager holding the shared schema models.
+   *
+   * @return The shared document manager.
+   */
+  public OntDocumentManager getDocumentManager() {
+    return documentManager;
+  }
+
+  /**
+   * Get the ontology specification for new MRML models.  The returned
+   * specification must not be modified.
+   *
+   * @return OWL micro rule specification bound to the shared document manager.
+   */
+  public OntModelSpec getSpec() {
+    return spec;
+  }
+}
@@ -0,0 +1,163 @@
+package net.es.sense.rm.driver.api.mrml;
+
+import com.google.common.base.Strings;
+import lombok.Value;
+import net.es.sense.rm.driver.schema.Nml;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.ResIterator;
+import org.apache.jena.rdf.model.Statement;
+import org.apache.jena.rdf.model.StmtIterator;
+import org.apache.jena.vocabulary.RDF;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * A query selecting the subgraph of an MRML model rooted at a set of resource
+ * URIs and/or all resources of a set of rdf:types.  The subgraph contains the
+ * statements of each root resource and of the resources reachable from it in
+ * at most <b>depth</b> hops, so depth 0 returns only the roots themselves and
+ * depth 1 also returns their direct children.
+ *
+ * Traversal follows the containment properties of a resource (hasBidirectionalPort,
+ * hasService, hasLabel, etc.) downwards.  The rdf:type, nml:belongsTo, and
+ * nml:isAlias properties are not followed as they lead to the schema, to the
+ * parent, and to peer resources rather than to children.  Blank nodes such as
+ * nml:existsDuring lifetimes are part of the resource referencing them and are
+ * always included without counting against the depth.
+ *
+ * The query uses only indexed subject and rdf:type lookups on the model graph,
+ * so the cost is proportional to the size of the result rather than the model.
+ *
+ * @author hacksaw
+ */
+@Value
+public class SubgraphQuery {
+  public static final int DEFAULT_DEPTH = 1;
+  public static final int MAX_DEPTH = 16;
+
+  // Properties not followed when traversing to child resources.
+  private static final Set<String> EXCLUDED = Set.of(RDF.type.getURI(), Nml.belongsTo.getURI(), Nml.isAlias.getURI());
+
+  // The URIs of the root resources.
+  Set<String> roots;
+
+  // The rdf:type URIs of the root resources.
+  Set<String> types;
+
+  // The maximum number of hops from a root resource.
+  int depth;
+
+  /**
+   * Create a subgraph query.  Types may be specified as full URIs or using
+   * the MRML prefixes, for example "mrs:SwitchingSubnet".
+   *
+   * @param roots The URIs of the root resources, may be null.
+   * @param types The rdf:types of the root resources, may be null.
+   * @param depth The maximum traversal depth.
+   * @return The query, or null if no roots or types were specified.
+   * @throws IllegalArgumentException If the depth is out of range.
+   */
+  public static SubgraphQuery of(Collection<String> roots, Collection<String> types, int depth)
+      throws IllegalArgumentException {
+    Set<String> r = new LinkedHashSet<>();
+    if (roots != null) {
+      roots.stream().filter(s -> !Strings.isNullOrEmpty(s)).forEach(r::add);
+    }
+
+    Set<String> t = new LinkedHashSet<>();
+    if (types != null) {
+      types.stream().filter(s -> !Strings.isNullOrEmpty(s)).map(ModelUtil.PREFIXES::expandPrefix).forEach(t::add);
+    }
+
+    if (r.isEmpty() && t.isEmpty()) {
+      return null;
+    }
+
+    if (depth < 0 || depth > MAX_DEPTH) {
+      throw new IllegalArgumentException("Invalid depth = " + depth + ", must be between 0 and " + MAX_DEPTH);
+    }
+
+    return new SubgraphQuery(Set.copyOf(r), Set.copyOf(t), depth);
+  }
+
+  /**
+   * Extract the subgraph selected by this query into a new model.
+   *
+   * @param model The model to query.
+   * @return A new model containing the selected subgraph.
+   */
+  public Model apply(Model model) {
+    Model result = ModelUtil.newMrmlBaseModel();
+    Set<Resource> visited = new HashSet<>();
+    Deque<Resource> current = new ArrayDeque<>();
+
+    for (String uri : roots) {
+      Resource root = model.createResource(uri);
+      if (model.contains(root, null, (RDFNode) null) && visited.add(root)) {
+        current.add(root);
+      }
+    }
+
+    for (String type : types) {
+      ResIterator it = model.listResourcesWithProperty(RDF.type, model.createResource(type));
+      while (it.hasNext()) {
+        Resource root = it.next();
+        if (visited.add(root)) {
+          current.add(root);
+        }
+      }
+    }
+
+    // Breadth first traversal one level at a time.
+    for (int level = 0; !current.isEmpty(); level++) {
+      Deque<Resource> next = new ArrayDeque<>();
+      while (!current.isEmpty()) {
+        Resource subject = current.poll();
+        StmtIterator stmts = model.listStatements(subject, null, (RDFNode) null);
+        while (stmts.hasNext()) {
+          Statement stmt = stmts.next();
+          result.add(stmt);
+
+          RDFNode object = stmt.getObject();
+          if (!object.isResource() || EXCLUDED.contains(stmt.getPredicate().getURI())) {
+            continue;
+          }
+
+          Resource child = object.asResource();
+          if (child.isAnon()) {
+            // Blank nodes belong to this resource so expand them at this level.
+            if (visited.add(child)) {
+              current.add(child);
+            }
+          } else if (level < depth && visited.add(child)) {
+            next.add(child);
+          }
+        }
+      }
+      current = next;
+    }
+
+    return result;
+  }
+
+  /**
+   * Extract the subgraph selected by this query from a serialized model.
+   *
+   * @param serialized The serialized model.
+   * @param encoding The encoding of the serialized model and the result.
+   * @return The serialized subgraph.
+   */
+  public String apply(String serialized, String encoding) {
+    if (serialized == null) {
+      return null;
+    }
+    return ModelUtil.marshalModel(apply(ModelUtil.unmarshalModel(serialized, encoding)), encoding);
+  }
+}
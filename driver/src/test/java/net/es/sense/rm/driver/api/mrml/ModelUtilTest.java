@@ -6,14 +6,20 @@ import net.es.sense.rm.driver.schema.Nml;
 import net.es.sense.rm.driver.schema.Sd;
 import org.apache.jena.ontology.OntDocumentManager;
 import org.apache.jena.ontology.OntModel;
+import org.apache.jena.ontology.OntModelSpec;
 import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
 import org.apache.jena.rdf.model.Resource;
 import org.apache.jena.reasoner.ValidityReport;
 import org.apache.jena.riot.Lang;
 import org.apache.jena.riot.RiotException;
+import org.apache.jena.sparql.graph.GraphReadOnly;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -119,6 +125,70 @@ class ModelUtilTest {
     }
   }
 
+  /**
+   * Test new MRML models share the read-only schema models of the registry.
+   */
+  @org.junit.jupiter.api.Test
+  void sharedSchemas() throws IOException {
+    OntModel schema = SchemaRegistry.getInstance().getSchemas().get(Nml.getURI());
+    assertSame(schema, ModelUtil.newMrmlModel().getDocumentManager().getModel(Nml.getURI()));
+    assertThrows(Exception.class, () -> schema.add(schema.createResource(), RDF.type, RDFS.Class));
+  }
+
+  /**
+   * Benchmark the per-call cost of creating a new MRML model using the shared
+   * schema registry against the original approach of parsing each schema
+   * import on every call.
+   *
+   * @throws IOException
+   */
+  @org.junit.jupiter.api.Test
+  @org.junit.jupiter.api.Tag("benchmark")
+  void newMrmlModelBenchmark() throws IOException {
+    final int warmup = 5;
+    final int iterations = 50;
+
+    for (int i = 0; i < warmup; i++) {
+      legacyMrmlModel();
+      ModelUtil.newMrmlModel();
+    }
+
+    long start = System.nanoTime();
+    for (int i = 0; i < iterations; i++) {
+      legacyMrmlModel();
+    }
+    long legacy = (System.nanoTime() - start) / iterations;
+
+    start = System.nanoTime();
+    for (int i = 0; i < iterations; i++) {
+      OntModel model = ModelUtil.newMrmlModel();
+      assertNotNull(model.getDocumentManager().getModel(Mrs.getURI()));
+    }
+    long shared = (System.nanoTime() - start) / iterations;
+
+    log.info("[newMrmlModelBenchmark] per-call cost: per-call parse {} us, shared registry {} us",
+        legacy / 1000, shared / 1000);
+  }
+
+  /**
+   * The original newMrmlModel() implementation that parsed all schema
+   * imports on each invocation into the model's own document manager, kept
+   * unchanged for benchmarking.
+   */
+  private static OntModel legacyMrmlModel() throws IOException {
+    final OntModel model = ModelFactory.createOntologyModel(OntModelSpec.OWL_MEM_MICRO_RULE_INF);
+    model.setNsPrefixes(ModelUtil.PREFIXES);
+    OntDocumentManager dm = model.getDocumentManager();
+    for (Schema schema : ModelUtil.SCHEMA_IMPORTS) {
+      try (InputStream file = ModelUtil.class.getResourceAsStream(schema.getPath())) {
+        OntModel impModel = ModelFactory.createOntologyModel(OntModelSpec.OWL_MEM_MICRO_RULE_INF);
+        impModel.read(file, null, schema.getType().getName());
+        dm.addModel(schema.getUri(), impModel);
+      }
+    }
+    return model;
+  }
+
   /**
    * Test to verify supported encoding types.
    */
@@ -127,7 +197,70 @@ class ModelUtilTest {
     assertTrue(ModelUtil.isSupported(Lang.RDFJSON.getName()));
     assertTrue(ModelUtil.isSupported(Lang.TURTLE.getName()));
     assertTrue(ModelUtil.isSupported(Lang.RDFXML.getName()));
+    assertTrue(ModelUtil.isSupported(Lang.RDFTHRIFT.getName()));
+    assertTrue(ModelUtil.isSupported(Lang.RDFPROTO.getName().toLowerCase()));
     assertFalse(ModelUtil.isSupported(Lang.JSONLD.getName()));
+    assertTrue(ModelUtil.isBinary(Lang.RDFTHRIFT.getName()));
+    assertFalse(ModelUtil.isBinary(Lang.TURTLE.getName()));
+  }
+
+  /**
+   * Test binary RDF encodings round trip through a base64 model string.
+   *
+   * @throws IOException
+   */
+  @org.junit.jupiter.api.Test
+  void binaryEncoding() throws IOException {
+    OntModel model = ModelUtil.unmarshalOntModelFromFile(MRML_MODEL_5, Lang.TURTLE.getName());
+    for (Lang lang : ModelUtil.BINARY_ENCODINGS) {
+      String encoded = ModelUtil.marshalOntModel(model, lang.getName());
+      assertTrue(encoded.matches("[A-Za-z0-9+/=]+"));
+
+      OntModel decoded = ModelUtil.unmarshalOntModel(encoded, lang.getName().toLowerCase());
+      assertTrue(model.getBaseModel().isIsomorphicWith(decoded.getBaseModel()));
+      assertTrue(model.getBaseModel().isIsomorphicWith(ModelUtil.unmarshalModel(encoded, lang.getName())));
+    }
+
+    assertThrows(RiotException.class, () -> ModelUtil.unmarshalModel("not base64!", Lang.RDFTHRIFT.getName()));
+  }
+
+  /**
+   * Compare the serialize and parse throughput of the binary RDF encodings
+   * against Turtle and JSON-LD for a large MRML model.
+   *
+   * @throws IOException
+   */
+  @org.junit.jupiter.api.Test
+  @org.junit.jupiter.api.Tag("benchmark")
+  void encodingBenchmark() throws IOException {
+    final int warmup = 5;
+    final int iterations = 20;
+
+    Model model = ModelUtil.unmarshalModel(Files.readString(Paths.get(MRML_MODEL_5)), Lang.TURTLE.getName());
+    for (Lang lang : List.of(Lang.TURTLE, Lang.JSONLD, Lang.RDFTHRIFT, Lang.RDFPROTO)) {
+      String serialized = ModelUtil.marshalModel(model, lang.getName());
+      for (int i = 0; i < warmup; i++) {
+        ModelUtil.unmarshalModel(ModelUtil.marshalModel(model, lang.getName()), lang.getName());
+      }
+
+      long start = System.nanoTime();
+      for (int i = 0; i < iterations; i++) {
+        ModelUtil.marshalModel(model, lang.getName());
+      }
+      long write = (System.nanoTime() - start) / iterations;
+
+      start = System.nanoTime();
+      Model parsed = null;
+      for (int i = 0; i < iterations; i++) {
+        parsed = ModelUtil.unmarshalModel(serialized, lang.getName());
+      }
+      long read = (System.nanoTime() - start) / iterations;
+
+      log.info("[encodingBenchmark] {}: {} statements, {} bytes, serialize {} us ({} models/s), "
+              + "parse {} us ({} models/s)", lang.getName(), model.size(), serialized.length(),
+          write / 1000, 1_000_000_000L / Math.max(write, 1), read / 1000, 1_000_000_000L / Math.max(read, 1));
+      assertTrue(model.isIsomorphicWith(parsed));
+    }
   }
 
   /**
@@ -453,6 +586,39 @@ class ModelUtilTest {
   void applyDeltaReduction() {
   }
 
+  /**
+   * Test a delta applied to a copy-on-write view of a shared read-only model
+   * matches the delta applied to a freshly parsed model, and leaves the shared
+   * model unchanged.
+   *
+   * @throws IOException
+   */
+  @org.junit.jupiter.api.Test
+  void copyOnWriteOntModel() throws IOException {
+    String ttl = Files.readString(Paths.get(MRML_MODEL_1));
+    Model parsed = ModelUtil.unmarshalModel(ttl, Lang.TURTLE.getName());
+    Model shared = ModelFactory.createModelForGraph(new GraphReadOnly(parsed.getGraph()));
+    long size = shared.size();
+
+    OntModel addition = ModelUtil.unmarshalOntModelFromFile(MRML_MODEL_ADDITION_1, Lang.TURTLE.getName());
+    OntModel reduction = ModelUtil.unmarshalOntModelFromFile(MRML_MODEL_REDUCTION_1, Lang.TURTLE.getName());
+
+    OntModel expected = ModelUtil.unmarshalOntModelTurtle(ttl);
+    ModelUtil.applyDeltaReduction(expected, reduction);
+    ModelUtil.applyDeltaAddition(expected, addition);
+
+    OntModel view = ModelUtil.newCopyOnWriteOntModel(shared);
+    assertTrue(view.getBaseModel().isIsomorphicWith(parsed));
+    ModelUtil.applyDeltaReduction(view, reduction);
+    ModelUtil.applyDeltaAddition(view, addition);
+
+    assertTrue(expected.getBaseModel().isIsomorphicWith(view.getBaseModel()));
+    assertTrue(ModelUtil.unmarshalOntModelTurtle(ModelUtil.marshalOntModel(view)).getBaseModel()
+        .isIsomorphicWith(expected.getBaseModel()));
+    assertFalse(view.getBaseModel().isIsomorphicWith(shared));
+    assertEquals(size, shared.size());
+  }
+
   @org.junit.jupiter.api.Test
   void getSubjectsModel() throws IOException {
     OntModel model = ModelUtil.unmarshalOntModelFromFile(MRML_MODEL_1, Lang.TURTLE.getName());
@@ -601,4 +767,26 @@ class ModelUtilTest {
     assertEquals(1, ss.size());
     assertEquals("urn:ogf:network:es.net:2013:topology:ServiceDomain:EVTS.A-GOLE:conn+6af3a5f3-a3ec-4fee-ad6b-dc5fb9e7cb7b:vt+l2-policy-Connection_1:vlan+1717", ss.stream().findFirst().get().getURI());
   }
-}
\ No newline at end of file
+
+  @org.junit.jupiter.api.Test
+  void getContentHash() throws IOException {
+    // Blank node labels are not canonicalized and the parser assigns new
+    // labels on every parse, so drop them to compare re-parsed encodings.
+    // Generated MRML models label their blank nodes consistently instead.
+    OntModel ttl = ModelUtil.unmarshalOntModelFromFile(MRML_MODEL_TTL, Lang.TURTLE.getName());
+    Model model = ModelFactory.createDefaultModel();
+    ttl.getBaseModel().listStatements()
+        .filterDrop(s -> s.getSubject().isAnon() || s.getObject().isAnon())
+        .forEach(model::add);
+
+    // The same statements in a different encoding hash the same.
+    String hash = ModelUtil.getContentHash(model);
+    assertEquals(64, hash.length());
+    String json = ModelUtil.marshalModel(model, Lang.RDFJSON.getName());
+    assertEquals(hash, ModelUtil.getContentHash(ModelUtil.unmarshalOntModelJson(json).getBaseModel()));
+
+    // Any change in content changes the hash.
+    model.add(model.createResource("urn:test:resource"), RDF.type, Nml.Topology);
+    assertNotEquals(hash, ModelUtil.getContentHash(model));
+  }
+}
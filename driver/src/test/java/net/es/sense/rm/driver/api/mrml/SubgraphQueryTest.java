@@ -0,0 +1,99 @@
+package net.es.sense.rm.driver.api.mrml;
+
+import net.es.sense.rm.driver.schema.Mrs;
+import net.es.sense.rm.driver.schema.Nml;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.vocabulary.RDF;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test subgraph queries against an MRML model.
+ *
+ * @author hacksaw
+ */
+class SubgraphQueryTest {
+  private final static String MRML_MODEL_1 = "src/test/resources/model-1.ttl";
+  private final static String SUBNET =
+      "urn:ogf:network:es.net:2013::switchingSubnet:62dca40f-929b-40fe-8aa1-c6a4ea62cdcd";
+  private final static String PORT =
+      "urn:ogf:network:es.net:2013::chic-cr5:3_2_1:+:vlan:3609:cid:62dca40f-929b-40fe-8aa1-c6a4ea62cdcd";
+
+  private static String ttl;
+  private static Model model;
+
+  @BeforeAll
+  static void load() throws IOException {
+    ttl = Files.readString(Paths.get(MRML_MODEL_1));
+    model = ModelUtil.unmarshalModel(ttl, Lang.TURTLE.getName());
+  }
+
+  private static Set<String> subjects(Model m) {
+    return Set.copyOf(m.listSubjects().filterKeep(Resource::isURIResource).mapWith(Resource::getURI).toList());
+  }
+
+  @Test
+  void testNoQuery() {
+    assertNull(SubgraphQuery.of(null, null, 1));
+    assertNull(SubgraphQuery.of(List.of(""), List.of(), 1));
+    assertThrows(IllegalArgumentException.class, () -> SubgraphQuery.of(List.of(SUBNET), null, -1));
+    assertThrows(IllegalArgumentException.class,
+        () -> SubgraphQuery.of(List.of(SUBNET), null, SubgraphQuery.MAX_DEPTH + 1));
+  }
+
+  @Test
+  void testByType() {
+    Model result = SubgraphQuery.of(null, List.of("mrs:SwitchingSubnet"), 0).apply(model);
+
+    // Only the switching subnets and their blank node lifetimes are returned.
+    Set<String> expected = Set.copyOf(model.listResourcesWithProperty(RDF.type, Mrs.SwitchingSubnet)
+        .mapWith(Resource::getURI).toList());
+    assertFalse(expected.isEmpty());
+    assertEquals(expected, subjects(result));
+    assertTrue(result.contains(model.getResource(SUBNET), Nml.existsDuring));
+    assertTrue(result.listSubjects().filterKeep(Resource::isAnon).hasNext());
+    assertTrue(result.size() < model.size());
+  }
+
+  @Test
+  void testByRoot() {
+    Resource subnet = model.getResource(SUBNET);
+
+    // Depth 0 returns only the root.
+    Model root = SubgraphQuery.of(List.of(SUBNET), null, 0).apply(model);
+    assertEquals(Set.of(SUBNET), subjects(root));
+
+    // Depth 1 adds the children but not the parent the root belongs to.
+    Model children = SubgraphQuery.of(List.of(SUBNET), null, 1).apply(model);
+    assertTrue(subjects(children).contains(PORT));
+    assertFalse(subjects(children).contains(subnet.getPropertyResourceValue(Nml.belongsTo).getURI()));
+    assertTrue(model.containsAll(children));
+
+    // Deeper queries return a superset.
+    Model deeper = SubgraphQuery.of(List.of(SUBNET), null, 3).apply(model);
+    assertTrue(deeper.containsAll(children));
+    assertTrue(deeper.size() > children.size());
+
+    // Unknown roots return an empty model.
+    assertTrue(SubgraphQuery.of(List.of("urn:unknown"), null, 1).apply(model).isEmpty());
+  }
+
+  @Test
+  void testSerialized() {
+    SubgraphQuery query = SubgraphQuery.of(List.of(PORT), null, 1);
+    String result = query.apply(ttl, Lang.TURTLE.getName());
+    Model parsed = ModelUtil.unmarshalModel(result, Lang.TURTLE.getName());
+    assertTrue(parsed.isIsomorphicWith(query.apply(model)));
+    assertTrue(parsed.contains(model.getResource(PORT), RDF.type, Nml.BidirectionalPort));
+  }
+}
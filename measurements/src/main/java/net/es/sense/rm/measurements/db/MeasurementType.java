@@ -36,6 +36,13 @@ public enum MeasurementType {
   DELTA_COMMIT(1002, "DELTA_COMMIT"),
 
   MODEL_AUDIT(2001, "MODEL_AUDIT"),
+  MODEL_AUDIT_SKIPPED(2002, "MODEL_AUDIT_SKIPPED"),
+  MODEL_AUDIT_DDS_DECODE(2003, "MODEL_AUDIT_DDS_DECODE"),
+  MODEL_AUDIT_NML_LOAD(2004, "MODEL_AUDIT_NML_LOAD"),
+  MODEL_AUDIT_SWITCHING_SUBNET(2005, "MODEL_AUDIT_SWITCHING_SUBNET"),
+  MODEL_AUDIT_MRML_BUILD(2006, "MODEL_AUDIT_MRML_BUILD"),
+  MODEL_AUDIT_MARSHAL(2007, "MODEL_AUDIT_MARSHAL"),
+  MODEL_AUDIT_STORE(2008, "MODEL_AUDIT_STORE"),
 
   END(9000, "");
 
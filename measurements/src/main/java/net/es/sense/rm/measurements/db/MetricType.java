@@ -32,6 +32,8 @@ import jakarta.xml.bind.annotation.XmlType;
 @XmlEnum
 public enum MetricType {
   DURATION(1001, "duration"),
+  TRIPLES(1002, "triples"),
+  BYTES(1003, "bytes"),
   END(9000, "");
 
   @Schema(name = "code", description = "An integer value for the name of the SENSE measurement type.",
@@ -26,12 +26,14 @@ import net.es.sense.rm.measurements.db.MeasurementResource;
 import net.es.sense.rm.measurements.db.MeasurementType;
 import net.es.sense.rm.measurements.db.MetricType;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit4.SpringRunner;
 
@@ -111,4 +113,29 @@ public class MeasurementControllerTest {
     DATA.stream().forEach(m -> measurementController.add(m));
     assertEquals(DATA.size(), measurementController.size());
   }
+
+  /**
+   * Test the model audit phase and size measurements are stored and returned.
+   */
+  @Test
+  @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+  public void testAuditPhases() {
+    long before = measurementController.size();
+    String modelId = "8a0a3c4e-3f1b-4a55-9d4f-0f3b8c1d2e7a";
+    measurementController.add(MeasurementType.MODEL_AUDIT_DDS_DECODE, modelId, MetricType.DURATION, "10");
+    measurementController.add(MeasurementType.MODEL_AUDIT_NML_LOAD, modelId, MetricType.DURATION, "20");
+    measurementController.add(MeasurementType.MODEL_AUDIT_MARSHAL, modelId, MetricType.DURATION, "30");
+    measurementController.add(MeasurementType.MODEL_AUDIT, modelId, MetricType.TRIPLES, "1234");
+    measurementController.add(MeasurementType.MODEL_AUDIT, modelId, MetricType.BYTES, "56789");
+    measurementController.add(MeasurementType.MODEL_AUDIT_SKIPPED, "urn:ogf:network:es.net:2013:",
+        MetricType.DURATION, "40");
+    assertEquals(before + 6, measurementController.size());
+
+    MeasurementResults results = measurementController.get().orElseThrow();
+    assertTrue(results.getQueue().stream().anyMatch(m -> m.getMeasurement() == MeasurementType.MODEL_AUDIT_NML_LOAD
+        && "20".equals(m.getMvalue())));
+    assertTrue(results.getQueue().stream().anyMatch(m -> m.getMtype() == MetricType.BYTES
+        && "56789".equals(m.getMvalue())));
+    assertTrue(results.getQueue().stream().anyMatch(m -> m.getMeasurement() == MeasurementType.MODEL_AUDIT_SKIPPED));
+  }
 }
@@ -9,20 +9,28 @@ import java.util.List;
 import java.util.Map;
 
 /**
- * A NSI-CS client for communications with an NSA.
+ * A NSI-CS client for communications with an NSA.  The client proxy is
+ * borrowed from a pool of proxies for the provider URL and is returned to
+ * the pool when the client is closed, unless one of its operations failed.
  *
  * @author hacksaw
  */
-public class Client {
+public class Client implements AutoCloseable {
 
-  org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(getClass());
+  private static final org.slf4j.Logger LOGGER = org.slf4j.LoggerFactory.getLogger(Client.class);
 
-  private final ConnectionProviderPort proxy;
+  private static final ProxyPool POOL = new ProxyPool(Client::createProxy);
+
+  private final ProxyPool.Lease lease;
 
   public Client(String providerUrl) {
-    logger.info("Client: creating client for " + providerUrl);
+    this.lease = POOL.lease(providerUrl);
+  }
+
+  private static ConnectionProviderPort createProxy(String providerUrl) {
+    LOGGER.info("Client: creating client for " + providerUrl);
     ConnectionServiceProvider provider = new ConnectionServiceProvider();
-    proxy = provider.getConnectionServiceProviderPort();
+    ConnectionProviderPort proxy = provider.getConnectionServiceProviderPort();
     BindingProvider bp = (BindingProvider) proxy;
 
     // Add the message logging handler.
@@ -38,12 +46,28 @@ public class Client {
               org.ogf.schemas.nsi._2013._12.services.types.ObjectFactory.class
             });
     context.put(BindingProvider.ENDPOINT_ADDRESS_PROPERTY, providerUrl);
-    context.put(BindingProvider.SESSION_MAINTAIN_PROPERTY, true);
 
-    logger.info("Client: created client for " + providerUrl);
+    // Pooled proxies are shared across requests so must not carry session cookies.
+    context.put(BindingProvider.SESSION_MAINTAIN_PROPERTY, false);
+
+    LOGGER.info("Client: created client for " + providerUrl);
+    return proxy;
   }
 
   public ConnectionProviderPort getProxy() {
-    return proxy;
+    return lease.getProxy();
+  }
+
+  /**
+   * Return the proxy to the pool for reuse, or discard it if one of its
+   * operations failed.  The client must not be used once closed.
+   */
+  @Override
+  public void close() {
+    lease.close();
+  }
+
+  public static ProxyPool getPool() {
+    return POOL;
   }
 }
@@ -1,5 +1,6 @@
 package net.es.nsi.cs.lib;
 
+import jakarta.xml.ws.BindingProvider;
 import java.util.HashMap;
 import java.util.Map;
 import lombok.extern.slf4j.Slf4j;
@@ -7,19 +8,36 @@ import org.apache.cxf.jaxws.JaxWsProxyFactoryBean;
 import org.ogf.schemas.nsi._2013._12.connection.provider.ConnectionProviderPort;
 
 /**
- * Utility classes for building NSI-CS clients.
+ * Utility classes for building NSI-CS clients.  The client proxy is borrowed
+ * from a pool of proxies for the provider URL and is returned to the pool
+ * when the client is closed, unless one of its operations failed.
  *
  */
 @Slf4j
-public class ClientUtil {
-  private final ConnectionProviderPort proxy;
+public class ClientUtil implements AutoCloseable {
+  private static final ProxyPool POOL = new ProxyPool(ClientUtil::createProviderClient);
+
+  private final ProxyPool.Lease lease;
 
   public ClientUtil(String url) {
-    this.proxy = createProviderClient(url);
+    this.lease = POOL.lease(url);
   }
 
   public ConnectionProviderPort getProxy() {
-    return proxy;
+    return lease.getProxy();
+  }
+
+  /**
+   * Return the proxy to the pool for reuse, or discard it if one of its
+   * operations failed.  The client must not be used once closed.
+   */
+  @Override
+  public void close() {
+    lease.close();
+  }
+
+  public static ProxyPool getPool() {
+    return POOL;
   }
 
   /**
@@ -28,12 +46,16 @@ public class ClientUtil {
    * @param url the URL of the provider to contact
    * @return the ConnectionProviderPort that you can use as the client
    */
-  private ConnectionProviderPort createProviderClient(String url) {
+  static ConnectionProviderPort createProviderClient(String url) {
     JaxWsProxyFactoryBean fb = new JaxWsProxyFactoryBean();
     fb.setAddress(url);
     fb.setProperties(setProps(fb.getProperties()));
     fb.setServiceClass(ConnectionProviderPort.class);
-    return (ConnectionProviderPort) fb.create();
+    ConnectionProviderPort proxy = (ConnectionProviderPort) fb.create();
+
+    // Pooled proxies are shared across requests so must not carry session cookies.
+    ((BindingProvider) proxy).getRequestContext().put(BindingProvider.SESSION_MAINTAIN_PROPERTY, false);
+    return proxy;
   }
 
   public static Map<String, Object> setProps(Map<String, Object> props) {
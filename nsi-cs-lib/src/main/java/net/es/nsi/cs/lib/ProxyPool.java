@@ -0,0 +1,265 @@
+package net.es.nsi.cs.lib;
+
+import jakarta.xml.ws.BindingProvider;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.ogf.schemas.nsi._2013._12.connection.provider.ConnectionProviderPort;
+
+/**
+ * A thread-safe pool of pre-built NSI-CS provider proxies indexed by provider
+ * endpoint.  Building a proxy involves setting up the WSDL and JAXB service
+ * model, which costs far more than a typical NSI-CS request, so a proxy is
+ * borrowed for the duration of a request and then returned for reuse.
+ *
+ * A proxy is used by one thread at a time so request and session state held
+ * in its context is never shared between concurrent requests.  The NSI header,
+ * including the replyTo, is passed on each operation so pooled proxies carry
+ * no per-request state between borrowers.  Pooled proxies must not maintain
+ * an HTTP session, and a proxy whose request failed is discarded rather than
+ * returned since its connection and context may be left in an unknown state.
+ * Clients hold a borrowed proxy through a {@link Lease}.
+ *
+ * The number of idle proxies kept per endpoint defaults to the value of the
+ * system property {@value #MAX_IDLE_PROPERTY}, or {@value #DEFAULT_MAX_IDLE}
+ * if not set, and may be changed at runtime.
+ *
+ * @author hacksaw
+ */
+@Slf4j
+public class ProxyPool {
+  public static final String MAX_IDLE_PROPERTY = "nsi.cs.proxyPool.maxIdle";
+  public static final int DEFAULT_MAX_IDLE = 16;
+
+  private final Function<String, ConnectionProviderPort> factory;
+  private volatile int maxIdle;
+  private final Map<String, Idle> idle = new ConcurrentHashMap<>();
+  private final AtomicLong created = new AtomicLong();
+  private final AtomicLong discarded = new AtomicLong();
+
+  /**
+   * Create a proxy pool with the default idle limit.
+   *
+   * @param factory Builds a new proxy for a provider endpoint.
+   */
+  public ProxyPool(Function<String, ConnectionProviderPort> factory) {
+    this(factory, Integer.getInteger(MAX_IDLE_PROPERTY, DEFAULT_MAX_IDLE));
+  }
+
+  /**
+   * Create a proxy pool.
+   *
+   * @param factory Builds a new proxy for a provider endpoint.
+   * @param maxIdle The maximum number of idle proxies kept per endpoint.
+   */
+  public ProxyPool(Function<String, ConnectionProviderPort> factory, int maxIdle) {
+    this.factory = factory;
+    setMaxIdle(maxIdle);
+  }
+
+  /**
+   * Borrow a proxy for the provider endpoint and hold it until the returned
+   * lease is closed.
+   *
+   * @param url The provider endpoint.
+   * @return The lease on the borrowed proxy.
+   */
+  public Lease lease(String url) {
+    return new Lease(url, borrow(url));
+  }
+
+  /**
+   * Borrow a proxy for the provider endpoint, building a new one if none are idle.
+   *
+   * @param url The provider endpoint.
+   * @return The proxy for exclusive use until released.
+   */
+  public ConnectionProviderPort borrow(String url) {
+    ConnectionProviderPort proxy = url == null ? null : queue(url).poll();
+    if (proxy == null) {
+      created.incrementAndGet();
+      proxy = factory.apply(url);
+      log.debug("[ProxyPool] created new proxy for {}", url);
+    }
+    return proxy;
+  }
+
+  /**
+   * Return a borrowed proxy to the pool.  The proxy is discarded if the pool
+   * for the endpoint is already full.
+   *
+   * @param url The provider endpoint the proxy was borrowed for.
+   * @param proxy The proxy.
+   */
+  public void release(String url, ConnectionProviderPort proxy) {
+    if (url != null && proxy != null && !queue(url).offer(proxy, maxIdle)) {
+      log.debug("[ProxyPool] discarding proxy for {}, pool is full", url);
+    }
+  }
+
+  /**
+   * Discard a borrowed proxy whose request failed rather than returning it
+   * to the pool.
+   *
+   * @param url The provider endpoint the proxy was borrowed for.
+   * @param proxy The proxy.
+   */
+  public void discard(String url, ConnectionProviderPort proxy) {
+    if (proxy != null) {
+      discarded.incrementAndGet();
+      log.debug("[ProxyPool] discarding failed proxy for {}", url);
+    }
+  }
+
+  /**
+   * Wrap a borrowed proxy so any exception thrown by one of its operations
+   * is reported before being rethrown to the caller.
+   *
+   * @param proxy The borrowed proxy.
+   * @param failed Invoked when an operation on the proxy throws.
+   * @return The wrapped proxy, also implementing BindingProvider.
+   */
+  public static ConnectionProviderPort guard(ConnectionProviderPort proxy, Runnable failed) {
+    return (ConnectionProviderPort) Proxy.newProxyInstance(ConnectionProviderPort.class.getClassLoader(),
+        new Class<?>[] { ConnectionProviderPort.class, BindingProvider.class },
+        (p, method, args) -> {
+          try {
+            return method.invoke(proxy, args);
+          } catch (InvocationTargetException ex) {
+            failed.run();
+            throw ex.getCause();
+          }
+        });
+  }
+
+  private Idle queue(String url) {
+    return idle.computeIfAbsent(url, k -> new Idle());
+  }
+
+  /**
+   * @param url The provider endpoint.
+   * @return The number of idle proxies for the endpoint.
+   */
+  public int getIdle(String url) {
+    Idle queue = idle.get(url);
+    return queue == null ? 0 : queue.size();
+  }
+
+  /**
+   * @return The maximum number of idle proxies kept per endpoint.
+   */
+  public int getMaxIdle() {
+    return maxIdle;
+  }
+
+  /**
+   * Set the maximum number of idle proxies kept per endpoint.  The limit is
+   * applied as proxies are returned to the pool.
+   *
+   * @param maxIdle The maximum number of idle proxies, or 0 to disable pooling.
+   */
+  public void setMaxIdle(int maxIdle) {
+    if (maxIdle < 0) {
+      throw new IllegalArgumentException("maxIdle must not be negative: " + maxIdle);
+    }
+    this.maxIdle = maxIdle;
+  }
+
+  /**
+   * @return The total number of proxies built by this pool.
+   */
+  public long getCreated() {
+    return created.get();
+  }
+
+  /**
+   * @return The total number of proxies discarded after a failed request.
+   */
+  public long getDiscarded() {
+    return discarded.get();
+  }
+
+  /**
+   * Discard all idle proxies.
+   */
+  public void clear() {
+    idle.clear();
+  }
+
+  /**
+   * The idle proxies for one endpoint, bounded by the current idle limit.
+   */
+  private static class Idle {
+    private final Queue<ConnectionProviderPort> proxies = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    boolean offer(ConnectionProviderPort proxy, int limit) {
+      if (size.incrementAndGet() > limit) {
+        size.decrementAndGet();
+        return false;
+      }
+      proxies.add(proxy);
+      return true;
+    }
+
+    ConnectionProviderPort poll() {
+      ConnectionProviderPort proxy = proxies.poll();
+      if (proxy != null) {
+        size.decrementAndGet();
+      }
+      return proxy;
+    }
+
+    int size() {
+      return size.get();
+    }
+  }
+
+  /**
+   * A proxy borrowed from the pool for the duration of a request.  Operations
+   * on the leased proxy are guarded so a failed proxy is discarded rather
+   * than returned to the pool when the lease is closed.  The proxy must not
+   * be used once the lease is closed.
+   */
+  public class Lease implements AutoCloseable {
+    private final String url;
+    private final ConnectionProviderPort pooled;
+    private final ConnectionProviderPort proxy;
+
+    // Set when an operation on the proxy throws so it is not reused.
+    private volatile boolean failed = false;
+
+    private Lease(String url, ConnectionProviderPort pooled) {
+      this.url = url;
+      this.pooled = pooled;
+      this.proxy = guard(pooled, () -> failed = true);
+    }
+
+    /**
+     * @return The leased proxy, also implementing BindingProvider.
+     */
+    public ConnectionProviderPort getProxy() {
+      return proxy;
+    }
+
+    /**
+     * Return the proxy to the pool for reuse, or discard it if one of its
+     * operations failed.
+     */
+    @Override
+    public void close() {
+      if (failed) {
+        discard(url, pooled);
+      } else {
+        release(url, pooled);
+      }
+    }
+  }
+}
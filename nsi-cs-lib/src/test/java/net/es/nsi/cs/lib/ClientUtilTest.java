@@ -0,0 +1,253 @@
+package net.es.nsi.cs.lib;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import jakarta.xml.ws.BindingProvider;
+import jakarta.xml.ws.Holder;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.ogf.schemas.nsi._2013._12.connection.provider.ConnectionProviderPort;
+import org.ogf.schemas.nsi._2013._12.connection.types.GenericRequestType;
+import org.ogf.schemas.nsi._2013._12.connection.types.ObjectFactory;
+import org.ogf.schemas.nsi._2013._12.framework.headers.CommonHeaderType;
+
+/**
+ * Test reuse of pooled NSI-CS provider proxies against a stub provider
+ * acknowledging every request.
+ *
+ * @author hacksaw
+ */
+@Slf4j
+public class ClientUtilTest {
+  private static final ObjectFactory FACTORY = new ObjectFactory();
+
+  private static final String ACK = """
+      <soap:Envelope xmlns:soap="http://schemas.xmlsoap.org/soap/envelope/">
+        <soap:Header>
+          <head:nsiHeader xmlns:head="http://schemas.ogf.org/nsi/2013/12/framework/headers">
+            <protocolVersion>application/vnd.ogf.nsi.cs.v2.provider+soap</protocolVersion>
+            <correlationId>urn:uuid:2c8f6f1e-6b2c-4a0e-9d25-5d5a3c2a9b61</correlationId>
+            <requesterNSA>urn:ogf:network:es.net:2013:nsa:sense-rm</requesterNSA>
+            <providerNSA>urn:ogf:network:es.net:2013:nsa:nsi-aggr-west</providerNSA>
+          </head:nsiHeader>
+        </soap:Header>
+        <soap:Body>
+          <types:acknowledgment xmlns:types="http://schemas.ogf.org/nsi/2013/12/connection/types"/>
+        </soap:Body>
+      </soap:Envelope>
+      """;
+
+  private static final String FAULT = """
+      <soap:Envelope xmlns:soap="http://schemas.xmlsoap.org/soap/envelope/">
+        <soap:Body>
+          <soap:Fault>
+            <faultcode>soap:Server</faultcode>
+            <faultstring>provider unavailable</faultstring>
+          </soap:Fault>
+        </soap:Body>
+      </soap:Envelope>
+      """;
+
+  private HttpServer server;
+  private String url;
+  private String faultUrl;
+
+  @Before
+  public void before() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext("/provider", exchange -> respond(exchange, 200, ACK));
+    server.createContext("/fault", exchange -> respond(exchange, 500, FAULT));
+    server.setExecutor(Executors.newFixedThreadPool(4));
+    server.start();
+    url = "http://localhost:" + server.getAddress().getPort() + "/provider";
+    faultUrl = "http://localhost:" + server.getAddress().getPort() + "/fault";
+  }
+
+  private static void respond(HttpExchange exchange, int status, String response) throws IOException {
+    exchange.getRequestBody().readAllBytes();
+    byte[] body = response.getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().add("Content-Type", "text/xml; charset=UTF-8");
+    exchange.getResponseHeaders().add("Connection", "close");
+    exchange.sendResponseHeaders(status, body.length);
+    try (OutputStream os = exchange.getResponseBody()) {
+      os.write(body);
+    }
+  }
+
+  @After
+  public void after() {
+    server.stop(0);
+    ClientUtil.getPool().clear();
+    Client.getPool().clear();
+  }
+
+  private static void terminate(ConnectionProviderPort proxy) throws Exception {
+    CommonHeaderType requestHeader = NsiHeader.builder()
+        .correlationId(Helper.getUUID())
+        .providerNSA("urn:ogf:network:es.net:2013:nsa:nsi-aggr-west")
+        .requesterNSA("urn:ogf:network:es.net:2013:nsa:sense-rm")
+        .replyTo("http://localhost/nsi/ConnectionServiceRequester")
+        .build()
+        .getRequestHeaderType();
+
+    Holder<CommonHeaderType> header = new Holder<>();
+    header.value = requestHeader;
+
+    GenericRequestType terminate = FACTORY.createGenericRequestType();
+    terminate.setConnectionId("cid-1");
+    Assert.assertNotNull(proxy.terminate(terminate, header));
+  }
+
+  @Test
+  public void testReuse() throws Exception {
+    long created = ClientUtil.getPool().getCreated();
+
+    try (ClientUtil client = new ClientUtil(url)) {
+      terminate(client.getProxy());
+    }
+    Assert.assertEquals(1, ClientUtil.getPool().getIdle(url));
+
+    // The returned proxy is reused by the next request to the same endpoint.
+    try (ClientUtil client = new ClientUtil(url)) {
+      Assert.assertEquals(0, ClientUtil.getPool().getIdle(url));
+      Assert.assertEquals(created + 1, ClientUtil.getPool().getCreated());
+      terminate(client.getProxy());
+    }
+    Assert.assertEquals(created + 1, ClientUtil.getPool().getCreated());
+    Assert.assertEquals(1, ClientUtil.getPool().getIdle(url));
+  }
+
+  @Test
+  public void testFailedDiscarded() throws Exception {
+    long created = ClientUtil.getPool().getCreated();
+    long discarded = ClientUtil.getPool().getDiscarded();
+
+    // A proxy whose request failed is not returned to the pool.
+    try (ClientUtil client = new ClientUtil(faultUrl)) {
+      terminate(client.getProxy());
+      Assert.fail("fault was not thrown");
+    } catch (Exception ex) {
+      log.debug("[ClientUtilTest] expected fault", ex);
+    }
+    Assert.assertEquals(0, ClientUtil.getPool().getIdle(faultUrl));
+    Assert.assertEquals(discarded + 1, ClientUtil.getPool().getDiscarded());
+
+    // The next request builds a fresh proxy.
+    try (ClientUtil client = new ClientUtil(faultUrl)) {
+      Assert.assertEquals(created + 2, ClientUtil.getPool().getCreated());
+    }
+    Assert.assertEquals(1, ClientUtil.getPool().getIdle(faultUrl));
+  }
+
+  @Test
+  public void testMaxIdle() throws Exception {
+    ProxyPool pool = Client.getPool();
+    int maxIdle = pool.getMaxIdle();
+    pool.setMaxIdle(1);
+    try {
+      // Proxies returned above the idle limit are dropped.
+      try (Client first = new Client(url); Client second = new Client(url)) {
+        Assert.assertNotSame(first.getProxy(), second.getProxy());
+      }
+      Assert.assertEquals(1, pool.getIdle(url));
+
+      // No proxies are kept once pooling is disabled.
+      pool.setMaxIdle(0);
+      try (Client client = new Client(url)) {
+        Assert.assertEquals(0, pool.getIdle(url));
+      }
+      Assert.assertEquals(0, pool.getIdle(url));
+    } finally {
+      pool.setMaxIdle(maxIdle);
+    }
+  }
+
+  @Test
+  public void testSessionNotMaintained() {
+    // Pooled proxies never share session cookies between borrowers.
+    try (ClientUtil client = new ClientUtil(url)) {
+      BindingProvider bp = (BindingProvider) client.getProxy();
+      Assert.assertEquals(Boolean.FALSE, bp.getRequestContext().get(BindingProvider.SESSION_MAINTAIN_PROPERTY));
+    }
+    try (Client client = new Client(url)) {
+      BindingProvider bp = (BindingProvider) client.getProxy();
+      Assert.assertEquals(Boolean.FALSE, bp.getRequestContext().get(BindingProvider.SESSION_MAINTAIN_PROPERTY));
+    }
+  }
+
+  @Test
+  public void testConcurrent() throws Exception {
+    long created = ClientUtil.getPool().getCreated();
+    int threads = 4;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<?>> results = new ArrayList<>();
+      for (int i = 0; i < threads * 10; i++) {
+        results.add(executor.submit(() -> {
+          try (ClientUtil client = new ClientUtil(url)) {
+            terminate(client.getProxy());
+          }
+          return null;
+        }));
+      }
+      for (Future<?> result : results) {
+        result.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+
+    // Concurrent requests never share a proxy so at most one proxy per thread is built.
+    Assert.assertTrue(ClientUtil.getPool().getIdle(url) <= threads);
+    Assert.assertTrue(ClientUtil.getPool().getCreated() - created <= threads);
+  }
+
+  private interface Call {
+    void run() throws Exception;
+  }
+
+  private static double callsPerSecond(int calls, Call call) throws Exception {
+    long start = System.nanoTime();
+    for (int i = 0; i < calls; i++) {
+      call.run();
+    }
+    return calls / ((System.nanoTime() - start) / 1e9);
+  }
+
+  /**
+   * Compare the calls per second of building a new proxy for each request
+   * against borrowing a pooled proxy.
+   *
+   * @throws Exception
+   */
+  @Test
+  public void proxyBenchmark() throws Exception {
+    int calls = 200;
+
+    // Warm up the JAXB and service model caches shared by both approaches.
+    callsPerSecond(20, () -> terminate(ClientUtil.createProviderClient(url)));
+
+    double unpooled = callsPerSecond(calls, () -> terminate(ClientUtil.createProviderClient(url)));
+    double pooled = callsPerSecond(calls, () -> {
+      try (ClientUtil client = new ClientUtil(url)) {
+        terminate(client.getProxy());
+      }
+    });
+
+    // Timings vary with the build host so are reported rather than asserted.
+    log.info("[ClientUtilTest] new proxy per call: {} calls/s, pooled proxy: {} calls/s",
+        String.format("%.1f", unpooled), String.format("%.1f", pooled));
+  }
+}
@@ -19,13 +19,20 @@
  */
 package net.es.sense.rm.driver.nsi;
 
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import net.es.sense.rm.driver.api.ResourceEvent;
+import net.es.sense.rm.driver.api.mrml.ModelUtil;
 import net.es.sense.rm.driver.nsi.cs.db.ConnectionMapService;
+import net.es.sense.rm.driver.nsi.cs.db.P2psCache;
 import net.es.sense.rm.driver.nsi.cs.db.ReservationService;
+import net.es.sense.rm.driver.nsi.db.CurrentModelHolder;
 import net.es.sense.rm.driver.nsi.db.Model;
+import net.es.sense.rm.driver.nsi.db.ModelGraphCache;
 import net.es.sense.rm.driver.nsi.db.ModelService;
 import net.es.sense.rm.driver.nsi.dds.api.DocumentReader;
 import net.es.sense.rm.driver.nsi.mrml.MrmlFactory;
+import net.es.sense.rm.driver.nsi.mrml.MrmlGraphCache;
 import net.es.sense.rm.driver.nsi.mrml.NmlModel;
 import net.es.sense.rm.driver.nsi.mrml.SwitchingSubnetModel;
 import net.es.sense.rm.driver.nsi.properties.NsiProperties;
@@ -33,11 +40,17 @@ import net.es.sense.rm.measurements.MeasurementController;
 import net.es.sense.rm.measurements.db.MeasurementType;
 import net.es.sense.rm.measurements.db.MetricType;
 import org.apache.jena.riot.Lang;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Audit the information associated with our MRML model and generate a new model if anything has changed.
@@ -51,8 +64,14 @@ public class AuditServiceBean implements AuditService {
   private final DocumentReader documentReader;
   private final ReservationService reservationService;
   private final ConnectionMapService connectionMapService;
+  private final P2psCache p2psCache;
   private final ModelService modelService;
+  private final CurrentModelHolder currentModelHolder;
+  private final ModelGraphCache modelGraphCache;
   private final MeasurementController measurementController;
+  private final ApplicationEventPublisher eventPublisher;
+  private final Map<String, MrmlGraphCache> graphCache = new ConcurrentHashMap<>();
+  private final ForkJoinPool parserPool;
   private long lastDds = 0;
   private long lastCon = 0;
 
@@ -63,18 +82,40 @@ public class AuditServiceBean implements AuditService {
    * @param documentReader
    * @param reservationService
    * @param connectionMapService
+   * @param p2psCache
    * @param modelService
+   * @param currentModelHolder
+   * @param modelGraphCache
    * @param measurementController
+   * @param eventPublisher
    */
   public AuditServiceBean(NsiProperties nsiProperties, DocumentReader documentReader,
                           ReservationService reservationService, ConnectionMapService connectionMapService,
-                          ModelService modelService, MeasurementController measurementController) {
+                          P2psCache p2psCache, ModelService modelService,
+                          CurrentModelHolder currentModelHolder, ModelGraphCache modelGraphCache,
+                          MeasurementController measurementController, ApplicationEventPublisher eventPublisher) {
     this.nsiProperties = nsiProperties;
     this.documentReader = documentReader;
     this.reservationService = reservationService;
     this.connectionMapService = connectionMapService;
+    this.p2psCache = p2psCache;
     this.modelService = modelService;
+    this.currentModelHolder = currentModelHolder;
+    this.modelGraphCache = modelGraphCache;
     this.measurementController = measurementController;
+    this.eventPublisher = eventPublisher;
+    this.parserPool = nsiProperties.getModelAuditParallelism() > 1
+        ? new ForkJoinPool(nsiProperties.getModelAuditParallelism()) : null;
+  }
+
+  /**
+   * Release the NML parser threads on shutdown.
+   */
+  @PreDestroy
+  public void destroy() {
+    if (parserPool != null) {
+      parserPool.shutdown();
+    }
   }
 
   /**
@@ -124,8 +165,12 @@ public class AuditServiceBean implements AuditService {
 
     log.debug("[AuditService] generating NML topology model, new dds = {}, con = {}", dds, con);
 
+    // Time spent in each phase of the audit, recorded as measurements once
+    // the audit completes or is skipped.
+    Map<MeasurementType, Long> phases = new EnumMap<>(MeasurementType.class);
+
     // Get the new document context.
-    NmlModel nml = new NmlModel(documentReader);
+    NmlModel nml = new NmlModel(documentReader, parserPool);
     nml.setDefaultServiceType(nsiProperties.getDefaultServiceType());
     nml.setDefaultType(nsiProperties.getDefaultType());
     nml.setDefaultUnits(nsiProperties.getDefaultUnits());
@@ -134,9 +179,18 @@ public class AuditServiceBean implements AuditService {
     log.debug("[AuditService] processing topologyId = {}", topologyId);
 
     try {
+      // Load the NML port model now so the DDS decode and NML load phases
+      // are not attributed to the SwitchingSubnet model.
+      nml.getPorts();
+      phases.put(MeasurementType.MODEL_AUDIT_DDS_DECODE, nml.getDecodeTime());
+      phases.put(MeasurementType.MODEL_AUDIT_NML_LOAD, nml.getLoadTime());
+
       // Generate a SwitchingSubnet model based off of the NSI connections and
       // discovered NML model.
-      SwitchingSubnetModel ssm = new SwitchingSubnetModel(reservationService, connectionMapService, nml, topologyId);
+      long phase = System.currentTimeMillis();
+      SwitchingSubnetModel ssm = new SwitchingSubnetModel(reservationService, connectionMapService, p2psCache, nml,
+          topologyId);
+      phases.put(MeasurementType.MODEL_AUDIT_SWITCHING_SUBNET, System.currentTimeMillis() - phase);
 
       // Now generate an MRML model based on the combined NSI and NML information.
       log.debug("[AuditService] generating MRML model.");
@@ -145,31 +199,63 @@ public class AuditServiceBean implements AuditService {
       // Check to see if this is a new version.
       if (modelService.isPresent(topologyId, mrml.getVersion())) {
         log.info("[AuditService] found matching model topologyId = {}, version = {}.", topologyId, mrml.getVersion());
+        record(MeasurementType.MODEL_AUDIT_SKIPPED, topologyId, phases, start);
       } else {
-        log.info("[AuditService] adding new topology version, topologyId = {}, version = {}", topologyId, mrml.getVersion());
-        String modelAsString = mrml.getModelAsString(Lang.TURTLE);
-
-        UUID uuid = UUID.randomUUID();
-        Model model = new Model();
-        model.setTopologyId(topologyId);
-        model.setModelId(uuid.toString());
-        model.setVersion(mrml.getVersion());
-        model.setBase(modelAsString);
-
-        Model create = modelService.create(model);
-        if (create != null) {
-          log.debug("[AuditService] created modelId = {} for topology {}",
-                  create.getModelId(), create.getTopologyId());
+        phase = System.currentTimeMillis();
+        org.apache.jena.rdf.model.Model mrmlModel = generateModel(topologyId, mrml);
+
+        // A new version does not always mean new content (a DDS document
+        // republished or a reservation rediscovered) so compare the content
+        // hash against the current model before storing a new version.
+        String hash = mrml.getContentHash(mrmlModel);
+        phases.put(MeasurementType.MODEL_AUDIT_MRML_BUILD, System.currentTimeMillis() - phase);
+
+        Model current = currentModelHolder.get(topologyId);
+        if (current != null && hash.equals(current.getHash())) {
+          log.info("[AuditService] model content unchanged, skipping topologyId = {}, version = {}, modelId = {}",
+              topologyId, mrml.getVersion(), current.getModelId());
+          record(MeasurementType.MODEL_AUDIT_SKIPPED, topologyId, phases, start);
         } else {
-          log.error("[AuditService] failed to create modelId = {} for topology {}",
-                  model.getModelId(), model.getTopologyId());
-        }
+          log.info("[AuditService] adding new topology version, topologyId = {}, version = {}",
+              topologyId, mrml.getVersion());
+
+          UUID uuid = UUID.randomUUID();
+          Model model = new Model();
+          model.setTopologyId(topologyId);
+          model.setModelId(uuid.toString());
+          model.setVersion(mrml.getVersion());
+          model.setHash(hash);
+
+          phase = System.currentTimeMillis();
+          model.setBase(ModelUtil.marshalModel(mrmlModel, Lang.TURTLE.getName()));
+          phases.put(MeasurementType.MODEL_AUDIT_MARSHAL, System.currentTimeMillis() - phase);
+
+          phase = System.currentTimeMillis();
+          Model create = modelService.create(model);
+          phases.put(MeasurementType.MODEL_AUDIT_STORE, System.currentTimeMillis() - phase);
+
+          if (create != null) {
+            log.debug("[AuditService] created modelId = {} for topology {}",
+                create.getModelId(), create.getTopologyId());
 
-        measurementController.add(
-                MeasurementType.MODEL_AUDIT,
-                uuid.toString(),
-                MetricType.DURATION,
-                String.valueOf(System.currentTimeMillis() - start));
+            // Publish the new model to readers of the current model, keeping
+            // the generated graph so deltas against it need not parse it again.
+            modelGraphCache.put(create, mrmlModel);
+            currentModelHolder.set(create);
+            eventPublisher.publishEvent(ResourceEvent.model(create.getModelId(), create.getCreated()));
+          } else {
+            log.error("[AuditService] failed to create modelId = {} for topology {}",
+                model.getModelId(), model.getTopologyId());
+          }
+
+          record(MeasurementType.MODEL_AUDIT, uuid.toString(), phases, start);
+
+          // Model size so growth in the published model is visible alongside the timings.
+          measurementController.add(MeasurementType.MODEL_AUDIT, uuid.toString(),
+              MetricType.TRIPLES, String.valueOf(mrmlModel.size()));
+          measurementController.add(MeasurementType.MODEL_AUDIT, uuid.toString(),
+              MetricType.BYTES, String.valueOf(model.getBase().getBytes(StandardCharsets.UTF_8).length));
+        }
       }
     } catch (Exception ex) {
       log.error("[AuditService] caught an unexpected exception so aborting model generation", ex);
@@ -184,4 +270,52 @@ public class AuditServiceBean implements AuditService {
     // Delete older models (keep last 5).
     modelService.purge(topologyId, nsiProperties.getModelPruneSize());
   }
+
+  /**
+   * Record the duration of each audit phase and the total audit duration.
+   *
+   * @param audit The measurement for the total audit duration, either completed or skipped.
+   * @param resource The resource identifier for the measurements (modelId or topologyId).
+   * @param phases The duration in milliseconds of each completed audit phase.
+   * @param start The time the audit started.
+   */
+  private void record(MeasurementType audit, String resource, Map<MeasurementType, Long> phases, long start) {
+    phases.forEach((phase, duration) ->
+        measurementController.add(phase, resource, MetricType.DURATION, String.valueOf(duration)));
+    measurementController.add(audit, resource, MetricType.DURATION,
+        String.valueOf(System.currentTimeMillis() - start));
+    log.info("[AuditService] audit {} resource = {}, phases = {}", audit, resource, phases);
+  }
+
+  /**
+   * Generate the MRML model, reusing unchanged sections of the previously
+   * generated model if incremental generation is enabled.
+   *
+   * @param topologyId The topology being modelled.
+   * @param mrml The MRML factory for the new model.
+   * @return The new model.
+   */
+  private org.apache.jena.rdf.model.Model generateModel(String topologyId, MrmlFactory mrml) {
+    if (!nsiProperties.isModelAuditIncremental()) {
+      return mrml.getModel();
+    }
+
+    MrmlGraphCache cache = graphCache.computeIfAbsent(topologyId, k -> new MrmlGraphCache());
+    synchronized (cache) {
+      org.apache.jena.rdf.model.Model model = mrml.getModel(cache);
+
+      if (nsiProperties.isModelAuditVerify()) {
+        org.apache.jena.rdf.model.Model full = mrml.getModel();
+        if (!model.isIsomorphicWith(full)) {
+          log.error("[AuditService] incremental model does not match full rebuild, topologyId = {}", topologyId);
+          cache.clear();
+          model = full;
+        } else {
+          log.info("[AuditService] incremental model verified against full rebuild, topologyId = {}", topologyId);
+        }
+      }
+
+      return model;
+    }
+  }
 }
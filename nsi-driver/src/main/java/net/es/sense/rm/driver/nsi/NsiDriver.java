@@ -31,10 +31,14 @@ import lombok.extern.slf4j.Slf4j;
 import net.es.nsi.common.util.XmlUtilities;
 import net.es.sense.rm.driver.api.*;
 import net.es.sense.rm.driver.api.mrml.ModelUtil;
+import net.es.sense.rm.driver.api.mrml.SubgraphQuery;
 import net.es.sense.rm.driver.nsi.db.Delta;
 import net.es.sense.rm.driver.nsi.db.DeltaService;
+import net.es.sense.rm.driver.nsi.db.DeltaSummary;
 import net.es.sense.rm.driver.nsi.db.Model;
+import net.es.sense.rm.driver.nsi.db.ModelGraphCache;
 import net.es.sense.rm.driver.nsi.db.ModelService;
+import net.es.sense.rm.driver.nsi.db.ModelSummary;
 import net.es.sense.rm.driver.nsi.messages.AuditRequest;
 import net.es.sense.rm.driver.nsi.properties.NsiProperties;
 import net.es.sense.rm.model.DeltaRequest;
@@ -44,15 +48,20 @@ import net.es.sense.rm.model.ModelResource;
 import org.apache.jena.ontology.OntModel;
 import org.ogf.schemas.nsi._2013._12.connection.provider.ServiceException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 
 import javax.xml.datatype.DatatypeConfigurationException;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.Future;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
 /**
@@ -64,12 +73,18 @@ import java.util.concurrent.TimeoutException;
 public class NsiDriver implements Driver {
   private final NsiProperties nsiProperties;
   private final RaController raController;
+  private final ApplicationEventPublisher eventPublisher;
+  private final Executor driverExecutor;
   private String networkId;
 
   @Autowired
-  public NsiDriver(NsiProperties nsiProperties, RaController raController) {
+  public NsiDriver(NsiProperties nsiProperties, RaController raController,
+                   ApplicationEventPublisher eventPublisher,
+                   @Qualifier("driverExecutor") Executor driverExecutor) {
     this.nsiProperties = nsiProperties;
     this.raController = raController;
+    this.eventPublisher = eventPublisher;
+    this.driverExecutor = driverExecutor;
   }
 
   /**
@@ -115,53 +130,101 @@ public class NsiDriver implements Driver {
    */
   @Override
   @Async
-  public Future<ModelResponse> getModel(String id, String modelType, long ifModifiedSince) {
+  public CompletableFuture<ModelResponse> getModel(String id, String modelType, long ifModifiedSince) {
+    return this.getModel(id, modelType, ifModifiedSince, null);
+  }
+
+  /**
+   * Get the subgraph of a specific MRML model identified by <b>id</b>.
+   *
+   * @param id The model identifier to return.
+   *
+   * @param modelType Specifies the model encoding to use (i.e. turtle, ttl, json-ld, etc).
+   *
+   * @param ifModifiedSince Return model only if newer than this date, otherwise throw NotModifiedException.
+   *
+   * @param query The subgraph to return, or null for the complete model.
+   *
+   * @return A Future promise to return a ModelResponse matching id if one exists.
+   */
+  @Override
+  @Async
+  public CompletableFuture<ModelResponse> getModel(String id, String modelType, long ifModifiedSince,
+                                                   SubgraphQuery query) {
+    return CompletableFuture.completedFuture(lookupModel(id, modelType, ifModifiedSince, query));
+  }
+
+  /**
+   * Get a specific MRML model identified by <b>id</b> on the calling thread.
+   *
+   * @param id The model identifier to return.
+   * @param modelType Specifies the model encoding to use (i.e. turtle, ttl, json-ld, etc).
+   * @param ifModifiedSince Return model only if newer than this date.
+   * @param query The subgraph to return, or null for the complete model.
+   * @return A ModelResponse matching id if one exists.
+   */
+  private ModelResponse lookupModel(String id, String modelType, long ifModifiedSince, SubgraphQuery query) {
 
     ModelResponse response = new ModelResponse();
-    CompletableFuture<ModelResponse> cf = new CompletableFuture<>();
 
     // A valid model type must be provided.
     if (!ModelUtil.isSupported(modelType)) {
       response.setStatus(Status.BAD_REQUEST);
       response.setError(Optional.of("Specified model type = " + modelType + " not supported."));
-      cf.complete(response);
-      return cf;
+      return response;
     }
 
     // Convert the internal referencedModel representation to the driver interface referencedModel.
     try {
+      // Check the model metadata before reading the model contents.
       ModelService modelService = raController.getModelService();
-      Model model = modelService.getByModelId(id);
-      if (model == null) {
+      ModelSummary summary = modelService.getSummaryByModelId(id);
+      if (summary == null) {
         response.setStatus(Status.NOT_FOUND);
         response.setError(Optional.of("model does not exist, id = " + id));
-        cf.complete(response);
-        return cf;
+        return response;
       }
 
-      long version = (model.getCreated() / 1000) * 1000;
+      long version = (summary.getCreated() / 1000) * 1000;
       if (version <= ifModifiedSince) {
         response.setStatus(Status.NOT_MODIFIED);
-        cf.complete(response);
-        return cf;
+        return response;
+      }
+
+      Model model = modelService.getByModelId(id);
+      if (model == null) {
+        response.setStatus(Status.NOT_FOUND);
+        response.setError(Optional.of("model does not exist, id = " + id));
+        return response;
       }
 
       ModelResource result = new ModelResource();
       result.setId(model.getModelId());
       result.setCreationTime(XmlUtilities.longToXMLGregorianCalendar(version).toXMLFormat());
-      result.setModel(model.getBase());
+      result.setModel(encode(model, modelType, query));
       response.setModel(Optional.of(result));
-      cf.complete(response);
-      return cf;
+      return response;
     } catch (IllegalArgumentException | DatatypeConfigurationException ex) {
       log.error("[NsiDriver] ontology creation failed for networkId = {}.", networkId);
       response.setStatus(Status.INTERNAL_SERVER_ERROR);
       response.setError(Optional.of("Could not generate model for networkId = " + networkId));
-      cf.complete(response);
-      return cf;
+      return response;
     }
   }
 
+  /**
+   * Get a specific MRML model identified by <b>id</b> on the calling thread
+   * rather than queuing on the driver executor.
+   *
+   * @param id The model identifier to return.
+   * @param modelType Specifies the model encoding to use (i.e. turtle, ttl, json-ld, etc).
+   * @return A ModelResponse matching id if one exists.
+   */
+  @Override
+  public ModelResponse lookupModel(String id, String modelType) {
+    return lookupModel(id, modelType, 0L, null);
+  }
+
   /**
    * Get a specific MRML model identified by <b>id</b>.
    *
@@ -173,7 +236,7 @@ public class NsiDriver implements Driver {
    */
   @Override
   @Async
-  public Future<ModelResponse> getModel(String id, String modelType) {
+  public CompletableFuture<ModelResponse> getModel(String id, String modelType) {
     return this.getModel(id, modelType, 0L);
   }
 
@@ -189,7 +252,25 @@ public class NsiDriver implements Driver {
    */
   @Override
   @Async
-  public Future<ModelsResponse> getModels(String modelType, long ifModifiedSince) {
+  public CompletableFuture<ModelsResponse> getModels(String modelType, long ifModifiedSince) {
+    return this.getModels(modelType, ifModifiedSince, false);
+  }
+
+  /**
+   * Get a list of MRML models matching the specified query parameters.
+   *
+   * @param modelType Specifies the model encoding to use (i.e. turtle, ttl, json-ld, etc).
+   *
+   * @param ifModifiedSince Return model only if newer than this date, otherwise throw NotModifiedException.
+   *
+   * @param summary Return only the model metadata, in which case the model contents are not read.
+   *
+   * @return A Future promise to return a Collection of ModelResponse matching query.  The
+   *    returned collection may be empty if no models match the requested criteria.
+   */
+  @Override
+  @Async
+  public CompletableFuture<ModelsResponse> getModels(String modelType, long ifModifiedSince, boolean summary) {
 
     ModelsResponse response = new ModelsResponse();
     CompletableFuture<ModelsResponse> cf = new CompletableFuture<>();
@@ -206,6 +287,24 @@ public class NsiDriver implements Driver {
     ModelService modelService = raController.getModelService();
     try {
       Collection<ModelResource> results = new ArrayList<>();
+
+      // Summary results only need the model metadata so avoid reading the model contents.
+      if (summary) {
+        for (ModelSummary m : modelService.getSummaryByTopologyId(networkId, ifModifiedSince)) {
+          ModelResource model = new ModelResource();
+          model.setId(m.getModelId());
+          model.setCreationTime(XmlUtilities
+                  .longToXMLGregorianCalendar((m.getCreated() / 1000) * 1000).toXMLFormat());
+
+          log.info("[NsiDriver] found matching modelId = {}", model.getId());
+          results.add(model);
+        }
+
+        response.setModels(results);
+        cf.complete(response);
+        return cf;
+      }
+
       Collection<Model> models = modelService.getByTopologyId(networkId, ifModifiedSince);
 
       // If we did get a set of results we need to map them into a ModelResource to return.
@@ -215,7 +314,7 @@ public class NsiDriver implements Driver {
           model.setId(m.getModelId());
           model.setCreationTime(XmlUtilities
                   .longToXMLGregorianCalendar((m.getCreated() / 1000) * 1000).toXMLFormat());
-          model.setModel(m.getBase());
+          model.setModel(raController.getModelEncodingCache().get(m, modelType));
 
           log.info("[NsiDriver] found matching modelId = {}", model.getId());
           results.add(model);
@@ -251,7 +350,7 @@ public class NsiDriver implements Driver {
    */
   @Override
   @Async
-  public Future<ModelsResponse> getModels(String modelType) {
+  public CompletableFuture<ModelsResponse> getModels(String modelType) {
     return this.getModels(modelType, 0L);
   }
 
@@ -267,23 +366,51 @@ public class NsiDriver implements Driver {
    */
   @Override
   @Async
-  public Future<ModelResponse> getCurrentModel(String modelType, long ifModifiedSince) {
+  public CompletableFuture<ModelResponse> getCurrentModel(String modelType, long ifModifiedSince) {
+    return this.getCurrentModel(modelType, ifModifiedSince, null);
+  }
+
+  /**
+   * Get the subgraph of the current MRML model.
+   *
+   * @param modelType Specifies the model encoding to use (i.e. turtle, ttl, json-ld, etc).
+   *
+   * @param ifModifiedSince Return model only if newer than this date, otherwise throw NotModifiedException.
+   *
+   * @param query The subgraph to return, or null for the complete model.
+   *
+   * @return A Future promise to return a ModelResponse containing the current MRML model.
+   */
+  @Override
+  @Async
+  public CompletableFuture<ModelResponse> getCurrentModel(String modelType, long ifModifiedSince,
+                                                          SubgraphQuery query) {
+    return CompletableFuture.completedFuture(lookupCurrentModel(modelType, ifModifiedSince, query));
+  }
+
+  /**
+   * Get the subgraph of the current MRML model on the calling thread.
+   *
+   * @param modelType Specifies the model encoding to use (i.e. turtle, ttl, json-ld, etc).
+   * @param ifModifiedSince Return model only if newer than this date.
+   * @param query The subgraph to return, or null for the complete model.
+   * @return A ModelResponse containing the current MRML model.
+   */
+  private ModelResponse lookupCurrentModel(String modelType, long ifModifiedSince, SubgraphQuery query) {
 
     ModelResponse response = new ModelResponse();
-    CompletableFuture<ModelResponse> cf = new CompletableFuture<>();
 
     // A valid model type must be provided.
     if (!ModelUtil.isSupported(modelType)) {
       response.setStatus(Response.Status.BAD_REQUEST);
       response.setError(Optional.of("Specified model type = " + modelType + " not supported."));
-      cf.complete(response);
-      return cf;
+      return response;
     }
 
-    // The RA Controller maintains a database of MRML models created from NML and NSI connections.
+    // The RA Controller maintains a database of MRML models created from NML
+    // and NSI connections, with the current model held in memory.
     try {
-      ModelService modelService = raController.getModelService();
-      Model model = modelService.getCurrent(networkId);
+      Model model = raController.getCurrentModelHolder().get(networkId);
 
       // If we did get a set of results we need to map them into a ModelResource to return.
       if (model != null) {
@@ -297,8 +424,7 @@ public class NsiDriver implements Driver {
                   "model version = {} <= ifModifiedSince = {}",
                   model.getModelId(), version, ifModifiedSince);
           response.setStatus(Response.Status.NOT_MODIFIED);
-          cf.complete(response);
-          return cf;
+          return response;
         }
 
         log.debug("[NsiDriver] getCurrentModel: model id = {} MODIFIED, " +
@@ -309,26 +435,23 @@ public class NsiDriver implements Driver {
         result.setId(model.getModelId());
         result.setCreationTime(XmlUtilities
                 .longToXMLGregorianCalendar(version).toXMLFormat());
-        result.setModel(model.getBase());
+        result.setModel(encode(model, modelType, query));
 
         log.info("[NsiDriver] found current matching modelId = {}", model.getIdx());
         response.setModel(Optional.of(result));
-        cf.complete(response);
-        return cf;
+        return response;
       }
     } catch (IllegalArgumentException | DatatypeConfigurationException ex) {
       log.error("[NsiDriver] ontology creation failed for networkId = {}.", networkId, ex);
       response.setStatus(Response.Status.INTERNAL_SERVER_ERROR);
       response.setError(Optional.of("Could not generate model for networkId = " + networkId));
-      cf.complete(response);
-      return cf;
+      return response;
     }
 
     log.info("[NsiDriver] no matching model entries returned for network = {}", networkId);
     response.setStatus(Response.Status.NOT_FOUND);
     response.setError(Optional.of("no current model exists"));
-    cf.complete(response);
-    return cf;
+    return response;
   }
 
   /**
@@ -341,10 +464,63 @@ public class NsiDriver implements Driver {
    */
   @Override
   @Async
-  public Future<ModelResponse> getCurrentModel(String modelType) {
+  public CompletableFuture<ModelResponse> getCurrentModel(String modelType) {
     return this.getCurrentModel(modelType, 0);
   }
 
+  /**
+   * Wait for the audit to publish a current MRML model newer than the
+   * specified date without holding a thread while waiting.
+   *
+   * @param ifModifiedSince Wait for a model newer than this date.
+   *
+   * @param timeout The maximum time to wait.
+   *
+   * @return A Future promise completed with true if a newer model exists, or
+   *    false if the timeout expired first.  Any other failure completes the
+   *    future exceptionally.
+   */
+  @Override
+  public CompletableFuture<Boolean> awaitCurrentModel(long ifModifiedSince, Duration timeout) {
+    // Model versions are compared at a granularity of seconds.
+    long created = (ifModifiedSince / 1000) * 1000 + 999;
+    return raController.getCurrentModelHolder().await(networkId, created)
+        .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+        .handle((model, ex) -> {
+          Throwable cause = ex instanceof CompletionException ? ex.getCause() : ex;
+          if (cause == null) {
+            return true;
+          } else if (cause instanceof TimeoutException) {
+            return false;
+          }
+          throw ex instanceof CompletionException ce ? ce : new CompletionException(cause);
+        });
+  }
+
+  /**
+   * Wait for the audit to publish a current MRML model newer than the
+   * specified date and return it.  No driver thread is held while waiting;
+   * once released, each request is served on the driver executor from the
+   * single published model and its shared encoding.
+   *
+   * @param modelType Specifies the model encoding to use (i.e. turtle, ttl, json-ld, etc).
+   *
+   * @param ifModifiedSince Wait for a model newer than this date.
+   *
+   * @param timeout The maximum time to wait.
+   *
+   * @param query The subgraph to return, or null for the complete model.
+   *
+   * @return A Future promise to return a ModelResponse containing the current MRML model, or
+   *    NOT_MODIFIED if the timeout expired first.
+   */
+  @Override
+  public CompletableFuture<ModelResponse> awaitCurrentModel(String modelType, long ifModifiedSince, Duration timeout,
+                                                            SubgraphQuery query) {
+    return awaitCurrentModel(ifModifiedSince, timeout)
+        .thenApplyAsync(newer -> lookupCurrentModel(modelType, ifModifiedSince, query), driverExecutor);
+  }
+
   /**
    * Apply a MRML model delta to a specific model resource.
    *
@@ -356,7 +532,7 @@ public class NsiDriver implements Driver {
    */
   @Override
   @Async
-  public Future<DeltaResponse> propagateDelta(DeltaRequest deltaRequest, String modelType) {
+  public CompletableFuture<DeltaResponse> propagateDelta(DeltaRequest deltaRequest, String modelType) {
     DeltaResponse response = new DeltaResponse();
     CompletableFuture<DeltaResponse> cf = new CompletableFuture<>();
 
@@ -387,7 +563,7 @@ public class NsiDriver implements Driver {
     //  lead to some model conflicts in the future.  Revisit this if issues arise.
 
     // We need to apply the reduction and addition to the current referenced model.
-    Model currentModel = modelService.getCurrent(nsiProperties.getNetworkId());
+    Model currentModel = raController.getCurrentModelHolder().get(nsiProperties.getNetworkId());
     if (currentModel == null) {
       log.error("[NsiDriver] Could not find current model for networkId = {}", nsiProperties.getNetworkId());
       response.setStatus(Status.INTERNAL_SERVER_ERROR);
@@ -397,9 +573,11 @@ public class NsiDriver implements Driver {
     }
 
     try {
-      // Get the referencedModel on which we apply the changes.
-      OntModel originalModel = ModelUtil.unmarshalOntModelTurtle(referencedModel.getBase());
-      OntModel updatedModel = ModelUtil.unmarshalOntModelTurtle(currentModel.getBase());
+      // Get the referencedModel on which we apply the changes.  The cached
+      // model graphs are shared so we work on copy-on-write views of them.
+      ModelGraphCache graphs = raController.getModelGraphCache();
+      OntModel originalModel = ModelUtil.newCopyOnWriteOntModel(graphs.get(referencedModel));
+      OntModel updatedModel = ModelUtil.newCopyOnWriteOntModel(graphs.get(currentModel));
 
       // Apply the delta reduction.
       Optional<OntModel> reduction = Optional.empty();
@@ -432,7 +610,7 @@ public class NsiDriver implements Driver {
       delta.setAddition(deltaRequest.getAddition());
       delta.setReduction(deltaRequest.getReduction());
       delta.setResult(ModelUtil.marshalOntModel(updatedModel));
-      long id = deltaService.store(delta).getIdx();
+      long id = store(delta, null).getIdx();
 
       log.info("[NsiDriver] stored deltaId = {}", delta.getDeltaId());
 
@@ -445,8 +623,9 @@ public class NsiDriver implements Driver {
       } catch (Exception ex) {
         log.error("[NsiDriver] NSI CS processing of delta failed,  deltaId = {}", delta.getDeltaId(), ex);
         delta = deltaService.get(id);
+        DeltaState previous = delta.getState();
         delta.setState(DeltaState.Failed);
-        deltaService.store(delta);
+        store(delta, previous);
 
         response.setStatus(ResourceResponse.exceptionToStatus(ex));
         response.setError(Optional.ofNullable(ex.getMessage()));
@@ -457,12 +636,13 @@ public class NsiDriver implements Driver {
       // Read the delta again then update if needed.  The orchestrator should
       // not have a reference yet but just in case.
       delta = deltaService.get(id);
-      if (delta.getState() == DeltaState.Accepting) {
+      DeltaState previous = delta.getState();
+      if (previous == DeltaState.Accepting) {
         delta.setState(DeltaState.Accepted);
       }
 
       delta.setLastModified(System.currentTimeMillis());
-      deltaService.store(delta);
+      store(delta, previous);
 
       // Send back the delta created to the orchestrator.
       DeltaResource deltaResponse = new DeltaResource();
@@ -496,7 +676,7 @@ public class NsiDriver implements Driver {
    */
   @Override
   @Async
-  public Future<DeltaResponse> commitDelta(String id) {
+  public CompletableFuture<DeltaResponse> commitDelta(String id) {
     log.info("[NsiDriver] processing commitDelta for id = {}", id);
 
     DeltaResponse response = new DeltaResponse();
@@ -528,7 +708,7 @@ public class NsiDriver implements Driver {
     // Update our internal delta state.
     delta.setState(DeltaState.Committing);
     delta.setLastModified(System.currentTimeMillis());
-    deltaService.store(delta);
+    store(delta, DeltaState.Accepted);
 
     // Now send the NSI CS commit requests.
     try {
@@ -538,13 +718,14 @@ public class NsiDriver implements Driver {
       // not have a reference yet but just in case.
       delta = deltaService.get(id);
       log.info("[NsiDriver] delta state, id = {}, state = {}.", id, delta.getState().name());
-      if (delta.getState() == DeltaState.Committing) {
+      DeltaState previous = delta.getState();
+      if (previous == DeltaState.Committing) {
         delta.setState(DeltaState.Committed);
         log.info("[NsiDriver] delta state transition to id = {}, state = {}.", id, delta.getState().name());
       }
 
       delta.setLastModified(System.currentTimeMillis());
-      deltaService.store(delta);
+      store(delta, previous);
 
       // We just did something successfully so invoke a model audit to
       // generate an updated version.
@@ -567,8 +748,9 @@ public class NsiDriver implements Driver {
     } catch (ServiceException se) {
       log.error("NSI CS failed {}", se.getFaultInfo());
       delta = deltaService.get(id);
+      DeltaState previous = delta.getState();
       delta.setState(DeltaState.Failed);
-      deltaService.store(delta);
+      store(delta, previous);
       response.setStatus(Status.INTERNAL_SERVER_ERROR);
       response.setError(Optional.of("NSI CS failed, errorId = " + se.getFaultInfo().getErrorId() + "message = " + se.getFaultInfo().getText()));
       cf.complete(response);
@@ -576,8 +758,9 @@ public class NsiDriver implements Driver {
     } catch (IllegalArgumentException | TimeoutException | DatatypeConfigurationException | SOAPFaultException ex) {
       log.error("NSI CS failed", ex);
       delta = deltaService.get(id);
+      DeltaState previous = delta.getState();
       delta.setState(DeltaState.Failed);
-      deltaService.store(delta);
+      store(delta, previous);
       response.setStatus(ResourceResponse.exceptionToStatus(ex));
       response.setError(Optional.of("NSI CS failed, message = " + ex.getMessage()));
       cf.complete(response);
@@ -598,18 +781,28 @@ public class NsiDriver implements Driver {
    */
   @Override
   @Async
-  public Future<DeltaResponse> getDelta(String id, String modelType, long ifModifiedSince) {
+  public CompletableFuture<DeltaResponse> getDelta(String id, String modelType, long ifModifiedSince) {
+    return CompletableFuture.completedFuture(lookupDelta(id, modelType, ifModifiedSince));
+  }
+
+  /**
+   * Get a specific delta resource identified by <b>id</b> on the calling thread.
+   *
+   * @param id The delta identifier to return.
+   * @param modelType Specifies the model encoding to use (i.e. turtle, ttl, json-ld, etc).
+   * @param ifModifiedSince Return delta only if newer than this date.
+   * @return A DeltaResponse matching id if one exists.
+   */
+  private DeltaResponse lookupDelta(String id, String modelType, long ifModifiedSince) {
     log.info("[NsiDriver] processing getDelta for id = {}", id);
 
     DeltaResponse response = new DeltaResponse();
-    CompletableFuture<DeltaResponse> cf = new CompletableFuture<>();
 
     // A valid model type must be provided.
     if (!ModelUtil.isSupported(modelType)) {
       response.setStatus(Status.BAD_REQUEST);
       response.setError(Optional.of("Specified model type = " + modelType + " not supported."));
-      cf.complete(response);
-      return cf;
+      return response;
     }
 
     // Make sure the referenced delta has not expired.
@@ -618,16 +811,14 @@ public class NsiDriver implements Driver {
     if (delta == null) {
       response.setStatus(Status.NOT_FOUND);
       response.setError(Optional.of("Requested delta not found, id = " + id));
-      cf.complete(response);
-      return cf;
+      return response;
     }
 
     long modified = (delta.getLastModified() / 1000) * 1000;
     if (modified <= ifModifiedSince) {
       log.info("[NsiDriver] requested delta not modified, id = {}.", id);
       response.setStatus(Status.NOT_MODIFIED);
-      cf.complete(response);
-      return cf;
+      return response;
     }
 
     try {
@@ -640,17 +831,28 @@ public class NsiDriver implements Driver {
       resource.setReduction(delta.getReduction());
       resource.setAddition(delta.getAddition());
       response.setDelta(Optional.of(resource));
-      cf.complete(response);
-      return cf;
+      return response;
     } catch (DatatypeConfigurationException ex) {
       log.error("[NsiDriver] Failed to encode delta = {}.", delta.getDeltaId());
       response.setStatus(Status.INTERNAL_SERVER_ERROR);
       response.setError(Optional.of("Failed to encode delta id = " + delta.getDeltaId()));
-      cf.complete(response);
-      return cf;
+      return response;
     }
   }
 
+  /**
+   * Get a specific delta resource identified by <b>id</b> on the calling
+   * thread rather than queuing on the driver executor.
+   *
+   * @param id The delta identifier to return.
+   * @param modelType Specifies the model encoding to use (i.e. turtle, ttl, json-ld, etc).
+   * @return A DeltaResponse matching id if one exists.
+   */
+  @Override
+  public DeltaResponse lookupDelta(String id, String modelType) {
+    return lookupDelta(id, modelType, 0L);
+  }
+
   /**
    * Get a specific delta resource identified by <b>id</b>.
    *
@@ -662,7 +864,7 @@ public class NsiDriver implements Driver {
    */
   @Override
   @Async
-  public Future<DeltaResponse> getDelta(String id, String modelType) {
+  public CompletableFuture<DeltaResponse> getDelta(String id, String modelType) {
     return this.getDelta(id, modelType, 0L);
   }
 
@@ -677,8 +879,25 @@ public class NsiDriver implements Driver {
    */
   @Override
   @Async
-  public Future<DeltasResponse> getDeltas(String modelType, long ifModifiedSince) {
-    log.info("[NsiDriver] processing getDeltas for lastModified = {}", ifModifiedSince);
+  public CompletableFuture<DeltasResponse> getDeltas(String modelType, long ifModifiedSince) {
+    return this.getDeltas(modelType, ifModifiedSince, false);
+  }
+
+  /**
+   * Get a list of delta resources matching the specified query parameters.
+   *
+   * @param modelType Specifies the model encoding to use (i.e. turtle, ttl, json-ld, etc).
+   *
+   * @param ifModifiedSince
+   *
+   * @param summary Return only the delta metadata, in which case the delta models are not read.
+   *
+   * @return A Future promise to return a DeltasResponse matching the specified criteria.
+   */
+  @Override
+  @Async
+  public CompletableFuture<DeltasResponse> getDeltas(String modelType, long ifModifiedSince, boolean summary) {
+    log.info("[NsiDriver] processing getDeltas for lastModified = {}, summary = {}", ifModifiedSince, summary);
 
     DeltasResponse response = new DeltasResponse();
     CompletableFuture<DeltasResponse> cf = new CompletableFuture<>();
@@ -693,13 +912,42 @@ public class NsiDriver implements Driver {
 
     Collection<DeltaResource> results = new ArrayList<>();
 
-    // Make sure the referenced referencedModel has not expired.
+    // Summary results only need the delta metadata so avoid reading the delta models.
     DeltaService deltaService = raController.getDeltaService();
+    if (summary) {
+      Collection<DeltaSummary> summaries = deltaService.getSummaryNewer(ifModifiedSince);
+      if (summaries.isEmpty() && deltaService.count() != 0) {
+        log.info("[NsiDriver] no deltas newer than {}", ifModifiedSince);
+        response.setStatus(Status.NOT_MODIFIED);
+        cf.complete(response);
+        return cf;
+      }
+
+      try {
+        for (DeltaSummary delta : summaries) {
+          DeltaResource resource = new DeltaResource();
+          resource.setId(delta.getDeltaId());
+          resource.setModelId(delta.getModelId());
+          resource.setLastModified(XmlUtilities.longToXMLGregorianCalendar(delta.getLastModified()).toXMLFormat());
+          resource.setState(delta.getState());
+          results.add(resource);
+        }
+      } catch (DatatypeConfigurationException ex) {
+        log.error("[NsiDriver] Failed to encode delta", ex);
+        throw new InternalServerErrorException("Failed to encode delta response");
+      }
+
+      response.setDeltas(results);
+      cf.complete(response);
+      return cf;
+    }
+
+    // Make sure the referenced referencedModel has not expired.
     Collection<Delta> deltas = deltaService.getNewer(ifModifiedSince);
     if (deltas == null || deltas.isEmpty()) {
       if (deltaService.count() != 0) {
         // We have deltas but none are newer than the specified date.
-        log.info("[NsiDriver] no deltas new than {}", ifModifiedSince);
+        log.info("[NsiDriver] no deltas newer than {}", ifModifiedSince);
         response.setStatus(Status.NOT_MODIFIED);
       } else {
         log.info("[NsiDriver] no deltas in database.");
@@ -740,7 +988,40 @@ public class NsiDriver implements Driver {
    */
   @Override
   @Async
-  public Future<DeltasResponse> getDeltas(String modelType) {
+  public CompletableFuture<DeltasResponse> getDeltas(String modelType) {
     return this.getDeltas(modelType, 0L);
   }
+
+  /**
+   * Render the model in the requested encoding, reduced to the queried
+   * subgraph if a query is specified.
+   *
+   * @param model The stored model.
+   * @param modelType The requested encoding.
+   * @param query The subgraph to return, or null for the complete model.
+   * @return The rendered model.
+   */
+  private String encode(Model model, String modelType, SubgraphQuery query) {
+    if (query == null) {
+      return raController.getModelEncodingCache().get(model, modelType);
+    }
+    return raController.getModelGraphCache().query(model, modelType, query);
+  }
+
+  /**
+   * Store a delta, publishing its state to event subscribers only when the
+   * state differs from the state it was read in.
+   *
+   * @param delta The delta to store.
+   * @param previous The state of the delta before this update, or null for a new delta.
+   * @return The stored delta.
+   */
+  private Delta store(Delta delta, DeltaState previous) {
+    Delta stored = raController.getDeltaService().store(delta);
+    if (stored.getState() != previous) {
+      eventPublisher.publishEvent(ResourceEvent.delta(stored.getDeltaId(), stored.getModelId(), stored.getState(),
+          stored.getLastModified()));
+    }
+    return stored;
+  }
 }
@@ -27,9 +27,13 @@ import akka.testkit.TestProbe;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import net.es.sense.rm.driver.api.mrml.SchemaRegistry;
 import net.es.sense.rm.driver.nsi.actors.NsiActorSystem;
 import net.es.sense.rm.driver.nsi.cs.CsProvider;
+import net.es.sense.rm.driver.nsi.db.CurrentModelHolder;
 import net.es.sense.rm.driver.nsi.db.DeltaService;
+import net.es.sense.rm.driver.nsi.db.ModelEncodingCache;
+import net.es.sense.rm.driver.nsi.db.ModelGraphCache;
 import net.es.sense.rm.driver.nsi.db.ModelService;
 import net.es.sense.rm.driver.nsi.dds.DdsProvider;
 import net.es.sense.rm.driver.nsi.properties.NsiProperties;
@@ -75,6 +79,15 @@ public class RaController {
   @Autowired
   private ModelService modelService;
 
+  @Autowired
+  private CurrentModelHolder currentModelHolder;
+
+  @Autowired
+  private ModelEncodingCache modelEncodingCache;
+
+  @Autowired
+  private ModelGraphCache modelGraphCache;
+
   @Autowired
   private AuditServiceBean auditService;
 
@@ -114,6 +127,9 @@ public class RaController {
       throw new IllegalArgumentException("Cannot find ActorSystem context");
     }
 
+    // Parse the shared MRML schema models once before any model is built.
+    SchemaRegistry.getInstance();
+
     // Start the DDS controller.
     ddsProvider.start();
 
@@ -175,6 +191,18 @@ public class RaController {
     return modelService;
   }
 
+  public CurrentModelHolder getCurrentModelHolder() {
+    return currentModelHolder;
+  }
+
+  public ModelEncodingCache getModelEncodingCache() {
+    return modelEncodingCache;
+  }
+
+  public ModelGraphCache getModelGraphCache() {
+    return modelGraphCache;
+  }
+
   public DeltaService getDeltaService() {
     return deltaService;
   }
@@ -21,6 +21,7 @@ package net.es.sense.rm.driver.nsi.cs;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeoutException;
 import jakarta.xml.ws.Holder;
 import jakarta.xml.ws.soap.SOAPFaultException;
@@ -127,21 +128,22 @@ public class CsOperations {
   }
 
   /**
-   * Wait for queued NSI operations to complete by waiting on a shared semaphore
-   * between this thread and the NSI CS callback thread.
+   * Wait for queued NSI operations to complete by waiting together on the
+   * futures completed by the NSI CS callback thread against a single deadline.
    *
    * @return Will return an exception (the last encountered) if one has occurred.
    */
   public boolean confirm() {
-    for (String id : correlationIds) {
-      log.info("[CsOperations] waiting for completion of correlationId = {}", id);
+    log.info("[CsOperations] waiting for completion of correlationIds = {}", correlationIds);
+    Map<String, Operation> completed = operationMap.waitAll(correlationIds, nsiProperties.getOperationWaitTimer());
 
+    for (String id : correlationIds) {
       Operation op = operationMap.get(id);
       if (op == null) {
         log.error("[CsOperations] no operation in map for correlationId = {}", id);
         failed.add(id);
         exceptions.add(new IllegalArgumentException("no operation in map for correlationId = " + id));
-      } else if (operationMap.wait(id, nsiProperties.getOperationWaitTimer())) {
+      } else if (completed.containsKey(id)) {
         log.info("[CsOperations] operation {} completed, correlationId = {}", op.getOperation(), id);
 
         switch(op.getOperation()) {
@@ -226,11 +228,9 @@ public class CsOperations {
     header.value = requestHeader;
 
     QueryType query = CS_FACTORY.createQueryType();
-    try {
+    try (Client nsiClient = new Client(nsiProperties.getProviderConnectionURL())) {
       log.debug("[CsOperations] Sending querySummarySync: providerNSA = {}, correlationId = {}",
               nsiProperties.getProviderNsaId(), correlationId);
-
-      Client nsiClient = new Client(nsiProperties.getProviderConnectionURL());
       QuerySummaryConfirmedType querySummarySync = nsiClient.getProxy().querySummarySync(query, header);
 
       log.debug("[CsOperations] QuerySummaryConfirmed received, providerNSA = {}, correlationId = {}",
@@ -270,10 +270,8 @@ public class CsOperations {
     this.store(OperationType.reserve, StateType.reserving, correlationId);
 
     // Issue the NSI reservation request.
-    try {
+    try (ClientUtil nsiClient = new ClientUtil(nsiProperties.getProviderConnectionURL())) {
       log.debug("[CsOperations] issuing reserve operation correlationId = {}", correlationId);
-
-      ClientUtil nsiClient = new ClientUtil(nsiProperties.getProviderConnectionURL());
       ReserveResponseType response = nsiClient.getProxy().reserve(r, header);
 
       String connectionId =  response.getConnectionId();
@@ -322,11 +320,9 @@ public class CsOperations {
 
     this.store(OperationType.reserveCommit, StateType.committing, correlationId);
 
-    try {
+    try (ClientUtil nsiClient = new ClientUtil(nsiProperties.getProviderConnectionURL())) {
       log.debug("[CsOperations] issuing reserveCommit operation correlationId = {}, connectionId = {}",
               correlationId, connectionId);
-
-      ClientUtil nsiClient = new ClientUtil(nsiProperties.getProviderConnectionURL());
       nsiClient.getProxy().reserveCommit(commitBody, header);
 
       log.debug("[CsOperations] issued reserveCommit operation correlationId = {}, connectionId = {}",
@@ -375,11 +371,9 @@ public class CsOperations {
 
     this.store(OperationType.provision, StateType.provisioning, correlationId);
 
-    try {
+    try (ClientUtil nsiClient = new ClientUtil(nsiProperties.getProviderConnectionURL())) {
       log.debug("[CsOperations] issuing provision operation correlationId = {}, connectionId = {}",
               correlationId, connectionId);
-
-      ClientUtil nsiClient = new ClientUtil(nsiProperties.getProviderConnectionURL());
       nsiClient.getProxy().provision(commitBody, header);
 
       log.debug("[CsOperations] issued provision operation correlationId = {}, connectionId = {}",
@@ -428,11 +422,9 @@ public class CsOperations {
 
     this.store(OperationType.release, StateType.releasing, correlationId);
 
-    try {
+    try (ClientUtil nsiClient = new ClientUtil(nsiProperties.getProviderConnectionURL())) {
       log.debug("[CsOperations] issuing release operation correlationId = {}, connectionId = {}",
               correlationId, connectionId);
-
-      ClientUtil nsiClient = new ClientUtil(nsiProperties.getProviderConnectionURL());
       nsiClient.getProxy().release(commitBody, header);
 
       log.debug("[CsOperations] issued release operation correlationId = {}, connectionId = {}",
@@ -484,10 +476,9 @@ public class CsOperations {
     this.store(OperationType.terminate, StateType.terminating, correlationId);
 
     // Issue the NSI terminate request.
-    try {
+    try (ClientUtil nsiClient = new ClientUtil(nsiProperties.getProviderConnectionURL())) {
       log.debug("[CsOperations] issuing terminate operation correlationId = {}, connectionId = {}",
               correlationId, connectionId);
-      ClientUtil nsiClient = new ClientUtil(nsiProperties.getProviderConnectionURL());
       nsiClient.getProxy().terminate(terminate, header);
       log.debug("[CsOperations] issued terminate operation correlationId = {}, connectionId = {}",
               correlationId, connectionId);
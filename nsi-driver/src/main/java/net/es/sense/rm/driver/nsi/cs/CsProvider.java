@@ -27,9 +27,11 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import akka.actor.ActorRef;
 import akka.actor.ActorSystem;
@@ -48,8 +50,6 @@ import net.es.nsi.cs.lib.Helper;
 import net.es.nsi.cs.lib.NsiHeader;
 import net.es.nsi.cs.lib.SimpleLabel;
 import net.es.nsi.cs.lib.SimpleStp;
-import net.es.nsi.dds.lib.jaxb.nsa.InterfaceType;
-import net.es.nsi.dds.lib.jaxb.nsa.NsaType;
 import net.es.sense.rm.driver.api.mrml.ModelUtil;
 import net.es.sense.rm.driver.nsi.actors.NsiActorSystem;
 import net.es.sense.rm.driver.nsi.cs.api.CsUtils;
@@ -66,6 +66,7 @@ import net.es.sense.rm.driver.nsi.cs.db.ReservationService;
 import net.es.sense.rm.driver.nsi.cs.db.StateType;
 import net.es.sense.rm.driver.nsi.cs.db.StpMapping;
 import net.es.sense.rm.driver.nsi.dds.api.DocumentReader;
+import net.es.sense.rm.driver.nsi.dds.api.ProviderCapability;
 import net.es.sense.rm.driver.nsi.mrml.IllegalArgumentExceptionSupplier;
 import net.es.sense.rm.driver.nsi.mrml.MrsBandwidthService;
 import net.es.sense.rm.driver.nsi.mrml.MrsBandwidthType;
@@ -80,6 +81,7 @@ import net.es.sense.rm.driver.schema.Mrs;
 import net.es.sense.rm.driver.schema.Nml;
 import net.es.sense.rm.driver.schema.Sd;
 import org.apache.jena.ontology.OntModel;
+import org.apache.jena.rdf.model.RDFNode;
 import org.apache.jena.rdf.model.Resource;
 import org.apache.jena.rdf.model.Statement;
 import org.apache.jena.rdf.model.StmtIterator;
@@ -121,6 +123,7 @@ public class CsProvider {
   private final SpringExtension springExtension;
   private final NsiActorSystem nsiActorSystem;
   private final DocumentReader documentReader;
+  private final ResourceLockManager lockManager;
 
   private ActorRef connectionActor;
 
@@ -134,11 +137,14 @@ public class CsProvider {
    * @param reservationService
    * @param springExtension
    * @param nsiActorSystem
+   * @param documentReader
+   * @param lockManager
    */
   public CsProvider(NsiProperties nsiProperties, ConnectionMapService connectionMapService,
                     OperationMapRepository operationMap, DeltaMapRepository deltaMap,
                     ReservationService reservationService, SpringExtension springExtension,
-                    NsiActorSystem nsiActorSystem, DocumentReader documentReader) {
+                    NsiActorSystem nsiActorSystem, DocumentReader documentReader,
+                    ResourceLockManager lockManager) {
     this.nsiProperties = nsiProperties;
     this.connectionMapService = connectionMapService;
     this.operationMap = operationMap;
@@ -147,6 +153,7 @@ public class CsProvider {
     this.springExtension = springExtension;
     this.nsiActorSystem = nsiActorSystem;
     this.documentReader = documentReader;
+    this.lockManager = lockManager;
   }
 
   // Object factories for creating NSI objects for JAXB manipulation.
@@ -181,19 +188,15 @@ public class CsProvider {
   /**
    * Configure the NSI-CS client based on either static URL or dynamic data from NSI-DDS.
    *
-   * @return The new NSI-CS client.
+   * @return A pooled NSI-CS client that must be closed once the request is issued.
    */
   private ClientUtil getNsiClient() {
     String url = nsiProperties.getProviderConnectionURL();
     if (Strings.isNullOrEmpty(url)) {
       // If a manual override for the URL was not specified then we
       // will need to learn the URL from the NSI-DDS.
-      NsaType doc = documentReader.getNsa(nsiProperties.getProviderNsaId());
-      url = doc.getInterface().stream()
-          .filter(f -> f.getType().equalsIgnoreCase(Nsi.NSI_CS_PROVIDER_V2))
-          .map(InterfaceType::getHref)
-          .findFirst()
-          .orElse(null);
+      ProviderCapability capability = documentReader.getProviderCapability(nsiProperties.getProviderNsaId());
+      url = capability == null ? null : capability.getCsProviderUrl();
     }
     return new ClientUtil(url);
   }
@@ -204,8 +207,8 @@ public class CsProvider {
    * @return True if the providerNSA supports modification, false otherwise.
    */
   private boolean supportModify() {
-    return documentReader.getNsa(nsiProperties.getProviderNsaId()).getFeature().stream()
-        .anyMatch(f -> f.getType().equalsIgnoreCase(Nsi.NSI_CS_MODIFY));
+    ProviderCapability capability = documentReader.getProviderCapability(nsiProperties.getProviderNsaId());
+    return capability != null && capability.isModifySupported();
   }
 
   /**
@@ -229,10 +232,9 @@ public class CsProvider {
    * operation.
    */
   public void load() {
-    Client nsiClient = new Client(nsiProperties.getProviderConnectionURL());
     Holder<CommonHeaderType> header = getNsiCsHeader();
     QueryType query = CS_FACTORY.createQueryType();
-    try {
+    try (Client nsiClient = new Client(nsiProperties.getProviderConnectionURL())) {
       log.info("[load] Sending querySummarySync: providerNSA = {}, correlationId = {}",
               header.value.getProviderNSA(), header.value.getCorrelationId());
       QuerySummaryConfirmedType querySummarySync = nsiClient.getProxy().querySummarySync(query, header);
@@ -273,73 +275,157 @@ public class CsProvider {
           Optional<OntModel> reduction, Optional<OntModel> addition) throws Exception {
     log.debug("[processDelta] start deltaId = {}", deltaId);
 
-    // We will need to keep a map of the NSI-CS connection we make for this delta.
-    DeltaConnection connectionIds = new DeltaConnection();
-    connectionIds.setDeltaId(deltaId);
-
     // The SENSE-N-RM maps delta requests onto NSI-CS reservations, so a reduction is either
     // terminating an NSI-CS reservation by removing it from the model, modifying reservation
     // parameters, or modifying locally stored metadata associated with the reservation.  A
     // delta addition can result in a new NSI-CS reservation, a modification to an existing
     // reservation, or a modification to locally stored metadata associated with the reservation.
 
-    // First up we handle the mrs:SwitchingSubnet deletions that result in NSI-CS reservation
-    // terminations.
+    // Get the URI for any mrs:SwitchingSubnet that are to be terminated by the reduction.
+    List<String> terminates = new ArrayList<>();
     if (reduction.isPresent()) {
-      log.debug("[processDelta] processing reduction, deltaId = {}", deltaId);
+      terminates.addAll(getReductionTerminates(originalModel, updatedModel, reduction.get()));
+    }
+
+    // Get the list of mrs:SwitchingSubnet URI that need to be added to the model, and the
+    // SwitchingSubnet being modified based on the BandwidthService and existDuring changes.
+    List<String> creates = new ArrayList<>();
+    Set<Resource> modifies = new LinkedHashSet<>();
+    if (addition.isPresent()) {
+      creates.addAll(getAdditionCreates(originalModel, updatedModel, addition.get()));
+      modifies.addAll(getModifiedSwitchingSubnets(originalModel, updatedModel, addition.get()));
+    }
+
+    // Lock the resources touched by this delta so a delta overlapping one already in
+    // progress is queued or rejected, while deltas on other resources run in parallel.
+    Set<String> resources = getDeltaResources(originalModel, updatedModel, terminates, creates, modifies);
+    try (ResourceLockManager.Lock lock = lockManager.lock(deltaId, resources,
+        nsiProperties.getDeltaLockWaitTimer(), TimeUnit.SECONDS)) {
+      log.debug("[processDelta] deltaId = {} locked resources = {}", deltaId, lock.getResources());
+
+      // We will need to keep a map of the NSI-CS connection we make for this delta.
+      DeltaConnection connectionIds = new DeltaConnection();
+      connectionIds.setDeltaId(deltaId);
+
+      // First up we handle the mrs:SwitchingSubnet deletions that result in NSI-CS reservation
+      // terminations.
+      if (reduction.isPresent()) {
+        log.debug("[processDelta] processing reduction, deltaId = {}", deltaId);
+
+        // Now we terminate the NSI-CS reservations associated with the mrs:SwitchingSubnet URI.
+        List<String> terminateIds = processTerminates(terminates);
+
+        // Add the connectionIds we need to terminate for processing on the delta commit.
+        connectionIds.getTerminates().addAll(terminateIds);
+        terminateIds.forEach(t -> log.debug("[processDelta] deltaId = {} will terminate uri = {}", deltaId, t));
+        log.debug("[processDelta] done processing reduction, deltaId = {}", deltaId);
+      }
+
+      // Now handle the mrs:SwitchingSubnet additions that result in new NSI-CS reservations.
+      if (addition.isPresent()) {
+        log.debug("[processDelta] processing addition, deltaId = {}", deltaId);
+        // This is a list of cid associated with reservations created
+        // as part of the delta addition.
+        List<String> commits = new ArrayList<>();
+        creates.forEach(c -> log.debug("[processDelta] creating SwitchingSubnet = {}", c));
+
+        // Now we convert these new mrs:SwitchingSubnet to NSI-CS reservations.
+        List<String> newCid = processNewSwitchingSubnet(deltaId, updatedModel, creates, commits);
+
+        // The list of NSI operation correlationId for which we will need to block on
+        // results.
+        List<String> correlationIds = new ArrayList<>(newCid);
+        log.debug("[processDelta] done processing addition, deltaId = {}", deltaId);
 
-      // Get the URI for any mrs:SwitchingSubnet that are to be terminated by this reduction.
-      List<String> terminates = getReductionTerminates(originalModel, updatedModel, reduction.get());
+        modifies.forEach(c -> log.debug("[processDelta] modified SwitchingSubnet = {}", c.getURI()));
 
-      // Now we terminate the NSI-CS reservations associated with the mrs:SwitchingSubnet URI.
-      List<String> terminateIds = processTerminates(terminates);
+        // Now we process the modified SwitchingSubnet by sending NSI-CS reservation modifications.
+        List<String> modCid = processModifiedSwitchingSubnet(deltaId, updatedModel, modifies, commits);
+        correlationIds.addAll(modCid);
+        log.debug("[processDelta] done processing modification, deltaId = {}", deltaId);
 
-      // Add the connectionIds we need to terminate for processing on the delta commit.
-      connectionIds.getTerminates().addAll(terminateIds);
-      terminateIds.forEach(t -> log.debug("[processDelta] deltaId = {} will terminate uri = {}", deltaId, t));
-      log.debug("[processDelta] done processing reduction, deltaId = {}", deltaId);
+        // We track the connectionId for the NSI-CS reserve operations we will need to commit.
+        connectionIds.getCommits().addAll(commits);
+
+        // Wait for our outstanding reserve operations to complete (or fail).
+        // We are expecting an asynchronous reserveConfirm in response.
+        waitForOperations(correlationIds);
+      }
+
+      // Store the list of connection ids we will need to handle during commit phase.
+      deltaMap.store(connectionIds);
     }
+    log.debug("[processDelta] done processing deltaId = {}", deltaId);
+  }
 
-    // Now handle the mrs:SwitchingSubnet additions that result in new NSI-CS reservations.
-    if (addition.isPresent()) {
-      log.debug("[processDelta] processing addition, deltaId = {}", deltaId);
-      // This is a list of cid associated with reservations created
-      // as part of the delta addition.
-      List<String> commits = new ArrayList<>();
-
-      // Get the list of mrs:SwitchingSubnet URI that need to be added to the model.
-      List<String> creates = getAdditionCreates(originalModel, updatedModel, addition.get());
-      creates.forEach(c -> log.debug("[processDelta] creating SwitchingSubnet = {}", c));
-
-      // Now we convert these new mrs:SwitchingSubnet to NSI-CS reservations.
-      List<String> newCid = processNewSwitchingSubnet(deltaId, updatedModel, creates, commits);
-
-      // The list of NSI operation correlationId for which we will need to block on
-      // results.
-      List<String> correlationIds = new ArrayList<>(newCid);
-      log.debug("[processDelta] done processing addition, deltaId = {}", deltaId);
-
-      // Find the SwitchingSubnet being modified based on the BandwidthService and existDuring changes.
-      Set<Resource> modifies =
-          CsProvider.getModifiedSwitchingSubnets(originalModel, updatedModel, addition.get());
-      modifies.forEach(c -> log.debug("[processDelta] modified SwitchingSubnet = {}", c.getURI()));
-
-      // Now we process the modified SwitchingSubnet by sending NSI-CS reservation modifications.
-      List<String> modCid = processModifiedSwitchingSubnet(deltaId, updatedModel, modifies, commits);
-      correlationIds.addAll(modCid);
-      log.debug("[processDelta] done processing modification, deltaId = {}", deltaId);
-
-      // We track the connectionId for the NSI-CS reserve operations we will need to commit.
-      connectionIds.getCommits().addAll(commits);
-
-      // Wait for our outstanding reserve operations to complete (or fail).
-      // We are expecting an asynchronous reserveConfirm in response.
-      waitForOperations(correlationIds);
+  /**
+   * Returns the keys of the MRML resources touched by a delta for use in
+   * resource locking: the URI of each mrs:SwitchingSubnet being terminated,
+   * created, or modified, the URI of each of their nml:BidirectionalPort,
+   * and the STP identifier (parent port and VLAN label) of each port.  Ports
+   * are taken from both the original and updated models so both the old and
+   * new VLANs of a modified SwitchingSubnet are covered.
+   *
+   * @param original The original model referred to by the delta request.
+   * @param updated The updated model containing the delta modifications.
+   * @param terminates The mrs:SwitchingSubnet URI being terminated.
+   * @param creates The mrs:SwitchingSubnet URI being created.
+   * @param modifies The mrs:SwitchingSubnet being modified.
+   * @return The set of resource keys touched by the delta.
+   */
+  public static Set<String> getDeltaResources(OntModel original, OntModel updated, Collection<String> terminates,
+                                              Collection<String> creates, Collection<Resource> modifies) {
+    Set<String> subnets = new LinkedHashSet<>(terminates);
+    subnets.addAll(creates);
+    modifies.forEach(m -> subnets.add(m.getURI()));
+
+    Set<String> resources = new LinkedHashSet<>(subnets);
+    for (String uri : subnets) {
+      for (OntModel model : List.of(original, updated)) {
+        StmtIterator ports = model.getResource(uri).listProperties(Nml.hasBidirectionalPort);
+        while (ports.hasNext()) {
+          RDFNode object = ports.next().getObject();
+          if (!object.isURIResource()) {
+            continue;
+          }
+
+          Resource port = object.asResource();
+          resources.add(port.getURI());
+          getStpId(model, port).ifPresent(resources::add);
+        }
+      }
     }
 
-    // Store the list of connection ids we will need to handle during commit phase.
-    deltaMap.store(connectionIds);
-    log.debug("[processDelta] done processing deltaId = {}", deltaId);
+    return resources;
+  }
+
+  /**
+   * Returns the STP identifier of a child port made up of its parent port and
+   * label, if the port has both in the model.
+   *
+   * @param model The model containing the port.
+   * @param port The child port.
+   * @return The STP identifier of the port.
+   */
+  private static Optional<String> getStpId(OntModel model, Resource port) {
+    Resource parent = ModelUtil.getParentBidirectionalPort(model, port);
+    Statement labelRef = port.getProperty(Nml.hasLabel);
+    if (parent == null || labelRef == null || !labelRef.getObject().isResource()) {
+      return Optional.empty();
+    }
+
+    Resource label = ModelUtil.getResourceOfSubjectAndType(model, Nml.Label, labelRef.getResource());
+    if (label == null) {
+      return Optional.empty();
+    }
+
+    try {
+      return Optional.of(new SimpleStp(parent.getURI(), new NmlLabel(label).getSimpleLabel()).getStpId());
+    } catch (RuntimeException ex) {
+      // An invalid label is reported when the delta is processed.
+      log.debug("[getStpId] invalid label for port = {}", port.getURI(), ex);
+      return Optional.empty();
+    }
   }
 
   /**
@@ -645,7 +731,9 @@ public class CsProvider {
         }
 
         // Now get the label for this port.
-        Resource label = ModelUtil.getResourceOfSubjectAndType(model, Nml.Label, biChild);
+        Statement labelRef = biChild.getProperty(Nml.hasLabel);
+        Resource label = labelRef == null || !labelRef.getObject().isResource() ? null
+            : ModelUtil.getResourceOfSubjectAndType(model, Nml.Label, labelRef.getResource());
 
         // Make sure we have a valid label.
         if (label == null) {
@@ -801,9 +889,8 @@ public class CsProvider {
       }
 
       // Issue the NSI reservation request.
-      try {
+      try (ClientUtil nsiClient = getNsiClient()) {
         log.debug("[processNewSwitchingSubnet] issuing reserve operation correlationId = {}", correlationId);
-        ClientUtil nsiClient = getNsiClient();
         ReserveResponseType response = nsiClient.getProxy().reserve(r, header);
 
         // Update the reservation in the database with returned connectionId.
@@ -1289,10 +1376,9 @@ public class CsProvider {
 
       // Issue the NSI reservation request.  Asynchronous NSI-CS messaging will be
       // occurring for the reservation.
-      try {
+      try (ClientUtil nsiClient = getNsiClient()) {
         log.debug("[processModifiedSwitchingSubnet] issuing reserve operation correlationId = {}, connectionId = {}",
             correlationId, r.getConnectionId());
-        ClientUtil nsiClient = getNsiClient();
         ReserveResponseType response = nsiClient.getProxy().reserve(r, header);
 
         // Add connectionId to the list we need to commit.
@@ -1481,8 +1567,7 @@ public class CsProvider {
       // Issue the NSI terminate request for the specified connection.
       boolean error = true;
       String errorMessage = null;
-      try {
-        ClientUtil nsiClient = getNsiClient();
+      try (ClientUtil nsiClient = getNsiClient()) {
         nsiClient.getProxy().terminate(terminate, header);
         log.debug("[commitDeltaReduction] issued terminate operation correlationId = {}, connectionId = {}",
                 correlationId, terminate.getConnectionId());
@@ -1589,8 +1674,7 @@ public class CsProvider {
 
       boolean error = true;
       String errorMessage = null;
-      try {
-        ClientUtil nsiClient = getNsiClient();
+      try (ClientUtil nsiClient = getNsiClient()) {
         nsiClient.getProxy().reserveCommit(commitBody, header);
 
         log.debug("[commitDeltaAddition] issued commitDeltaAddition operation correlationId = {}, connectionId = {}",
@@ -1680,8 +1764,7 @@ public class CsProvider {
 
       boolean error = true;
       String errorMessage = null;
-      try {
-        ClientUtil nsiClient = getNsiClient();
+      try (ClientUtil nsiClient = getNsiClient()) {
         nsiClient.getProxy().provision(commitBody, header);
 
         log.debug("[commitDeltaAddition] issued provision operation correlationId = {}, connectionId = {}",
@@ -1745,23 +1828,26 @@ public class CsProvider {
   }
 
   /**
-   * Wait for queued NSI operations to complete by waiting on a shared semaphore
-   * between this thread and the NSI CS callback thread.
+   * Wait for queued NSI operations to complete by waiting on the futures
+   * completed by the NSI CS callback thread.  All operations are awaited
+   * together against a single deadline and each failure is reported.
    *
    * @param correlationIds List of the outstanding correlationIds the will need to complete.
    *
-   * @return Will return an exception (the last encountered) if one has occurred.
+   * @return Will return an exception (the last encountered) if one has occurred,
+   *    with any other failures attached as suppressed exceptions.
    */
   private void waitForOperations(List<String> correlationIds)
           throws ServiceException, IllegalArgumentException, TimeoutException {
-    Optional<Exception> exception = Optional.empty();
-    for (String id : correlationIds) {
-      log.info("[waitForOperations] waiting {} seconds for completion of correlationId = {}",
-          nsiProperties.getOperationWaitTimer(), id);
+    log.info("[waitForOperations] waiting {} seconds for completion of correlationIds = {}",
+        nsiProperties.getOperationWaitTimer(), correlationIds);
 
-      if (operationMap.wait(id, nsiProperties.getOperationWaitTimer())) {
-        Operation op = operationMap.delete(id);
+    Map<String, Operation> completed = operationMap.waitAll(correlationIds, nsiProperties.getOperationWaitTimer());
 
+    List<Exception> exceptions = new ArrayList<>();
+    for (String id : correlationIds) {
+      Operation op = operationMap.delete(id);
+      if (completed.containsKey(id)) {
         log.info("[waitForOperations] operation {} completed, correlationId = {}", op.getOperation(), id);
 
         if (op.getOperation() == OperationType.reserve && op.getState() != StateType.reserved) {
@@ -1769,28 +1855,28 @@ public class CsProvider {
                   id, op.getState(), op.getException());
 
           if (op.getException() != null) {
-            exception = Optional.of(new ServiceException("Operation failed to reserve", op.getException()));
+            exceptions.add(new ServiceException("Operation failed to reserve", op.getException()));
           }
           else {
-            exception = Optional.of(new IllegalArgumentException("Operation failed to reserve, correlationId = "
+            exceptions.add(new IllegalArgumentException("Operation failed to reserve, correlationId = "
                   + id + ", state = " + op.getState()));
           }
         }
       } else {
         log.error("[waitForOperations] timeout, failed to get response for correlationId = {}", id);
-        Operation op = operationMap.delete(id);
         StateType state = StateType.unknown;
         if (op != null) {
           state = op.getState();
         }
-        exception = Optional.of(new TimeoutException("Operation failed to reserve, correlationId = "
+        exceptions.add(new TimeoutException("Operation failed to reserve, correlationId = "
                   + id + ", state = " + state));
       }
     }
 
     // Do I really care about the specific exception?
-    if (exception.isPresent()) {
-      Exception ex = exception.get();
+    if (!exceptions.isEmpty()) {
+      Exception ex = exceptions.remove(exceptions.size() - 1);
+      exceptions.forEach(ex::addSuppressed);
       if (ex instanceof ServiceException) {
         throw (ServiceException) ex;
       } else if (ex instanceof IllegalArgumentException) {
@@ -0,0 +1,126 @@
+package net.es.sense.rm.driver.nsi.cs;
+
+import lombok.extern.slf4j.Slf4j;
+import net.es.sense.rm.driver.api.ResourceConflictException;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializes deltas that touch the same MRML resources while allowing deltas
+ * on disjoint resources to be processed in parallel.  Each delta locks the
+ * set of resource keys it touches (switching subnet URIs, port URIs, and
+ * port VLAN labels) as a whole, so a delta never holds some resources while
+ * waiting on others and deadlock between deltas is not possible.
+ *
+ * A delta overlapping one already in progress waits for the resources to be
+ * released, and is rejected with a ResourceConflictException if they
+ * are not released in time.
+ *
+ * @author hacksaw
+ */
+@Slf4j
+@Component
+public class ResourceLockManager {
+  // The deltaId holding the lock on each resource key.
+  private final Map<String, String> owners = new HashMap<>();
+
+  /**
+   * Lock the set of resources touched by a delta.
+   *
+   * @param deltaId The delta requesting the lock.
+   * @param resources The resource keys touched by the delta.
+   * @param waitFor The maximum time to wait for overlapping deltas to complete, zero to not wait.
+   * @param unit The unit of waitFor.
+   * @return The lock to be closed once the delta has been processed.
+   * @throws ResourceConflictException If the resources are still locked by another delta on timeout.
+   * @throws InterruptedException If interrupted while waiting.
+   */
+  public Lock lock(String deltaId, Collection<String> resources, long waitFor, TimeUnit unit)
+      throws ResourceConflictException, InterruptedException {
+    Set<String> keys = new TreeSet<>(resources);
+    long deadline = System.nanoTime() + unit.toNanos(waitFor);
+
+    synchronized (this) {
+      Optional<String> conflict = conflict(deltaId, keys);
+      while (conflict.isPresent()) {
+        long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+        if (remaining <= 0) {
+          String key = conflict.get();
+          log.error("[ResourceLockManager] deltaId = {} rejected, resource = {} locked by deltaId = {}",
+              deltaId, key, owners.get(key));
+          throw new ResourceConflictException("Delta " + deltaId + " conflicts with delta "
+              + owners.get(key) + " in progress on resource " + key);
+        }
+
+        log.info("[ResourceLockManager] deltaId = {} waiting on resource = {} locked by deltaId = {}",
+            deltaId, conflict.get(), owners.get(conflict.get()));
+        wait(remaining);
+        conflict = conflict(deltaId, keys);
+      }
+
+      // Resources already held by this delta stay with the lock that acquired them.
+      Set<String> acquired = new TreeSet<>();
+      keys.stream().filter(key -> owners.putIfAbsent(key, deltaId) == null).forEach(acquired::add);
+
+      log.debug("[ResourceLockManager] deltaId = {} locked resources = {}", deltaId, acquired);
+      return new Lock(deltaId, keys, acquired);
+    }
+  }
+
+  private Optional<String> conflict(String deltaId, Set<String> keys) {
+    return keys.stream()
+        .filter(key -> owners.containsKey(key) && !deltaId.equals(owners.get(key)))
+        .findFirst();
+  }
+
+  private synchronized void unlock(String deltaId, Set<String> keys) {
+    keys.forEach(key -> owners.remove(key, deltaId));
+    notifyAll();
+    log.debug("[ResourceLockManager] deltaId = {} unlocked resources = {}", deltaId, keys);
+  }
+
+  /**
+   * @return The number of resources currently locked.
+   */
+  public synchronized int size() {
+    return owners.size();
+  }
+
+  /**
+   * The resources locked by a delta, released when closed.
+   */
+  public class Lock implements AutoCloseable {
+    private final String deltaId;
+    private final Set<String> keys;
+    private final Set<String> acquired;
+    private boolean closed = false;
+
+    private Lock(String deltaId, Set<String> keys, Set<String> acquired) {
+      this.deltaId = deltaId;
+      this.keys = keys;
+      this.acquired = acquired;
+    }
+
+    public Set<String> getResources() {
+      return keys;
+    }
+
+    @Override
+    public void close() {
+      synchronized (ResourceLockManager.this) {
+        if (closed) {
+          return;
+        }
+        closed = true;
+      }
+      unlock(deltaId, acquired);
+    }
+  }
+}
@@ -91,8 +91,6 @@ public class ConnectionActor extends UntypedAbstractActor {
    *
    */
   private void connectionSummaryAudit() throws ServiceException {
-    Client nsiClient = new Client(nsiProperties.getProviderConnectionURL());
-
     CommonHeaderType requestHeader = NsiHeader.builder()
             .correlationId(Helper.getUUID())
             .providerNSA(nsiProperties.getProviderNsaId())
@@ -105,7 +103,7 @@ public class ConnectionActor extends UntypedAbstractActor {
     header.value = requestHeader;
 
     QueryType query = FACTORY.createQueryType();
-    try {
+    try (Client nsiClient = new Client(nsiProperties.getProviderConnectionURL())) {
       log.info("[ConnectionActor] Sending querySummary: correlationId = {}", requestHeader.getCorrelationId());
       nsiClient.getProxy().querySummary(query, header);
       log.info("[ConnectionActor] Ack received, providerNSA = {}, correlationId = {}",
@@ -128,10 +126,9 @@ public class ConnectionActor extends UntypedAbstractActor {
    *
    */
   private void connectionSummarySyncAudit() throws ServiceException {
-    Client nsiClient = new Client(nsiProperties.getProviderConnectionURL());
     Holder<CommonHeaderType> header = getNsiCsHeader();
     QueryType query = CS_FACTORY.createQueryType();
-    try {
+    try (Client nsiClient = new Client(nsiProperties.getProviderConnectionURL())) {
       log.info("[connectionSummarySyncAudit] Sending querySummarySync: providerNSA = {}, correlationId = {}",
           header.value.getProviderNSA(), header.value.getCorrelationId());
       QuerySummaryConfirmedType querySummarySync = nsiClient.getProxy().querySummarySync(query, header);
@@ -179,8 +176,6 @@ public class ConnectionActor extends UntypedAbstractActor {
    *
    */
   private void connectionRecursiveAudit() throws ServiceException {
-    Client nsiClient = new Client(nsiProperties.getProviderConnectionURL());
-
     CommonHeaderType requestHeader = NsiHeader.builder()
             .correlationId(Helper.getUUID())
             .providerNSA(nsiProperties.getProviderNsaId())
@@ -193,7 +188,7 @@ public class ConnectionActor extends UntypedAbstractActor {
     header.value = requestHeader;
 
     QueryType query = FACTORY.createQueryType();
-    try {
+    try (Client nsiClient = new Client(nsiProperties.getProviderConnectionURL())) {
       log.info("[ConnectionActor] Sending queryRecursive: correlationId = {}", requestHeader.getCorrelationId());
       nsiClient.getProxy().queryRecursive(query, header);
       log.info("[ConnectionActor] Ack recieved, providerNSA = {}, correlationId = {}", header.value.getProviderNSA(), header.value.getCorrelationId());
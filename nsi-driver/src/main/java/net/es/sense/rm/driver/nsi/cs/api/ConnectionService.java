@@ -250,7 +250,7 @@ public class ConnectionService {
           correlationId);
 
       op.setState(StateType.reserved);
-      op.getCompleted().release();
+      op.complete();
     }
 
     return FACTORY.createGenericAcknowledgmentType();
@@ -439,7 +439,7 @@ public class ConnectionService {
       // Now compete the operation.
       op.setState(StateType.failed);
       op.setException(reserveFailed.getServiceException());
-      op.getCompleted().release();
+      op.complete();
     }
 
     return FACTORY.createGenericAcknowledgmentType();
@@ -497,7 +497,7 @@ public class ConnectionService {
 
       // Now compete the operation.
       op.setState(StateType.committed);
-      op.getCompleted().release();
+      op.complete();
     }
 
     return FACTORY.createGenericAcknowledgmentType();
@@ -554,7 +554,7 @@ public class ConnectionService {
       // Now compete the operation.
       op.setState(StateType.failed);
       op.setException(reserveCommitFailed.getServiceException());
-      op.getCompleted().release();
+      op.complete();
     }
 
     return FACTORY.createGenericAcknowledgmentType();
@@ -606,7 +606,7 @@ public class ConnectionService {
 
       // Now compete the operation.
       op.setState(StateType.aborted);
-      op.getCompleted().release();
+      op.complete();
     }
 
     return FACTORY.createGenericAcknowledgmentType();
@@ -662,7 +662,7 @@ public class ConnectionService {
 
       // Now compete the operation.
       op.setState(StateType.provisioned);
-      op.getCompleted().release();
+      op.complete();
     }
 
     return FACTORY.createGenericAcknowledgmentType();
@@ -718,7 +718,7 @@ public class ConnectionService {
 
       // Now compete the operation.
       op.setState(StateType.released);
-      op.getCompleted().release();
+      op.complete();
     }
 
     return FACTORY.createGenericAcknowledgmentType();
@@ -768,7 +768,7 @@ public class ConnectionService {
 
       // Now compete the operation.
       op.setState(StateType.terminated);
-      op.getCompleted().release();
+      op.complete();
     }
 
     return FACTORY.createGenericAcknowledgmentType();
@@ -955,7 +955,7 @@ public class ConnectionService {
     } else {
       op.setState(StateType.failed);
       op.setException(error.getServiceException());
-      op.getCompleted().release();
+      op.complete();
     }
 
     // Update any impacted reservations with error information.
@@ -1035,7 +1035,7 @@ public class ConnectionService {
       // just let the requesting thread handle it?
       op.setState(StateType.failed);
       op.setException(errorEvent.getServiceException());
-      op.getCompleted().release();
+      op.complete();
     }
 
      // Update any impacted reservations with error information.
@@ -1198,7 +1198,7 @@ public class ConnectionService {
       sex.setText("messageDeliveryTimeout received");
       sex.setConnectionId(cid);
       op.setException(sex);
-      op.getCompleted().release();
+      op.complete();
     }
 
     Collection<Reservation> reservations = reservationService.getByAnyConnectionId(value.getProviderNSA(), cid);
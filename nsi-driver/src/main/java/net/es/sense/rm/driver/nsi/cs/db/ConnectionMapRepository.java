@@ -23,6 +23,8 @@ import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+
 /**
  * This CrudRepository class handles storage for the ConnectionMap structure.
  *
@@ -34,6 +36,7 @@ public interface ConnectionMapRepository extends CrudRepository<ConnectionMap, L
   public void deleteByUniqueId(@Param("uniqueId") String uniqueId);
   public ConnectionMap findOneById(@Param("id") long id);
   public ConnectionMap findByUniqueId(@Param("uid") String uid);
+  public Iterable<ConnectionMap> findByUniqueIdIn(@Param("uids") Collection<String> uids);
   public Iterable<ConnectionMap> findByDeltaId(@Param("deltaId") String deltaId);
   public Iterable<ConnectionMap> findBySwitchingSubnetId(@Param("switchingSubnetId") String switchingSubnetId);
   public Iterable<ConnectionMap> findByDeltaIdAndSwitchingSubnetId(
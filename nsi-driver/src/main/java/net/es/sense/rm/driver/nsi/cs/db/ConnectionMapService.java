@@ -29,6 +29,8 @@ public interface ConnectionMapService {
 
   public ConnectionMap getByUniqueId(String uid);
 
+  public Collection<ConnectionMap> getByUniqueIdIn(Collection<String> uids);
+
   public Collection<ConnectionMap> getByDeltaId(String deltaId);
 
   public Collection<ConnectionMap> getBySwitchingSubnetId(String switchingSubnetId);
@@ -42,6 +42,14 @@ public class ConnectionMapServiceBean implements ConnectionMapService {
     return connectionMapRepository.findByUniqueId(uid);
   }
 
+  @Override
+  public Collection<ConnectionMap> getByUniqueIdIn(Collection<String> uids) {
+    if (uids == null || uids.isEmpty()) {
+      return new ArrayList<>();
+    }
+    return Lists.newArrayList(connectionMapRepository.findByUniqueIdIn(uids));
+  }
+
   @Override
   public Collection<ConnectionMap> getByDeltaId(String deltaId) {
     return Lists.newArrayList(connectionMapRepository.findByDeltaId(deltaId));
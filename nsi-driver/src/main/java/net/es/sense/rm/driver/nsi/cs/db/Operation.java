@@ -4,13 +4,13 @@ import lombok.Synchronized;
 import org.ogf.schemas.nsi._2013._12.framework.types.ServiceExceptionType;
 
 import java.io.Serializable;
-import java.util.concurrent.Semaphore;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * This class is used to track the status of an individual NSI operation,
- * providing a blocking semaphore allowing the delta request thread
- * initiating an NSI request to block on a result returned via an NSI
- * ConnectionService callback API thread.
+ * providing a future completed by the NSI ConnectionService callback API
+ * thread allowing the delta request thread initiating one or more NSI
+ * requests to wait on their results together.
  *
  * If an error is encountered within the NSI ConnectionService callback API
  * thread the state will be set to "failed" and the service exception will
@@ -19,17 +19,26 @@ import java.util.concurrent.Semaphore;
  * @author hacksaw
  */
 public class Operation implements Serializable {
-  private final Semaphore completed = new Semaphore(0);
+  private final transient CompletableFuture<Operation> completed = new CompletableFuture<>();
   private String uniqueId;
   private String correlationId;
   private OperationType operation;
   private StateType state;
   private ServiceExceptionType exception;
 
-  public Semaphore getCompleted() {
+  public CompletableFuture<Operation> getCompleted() {
     return completed;
   }
 
+  /**
+   * Mark this operation as completed, releasing any threads waiting on it.
+   *
+   * @return true if this call completed the operation.
+   */
+  public boolean complete() {
+    return completed.complete(this);
+  }
+
   /**
    * @return the operation
    */
@@ -1,15 +1,21 @@
 package net.es.sense.rm.driver.nsi.cs.db;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Repository;
 
 /**
  * Manages NSI operation progress between the Delta processing threads and
- * the NSI ConnectionService callback thread through the use of a semaphore.
+ * the NSI ConnectionService callback thread through the use of a future
+ * completed on each operation.
  *
  * This uses in-memory storage and assumes a restart of the SENSE-N-RM will
  * clear the outstanding operations since both delta and NSI requests will
@@ -39,18 +45,46 @@ public class OperationMapRepository {
   }
 
   public boolean wait(String correlationId, int waitFor) {
-    Operation op = get(correlationId);
+    return waitAll(List.of(correlationId), waitFor).containsKey(correlationId);
+  }
 
-    if (op == null) {
-      return false;
+  /**
+   * Wait for a set of outstanding operations to complete against a single
+   * shared deadline, so the total wait is bounded by the slowest operation
+   * rather than the sum of the individual waits.
+   *
+   * @param correlationIds The correlationIds of the operations to wait on.
+   * @param waitFor The maximum number of seconds to wait for all operations.
+   * @return The operations that completed before the deadline, indexed by correlationId.
+   */
+  public Map<String, Operation> waitAll(Collection<String> correlationIds, int waitFor) {
+    Map<String, Operation> ops = new HashMap<>();
+    for (String id : correlationIds) {
+      Operation op = get(id);
+      if (op == null) {
+        log.error("[OperationMapRepository] waitAll could not find correlationId = {}", id);
+      } else {
+        ops.put(id, op);
+      }
     }
 
     try {
-      return op.getCompleted().tryAcquire(waitFor, TimeUnit.SECONDS);
+      CompletableFuture.allOf(ops.values().stream()
+              .map(Operation::getCompleted)
+              .toArray(CompletableFuture[]::new))
+          .get(waitFor, TimeUnit.SECONDS);
+    } catch (TimeoutException ex) {
+      log.error("[OperationMapRepository] timeout after {} seconds waiting on {} operations", waitFor, ops.size());
     } catch (InterruptedException ex) {
       log.error("[OperationMapRepository] Interrupted so giving up", ex);
-      return false;
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException ex) {
+      // Operations are only ever completed normally.
+      log.error("[OperationMapRepository] Operation failed", ex);
     }
+
+    ops.values().removeIf(op -> !op.getCompleted().isDone());
+    return ops;
   }
 
   public boolean acknowledge(String correlationId, StateType state) {
@@ -61,7 +95,7 @@ public class OperationMapRepository {
     }
 
     op.setState(state);
-    op.getCompleted().release();
+    op.complete();
     return true;
   }
 }
@@ -0,0 +1,94 @@
+package net.es.sense.rm.driver.nsi.cs.db;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import jakarta.xml.bind.JAXBException;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import net.es.nsi.cs.lib.CsParser;
+import net.es.sense.rm.driver.nsi.properties.NsiProperties;
+import org.ogf.schemas.nsi._2013._12.services.point2point.P2PServiceBaseType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * A bounded cache of parsed P2PS service criteria keyed by reservation
+ * identifier and version, so a new version of the reservation is never served
+ * stale criteria.  The ReservationService evicts entries when a reservation
+ * is stored or deleted.
+ *
+ * The cached P2PServiceBaseType instances are shared and must not be modified.
+ *
+ * @author hacksaw
+ */
+@Slf4j
+@Component
+public class P2psCache {
+  private final Cache<Key, P2PServiceBaseType> cache;
+
+  @Autowired
+  public P2psCache(NsiProperties nsiProperties) {
+    this.cache = CacheBuilder.newBuilder()
+        .maximumSize(nsiProperties.getReservationServiceCacheSize())
+        .recordStats()
+        .build();
+  }
+
+  /**
+   * Get the parsed P2PS service criteria for a reservation, parsing and
+   * caching it if not present or out of date.  Reservations not yet stored
+   * in the database are parsed but not cached.
+   *
+   * @param reservation The reservation containing the service criteria.
+   * @return The parsed P2PS service criteria.
+   * @throws JAXBException If the service criteria could not be parsed.
+   */
+  public P2PServiceBaseType get(Reservation reservation) throws JAXBException {
+    Key key = new Key(reservation.getId(), reservation.getVersion());
+    P2PServiceBaseType p2ps = cache.getIfPresent(key);
+    if (p2ps != null) {
+      return p2ps;
+    }
+
+    p2ps = CsParser.getInstance().xml2p2ps(reservation.getService());
+    if (reservation.getId() != 0 && p2ps != null) {
+      cache.put(key, p2ps);
+    }
+    return p2ps;
+  }
+
+  /**
+   * Remove all parsed versions of the service criteria for the reservation.
+   *
+   * @param id The reservation identifier.
+   */
+  public void invalidate(long id) {
+    log.debug("[P2psCache] invalidating id = {}", id);
+    cache.asMap().keySet().removeIf(key -> key.getId() == id);
+  }
+
+  /**
+   * Remove all parsed service criteria from the cache.
+   */
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  public long size() {
+    return cache.size();
+  }
+
+  public CacheStats stats() {
+    return cache.stats();
+  }
+
+  /**
+   * Identifies one version of a reservation.
+   */
+  @Value
+  private static class Key {
+    long id;
+    int version;
+  }
+}
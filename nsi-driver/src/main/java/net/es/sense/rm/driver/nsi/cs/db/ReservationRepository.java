@@ -56,6 +56,14 @@ public interface ReservationRepository extends CrudRepository<Reservation, Long>
    */
   public Collection<Reservation> findByConnectionId(@Param("connectionId") String connectionId);
 
+  /**
+   * Lookup all reservations matching any of the supplied connectionIds.
+   *
+   * @param connectionIds
+   * @return
+   */
+  public Collection<Reservation> findByConnectionIdIn(@Param("connectionIds") Collection<String> connectionIds);
+
   /**
    *
    * @param topologyId
@@ -94,6 +94,8 @@ public interface ReservationService {
 
   public Collection<Reservation> getByProviderNsaAndConnectionId(String providerNSA, String connectionId);
 
+  public Collection<Reservation> getByConnectionIdIn(Collection<String> connectionIds);
+
   public Collection<Reservation> getByProviderNsaAndConnectionIdAndVersion(String providerNsa, String connectionId, int version);
 
   public Collection<Reservation> getByParentConnectionId(String parentConnectionId);
@@ -12,6 +12,7 @@ import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Optional;
@@ -29,6 +30,9 @@ public class ReservationServiceBean implements ReservationService {
   @Autowired
   private ReservationRepository reservationRepository;
 
+  @Autowired
+  private P2psCache p2psCache;
+
   @Override
   public long getLastDiscovered() {
     Long result = reservationRepository.findNewestDiscovered();
@@ -87,6 +91,14 @@ public class ReservationServiceBean implements ReservationService {
     return reservationRepository.findByProviderNsaAndConnectionId(providerNsa, connectionId);
   }
 
+  @Override
+  public Collection<Reservation> getByConnectionIdIn(Collection<String> connectionIds) {
+    if (connectionIds == null || connectionIds.isEmpty()) {
+      return new ArrayList<>();
+    }
+    return reservationRepository.findByConnectionIdIn(connectionIds);
+  }
+
   public Collection<Reservation> getByProviderNsaAndConnectionIdAndVersion(String providerNsa, String connectionId, int version) {
     return reservationRepository.findByProviderNsaAndConnectionIdAndVersion(providerNsa, connectionId, version);
   }
@@ -131,31 +143,40 @@ public class ReservationServiceBean implements ReservationService {
             && Strings.isNullOrEmpty(reservation.getUniqueId()))) {
       return null;
     }
-    return reservationRepository.save(reservation);
+    Reservation result = reservationRepository.save(reservation);
+    p2psCache.invalidate(result.getId());
+    return result;
   }
 
   @Transactional(propagation=Propagation.REQUIRED, readOnly=false)
   @Override
   public void delete(Reservation reservation) {
     reservationRepository.delete(reservation);
+    p2psCache.invalidate(reservation.getId());
   }
 
   @Transactional(propagation=Propagation.REQUIRED, readOnly=false)
   @Override
   public void delete(long id) {
     reservationRepository.deleteById(id);
+    p2psCache.invalidate(id);
   }
 
   @Transactional(propagation=Propagation.REQUIRED, readOnly=false)
   @Override
   public void deleteByUniqueId(String uniqueId)  {
+    Reservation reservation = reservationRepository.findByUniqueId(uniqueId);
     reservationRepository.deleteByUniqueId(uniqueId);
+    if (reservation != null) {
+      p2psCache.invalidate(reservation.getId());
+    }
   }
 
   @Transactional(propagation=Propagation.REQUIRED, readOnly=false)
   @Override
   public void delete() {
     reservationRepository.deleteAll(reservationRepository.findAll());
+    p2psCache.invalidateAll();
   }
 
   @Transactional(propagation=Propagation.REQUIRED, readOnly=false)
@@ -232,6 +253,7 @@ public class ReservationServiceBean implements ReservationService {
   @Transactional(propagation=Propagation.REQUIRED, readOnly=false)
   @Override
   public int setVersion(long id, int version) {
+    p2psCache.invalidate(id);
     return reservationRepository.setVersion(id, version);
   }
 }
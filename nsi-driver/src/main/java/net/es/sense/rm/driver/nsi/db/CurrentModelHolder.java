@@ -0,0 +1,169 @@
+package net.es.sense.rm.driver.nsi.db;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Holds the current model for each topology in memory so that requests for
+ * the current model, including If-Modified-Since checks, do not need to read
+ * the model from the database.  The current model only changes when the audit
+ * creates a new model version, at which point the holder is updated with the
+ * stored model.  A model is only replaced by a newer one, so a late load from
+ * the database can never roll back a model published by the audit.
+ *
+ * Requests may wait for a model newer than one they already hold.  Waiters
+ * are completed as the newer model is published, so no thread is held while
+ * waiting.  Waiters are completed on a dedicated release thread rather than
+ * the publishing audit thread, and are all handed the same published model.
+ *
+ * The held models are shared between threads and must not be modified.
+ *
+ * @author hacksaw
+ */
+@Slf4j
+@Component
+public class CurrentModelHolder {
+  private final ModelService modelService;
+
+  // The current model indexed by topologyId.
+  private final Map<String, Model> current = new ConcurrentHashMap<>();
+
+  // Requests waiting for a newer model indexed by topologyId.
+  private final Map<String, Queue<Waiter>> waiters = new ConcurrentHashMap<>();
+
+  // Completes waiters off the publishing thread.
+  private final ExecutorService releaser = Executors.newSingleThreadExecutor(r -> {
+    Thread thread = new Thread(r, "current-model-release");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  @lombok.Value
+  private static class Waiter {
+    long created;
+    CompletableFuture<Model> future;
+  }
+
+  public CurrentModelHolder(ModelService modelService) {
+    this.modelService = modelService;
+  }
+
+  /**
+   * Get the current model for the topology, loading it from the database if
+   * it has not yet been published to the holder.
+   *
+   * @param topologyId The topology identifier.
+   * @return The current model, or null if no model exists.
+   */
+  public Model get(String topologyId) {
+    Model model = current.get(topologyId);
+    if (model == null) {
+      model = modelService.getCurrent(topologyId);
+      if (model != null) {
+        model = set(model);
+      }
+    }
+    return model;
+  }
+
+  /**
+   * Publish a model as the current model for its topology if it is newer than
+   * the model already held.
+   *
+   * @param model The newly stored model.
+   * @return The model now held as current for the topology.
+   */
+  public Model set(Model model) {
+    Model result = current.merge(model.getTopologyId(), model, (held, update) -> isNewer(update, held) ? update : held);
+    log.debug("[CurrentModelHolder] topologyId = {}, current modelId = {}", model.getTopologyId(), result.getModelId());
+    release(result);
+    return result;
+  }
+
+  /**
+   * Wait for a model of the topology created after the specified time.  The
+   * returned future is completed immediately if the current model is already
+   * newer, otherwise when a newer model is published.  The caller bounds the
+   * wait by completing or timing out the future, which removes the waiter.
+   *
+   * @param topologyId The topology identifier.
+   * @param created Wait for a model created after this time.
+   * @return A future completed with the newer model.
+   */
+  public CompletableFuture<Model> await(String topologyId, long created) {
+    Waiter waiter = new Waiter(created, new CompletableFuture<>());
+    Queue<Waiter> queue = waiters.computeIfAbsent(topologyId, k -> new ConcurrentLinkedQueue<>());
+    queue.add(waiter);
+    waiter.getFuture().whenComplete((m, ex) -> queue.remove(waiter));
+
+    // Check after registering so a model published concurrently is not missed.
+    Model model = get(topologyId);
+    if (model != null && model.getCreated() > created) {
+      waiter.getFuture().complete(model);
+    }
+    return waiter.getFuture();
+  }
+
+  /**
+   * @param topologyId The topology identifier.
+   * @return The number of requests waiting for a newer model of the topology.
+   */
+  public int getWaiting(String topologyId) {
+    Queue<Waiter> queue = waiters.get(topologyId);
+    return queue == null ? 0 : queue.size();
+  }
+
+  private void release(Model model) {
+    Queue<Waiter> queue = waiters.get(model.getTopologyId());
+    if (queue == null) {
+      return;
+    }
+
+    List<Waiter> released = queue.stream()
+        .filter(w -> model.getCreated() > w.getCreated())
+        .toList();
+    if (!released.isEmpty()) {
+      log.debug("[CurrentModelHolder] releasing {} waiters for modelId = {}", released.size(), model.getModelId());
+      releaser.execute(() -> released.forEach(w -> w.getFuture().complete(model)));
+    }
+  }
+
+  @PreDestroy
+  public void destroy() {
+    releaser.shutdownNow();
+  }
+
+  /**
+   * Remove the held model for the topology so the next request reloads it
+   * from the database.
+   *
+   * @param topologyId The topology identifier.
+   */
+  public void invalidate(String topologyId) {
+    current.remove(topologyId);
+  }
+
+  /**
+   * Remove all held models.
+   */
+  public void invalidateAll() {
+    current.clear();
+  }
+
+  private static boolean isNewer(Model update, Model held) {
+    if (update.getCreated() != held.getCreated()) {
+      return update.getCreated() > held.getCreated();
+    }
+    return update.getIdx() > held.getIdx();
+  }
+}
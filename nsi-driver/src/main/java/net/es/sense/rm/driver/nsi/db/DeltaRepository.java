@@ -24,6 +24,8 @@ import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 /**
  * A JPA repository interface for accessing delta objects in storage.
  *
@@ -50,4 +52,8 @@ public interface DeltaRepository extends CrudRepository<Delta, String> {
 
   @Query("select m from #{#entityName} m where m.lastModified > :lastModified")
   public Iterable<Delta> findAllNewer(@Param("lastModified") long lastModified);
+
+  @Query("select new net.es.sense.rm.driver.nsi.db.DeltaSummary(m.idx, m.deltaId, m.modelId, m._state, m.lastModified) "
+      + "from #{#entityName} m where m.lastModified > :lastModified")
+  public List<DeltaSummary> findSummaryNewer(@Param("lastModified") long lastModified);
 }
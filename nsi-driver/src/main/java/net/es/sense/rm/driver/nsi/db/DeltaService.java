@@ -86,6 +86,15 @@ public interface DeltaService {
    */
   public Collection<Delta> getNewer(long lastModified);
 
+  /**
+   * Get the metadata of delta resources modified after the specified time
+   * without reading the delta models.
+   *
+   * @param lastModified Return deltas modified after this time.
+   * @return A collection of delta metadata.
+   */
+  public Collection<DeltaSummary> getSummaryNewer(long lastModified);
+
   /**
    *
    * @return
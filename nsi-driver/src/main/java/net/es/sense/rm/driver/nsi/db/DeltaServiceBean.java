@@ -76,6 +76,11 @@ public class DeltaServiceBean implements DeltaService {
     return Lists.newArrayList(deltaRepository.findAllNewer(lastModified));
   }
 
+  @Override
+  public Collection<DeltaSummary> getSummaryNewer(long lastModified) {
+    return deltaRepository.findSummaryNewer(lastModified);
+  }
+
   @Override
   public Delta get(String deltaId, long lastModified) {
     return deltaRepository.findByDeltaId(deltaId, lastModified);
@@ -0,0 +1,19 @@
+package net.es.sense.rm.driver.nsi.db;
+
+import net.es.sense.rm.model.DeltaState;
+
+/**
+ * The metadata of a stored delta without the reduction, addition, and result
+ * models, for use by queries that do not need to read the models from the
+ * database.
+ *
+ * @author hacksaw
+ */
+@lombok.Value
+public class DeltaSummary {
+  long idx;
+  String deltaId;
+  String modelId;
+  DeltaState state;
+  long lastModified;
+}
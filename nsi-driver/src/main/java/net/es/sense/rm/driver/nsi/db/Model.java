@@ -48,6 +48,10 @@ public class Model implements Serializable {
   // version number to encapsulate the two versions of data.
   private String version;
 
+  // Canonical hash of the model content used to suppress new model versions
+  // that contain no change in content.
+  private String hash;
+
   // We need to know when this model was created so we can manage cleanup of
   // old models.
   private long created = (System.currentTimeMillis() / 1000) * 1000;
@@ -60,6 +64,6 @@ public class Model implements Serializable {
   @Override
   public String toString() {
     return "idx: " + this.idx + ", modelId: " + this.modelId + ", topologyId: "
-            + this.topologyId + ", version: " + this.getVersion() + ", base:\n" + this.getBase();
+            + this.topologyId + ", version: " + this.getVersion() + ", hash: " + this.getHash() + ", base:\n" + this.getBase();
   }
 }
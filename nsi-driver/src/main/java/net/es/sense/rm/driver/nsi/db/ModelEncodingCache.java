@@ -0,0 +1,87 @@
+package net.es.sense.rm.driver.nsi.db;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import lombok.extern.slf4j.Slf4j;
+import net.es.sense.rm.driver.api.mrml.ModelUtil;
+import net.es.sense.rm.driver.nsi.properties.NsiProperties;
+import org.apache.jena.riot.Lang;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutionException;
+
+/**
+ * A bounded cache of model versions rendered into the encodings supported by
+ * the driver.  Models are stored as Turtle so requests for Turtle are served
+ * directly from the stored model, while other encodings are rendered once per
+ * model version on first request and shared by all subsequent requests.  A
+ * modelId identifies a single immutable model version so entries never need
+ * to be invalidated, only evicted.
+ *
+ * @author hacksaw
+ */
+@Slf4j
+@Component
+public class ModelEncodingCache {
+  // The encoding of the stored model.
+  private static final Lang STORED_ENCODING = Lang.TURTLE;
+
+  private final Cache<String, String> cache;
+
+  public ModelEncodingCache(NsiProperties nsiProperties) {
+    this.cache = CacheBuilder.newBuilder()
+        .maximumSize(nsiProperties.getModelEncodingCacheSize())
+        .recordStats()
+        .build();
+  }
+
+  /**
+   * Get the model rendered in the requested encoding.
+   *
+   * @param model The stored model.
+   * @param modelType The requested encoding.
+   * @return The model in the requested encoding.
+   * @throws IllegalArgumentException If the encoding is not supported or the model could not be rendered.
+   */
+  public String get(Model model, String modelType) throws IllegalArgumentException {
+    Lang lang = ModelUtil.getSupportedEncoding(modelType)
+        .orElseThrow(() -> new IllegalArgumentException("Specified model type = " + modelType + " not supported."));
+
+    if (STORED_ENCODING.equals(lang) || model.getBase() == null) {
+      return model.getBase();
+    }
+
+    String key = model.getModelId() + "/" + lang.getName();
+    try {
+      // Concurrent requests for the same entry wait on a single rendering.
+      return cache.get(key, () -> render(model, lang));
+    } catch (ExecutionException | UncheckedExecutionException ex) {
+      log.error("[ModelEncodingCache] failed to render modelId = {} as {}", model.getModelId(), lang.getName(), ex);
+      throw new IllegalArgumentException("Could not render model " + model.getModelId() + " as " + lang.getName(),
+          ex.getCause());
+    }
+  }
+
+  private String render(Model model, Lang lang) {
+    long start = System.currentTimeMillis();
+    String result = ModelUtil.marshalModel(
+        ModelUtil.unmarshalModel(model.getBase(), STORED_ENCODING.getName()), lang.getName());
+    log.info("[ModelEncodingCache] rendered modelId = {} as {} in {} ms", model.getModelId(), lang.getName(),
+        System.currentTimeMillis() - start);
+    return result;
+  }
+
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  public long size() {
+    return cache.size();
+  }
+
+  public CacheStats stats() {
+    return cache.stats();
+  }
+}
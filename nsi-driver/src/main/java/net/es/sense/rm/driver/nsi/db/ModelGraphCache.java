@@ -0,0 +1,114 @@
+package net.es.sense.rm.driver.nsi.db;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import lombok.extern.slf4j.Slf4j;
+import net.es.sense.rm.driver.api.mrml.ModelUtil;
+import net.es.sense.rm.driver.api.mrml.SubgraphQuery;
+import net.es.sense.rm.driver.nsi.properties.NsiProperties;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.sparql.graph.GraphReadOnly;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutionException;
+
+/**
+ * A bounded cache of model versions parsed into indexed in-memory graphs for
+ * answering subgraph queries and propagating deltas.  New model versions are
+ * added by the audit as they are created, and older versions still in use
+ * are parsed once on first use.  The cached graphs are read-only so they are
+ * safely shared by concurrent readers, and delta propagation modifies a
+ * copy-on-write view of them.
+ *
+ * @author hacksaw
+ */
+@Slf4j
+@Component
+public class ModelGraphCache {
+  // The encoding of the stored model.
+  private static final Lang STORED_ENCODING = Lang.TURTLE;
+
+  private final Cache<String, org.apache.jena.rdf.model.Model> cache;
+
+  public ModelGraphCache(NsiProperties nsiProperties) {
+    this.cache = CacheBuilder.newBuilder()
+        .maximumSize(nsiProperties.getModelGraphCacheSize())
+        .recordStats()
+        .build();
+  }
+
+  /**
+   * Query the model version for a subgraph rendered in the requested encoding.
+   *
+   * @param model The stored model.
+   * @param modelType The requested encoding.
+   * @param query The subgraph query.
+   * @return The subgraph in the requested encoding.
+   * @throws IllegalArgumentException If the encoding is not supported or the model could not be parsed.
+   */
+  public String query(Model model, String modelType, SubgraphQuery query) throws IllegalArgumentException {
+    Lang lang = ModelUtil.getSupportedEncoding(modelType)
+        .orElseThrow(() -> new IllegalArgumentException("Specified model type = " + modelType + " not supported."));
+
+    if (model.getBase() == null) {
+      return null;
+    }
+
+    return ModelUtil.marshalModel(query.apply(get(model)), lang.getName());
+  }
+
+  /**
+   * Add the graph of a newly created model version.  The graph must not be
+   * modified by the caller once added.
+   *
+   * @param model The stored model.
+   * @param graph The graph of the stored model.
+   */
+  public void put(Model model, org.apache.jena.rdf.model.Model graph) {
+    cache.put(model.getModelId(), readOnly(graph));
+  }
+
+  /**
+   * Get the parsed graph of a model version.
+   *
+   * @param model The stored model.
+   * @return The read-only parsed graph.
+   * @throws IllegalArgumentException If the model could not be parsed.
+   */
+  public org.apache.jena.rdf.model.Model get(Model model) throws IllegalArgumentException {
+    try {
+      // Concurrent queries for the same model version wait on a single parse.
+      return cache.get(model.getModelId(), () -> parse(model));
+    } catch (ExecutionException | UncheckedExecutionException ex) {
+      log.error("[ModelGraphCache] failed to parse modelId = {}", model.getModelId(), ex);
+      throw new IllegalArgumentException("Could not parse model " + model.getModelId(), ex.getCause());
+    }
+  }
+
+  private org.apache.jena.rdf.model.Model parse(Model model) {
+    long start = System.currentTimeMillis();
+    org.apache.jena.rdf.model.Model result = ModelUtil.unmarshalModel(model.getBase(), STORED_ENCODING.getName());
+    log.info("[ModelGraphCache] parsed modelId = {} with {} statements in {} ms", model.getModelId(),
+        result.size(), System.currentTimeMillis() - start);
+    return readOnly(result);
+  }
+
+  private static org.apache.jena.rdf.model.Model readOnly(org.apache.jena.rdf.model.Model graph) {
+    return ModelFactory.createModelForGraph(new GraphReadOnly(graph.getGraph()));
+  }
+
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  public long size() {
+    return cache.size();
+  }
+
+  public CacheStats stats() {
+    return cache.stats();
+  }
+}
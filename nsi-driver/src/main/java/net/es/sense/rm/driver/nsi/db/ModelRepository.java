@@ -8,6 +8,8 @@ import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 /**
  * This CrudRepository class handles storage for the Model structure.
  *
@@ -54,6 +56,15 @@ public interface ModelRepository extends CrudRepository<Model, String> {
   @Query("select m from #{#entityName} m where m.topologyId = :topologyId and m.created > :created")
   public Iterable<Model> findTopologyIdNewerThanCreated(@Param ("topologyId") String topologyId, @Param("created") long created);
 
+  @Query("select new net.es.sense.rm.driver.nsi.db.ModelSummary(m.idx, m.modelId, m.version, m.created) "
+      + "from #{#entityName} m where m.topologyId = :topologyId and m.created > :created")
+  public List<ModelSummary> findSummaryByTopologyIdNewerThanCreated(@Param ("topologyId") String topologyId,
+      @Param("created") long created);
+
+  @Query("select new net.es.sense.rm.driver.nsi.db.ModelSummary(m.idx, m.modelId, m.version, m.created) "
+      + "from #{#entityName} m where m.modelId = :modelId")
+  public ModelSummary findSummaryByModelId(@Param ("modelId") String modelId);
+
   @Query("select m from #{#entityName} m where m.topologyId = :topologyId and m.created < :created")
   public Iterable<Model> findTopologyIdOlderThanCreated(@Param ("topologyId") String topologyId, @Param("created") long created);
 
@@ -36,4 +36,8 @@ public interface ModelService {
   public long countByTopologyId(String topologyId);
   public Collection<Model> getByTopologyId(String topologyId);
   public Collection<Model> getByTopologyId(String topologyId, long lastModified);
+
+  // Model metadata only, without reading the model contents.
+  public ModelSummary getSummaryByModelId(String modelId);
+  public Collection<ModelSummary> getSummaryByTopologyId(String topologyId, long lastModified);
 }
@@ -144,6 +144,16 @@ public class ModelServiceBean implements ModelService {
     return result;
   }
 
+  @Override
+  public ModelSummary getSummaryByModelId(String modelId) {
+    return modelRepository.findSummaryByModelId(modelId);
+  }
+
+  @Override
+  public Collection<ModelSummary> getSummaryByTopologyId(String topologyId, long created) {
+    return modelRepository.findSummaryByTopologyIdNewerThanCreated(topologyId, created);
+  }
+
   @Override
   public long countByTopologyId(String topologyId) {
     Long count = modelRepository.countByTopologyId(topologyId);
@@ -0,0 +1,15 @@
+package net.es.sense.rm.driver.nsi.db;
+
+/**
+ * The metadata of a stored model without the model contents, for use by
+ * queries that do not need to read the model itself from the database.
+ *
+ * @author hacksaw
+ */
+@lombok.Value
+public class ModelSummary {
+  long idx;
+  String modelId;
+  String version;
+  long created;
+}
@@ -31,6 +31,8 @@ import net.es.nsi.dds.lib.jaxb.dds.FilterType;
 import net.es.nsi.dds.lib.jaxb.dds.NotificationType;
 import net.es.sense.rm.driver.nsi.actors.NsiActorSystem;
 import net.es.sense.rm.driver.nsi.dds.api.DiscoveryError;
+import net.es.sense.rm.driver.nsi.dds.api.DocumentCache;
+import net.es.sense.rm.driver.nsi.dds.api.ProviderCapabilityCache;
 import net.es.sense.rm.driver.nsi.dds.api.Exceptions;
 import net.es.sense.rm.driver.nsi.dds.db.Document;
 import net.es.sense.rm.driver.nsi.dds.db.DocumentService;
@@ -61,6 +63,8 @@ public class DdsProvider implements DdsProviderI {
   private final SpringExtension springExtension;
   private final NsiActorSystem nsiActorSystem;
   private final DdsClientProvider ddsClientProvider;
+  private final DocumentCache documentCache;
+  private final ProviderCapabilityCache capabilityCache;
 
   private ActorRef localDocumentActor;
   private ActorRef documentExpiryActor;
@@ -74,16 +78,22 @@ public class DdsProvider implements DdsProviderI {
    * @param documentService
    * @param springExtension
    * @param nsiActorSystem
+   * @param ddsClientProvider
+   * @param documentCache
+   * @param capabilityCache
    */
   @Autowired
   public DdsProvider(NsiProperties nsiProperties, DocumentService documentService,
                      SpringExtension springExtension, NsiActorSystem nsiActorSystem,
-                     DdsClientProvider ddsClientProvider) {
+                     DdsClientProvider ddsClientProvider, DocumentCache documentCache,
+                     ProviderCapabilityCache capabilityCache) {
     this.nsiProperties = nsiProperties;
     this.documentService = documentService;
     this.springExtension = springExtension;
     this.nsiActorSystem = nsiActorSystem;
     this.ddsClientProvider = ddsClientProvider;
+    this.documentCache = documentCache;
+    this.capabilityCache = capabilityCache;
   }
 
   /**
@@ -242,10 +252,12 @@ public class DdsProvider implements DdsProviderI {
     }
 
     // This is a new document so add it into the document space.
+    documentCache.invalidate(document.getId());
     Document create = documentService.create(document);
 
     if (create != null) {
       log.debug("[addDocument] added documentId=" + document.getDocumentId());
+      capabilityCache.update(create);
     } else {
       log.error("[addDocument] failed to add documentId=" + document.getDocumentId());
       throw Exceptions.doesNotExistException(DiscoveryError.INTERNAL_SERVER_ERROR, "document", document.getDocumentId());
@@ -298,10 +310,12 @@ public class DdsProvider implements DdsProviderI {
       throw Exceptions.internalServerErrorException("getDocumentFull", ex.getMessage());
     }
 
+    documentCache.invalidate(documentId);
     Document update = documentService.update(document);
 
     if (update != null) {
       log.debug("[deleteDocument] deleted documentId=" + documentId);
+      capabilityCache.remove(document);
     } else {
       log.error("[deleteDocument] failed to delete documentId=" + documentId);
       throw Exceptions.doesNotExistException(DiscoveryError.INTERNAL_SERVER_ERROR, "document", documentId);
@@ -375,9 +389,11 @@ public class DdsProvider implements DdsProviderI {
     }
 
     // Now we write this out to disk updating the existing document.
+    documentCache.invalidate(documentId);
     Document update = documentService.update(document);
     if (update != null) {
       log.debug("[updateDocument] updated documentId=" + documentId);
+      capabilityCache.update(update);
     } else {
       log.error("[updateDocument] failed to update documentId=" + documentId);
       throw Exceptions.doesNotExistException(DiscoveryError.INTERNAL_SERVER_ERROR, "document", documentId);
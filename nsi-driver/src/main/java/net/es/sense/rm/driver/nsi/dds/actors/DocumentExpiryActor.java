@@ -3,8 +3,11 @@ package net.es.sense.rm.driver.nsi.dds.actors;
 import akka.actor.UntypedAbstractActor;
 import akka.event.Logging;
 import akka.event.LoggingAdapter;
+import com.google.common.cache.CacheStats;
 import com.google.common.collect.Lists;
 import net.es.sense.rm.driver.nsi.actors.NsiActorSystem;
+import net.es.sense.rm.driver.nsi.dds.api.DocumentCache;
+import net.es.sense.rm.driver.nsi.dds.api.ProviderCapabilityCache;
 import net.es.sense.rm.driver.nsi.dds.db.Document;
 import net.es.sense.rm.driver.nsi.dds.db.DocumentService;
 import net.es.sense.rm.driver.nsi.messages.Message;
@@ -32,6 +35,8 @@ public class DocumentExpiryActor extends UntypedAbstractActor {
   private final NsiActorSystem nsiActorSystem;
   private final DocumentService documentService;
   private final NsiProperties nsiProperties;
+  private final DocumentCache documentCache;
+  private final ProviderCapabilityCache capabilityCache;
 
   /**
    * Constructor for the DocumentExpiryActor.
@@ -39,13 +44,18 @@ public class DocumentExpiryActor extends UntypedAbstractActor {
    * @param nsiActorSystem
    * @param documentService
    * @param nsiProperties
+   * @param documentCache
+   * @param capabilityCache
    */
   public DocumentExpiryActor(NsiActorSystem nsiActorSystem, DocumentService documentService,
-                             NsiProperties nsiProperties) {
+                             NsiProperties nsiProperties, DocumentCache documentCache,
+                             ProviderCapabilityCache capabilityCache) {
     log.info("[DocumentExpiryActor] Constructing");
     this.nsiActorSystem = nsiActorSystem;
     this.documentService = documentService;
     this.nsiProperties = nsiProperties;
+    this.documentCache = documentCache;
+    this.capabilityCache = capabilityCache;
   }
 
   /**
@@ -100,8 +110,14 @@ public class DocumentExpiryActor extends UntypedAbstractActor {
     for (Document document : expired) {
       log.debug("[DocumentExpiryActor] document has expired, id = {}, expires = {} ", document.getId(), new Date(document.getExpires()));
       documentService.delete(document.getId());
+      documentCache.invalidate(document.getId());
+      capabilityCache.remove(document);
 
       // Send notification to user API??
     }
+
+    CacheStats stats = documentCache.stats();
+    log.info("[DocumentExpiryActor] decoded document cache size = {}, hits = {}, misses = {}",
+        documentCache.size(), stats.hitCount(), stats.missCount());
   }
 }
@@ -0,0 +1,96 @@
+package net.es.sense.rm.driver.nsi.dds.api;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import net.es.sense.rm.driver.nsi.dds.db.Document;
+import net.es.sense.rm.driver.nsi.properties.NsiProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * A bounded cache of decoded DDS documents (NML topologies and NSA
+ * descriptions).  Entries are keyed by the document identifier, version,
+ * discovered time, and decoded class so a changed document is never served
+ * stale, even if an invalidation is missed, and superseded versions are
+ * simply evicted.
+ *
+ * @author hacksaw
+ */
+@Slf4j
+@Component
+public class DocumentCache {
+  private final Cache<Key, Object> cache;
+
+  @Autowired
+  public DocumentCache(NsiProperties nsiProperties) {
+    this.cache = CacheBuilder.newBuilder()
+        .maximumSize(nsiProperties.getDdsDocumentCacheSize())
+        .recordStats()
+        .build();
+  }
+
+  /**
+   * Get the decoded form of a document from the cache, decoding and caching
+   * it if not present or out of date.
+   *
+   * @param document The DDS document to decode.
+   * @param xmlClass The JAXB class of the decoded document.
+   * @param decoder Decodes the document on a cache miss, returning null on failure.
+   * @param <T> The decoded document type.
+   * @return The decoded document, or null if it could not be decoded.
+   */
+  public <T> T get(Document document, Class<T> xmlClass, Supplier<T> decoder) {
+    Key key = new Key(document.getId(), document.getVersion(), document.getLastDiscovered(), xmlClass);
+    Object value = cache.getIfPresent(key);
+    if (value != null) {
+      return xmlClass.cast(value);
+    }
+
+    T result = decoder.get();
+    if (result != null) {
+      cache.put(key, result);
+    }
+    return result;
+  }
+
+  /**
+   * Remove all decoded versions of the document.
+   *
+   * @param id The document identifier.
+   */
+  public void invalidate(String id) {
+    log.debug("[DocumentCache] invalidating id = {}", id);
+    cache.asMap().keySet().removeIf(key -> key.getId().equals(id));
+  }
+
+  /**
+   * Remove all decoded documents from the cache.
+   */
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  public long size() {
+    return cache.size();
+  }
+
+  public CacheStats stats() {
+    return cache.stats();
+  }
+
+  /**
+   * Identifies one decoding of a document version.
+   */
+  @Value
+  private static class Key {
+    String id;
+    long version;
+    long lastDiscovered;
+    Class<?> xmlClass;
+  }
+}
@@ -26,10 +26,15 @@ import java.util.Collection;
 @Service
 public class DocumentReader {
   private final DdsProvider ddsProvider;
+  private final DocumentCache documentCache;
+  private final ProviderCapabilityCache capabilityCache;
 
   @Autowired
-  public DocumentReader(DdsProvider ddsProvider) {
+  public DocumentReader(DdsProvider ddsProvider, DocumentCache documentCache,
+                        ProviderCapabilityCache capabilityCache) {
     this.ddsProvider = ddsProvider;
+    this.documentCache = documentCache;
+    this.capabilityCache = capabilityCache;
   }
 
   public long getLastDiscovered() {
@@ -48,6 +53,17 @@ public class DocumentReader {
     return decodeNSA(ddsProvider.getDocument(id, Nsi.NSI_DOC_TYPE_NSA_V1, id));
   }
 
+  /**
+   * Get the capabilities of an NSA from the capability cache, which is kept
+   * current as the NSA description is updated in the DDS.
+   *
+   * @param id The NSA identifier.
+   * @return The NSA capabilities, or null if the NSA description is not available.
+   */
+  public ProviderCapability getProviderCapability(String id) {
+    return capabilityCache.get(id, () -> getNsa(id));
+  }
+
   public Collection<NmlTopologyType> getNmlTopologyAll() {
     return decode(NmlTopologyType.class, ddsProvider.getDocumentsByType(Nsi.NSI_DOC_TYPE_TOPOLOGY_V2));
   }
@@ -59,13 +75,9 @@ public class DocumentReader {
   private <T> Collection<T> decode(Class<T> xmlClass, Iterable<Document> documents) {
     Collection<T> list = new ArrayList<>();
     for (Document doc : documents) {
-      try {
-        ContentType content = doc.getDocumentFull().getContent();
-        InputStream is = Decoder.decode(content.getContentTransferEncoding(), content.getContentType(),
-                content.getValue());
-        list.add(XmlUtilities.xmlToJaxb(xmlClass, is));
-      } catch (IOException | JAXBException ex) {
-        log.error("[DocumentReader] could not decode document id = {}", doc.getId(), ex);
+      T result = documentCache.get(doc, xmlClass, () -> decodeDocument(xmlClass, doc));
+      if (result != null) {
+        list.add(result);
       }
     }
 
@@ -73,15 +85,23 @@ public class DocumentReader {
   }
 
   private NsaType decodeNSA(Document document) {
-      try {
-        ContentType content = document.getDocumentFull().getContent();
-        InputStream is = Decoder.decode(content.getContentTransferEncoding(), content.getContentType(),
-            content.getValue());
-        return XmlUtilities.xmlToJaxb(NsaType.class, is);
-      } catch (IOException | JAXBException ex) {
-        log.error("[DocumentReader] could not decode NSA document id = {}", document.getId(), ex);
-      }
-
+    if (document == null) {
       return null;
+    }
+
+    return documentCache.get(document, NsaType.class, () -> decodeDocument(NsaType.class, document));
+  }
+
+  static <T> T decodeDocument(Class<T> xmlClass, Document document) {
+    try {
+      ContentType content = document.getDocumentFull().getContent();
+      InputStream is = Decoder.decode(content.getContentTransferEncoding(), content.getContentType(),
+          content.getValue());
+      return XmlUtilities.xmlToJaxb(xmlClass, is);
+    } catch (IOException | JAXBException ex) {
+      log.error("[DocumentReader] could not decode document id = {}", document.getId(), ex);
+    }
+
+    return null;
   }
 }
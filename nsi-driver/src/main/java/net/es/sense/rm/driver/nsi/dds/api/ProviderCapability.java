@@ -0,0 +1,72 @@
+package net.es.sense.rm.driver.nsi.dds.api;
+
+import lombok.Value;
+import net.es.nsi.common.constants.Nsi;
+import net.es.nsi.dds.lib.jaxb.nsa.FeatureType;
+import net.es.nsi.dds.lib.jaxb.nsa.InterfaceType;
+import net.es.nsi.dds.lib.jaxb.nsa.NsaType;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The capabilities of an NSA extracted from its DDS NSA description document:
+ * the NSI-CS provider endpoint, the interfaces it offers, and the features it
+ * supports.
+ *
+ * @author hacksaw
+ */
+@Value
+public class ProviderCapability {
+  // The NSA identifier.
+  String nsaId;
+
+  // The NSI-CS provider endpoint, or null if not offered.
+  String csProviderUrl;
+
+  // The endpoint of each interface type offered by the NSA.
+  Map<String, String> interfaces;
+
+  // The feature types supported by the NSA.
+  Set<String> features;
+
+  // True if the NSA supports modification of reservations.
+  boolean modifySupported;
+
+  // The version of the NSA description in milliseconds since the epoch.
+  long version;
+
+  /**
+   * Build the capabilities of an NSA from its NSA description.
+   *
+   * @param nsa The decoded NSA description.
+   * @return The NSA capabilities.
+   */
+  public static ProviderCapability of(NsaType nsa) {
+    Map<String, String> interfaces = new LinkedHashMap<>();
+    for (InterfaceType i : nsa.getInterface()) {
+      if (i.getType() != null) {
+        interfaces.putIfAbsent(i.getType().toLowerCase(), i.getHref());
+      }
+    }
+
+    Set<String> features = new LinkedHashSet<>();
+    for (FeatureType f : nsa.getFeature()) {
+      if (f.getType() != null) {
+        features.add(f.getType().toLowerCase());
+      }
+    }
+
+    long version = nsa.getVersion() == null ? 0 : nsa.getVersion().toGregorianCalendar().getTimeInMillis();
+
+    return new ProviderCapability(nsa.getId(),
+        interfaces.get(Nsi.NSI_CS_PROVIDER_V2.toLowerCase()),
+        Collections.unmodifiableMap(interfaces),
+        Collections.unmodifiableSet(features),
+        features.contains(Nsi.NSI_CS_MODIFY.toLowerCase()),
+        version);
+  }
+}
@@ -0,0 +1,99 @@
+package net.es.sense.rm.driver.nsi.dds.api;
+
+import lombok.extern.slf4j.Slf4j;
+import net.es.nsi.common.constants.Nsi;
+import net.es.nsi.dds.lib.jaxb.nsa.NsaType;
+import net.es.sense.rm.driver.nsi.dds.db.Document;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * An in-memory cache of NSA capabilities indexed by NSA identifier.  The
+ * capabilities of an NSA are built from its NSA description the first time
+ * they are requested, after which the NSA is watched and its capabilities
+ * are rebuilt only when the DdsProvider adds or updates the NSA description,
+ * so lookups never touch the document repository or decode XML.
+ *
+ * @author hacksaw
+ */
+@Slf4j
+@Component
+public class ProviderCapabilityCache {
+  private final Map<String, ProviderCapability> capabilities = new ConcurrentHashMap<>();
+  private final Set<String> watched = ConcurrentHashMap.newKeySet();
+
+  /**
+   * Get the capabilities of an NSA, loading its NSA description if this is
+   * the first request.
+   *
+   * @param nsaId The NSA identifier.
+   * @param loader Loads the NSA description on first request, returning null if not found.
+   * @return The NSA capabilities, or null if the NSA description is not available.
+   */
+  public ProviderCapability get(String nsaId, Supplier<NsaType> loader) {
+    ProviderCapability capability = capabilities.get(nsaId);
+    if (capability != null) {
+      return capability;
+    }
+
+    // Watch before loading so an update racing with the load is not lost.
+    watched.add(nsaId);
+    NsaType nsa = loader.get();
+    if (nsa == null) {
+      return null;
+    }
+
+    return put(nsaId, ProviderCapability.of(nsa));
+  }
+
+  /**
+   * Rebuild the capabilities of a watched NSA from a newly added or updated
+   * DDS document.  Documents other than NSA descriptions are ignored.
+   *
+   * @param document The added or updated DDS document.
+   */
+  public void update(Document document) {
+    if (!isWatched(document)) {
+      return;
+    }
+
+    NsaType nsa = DocumentReader.decodeDocument(NsaType.class, document);
+    if (nsa == null) {
+      capabilities.remove(document.getNsa());
+    } else {
+      ProviderCapability capability = put(document.getNsa(), ProviderCapability.of(nsa));
+      log.info("[ProviderCapabilityCache] updated nsaId = {}, csProviderUrl = {}, version = {}",
+          capability.getNsaId(), capability.getCsProviderUrl(), capability.getVersion());
+    }
+  }
+
+  /**
+   * Remove the capabilities of an NSA whose NSA description has been removed.
+   *
+   * @param document The removed DDS document.
+   */
+  public void remove(Document document) {
+    if (isWatched(document)) {
+      log.info("[ProviderCapabilityCache] removing nsaId = {}", document.getNsa());
+      capabilities.remove(document.getNsa());
+    }
+  }
+
+  private boolean isWatched(Document document) {
+    return Nsi.NSI_DOC_TYPE_NSA_V1.equalsIgnoreCase(document.getType()) && watched.contains(document.getNsa());
+  }
+
+  private ProviderCapability put(String nsaId, ProviderCapability capability) {
+    // Never replace the capabilities with those of an older NSA description.
+    return capabilities.merge(nsaId, capability,
+        (current, update) -> update.getVersion() >= current.getVersion() ? update : current);
+  }
+
+  public long size() {
+    return capabilities.size();
+  }
+}
@@ -5,9 +5,13 @@ import javax.xml.datatype.XMLGregorianCalendar;
 import java.io.IOException;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 import com.google.common.base.Strings;
 import jakarta.xml.bind.JAXBElement;
 import lombok.extern.slf4j.Slf4j;
@@ -25,7 +29,12 @@ import net.es.sense.rm.driver.schema.Nml;
 import net.es.sense.rm.driver.schema.Rdf;
 import net.es.sense.rm.driver.schema.Sd;
 import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.graph.compose.Difference;
 import org.apache.jena.ontology.OntModel;
+import org.apache.jena.rdf.model.AnonId;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.RDFNode;
 import org.apache.jena.rdf.model.Resource;
 import org.apache.jena.rdf.model.ResourceFactory;
 import org.apache.jena.riot.Lang;
@@ -85,7 +94,7 @@ public class MrmlFactory {
    */
   public String getModelAsString(Lang encoding) throws IOException {
     log.debug("[MrmlFactory] getModelAsString for modelType {}", encoding);
-    return ModelUtil.marshalModel(getOntologyModel().getBaseModel(), encoding.getName());
+    return ModelUtil.marshalModel(getModel(), encoding.getName());
   }
 
   /**
@@ -99,7 +108,31 @@ public class MrmlFactory {
 
     // Create the empty model in which to place the content.
     OntModel model = ModelUtil.newMrmlModel();
+    createModel(model);
+    return model;
+  }
 
+  /**
+   * Returns an MRML model for this topology built in a plain in-memory graph
+   * without a reasoner or schema imports.  The statements are identical to
+   * the base model of getOntologyModel() but are much cheaper to generate
+   * when the model is only going to be serialized.
+   *
+   * @return MRML model.
+   */
+  public Model getModel() {
+    log.debug("[MrmlFactory] getModel for topologyId = {}", topologyId);
+    Model model = ModelUtil.newMrmlBaseModel();
+    createModel(model);
+    return model;
+  }
+
+  /**
+   * Populate the supplied model with the MRML representation of this topology.
+   *
+   * @param model The model to populate.
+   */
+  private void createModel(Model model) {
     // Populate the root Topology resource.
     createTopolgyResource(model);
 
@@ -115,17 +148,225 @@ public class MrmlFactory {
     createBidirectionalPortsFromConnections(model);
 
     createSwitchingSubnet(model);
+  }
+
+  /**
+   * Serialize the base Ontology model to a string, generating the model
+   * incrementally using the supplied section cache.
+   *
+   * @param encoding The output encoding for the serializer.
+   * @param cache Sections of the previously generated model.
+   * @return The model serialized as a string.
+   * @throws IOException If the model cannot be serialized.
+   */
+  public String getModelAsString(Lang encoding, MrmlGraphCache cache) throws IOException {
+    log.debug("[MrmlFactory] getModelAsString for modelType {} using section cache", encoding);
+    return ModelUtil.marshalModel(getModel(cache), encoding.getName());
+  }
+
+  /**
+   * Returns an MRML Ontology for this topology reusing any sections from the
+   * previously generated model whose source information has not changed.  The
+   * Topology, ServiceDefinition, and SwitchingService sections are only
+   * regenerated when the topology document changes, the parent
+   * BidirectionalPort section when the ports change, and each SwitchingSubnet
+   * with its child BidirectionalPorts when the associated reservation changes.
+   * The supplied cache is updated with the sections of the new model.
+   *
+   * @param cache Sections of the previously generated model.
+   * @return MRML Ontology model equivalent to getOntologyModel().
+   * @throws IOException If the model cannot be created.
+   */
+  public OntModel getOntologyModel(MrmlGraphCache cache) throws IOException {
+    log.debug("[MrmlFactory] getOntologyModel for topologyId = {} using section cache", topologyId);
+    OntModel model = ModelUtil.newMrmlModel();
+    model.add(getModel(cache));
+    return model;
+  }
+
+  /**
+   * Returns an MRML model for this topology built in a plain in-memory graph,
+   * reusing any sections from the previously generated model whose source
+   * information has not changed.
+   *
+   * @param cache Sections of the previously generated model.
+   * @return MRML model equivalent to getModel().
+   */
+  public Model getModel(MrmlGraphCache cache) {
+    log.debug("[MrmlFactory] getModel for topologyId = {} using section cache", topologyId);
+
+    int generated = 0;
+    int reused = 0;
+
+    // The Topology, ServiceDefinitions, and SwitchingServices come from the
+    // topology document.  SwitchingSubnet sections carry SwitchingService
+    // attributes so are discarded along with them.
+    String topologyKey = getTopologyKey();
+    if (!topologyKey.equals(cache.getTopologyKey())) {
+      log.info("[MrmlFactory] topology section changed, key = {}", topologyKey);
+      cache.clear();
+      Model section = ModelFactory.createDefaultModel();
+      createTopologyRoot(section);
+      createServiceDefinition(section);
+      createSwitchingService(section);
+      cache.setTopology(topologyKey, section);
+      generated++;
+    } else {
+      reused++;
+    }
+
+    // The parent bidirectional ports can also change through isAlias
+    // relationships in neighbouring topology documents.
+    String portsKey = getPortsKey();
+    if (!portsKey.equals(cache.getPortsKey())) {
+      log.info("[MrmlFactory] bidirectional port section changed for topologyId = {}", topologyId);
+      Model section = ModelFactory.createDefaultModel();
+      createBidirectionalPorts(section);
+      cache.setPorts(portsKey, section);
+      generated++;
+    } else {
+      reused++;
+    }
+
+    // Now assemble the model starting with the DDS sections.
+    Model model = ModelUtil.newMrmlBaseModel();
+    model.add(cache.getTopologySection());
+    model.add(cache.getPortsSection());
+    createTopologyVersion(model, model.getResource(topology.getId()));
+
+    // Add a section for each SwitchingSubnet and its child ports, reusing
+    // those sections whose reservation information has not changed.
+    Map<String, NmlPort> children = nml.getPorts(topologyId, Orientation.child);
+    Map<String, MrmlGraphCache.Section> sections = new HashMap<>();
+    Set<String> attached = new HashSet<>();
+    for (ServiceHolder sh : ssm.getServiceHolder().values()) {
+      NmlSwitchingServiceType switchingService = sh.getSwitchingService();
+      for (NmlSwitchingSubnet switchingSubnet : sh.getSwitchingSubnets()) {
+        String fingerprint = getFingerprint(switchingService, switchingSubnet, children);
+        MrmlGraphCache.Section section = cache.getSwitchingSubnets().get(switchingSubnet.getId());
+        if (section == null || !fingerprint.equals(section.getFingerprint())) {
+          log.debug("[MrmlFactory] generating SwitchingSubnet section {}", switchingSubnet.getId());
+          Model m = ModelFactory.createDefaultModel();
+          switchingSubnet.getPorts().stream()
+              .map(p -> children.get(p.getId()))
+              .filter(Objects::nonNull)
+              .forEach(p -> createChildPort(m, p));
+          createSwitchingSubnet(m, switchingService, switchingSubnet);
+          section = new MrmlGraphCache.Section(fingerprint, m);
+          generated++;
+        } else {
+          reused++;
+        }
+
+        sections.put(switchingSubnet.getId(), section);
+        switchingSubnet.getPorts().forEach(p -> attached.add(p.getId()));
+        model.add(section.getModel());
+      }
+    }
+    cache.setSwitchingSubnets(sections);
+
+    // Child ports not belonging to a SwitchingSubnet are always regenerated.
+    children.values().stream()
+        .filter(p -> !attached.contains(p.getId()))
+        .forEach(p -> createChildPort(model, p));
+
+    cache.setStatistics(generated, reused);
+    log.info("[MrmlFactory] generated {} sections, reused {} sections for topologyId = {}",
+        generated, reused, topologyId);
 
     return model;
   }
 
-  private static Resource createResource(OntModel model, String uri, Resource type) {
+  /**
+   * Key identifying the version of the topology document used to generate
+   * the topology section.
+   *
+   * @return The topology section key.
+   */
+  private String getTopologyKey() {
+    return topology.getId() + "@" + (topology.getVersion() == null ? "" : topology.getVersion().toXMLFormat());
+  }
+
+  /**
+   * Key identifying the information used to generate the parent
+   * bidirectional port section.
+   *
+   * @return The port section key.
+   */
+  private String getPortsKey() {
+    return nml.getPorts(topologyId, Orientation.bidirectional).values().stream()
+        .map(p -> p.getId() + "=" + p.getIsAlias().orElse(""))
+        .sorted()
+        .collect(Collectors.joining(",", getTopologyKey() + "|" + nml.getDefaultUnits() + "|"
+            + nml.getDefaultGranularity() + "|", ""));
+  }
+
+  /**
+   * Fingerprint of all the information rendered into a SwitchingSubnet section.
+   *
+   * @param switchingService The parent SwitchingService.
+   * @param switchingSubnet The SwitchingSubnet.
+   * @param children The child ports of this topology.
+   * @return The fingerprint of the SwitchingSubnet section.
+   */
+  private String getFingerprint(NmlSwitchingServiceType switchingService, NmlSwitchingSubnet switchingSubnet,
+                                Map<String, NmlPort> children) {
+    StringBuilder sb = new StringBuilder()
+        .append(switchingService.getId()).append('|')
+        .append(switchingSubnet.getId()).append('|')
+        .append(switchingSubnet.getConnectionId()).append('|')
+        .append(switchingSubnet.getDiscovered()).append('|')
+        .append(switchingSubnet.getExistsDuringId()).append('|')
+        .append(switchingSubnet.getStartTime()).append('|')
+        .append(switchingSubnet.getEndTime()).append('|')
+        .append(switchingSubnet.getTag()).append('|')
+        .append(switchingSubnet.getOscarsId()).append('|')
+        .append(switchingSubnet.getStatus()).append('|')
+        .append(switchingSubnet.getErrorState()).append('|')
+        .append(switchingSubnet.getErrorMessage());
+
+    for (NmlPort port : switchingSubnet.getPorts()) {
+      NmlPort p = children.get(port.getId());
+      sb.append("|port=").append(port.getId());
+      if (p != null) {
+        sb.append(',').append(p.getName())
+            .append(',').append(p.getParentPort())
+            .append(',').append(p.getEncoding())
+            .append(',').append(p.getIsAlias())
+            .append(',').append(p.getTag())
+            .append(',').append(p.getMrsLabelId())
+            .append(',').append(p.getMrsBandwidthId())
+            .append(',').append(p.getNmlExistsDuringId())
+            .append(',').append(p.getStartTime())
+            .append(',').append(p.getEndTime())
+            .append(',').append(p.getType())
+            .append(',').append(p.getGranularity())
+            .append(',').append(p.getMaximumCapacity())
+            .append(',').append(p.getMinimumCapacity())
+            .append(',').append(p.getUsedCapacity())
+            .append(',').append(p.getAvailableCapacity())
+            .append(',').append(p.getReservableCapacity())
+            .append(',').append(p.getIndividualCapacity());
+        p.getLabels().forEach(l -> sb.append(',').append(l.getLabeltype()).append('=').append(l.getValue()));
+      }
+    }
+
+    return sb.toString();
+  }
+
+  private static Resource createResource(Model model, String uri, Resource type) {
     Resource res = model.createResource(uri);
     model.add(model.createStatement(res, Rdf.type, type));
     return res;
   }
 
-  private Resource createTopolgyResource(OntModel model) {
+  private Resource createTopolgyResource(Model model) {
+    Resource nmlTopology = createTopologyRoot(model);
+    createTopologyVersion(model, nmlTopology);
+    return nmlTopology;
+  }
+
+  private Resource createTopologyRoot(Model model) {
     // Add the root topologyResource element.
     Resource nmlTopology = createResource(model, topology.getId(), Nml.Topology);
     model.add(model.createStatement(nmlTopology, Nml.name, getName()));
@@ -135,6 +376,25 @@ public class MrmlFactory {
       model.add(model.createStatement(nmlTopology, Nml.locatedAt, location));
     }
 
+    return nmlTopology;
+  }
+
+  /**
+   * Compute the content hash of a model generated by this factory.  The
+   * topology nml:version is derived from the last discovery time and changes
+   * with every rediscovery even when nothing else has, so it is left out of
+   * the hash.
+   *
+   * @param model The model generated by this factory.
+   * @return The hex encoded content hash.
+   */
+  public String getContentHash(Model model) {
+    Model version = ModelFactory.createDefaultModel();
+    version.add(model.listStatements(model.getResource(topology.getId()), Nml.version, (RDFNode) null));
+    return ModelUtil.getContentHash(ModelFactory.createModelForGraph(new Difference(model.getGraph(), version.getGraph())));
+  }
+
+  private void createTopologyVersion(Model model, Resource nmlTopology) {
     // Instead of using the NML document version we make our own based on the most recent of the topology
     // document or connection discovery.
     try {
@@ -144,16 +404,30 @@ public class MrmlFactory {
       log.error("createTopolgyResource: failed to convert internal version to XML.", ex);
       model.add(model.createStatement(nmlTopology, Nml.version, topology.getVersion().toXMLFormat()));
     }
-
-    return nmlTopology;
   }
 
   private String getName() {
     return Strings.isNullOrEmpty(topology.getName()) ? topology.getId() : topology.getName();
   }
 
-  private Resource createLifetime(OntModel model) {
-    Resource res = model.createResource(Nml.Lifetime);
+  /**
+   * Create a blank node with a label derived from the topology identifier so
+   * that repeated builds of the same topology produce identical graphs and
+   * serializations.
+   *
+   * @param model The model in which to create the blank node.
+   * @param postfix Distinguishes the blank node within the topology.
+   * @param type The rdf:type of the blank node.
+   * @return The new blank node resource.
+   */
+  private Resource createBlankNode(Model model, String postfix, Resource type) {
+    Resource res = model.createResource(AnonId.create(topology.getId() + ":" + postfix));
+    model.add(model.createStatement(res, Rdf.type, type));
+    return res;
+  }
+
+  private Resource createLifetime(Model model) {
+    Resource res = createBlankNode(model, "existsDuring", Nml.Lifetime);
     if (topology.getLifetime() == null || topology.getLifetime().getStart() == null) {
       res.addProperty(Nml.start, topology.getVersion().toXMLFormat());
     } else {
@@ -169,12 +443,12 @@ public class MrmlFactory {
     return res;
   }
 
-  private Resource createLocation(OntModel model, NmlLocationType location) {
+  private Resource createLocation(Model model, NmlLocationType location) {
     if (location == null) {
       return null;
     }
 
-    Resource res = model.createResource(Nml.Location);
+    Resource res = createBlankNode(model, "locatedAt", Nml.Location);
     if (location.getAddress() != null) {
       res.addProperty(Nml.address, XmlUtilities.jaxbToXml(NmlAddress.class, location.getAddress()));
     }
@@ -211,7 +485,7 @@ public class MrmlFactory {
    * @return
    * @throws IllegalArgumentException
    */
-  private Map<String, Resource> createBidirectionalPorts(OntModel model) throws IllegalArgumentException {
+  private Map<String, Resource> createBidirectionalPorts(Model model) throws IllegalArgumentException {
     Map<String, Resource> biPorts = new HashMap<>();
 
     Resource topologyResource = model.getResource(topologyId);
@@ -259,7 +533,7 @@ public class MrmlFactory {
     bw.addLiteral(Mrs.minimumCapacity, p.getMinimumCapacity().orElse(1L));
   }
 
-  private void addCommonAttributes(OntModel model, NmlPort p, Resource bi) {
+  private void addCommonAttributes(Model model, NmlPort p, Resource bi) {
     p.getName().ifPresent(n -> bi.addLiteral(Nml.name, n));
     p.getEncoding().ifPresent(e -> {
       Resource encoding = model.createResource(e);
@@ -276,7 +550,7 @@ public class MrmlFactory {
     });
   }
 
-  private Map<String, Resource> createServiceDefinition(OntModel model) throws IllegalArgumentException {
+  private Map<String, Resource> createServiceDefinition(Model model) throws IllegalArgumentException {
     Map<String, Resource> sdCollection = new HashMap<>();
 
     Resource topologyResource = model.getResource(topologyId);
@@ -305,7 +579,7 @@ public class MrmlFactory {
     return sdCollection;
   }
 
-  private Map<String, Resource> createSwitchingService(OntModel model) throws IllegalArgumentException {
+  private Map<String, Resource> createSwitchingService(Model model) throws IllegalArgumentException {
     Map<String, Resource> ssCollection = new HashMap<>();
 
     // Our parent topologyResource resource.
@@ -350,7 +624,7 @@ public class MrmlFactory {
     return ssCollection;
   }
 
-  private void AddSsAttributes(OntModel model, NmlSwitchingServiceType ss, Resource ssr) {
+  private void AddSsAttributes(Model model, NmlSwitchingServiceType ss, Resource ssr) {
     if (!Strings.isNullOrEmpty(ss.getEncoding())) {
       Resource encoding = model.createResource(ss.getEncoding());
       ssr.addProperty(Nml.encoding, encoding);
@@ -371,149 +645,175 @@ public class MrmlFactory {
    * @return
    * @throws IllegalArgumentException
    */
-  private Map<String, Resource> createBidirectionalPortsFromConnections(OntModel model) throws IllegalArgumentException {
+  private Map<String, Resource> createBidirectionalPortsFromConnections(Model model) throws IllegalArgumentException {
     Map<String, Resource> biPorts = new HashMap<>();
 
     log.debug("[MrmlFactory] createBidirectionalPortsFromConnections for topologyId {}", topologyId);
 
     nml.getPorts(topologyId, Orientation.child).values().forEach(p -> {
-      log.debug("[MrmlFactory] creating child port {}", p.getId());
+      Resource bi = createChildPort(model, p);
+      biPorts.put(p.getId(), bi);
+    });
 
-      // Create the Bidirectional port resource.
-      Resource bi = createResource(model, p.getId(), Nml.BidirectionalPort);
+    return biPorts;
+  }
 
-      p.getParentPort().ifPresent(parent -> {
-        log.debug("[MrmlFactory] linking child port {} to parentPort {}", p.getId(), parent);
-        Resource parentPort = model.getResource(parent);
-        bi.addProperty(Nml.belongsTo, parentPort);
-        parentPort.addProperty(Nml.hasBidirectionalPort, bi);
-      });
+  private Map<String, Resource> createSwitchingSubnet(Model model) throws IllegalArgumentException {
+    Map<String, Resource> ssCollection = new HashMap<>();
 
-      addCommonAttributes(model, p, bi);
+    for (ServiceHolder sh : ssm.getServiceHolder().values()) {
+      // Our associated SwitchingService.
+      NmlSwitchingServiceType switchingService = sh.getSwitchingService();
+      List<NmlSwitchingSubnet> switchingSubnets = sh.getSwitchingSubnets();
 
-      // Special nml:existsDuring handling: If we do not have an existsDuring
-      // resource with the same identifier as ours, we will need to create a new
-      // one, otherwise, just reference the existing one.
-      final Resource existsDuring = createLifetime(model, p.getNmlExistsDuringId().get(),
-          p.getStartTime(), p.getEndTime());
-      bi.addProperty(Nml.existsDuring, existsDuring);
+      for (NmlSwitchingSubnet switchingSubnet : switchingSubnets) {
+        Resource ssr = createSwitchingSubnet(model, switchingService, switchingSubnet);
+        ssCollection.put(ssr.getURI(), ssr);
+      }
+    }
 
-      // Make a label relationship.
-      p.getLabels().forEach(l -> {
-        String labelId;
-        if (p.getMrsLabelId().isPresent()) {
-          labelId = p.getMrsLabelId().get();
-        } else {
-          labelId = p.getId() + ":label";
-        }
+    return ssCollection;
+  }
 
-        Resource label = createResource(model, labelId, Nml.Label);
-        Resource labelType = model.createResource(l.getLabeltype());
-        label.addProperty(Nml.existsDuring, existsDuring);
-        label.addProperty(Nml.labeltype, labelType);
-        label.addLiteral(Nml.value, l.getValue());
-        bi.addProperty(Nml.hasLabel, label);
-        label.addProperty(Nml.belongsTo, bi);
-      });
+  /**
+   * Create a child port resource based off of an NSI connection.
+   *
+   * @param model
+   * @param p
+   * @return
+   */
+  private Resource createChildPort(Model model, NmlPort p) {
+    log.debug("[MrmlFactory] creating child port {}", p.getId());
 
-      // Make the bandwidth service - NSI supports guaranteedCapped only.
-      String bwId;
-      if (p.getMrsBandwidthId().isPresent()) {
-        bwId = p.getMrsBandwidthId().get();
+    // Create the Bidirectional port resource.
+    Resource bi = createResource(model, p.getId(), Nml.BidirectionalPort);
+
+    p.getParentPort().ifPresent(parent -> {
+      log.debug("[MrmlFactory] linking child port {} to parentPort {}", p.getId(), parent);
+      Resource parentPort = model.getResource(parent);
+      bi.addProperty(Nml.belongsTo, parentPort);
+      parentPort.addProperty(Nml.hasBidirectionalPort, bi);
+    });
+
+    addCommonAttributes(model, p, bi);
+
+    // Special nml:existsDuring handling: If we do not have an existsDuring
+    // resource with the same identifier as ours, we will need to create a new
+    // one, otherwise, just reference the existing one.
+    final Resource existsDuring = createLifetime(model, p.getNmlExistsDuringId().get(),
+        p.getStartTime(), p.getEndTime());
+    bi.addProperty(Nml.existsDuring, existsDuring);
+
+    // Make a label relationship.
+    p.getLabels().forEach(l -> {
+      String labelId;
+      if (p.getMrsLabelId().isPresent()) {
+        labelId = p.getMrsLabelId().get();
       } else {
-        bwId = p.getId() + ":BandwidthService";
+        labelId = p.getId() + ":label";
       }
 
-      Resource bw = createResource(model, bwId, Mrs.BandwidthService);
-      bi.addProperty(Nml.hasService, bw);
-      bw.addProperty(Nml.existsDuring, existsDuring);
-      addBwAttributes(p, bw);
-      p.getUsedCapacity().ifPresent(c -> bw.addLiteral(Mrs.usedCapacity, c));
-      p.getAvailableCapacity().ifPresent(c -> bw.addLiteral(Mrs.availableCapacity, c));
-      p.getReservableCapacity().ifPresent(c -> bw.addLiteral(Mrs.reservableCapacity, c));
-      p.getIndividualCapacity().ifPresent(c -> bw.addLiteral(Mrs.individualCapacity, c));
-      bw.addProperty(Nml.belongsTo, bi);
-      biPorts.put(p.getId(), bi);
+      Resource label = createResource(model, labelId, Nml.Label);
+      Resource labelType = model.createResource(l.getLabeltype());
+      label.addProperty(Nml.existsDuring, existsDuring);
+      label.addProperty(Nml.labeltype, labelType);
+      label.addLiteral(Nml.value, l.getValue());
+      bi.addProperty(Nml.hasLabel, label);
+      label.addProperty(Nml.belongsTo, bi);
     });
 
-    return biPorts;
+    // Make the bandwidth service - NSI supports guaranteedCapped only.
+    String bwId;
+    if (p.getMrsBandwidthId().isPresent()) {
+      bwId = p.getMrsBandwidthId().get();
+    } else {
+      bwId = p.getId() + ":BandwidthService";
+    }
+
+    Resource bw = createResource(model, bwId, Mrs.BandwidthService);
+    bi.addProperty(Nml.hasService, bw);
+    bw.addProperty(Nml.existsDuring, existsDuring);
+    addBwAttributes(p, bw);
+    p.getUsedCapacity().ifPresent(c -> bw.addLiteral(Mrs.usedCapacity, c));
+    p.getAvailableCapacity().ifPresent(c -> bw.addLiteral(Mrs.availableCapacity, c));
+    p.getReservableCapacity().ifPresent(c -> bw.addLiteral(Mrs.reservableCapacity, c));
+    p.getIndividualCapacity().ifPresent(c -> bw.addLiteral(Mrs.individualCapacity, c));
+    bw.addProperty(Nml.belongsTo, bi);
+    return bi;
   }
 
-  private Map<String, Resource> createSwitchingSubnet(OntModel model) throws IllegalArgumentException {
-    Map<String, Resource> ssCollection = new HashMap<>();
+  /**
+   * Create a SwitchingSubnet resource and link in its member child ports.
+   *
+   * @param model
+   * @param switchingService
+   * @param switchingSubnet
+   * @return
+   */
+  private Resource createSwitchingSubnet(Model model, NmlSwitchingServiceType switchingService,
+                                         NmlSwitchingSubnet switchingSubnet) {
+    // Get our holding SwitchingService.
+    Resource swResource = model.getResource(switchingService.getId());
 
-    for (ServiceHolder sh : ssm.getServiceHolder().values()) {
-      // Our associated SwitchingService.
-      NmlSwitchingServiceType switchingService = sh.getSwitchingService();
-      List<NmlSwitchingSubnet> switchingSubnets = sh.getSwitchingSubnets();
+    // Create the NML switching service.
+    Resource ssr = createResource(model, switchingSubnet.getId(), Mrs.SwitchingSubnet);
 
-      // Get our holding SwitchingService.
-      Resource swResource = model.getResource(switchingService.getId());
+    // Place the reservation identifier into the SwitchingSubnet for tracing.
+    ssr.addProperty(Mrs.tag, switchingSubnet.getTag());
 
-      for (NmlSwitchingSubnet switchingSubnet : switchingSubnets) {
-        // Create the NML switching service.
-        Resource ssr = createResource(model, switchingSubnet.getId(), Mrs.SwitchingSubnet);
-
-        // Place the reservation identifier into the SwitchingSubnet for tracing.
-        ssr.addProperty(Mrs.tag, switchingSubnet.getTag());
-
-        // This belongs to the parent topologyResource.
-        ssr.addProperty(Nml.belongsTo, swResource);
-
-        // We provide the subnet.
-        swResource.addProperty(Mrs.providesSubnet, ssr);
-
-        AddSsAttributes(model, switchingService, ssr);
-
-        Resource existsDuring = createLifetime(model, switchingSubnet.getExistsDuringId(),
-                switchingSubnet.getStartTime(), switchingSubnet.getEndTime());
-        ssr.addProperty(Nml.existsDuring, existsDuring);
-
-        // Add dataPlane status to the SwitchingSubnet.
-        Resource resNetworkStatus = createResource(model, switchingSubnet.getId() + ":status", Mrs.NetworkStatus);
-        resNetworkStatus.addProperty(Mrs.type, "dataplane");
-        resNetworkStatus.addProperty(Mrs.value, switchingSubnet.getStatus().toString());
-        ssr.addProperty(Mrs.hasNetworkStatus, resNetworkStatus);
-
-        // Add the oscarsId SwitchingSubnet if present.
-        Optional.ofNullable(switchingSubnet.getOscarsId()).ifPresent(oscarsId -> {
-          Resource resNetworkAddress = createResource(model, switchingSubnet.getId() + ":oscarsId", Mrs.NetworkAddress);
-          resNetworkAddress.addProperty(Mrs.type, "oscarsId");
-          resNetworkAddress.addProperty(Mrs.value, oscarsId);
-          ssr.addProperty(Mrs.hasNetworkAddress, resNetworkAddress);
-        });
-
-        // Add the errorStatus information if there is an error.
-        if (switchingSubnet.getErrorState() != Reservation.ErrorState.NONE) {
-          Resource resNetworkError = createResource(model, switchingSubnet.getId() + ":error", Mrs.ErrorStatus);
-          resNetworkError.addProperty(Mrs.type, "errorStatus");
-          resNetworkError.addProperty(Mrs.value, switchingSubnet.getErrorState().toString());
-          if (!Strings.isNullOrEmpty(switchingSubnet.getErrorMessage())) {
-            resNetworkError.addProperty(Mrs.errorMessage, switchingSubnet.getErrorMessage());
-          }
-          ssr.addProperty(Mrs.hasErrorStatus, resNetworkError);
-        }
+    // This belongs to the parent topologyResource.
+    ssr.addProperty(Nml.belongsTo, swResource);
 
-        // Add all the bidirectional port identifiers.
-        switchingSubnet.getPorts().forEach(bi -> {
-          // Get the resource associated with the bidirectional port.
-          Resource biResource = model.getResource(bi.getId());
+    // We provide the subnet.
+    swResource.addProperty(Mrs.providesSubnet, ssr);
 
-          // Add the hasBidirectionalPort relationship to the SwitchingSubnet.
-          ssr.addProperty(Nml.hasBidirectionalPort, biResource);
+    AddSsAttributes(model, switchingService, ssr);
 
-          // Now add the NetworkStatus to this BiDirectional port.
-          biResource.addProperty(Mrs.hasNetworkStatus, resNetworkStatus);
-        });
+    Resource existsDuring = createLifetime(model, switchingSubnet.getExistsDuringId(),
+            switchingSubnet.getStartTime(), switchingSubnet.getEndTime());
+    ssr.addProperty(Nml.existsDuring, existsDuring);
 
-        ssCollection.put(ssr.getURI(), ssr);
+    // Add dataPlane status to the SwitchingSubnet.
+    Resource resNetworkStatus = createResource(model, switchingSubnet.getId() + ":status", Mrs.NetworkStatus);
+    resNetworkStatus.addProperty(Mrs.type, "dataplane");
+    resNetworkStatus.addProperty(Mrs.value, switchingSubnet.getStatus().toString());
+    ssr.addProperty(Mrs.hasNetworkStatus, resNetworkStatus);
+
+    // Add the oscarsId SwitchingSubnet if present.
+    Optional.ofNullable(switchingSubnet.getOscarsId()).ifPresent(oscarsId -> {
+      Resource resNetworkAddress = createResource(model, switchingSubnet.getId() + ":oscarsId", Mrs.NetworkAddress);
+      resNetworkAddress.addProperty(Mrs.type, "oscarsId");
+      resNetworkAddress.addProperty(Mrs.value, oscarsId);
+      ssr.addProperty(Mrs.hasNetworkAddress, resNetworkAddress);
+    });
+
+    // Add the errorStatus information if there is an error.
+    if (switchingSubnet.getErrorState() != Reservation.ErrorState.NONE) {
+      Resource resNetworkError = createResource(model, switchingSubnet.getId() + ":error", Mrs.ErrorStatus);
+      resNetworkError.addProperty(Mrs.type, "errorStatus");
+      resNetworkError.addProperty(Mrs.value, switchingSubnet.getErrorState().toString());
+      if (!Strings.isNullOrEmpty(switchingSubnet.getErrorMessage())) {
+        resNetworkError.addProperty(Mrs.errorMessage, switchingSubnet.getErrorMessage());
       }
+      ssr.addProperty(Mrs.hasErrorStatus, resNetworkError);
     }
 
-    return ssCollection;
+    // Add all the bidirectional port identifiers.
+    switchingSubnet.getPorts().forEach(bi -> {
+      // Get the resource associated with the bidirectional port.
+      Resource biResource = model.getResource(bi.getId());
+
+      // Add the hasBidirectionalPort relationship to the SwitchingSubnet.
+      ssr.addProperty(Nml.hasBidirectionalPort, biResource);
+
+      // Now add the NetworkStatus to this BiDirectional port.
+      biResource.addProperty(Mrs.hasNetworkStatus, resNetworkStatus);
+    });
+
+    return ssr;
   }
 
-  private Resource createLifetime(OntModel model, String id, Optional<Long> startTime, Optional<Long> endTime) {
+  private Resource createLifetime(Model model, String id, Optional<Long> startTime, Optional<Long> endTime) {
     log.debug("[createLifetime] entering");
 
     // If the lifetime resource already exists then return it (trust there
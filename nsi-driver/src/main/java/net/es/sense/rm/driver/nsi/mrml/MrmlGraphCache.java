@@ -0,0 +1,80 @@
+package net.es.sense.rm.driver.nsi.mrml;
+
+import lombok.Getter;
+import org.apache.jena.rdf.model.Model;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Holds the sections of the last MRML model generated by the MrmlFactory so
+ * that the next model generation only needs to rebuild the sections whose
+ * source information has changed.  Sections derived from the DDS topology
+ * document are keyed by the document version, while each SwitchingSubnet
+ * section (the SwitchingSubnet and its child BidirectionalPorts) is keyed by a
+ * fingerprint of the reservation information it was generated from.
+ *
+ * @author hacksaw
+ */
+public class MrmlGraphCache {
+  // Key and section holding the Topology, ServiceDefinitions, and SwitchingServices.
+  @Getter
+  private String topologyKey;
+  @Getter
+  private Model topologySection;
+
+  // Key and section holding the parent BidirectionalPorts.
+  @Getter
+  private String portsKey;
+  @Getter
+  private Model portsSection;
+
+  // SwitchingSubnet sections indexed by SwitchingSubnet identifier.
+  @Getter
+  private Map<String, Section> switchingSubnets = new HashMap<>();
+
+  // Statistics from the last model generation.
+  @Getter
+  private int generated = 0;
+  @Getter
+  private int reused = 0;
+
+  void setTopology(String key, Model section) {
+    topologyKey = key;
+    topologySection = section;
+  }
+
+  void setPorts(String key, Model section) {
+    portsKey = key;
+    portsSection = section;
+  }
+
+  void setSwitchingSubnets(Map<String, Section> sections) {
+    switchingSubnets = sections;
+  }
+
+  void setStatistics(int generated, int reused) {
+    this.generated = generated;
+    this.reused = reused;
+  }
+
+  /**
+   * Discard all cached sections.
+   */
+  public void clear() {
+    topologyKey = null;
+    topologySection = null;
+    portsKey = null;
+    portsSection = null;
+    switchingSubnets = new HashMap<>();
+  }
+
+  /**
+   * A generated model section and the fingerprint of the information used to generate it.
+   */
+  @lombok.Value
+  public static class Section {
+    String fingerprint;
+    Model model;
+  }
+}
@@ -26,7 +26,7 @@ import net.es.nsi.dds.lib.jaxb.Relationships;
 import net.es.nsi.dds.lib.jaxb.nml.*;
 import net.es.sense.rm.driver.nsi.dds.api.DocumentReader;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * This class loads all discovered NML documents from the DDS and tracks lastModified
@@ -40,9 +40,15 @@ public class NmlModel {
   // Globals.
   private final static ObjectFactory FACTORY = new ObjectFactory();
   private final DocumentReader documentReader;
+  private final ForkJoinPool pool; // Parses topologies in parallel if not null.
   private final Map<String, NmlPort> ports = new HashMap<>();
+  private final Map<String, PortIndex> portIndex = new HashMap<>(); // Ports indexed by normalized topologyId.
   private long lastDiscovered = 0;
 
+  // Time in milliseconds spent decoding DDS documents and building the port model on the last load.
+  private long decodeTime = 0;
+  private long loadTime = 0;
+
   // These are Ethernet service parameter defaults.
   private String defaultServiceType;
   private MrsBandwidthType defaultType = MrsBandwidthType.undefined;
@@ -55,7 +61,18 @@ public class NmlModel {
    * @param documentReader A reader for topology documents from the DDS.
    */
   public NmlModel(DocumentReader documentReader) {
+    this(documentReader, null);
+  }
+
+  /**
+   * Class constructor for parallel parsing of topologies.
+   *
+   * @param documentReader A reader for topology documents from the DDS.
+   * @param pool The pool used to parse topologies in parallel, or null to parse sequentially.
+   */
+  public NmlModel(DocumentReader documentReader, ForkJoinPool pool) {
     this.documentReader = documentReader;
+    this.pool = pool;
   }
 
   /**
@@ -65,12 +82,20 @@ public class NmlModel {
    */
   private void load() {
     // Resolve all ports across all networks for later access.
+    long start = System.currentTimeMillis();
     lastDiscovered = documentReader.getLastDiscovered();
     Collection<NmlTopologyType> topologies = documentReader.getNmlTopologyAll();
-    for (NmlTopologyType nml : topologies) {
-      log.debug("[NmlModel] processing NML model {}", nml.getId());
-      ports.putAll(getNmlPorts(nml));
+    decodeTime = System.currentTimeMillis() - start;
+
+    // Port extraction for each topology is independent so can be done in
+    // parallel, but the results are merged in document order on this thread.
+    List<Map<String, NmlPort>> parsed;
+    if (pool == null || topologies.size() < 2) {
+      parsed = topologies.stream().map(this::getNmlPorts).toList();
+    } else {
+      parsed = pool.submit(() -> topologies.parallelStream().map(this::getNmlPorts).toList()).join();
     }
+    parsed.forEach(p -> p.values().forEach(this::addPort));
 
     // Consolidate isAlias entries in the bidirectional ports.
     ports.values().stream()
@@ -101,6 +126,8 @@ public class NmlModel {
                   log.error("[NmlModel] Failed to load {}", p.getId());
                 }
              });
+
+    loadTime = System.currentTimeMillis() - start - decodeTime;
   }
 
   /**
@@ -110,6 +137,26 @@ public class NmlModel {
     return lastDiscovered;
   }
 
+  /**
+   * Get the time spent retrieving and decoding the DDS topology documents
+   * during the last load of the port model.
+   *
+   * @return Decode time in milliseconds.
+   */
+  public long getDecodeTime() {
+    return decodeTime;
+  }
+
+  /**
+   * Get the time spent building the port model from the decoded topology
+   * documents during the last load, excluding the decode time.
+   *
+   * @return Load time in milliseconds.
+   */
+  public long getLoadTime() {
+    return loadTime;
+  }
+
   /**
    * Get the default service definition type used when creating
    * SwitchingService elements.
@@ -230,14 +277,19 @@ public class NmlModel {
    * @return
    */
   public NmlPort addPort(NmlPort port) {
-    return ports.put(port.getId(), port);
+    NmlPort previous = ports.put(port.getId(), port);
+    if (previous != null) {
+      getPortIndex(previous.getTopologyId()).remove(previous);
+    }
+    portIndex.computeIfAbsent(normalize(port.getTopologyId()), k -> new PortIndex()).add(port);
+    return previous;
   }
 
   /**
-   * Get a new map of NmlPort entries indexed by port identifier for the
-   * specified topologyId.
+   * Get an unmodifiable map of NmlPort entries indexed by port identifier for
+   * the specified topologyId.
    *
-   * @param topologyId The topology identifier of the network for which to build the port map.
+   * @param topologyId The topology identifier of the network for which to get the port map.
    *
    * @return
    */
@@ -245,16 +297,14 @@ public class NmlModel {
     if (ports.isEmpty()) {
       load();
     }
-    return ports.values().stream()
-            .filter(p -> p.getTopologyId().equalsIgnoreCase(topologyId))
-            .collect(Collectors.toMap(p -> p.getId(), p -> p));
+    return Collections.unmodifiableMap(getPortIndex(topologyId).all);
   }
 
   /**
-   * Get a new map of NmlPort entries indexed by port identifier and matching
-   * the provided orientation for the specified topologyId.
+   * Get an unmodifiable map of NmlPort entries indexed by port identifier and
+   * matching the provided orientation for the specified topologyId.
    *
-   * @param topologyId The topology identifier of the network for which to build the port map.
+   * @param topologyId The topology identifier of the network for which to get the port map.
    * @param orientation The orientation of the ports to include in the map.
    *
    * @return
@@ -263,10 +313,78 @@ public class NmlModel {
     if (ports.isEmpty()) {
       load();
     }
-    return ports.values().stream()
-            .filter(p -> p.getTopologyId().equalsIgnoreCase(topologyId) &&
-                    p.getOrientation().compareTo(orientation) == 0)
-            .collect(Collectors.toMap(p -> p.getId(), p -> p));
+    return Collections.unmodifiableMap(getPortIndex(topologyId).getByOrientation(orientation));
+  }
+
+  /**
+   * Get an unmodifiable map of NmlPort entries indexed by port identifier that
+   * contain a label of the provided label type for the specified topologyId.
+   *
+   * @param topologyId The topology identifier of the network for which to get the port map.
+   * @param labelType The label type of the ports to include in the map.
+   *
+   * @return
+   */
+  public Map<String, NmlPort> getPortsByLabelType(String topologyId, String labelType) {
+    if (ports.isEmpty()) {
+      load();
+    }
+    return Collections.unmodifiableMap(getPortIndex(topologyId).getByLabelType(labelType));
+  }
+
+  /**
+   * Get the port index for a topology.
+   *
+   * @param topologyId The topology identifier.
+   * @return The port index, or an empty index if the topology has no ports.
+   */
+  private PortIndex getPortIndex(String topologyId) {
+    return portIndex.getOrDefault(normalize(topologyId), PortIndex.EMPTY);
+  }
+
+  /**
+   * Normalize a topology identifier for use as an index key, matching the
+   * case-insensitive comparison of topology identifiers.
+   *
+   * @param topologyId The topology identifier.
+   * @return The normalized topology identifier.
+   */
+  private static String normalize(String topologyId) {
+    return topologyId == null ? "" : topologyId.toLowerCase(Locale.ROOT);
+  }
+
+  /**
+   * Secondary indices over the ports of a single topology.
+   */
+  private static class PortIndex {
+    private static final PortIndex EMPTY = new PortIndex();
+
+    private final Map<String, NmlPort> all = new HashMap<>();
+    private final Map<Orientation, Map<String, NmlPort>> byOrientation = new EnumMap<>(Orientation.class);
+    private final Map<String, Map<String, NmlPort>> byLabelType = new HashMap<>();
+
+    void add(NmlPort port) {
+      all.put(port.getId(), port);
+      if (port.getOrientation() != null) {
+        byOrientation.computeIfAbsent(port.getOrientation(), k -> new HashMap<>()).put(port.getId(), port);
+      }
+      port.getLabels().forEach(l -> byLabelType.computeIfAbsent(l.getLabeltype(), k -> new HashMap<>())
+          .put(port.getId(), port));
+    }
+
+    void remove(NmlPort port) {
+      all.remove(port.getId(), port);
+      byOrientation.values().forEach(m -> m.remove(port.getId(), port));
+      byLabelType.values().forEach(m -> m.remove(port.getId(), port));
+    }
+
+    Map<String, NmlPort> getByOrientation(Orientation orientation) {
+      return byOrientation.getOrDefault(orientation, Collections.emptyMap());
+    }
+
+    Map<String, NmlPort> getByLabelType(String labelType) {
+      return byLabelType.getOrDefault(labelType, Collections.emptyMap());
+    }
   }
 
   /**
@@ -302,6 +420,7 @@ public class NmlModel {
    * @return
    */
   private Map<String, NmlPort> getNmlPorts(NmlTopologyType nmlTopology) {
+    log.debug("[NmlModel] processing NML model {}", nmlTopology.getId());
     Map<String, NmlPort> portMap = new HashMap<>();
 
     // Unidirectional ports and SwitchingService are modeled using Relations.
@@ -719,17 +838,18 @@ public class NmlModel {
     NmlSwitchingServiceRelationType hasOutboundPort = new NmlSwitchingServiceRelationType();
     hasOutboundPort.setType(Relationships.HAS_OUTBOUND_PORT);
 
-    ports.values().stream().filter(p -> topologyId.equalsIgnoreCase(p.getTopologyId())).forEach(port -> {
-      // Ignore the bidirectional ports.
-      if (port.getOrientation() == Orientation.inbound) {
-        NmlPortGroupType pg = new NmlPortGroupType();
-        pg.setId(port.getId());
-        hasInboundPort.getPortGroup().add(pg);
-      } else if (port.getOrientation() == Orientation.outbound) {
-        NmlPortGroupType pg = new NmlPortGroupType();
-        pg.setId(port.getId());
-        hasOutboundPort.getPortGroup().add(pg);
-      }
+    // Ignore the bidirectional ports.
+    PortIndex index = getPortIndex(topologyId);
+    index.getByOrientation(Orientation.inbound).keySet().forEach(id -> {
+      NmlPortGroupType pg = new NmlPortGroupType();
+      pg.setId(id);
+      hasInboundPort.getPortGroup().add(pg);
+    });
+
+    index.getByOrientation(Orientation.outbound).keySet().forEach(id -> {
+      NmlPortGroupType pg = new NmlPortGroupType();
+      pg.setId(id);
+      hasOutboundPort.getPortGroup().add(pg);
     });
 
     switchingService.getRelation().add(hasInboundPort);
@@ -786,7 +906,7 @@ public class NmlModel {
       // members then we must add all ports of matching label and encoding
       // type.  We use a boolean here to tell us if the SwitchingService
       // held a port.
-      for (NmlSwitchingServiceType switchingService : newSwitchingServices.values()) {
+      for (NmlSwitchingServiceType switchingService : List.copyOf(newSwitchingServices.values())) {
         log.debug("Adding ports to SwitchingService = {}", switchingService.getId());
         boolean foundPort = false;
         for (NmlSwitchingServiceRelationType relation : switchingService.getRelation()) {
@@ -802,8 +922,11 @@ public class NmlModel {
         if (!foundPort) {
           log.debug("[getSwitchingServicesIndexed] no ports defined so populating wildcard.");
           // Treat this as a wildcard SwitchingService buy adding all
-          // unidirectional ports with maching attributes.
-          populateWildcardSwitchingService(switchingService, topologyId);
+          // unidirectional ports with maching attributes.  The topology is
+          // shared through the document cache so we populate a copy.
+          NmlSwitchingServiceType populated =
+              populateWildcardSwitchingService(copySwitchingService(switchingService), topologyId);
+          newSwitchingServices.put(populated.getId(), populated);
         }
       }
     }
@@ -811,6 +934,28 @@ public class NmlModel {
     return newSwitchingServices;
   }
 
+  /**
+   * Make a shallow copy of a SwitchingService with its own relation and any
+   * lists so it can be modified without touching the cached NML document.
+   *
+   * @param switchingService The SwitchingService to copy.
+   * @return The copy.
+   */
+  private static NmlSwitchingServiceType copySwitchingService(NmlSwitchingServiceType switchingService) {
+    NmlSwitchingServiceType copy = new NmlSwitchingServiceType();
+    copy.setId(switchingService.getId());
+    copy.setName(switchingService.getName());
+    copy.setVersion(switchingService.getVersion());
+    copy.setLifetime(switchingService.getLifetime());
+    copy.setLocation(switchingService.getLocation());
+    copy.setEncoding(switchingService.getEncoding());
+    copy.setLabelSwapping(switchingService.isLabelSwapping());
+    copy.setLabelType(switchingService.getLabelType());
+    copy.getRelation().addAll(switchingService.getRelation());
+    copy.getAny().addAll(switchingService.getAny());
+    return copy;
+  }
+
   private NmlSwitchingServiceType populateWildcardSwitchingService(NmlSwitchingServiceType switchingService, String topologyId) {
     if (ports.isEmpty()) {
       load();
@@ -828,10 +973,8 @@ public class NmlModel {
     NmlSwitchingServiceRelationType hasOutboundPort = new NmlSwitchingServiceRelationType();
     hasOutboundPort.setType(Relationships.HAS_OUTBOUND_PORT);
 
-    ports.values().stream()
-            .filter(p -> topologyId.equalsIgnoreCase(p.getTopologyId()))
+    getPortIndex(topologyId).getByLabelType(labelType.orElse(null)).values().stream()
             .filter(p -> encoding.equals(p.getEncoding()))
-            .filter(p -> p.getLabels().stream().anyMatch(label -> Optional.ofNullable(label.getLabeltype()).equals(labelType)))
             .forEach(p -> {
               // Ignore the bidirectional ports.
               if (p.getOrientation() == Orientation.inbound) {
@@ -24,9 +24,12 @@ import static java.util.Comparator.comparing;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 import com.google.common.base.Strings;
 import jakarta.xml.bind.JAXBElement;
@@ -39,6 +42,7 @@ import net.es.nsi.dds.lib.jaxb.nml.NmlSwitchingServiceType;
 import net.es.nsi.dds.lib.jaxb.nml.ServiceDefinitionType;
 import net.es.sense.rm.driver.nsi.cs.db.ConnectionMap;
 import net.es.sense.rm.driver.nsi.cs.db.ConnectionMapService;
+import net.es.sense.rm.driver.nsi.cs.db.P2psCache;
 import net.es.sense.rm.driver.nsi.cs.db.Reservation;
 import net.es.sense.rm.driver.nsi.cs.db.ReservationService;
 import net.es.sense.rm.driver.nsi.cs.db.StpMapping;
@@ -57,6 +61,7 @@ public class SwitchingSubnetModel {
 
   private final ReservationService reservationService; // The reservation database.
   private final ConnectionMapService connectionMapService; // The connection map database.
+  private final P2psCache p2psCache; // Parsed reservation service criteria, or null to always parse.
   private final NmlModel nml; // The currently discovered NML models from the DDS.
   private final String topologyId; // The topologyId for network we are modelling.
   private final Map<String, ServiceDefinitionType> serviceDefinitions; // Map from URI to service definition.
@@ -79,8 +84,26 @@ public class SwitchingSubnetModel {
   public SwitchingSubnetModel(ReservationService reservationService,
           ConnectionMapService connectionMapService, NmlModel nml,
           String topologyId) throws IllegalArgumentException {
+    this(reservationService, connectionMapService, null, nml, topologyId);
+  }
+
+  /**
+   * Constructor for the SwitchingSubnetModel using a cache of parsed
+   * reservation service criteria.
+   *
+   * @param reservationService The reservation database.
+   * @param connectionMapService The connection map database.
+   * @param p2psCache The cache of parsed reservation service criteria.
+   * @param nml The currently discovered NML models from the DDS.
+   * @param topologyId The topologyId for network we are modelling.
+   * @throws IllegalArgumentException If an invalid topologyId is provided.
+   */
+  public SwitchingSubnetModel(ReservationService reservationService,
+          ConnectionMapService connectionMapService, P2psCache p2psCache, NmlModel nml,
+          String topologyId) throws IllegalArgumentException {
     this.reservationService = reservationService;
     this.connectionMapService = connectionMapService;
+    this.p2psCache = p2psCache;
     this.nml = nml;
     this.topologyId = topologyId;
     this.serviceDefinitions = nml.getServiceDefinitionsIndexed(topologyId);
@@ -196,6 +219,47 @@ public class SwitchingSubnetModel {
         .toList();
   }
 
+  /**
+   * Get all versions of the parent reservations referenced by the supplied
+   * reservations using a single query.
+   *
+   * @param reservations The reservations that may reference a parent.
+   * @return Map of parent reservations indexed by connectionId.
+   */
+  private Map<String, List<Reservation>> getParentReservations(List<Reservation> reservations) {
+    Set<String> parentIds = reservations.stream()
+        .map(Reservation::getParentConnectionId)
+        .filter(p -> !Strings.isNullOrEmpty(p))
+        .collect(Collectors.toSet());
+
+    return reservationService.getByConnectionIdIn(parentIds).stream()
+        .collect(Collectors.groupingBy(Reservation::getConnectionId));
+  }
+
+  /**
+   * Get the connection maps associated with the supplied reservations using a
+   * single query.  A connection map is matched on the reservation uniqueId or,
+   * if lost, the reservation description.
+   *
+   * @param reservations The reservations to look up.
+   * @return Map of connection maps indexed by uniqueId.
+   */
+  private Map<String, ConnectionMap> getConnectionMaps(List<Reservation> reservations) {
+    Set<String> uniqueIds = new HashSet<>();
+    reservations.forEach(r -> {
+      if (!Strings.isNullOrEmpty(r.getUniqueId())) {
+        uniqueIds.add(r.getUniqueId());
+      }
+      if (!Strings.isNullOrEmpty(r.getDescription())) {
+        uniqueIds.add(r.getDescription());
+      }
+    });
+
+    return connectionMapService.getByUniqueIdIn(uniqueIds).stream()
+        .collect(Collectors.toMap(ConnectionMap::getUniqueId, c -> c,
+            (a, b) -> a.getVersion() >= b.getVersion() ? a : b));
+  }
+
   /**
    * Convert the NSI CS reservations into MRML SwitchingSubnet elements and
    * link to parent SwitchingService.
@@ -211,7 +275,14 @@ public class SwitchingSubnetModel {
     // the RESERVE_START state with a lifecycle state of CREATED or TERMINATING.
     // Remove any duplicate reservations (sharing a connectionId) by keeping the
     // reservation of the highest version.
-    for (Reservation reservation : getActiveReservations()) {
+    List<Reservation> reservations = getActiveReservations();
+
+    // Prefetch the parent reservations and connection maps needed for all the
+    // active reservations rather than query for each reservation.
+    Map<String, List<Reservation>> parents = getParentReservations(reservations);
+    Map<String, ConnectionMap> connectionMaps = getConnectionMaps(reservations);
+
+    for (Reservation reservation : reservations) {
       log.info("[SwitchingSubnetModel] processing reservation\n{}", reservation.toString());
 
       // If we had a model change then make sure to update our version.
@@ -248,8 +319,9 @@ public class SwitchingSubnetModel {
       // discarded the reservation.
       if (!Strings.isNullOrEmpty(reservation.getParentConnectionId())) {
         // We have a parent connection id so see if it is in the DB.
-        Collection<Reservation> parent = reservationService.getByProviderNsaAndConnectionId(reservation.getProviderNsa(),
-            reservation.getParentConnectionId());
+        Collection<Reservation> parent = parents.getOrDefault(reservation.getParentConnectionId(), List.of()).stream()
+            .filter(p -> Objects.equals(p.getProviderNsa(), reservation.getProviderNsa()))
+            .toList();
         String parentConnectionId = parent.stream().max(comparing(Reservation::getVersion))
             .map(Reservation::getConnectionId).orElse(null);
         if (parentConnectionId != null) {
@@ -266,14 +338,14 @@ public class SwitchingSubnetModel {
               reservation.getGlobalReservationId(), reservation.getConnectionId(), reservation.getDescription());
 
       // Look up the connection map corresponding to this reservation.
-      Optional<ConnectionMap> connMap = Optional.ofNullable(connectionMapService.getByUniqueId(reservation.getUniqueId()));
+      Optional<ConnectionMap> connMap = Optional.ofNullable(connectionMaps.get(reservation.getUniqueId()));
       if (connMap.isEmpty() && !Strings.isNullOrEmpty(reservation.getDescription())) {
         // We probably do not need this special case, but just in case there was a race condition,
         // and we lost the uniqueId in our reservation.
         log.info("[SwitchingSubnetModel] no stored connection map for uniqueId = {}, gid = {}, cid = {}, description = {}",
             reservation.getUniqueId(), reservation.getGlobalReservationId(), reservation.getConnectionId(),
             reservation.getDescription());
-        connMap = Optional.ofNullable(connectionMapService.getByUniqueId(reservation.getDescription()));
+        connMap = Optional.ofNullable(connectionMaps.get(reservation.getDescription()));
       }
 
       // We may have a mapping to a different serviceType so use it if available.
@@ -318,7 +390,8 @@ public class SwitchingSubnetModel {
           // ports to identify the resources used by this reservation. 2. We
           // need to create a SwitchingSubnet linked to the correct
           // SwitchingService with member bidirectional ports.
-          P2PServiceBaseType p2ps = CsParser.getInstance().xml2p2ps(reservation.getService());
+          P2PServiceBaseType p2ps = p2psCache != null ? p2psCache.get(reservation)
+              : CsParser.getInstance().xml2p2ps(reservation.getService());
           Optional<Long> startTime = reservation.getStartTime() == 0 ? Optional.empty() : Optional.of(reservation.getStartTime());
           Optional<Long> endTime = reservation.getEndTime() == Long.MAX_VALUE ? Optional.empty() : Optional.of(reservation.getEndTime());
           Optional<Long> capacity = Optional.of(p2ps.getCapacity() * 1000000);
@@ -37,12 +37,18 @@ public class NsiProperties {
   // How man actors do we instantiate for the dds audit pool.
   private int ddsPoolSize = 4;
 
+  // Maximum number of decoded DDS documents held in the document cache.
+  private long ddsDocumentCacheSize = 1000;
+
   // The DDS servers we will connect to for discovery information.
   private List<String> peers = new ArrayList<>();
 
   // How often (in seconds) do we audit the NSI connection on our associated NSA?
   private int connectionAuditTimer = 100;
 
+  // Maximum number of parsed reservation service criteria held in the cache.
+  private long reservationServiceCacheSize = 10000;
+
   // The NSA identifier of the target aggregator for our connection requests.
   @NotBlank(message = "providerNsaId cannot be null or empty")
   private String providerNsaId;
@@ -56,6 +62,9 @@ public class NsiProperties {
   // How many seconds do we block a requesting thread waiting for an asynchronous NSI response?
   private int operationWaitTimer = 120;
 
+  // How many seconds does a delta wait on an overlapping delta to release its resources before being rejected?
+  private int deltaLockWaitTimer = 30;
+
   // The identifier of the network to expose through the RA.
   private String networkId;
 
@@ -70,6 +79,21 @@ public class NsiProperties {
   // How small should we prune the model database.
   private int modelPruneSize = 10;
 
+  // Maximum number of rendered model encodings held in the model encoding cache.
+  private long modelEncodingCacheSize = 32;
+
+  // Maximum number of parsed model versions held for subgraph queries and delta propagation.
+  private long modelGraphCacheSize = 4;
+
+  // Regenerate only the changed sections of the MRML model during an audit.
+  private boolean modelAuditIncremental = false;
+
+  // Verify incrementally generated MRML models against a full rebuild (debugging only).
+  private boolean modelAuditVerify = false;
+
+  // Number of threads used to parse NML topologies during an audit (1 to parse sequentially).
+  private int modelAuditParallelism = 4;
+
   // Configuration for web server and client.
   private ServerType server;
 
@@ -0,0 +1,202 @@
+package net.es.sense.rm.driver.nsi;
+
+import akka.actor.ActorRef;
+import jakarta.ws.rs.core.Response.Status;
+import net.es.sense.rm.driver.api.DeltaResponse;
+import net.es.sense.rm.driver.api.ModelResponse;
+import net.es.sense.rm.driver.api.ResourceEvent;
+import net.es.sense.rm.driver.nsi.cs.CsProvider;
+import net.es.sense.rm.driver.nsi.db.CurrentModelHolder;
+import net.es.sense.rm.driver.nsi.db.Delta;
+import net.es.sense.rm.driver.nsi.db.DeltaService;
+import net.es.sense.rm.driver.nsi.db.Model;
+import net.es.sense.rm.driver.nsi.db.ModelEncodingCache;
+import net.es.sense.rm.driver.nsi.db.ModelService;
+import net.es.sense.rm.driver.nsi.properties.NsiProperties;
+import net.es.sense.rm.model.DeltaState;
+import org.apache.jena.riot.Lang;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * Test long-polling requests for the current model are released together
+ * from one published model, and delta events are published only on a change
+ * of delta state.
+ *
+ * @author hacksaw
+ */
+public class NsiDriverTest {
+  private static final String NETWORK_ID = "urn:ogf:network:es.net:2013:";
+
+  // More waiting requests than the default driver executor can run and
+  // queue (32 threads and 256 queued tasks).
+  private static final int WAITERS = 1000;
+
+  private static final String BASE = """
+      @prefix nml: <http://schemas.ogf.org/nml/2013/03/base#> .
+      <urn:ogf:network:es.net:2013:> a nml:Topology ;
+          nml:name "es.net" .
+      """;
+
+  private ModelService modelService;
+  private CurrentModelHolder holder;
+  private ModelEncodingCache encodingCache;
+  private DeltaService deltaService;
+  private CsProvider csProvider;
+  private ApplicationEventPublisher eventPublisher;
+  private ExecutorService driverExecutor;
+  private RaController raController;
+  private NsiDriver driver;
+
+  @Before
+  public void before() {
+    NsiProperties properties = new NsiProperties();
+    properties.setNetworkId(NETWORK_ID);
+
+    modelService = mock(ModelService.class);
+    holder = new CurrentModelHolder(modelService);
+    encodingCache = new ModelEncodingCache(properties);
+
+    deltaService = mock(DeltaService.class);
+    when(deltaService.store(any(Delta.class))).thenAnswer(i -> i.getArgument(0));
+    csProvider = mock(CsProvider.class);
+    eventPublisher = mock(ApplicationEventPublisher.class);
+
+    driverExecutor = Executors.newFixedThreadPool(4, r -> new Thread(r, "driver-executor"));
+
+    raController = mock(RaController.class);
+    when(raController.getCurrentModelHolder()).thenReturn(holder);
+    when(raController.getModelEncodingCache()).thenReturn(encodingCache);
+    when(raController.getDeltaService()).thenReturn(deltaService);
+    when(raController.getCsProvider()).thenReturn(csProvider);
+    when(raController.getModelAuditActor()).thenReturn(mock(ActorRef.class));
+
+    driver = new NsiDriver(properties, raController, eventPublisher, driverExecutor);
+    driver.init();
+  }
+
+  @After
+  public void after() {
+    holder.destroy();
+    driverExecutor.shutdownNow();
+  }
+
+  private static Model model(long idx, String modelId, long created) {
+    Model model = new Model();
+    model.setIdx(idx);
+    model.setTopologyId(NETWORK_ID);
+    model.setModelId(modelId);
+    model.setCreated(created);
+    model.setBase(BASE);
+    return model;
+  }
+
+  @Test
+  public void testAwaitCurrentModelWaiters() throws Exception {
+    holder.set(model(1, "model1", 1000));
+
+    List<CompletableFuture<ModelResponse>> responses = new ArrayList<>();
+    List<CompletableFuture<String>> threads = new ArrayList<>();
+    for (int i = 0; i < WAITERS; i++) {
+      CompletableFuture<ModelResponse> response = driver.awaitCurrentModel(Lang.RDFXML.getName(), 1000,
+          Duration.ofSeconds(30), null);
+      responses.add(response);
+      threads.add(response.thenApply(r -> Thread.currentThread().getName()));
+    }
+    Assert.assertEquals(WAITERS, holder.getWaiting(NETWORK_ID));
+
+    // Released requests are served on the driver executor, not the publishing or release thread.
+    holder.set(model(2, "model2", 5000));
+    CompletableFuture.allOf(responses.toArray(CompletableFuture[]::new)).get(30, TimeUnit.SECONDS);
+
+    for (int i = 0; i < WAITERS; i++) {
+      ModelResponse response = responses.get(i).get();
+      Assert.assertEquals(Status.OK, response.getStatus());
+      Assert.assertEquals("model2", response.getModel().orElseThrow().getId());
+      Assert.assertEquals("driver-executor", threads.get(i).get());
+    }
+
+    // Every waiter is served from the one published model and its single encoding.
+    Assert.assertEquals(1, encodingCache.stats().loadCount());
+    verify(modelService, never()).getCurrent(anyString());
+    verify(modelService, never()).getByModelId(anyString());
+  }
+
+  @Test
+  public void testAwaitCurrentModelTimeout() throws Exception {
+    holder.set(model(1, "model1", 1000));
+
+    // No newer model is published before the timeout.
+    ModelResponse response = driver.awaitCurrentModel(Lang.TURTLE.getName(), 1000, Duration.ofMillis(50), null)
+        .get(10, TimeUnit.SECONDS);
+    Assert.assertEquals(Status.NOT_MODIFIED, response.getStatus());
+  }
+
+  @Test
+  public void testAwaitCurrentModelFailure() throws Exception {
+    // A failure other than the timeout is not reported as NOT_MODIFIED.
+    CurrentModelHolder failing = mock(CurrentModelHolder.class);
+    when(failing.await(anyString(), anyLong()))
+        .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("audit failed")));
+    when(raController.getCurrentModelHolder()).thenReturn(failing);
+
+    CompletableFuture<ModelResponse> response = driver.awaitCurrentModel(Lang.TURTLE.getName(), 1000,
+        Duration.ofSeconds(30), null);
+    ExecutionException ex = Assert.assertThrows(ExecutionException.class, () -> response.get(10, TimeUnit.SECONDS));
+    Assert.assertTrue(ex.getCause() instanceof IllegalStateException);
+  }
+
+  private static Delta delta(String deltaId, DeltaState state) {
+    Delta delta = new Delta();
+    delta.setIdx(1);
+    delta.setDeltaId(deltaId);
+    delta.setModelId("model1");
+    delta.setState(state);
+    return delta;
+  }
+
+  private List<DeltaState> published() {
+    ArgumentCaptor<ResourceEvent> events = ArgumentCaptor.forClass(ResourceEvent.class);
+    verify(eventPublisher, atLeast(0)).publishEvent(events.capture());
+    return events.getAllValues().stream().map(ResourceEvent::getState).toList();
+  }
+
+  @Test
+  public void testCommitDeltaEvents() throws Exception {
+    // Each state transition of a committed delta is published once.
+    when(deltaService.get("delta1"))
+        .thenReturn(delta("delta1", DeltaState.Accepted))
+        .thenReturn(delta("delta1", DeltaState.Committing));
+
+    DeltaResponse response = driver.commitDelta("delta1").get();
+    Assert.assertEquals(Status.NO_CONTENT, response.getStatus());
+    Assert.assertEquals(List.of(DeltaState.Committing, DeltaState.Committed), published());
+  }
+
+  @Test
+  public void testStoreWithoutStateChange() throws Exception {
+    // A delta failed while committing is stored again without a new event.
+    when(deltaService.get("delta1"))
+        .thenReturn(delta("delta1", DeltaState.Accepted))
+        .thenReturn(delta("delta1", DeltaState.Failed));
+
+    driver.commitDelta("delta1").get();
+    verify(deltaService, times(2)).store(any(Delta.class));
+    Assert.assertEquals(List.of(DeltaState.Committing), published());
+  }
+}
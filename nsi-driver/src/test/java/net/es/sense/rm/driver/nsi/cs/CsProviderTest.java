@@ -148,4 +148,28 @@ class CsProviderTest {
     assertTrue(modifiedSwitchingSubnets.stream().map(Resource::getURI).toList()
         .contains("urn:ogf:network:es.net:2013:topology:ServiceDomain:EVTS.A-GOLE:conn+6af3a5f3-a3ec-4fee-ad6b-dc5fb9e7cb7b:vt+l2-policy-Connection_1:vlan+1717"));
   }
-}
\ No newline at end of file
+
+  @org.junit.jupiter.api.Test
+  void getDeltaResources() throws IOException {
+    OntModel model = ModelUtil.unmarshalOntModelFromFile(MRML_MODEL_3, Lang.TURTLE.getName());
+    OntModel updated = ModelUtil.unmarshalOntModelFromFile(MRML_MODEL_3, Lang.TURTLE.getName());
+    OntModel reduction = ModelUtil.unmarshalOntModelFromFile(MRML_MODEL_REDUCTION_3, Lang.TURTLE.getName());
+    OntModel addition = ModelUtil.unmarshalOntModelFromFile(MRML_MODEL_ADDITION_3, Lang.TURTLE.getName());
+
+    ModelUtil.applyDeltaReduction(updated, reduction);
+    ModelUtil.applyDeltaAddition(updated, addition);
+
+    List<String> creates = CsProvider.getAdditionCreates(model, updated, addition);
+    Set<String> resources = CsProvider.getDeltaResources(model, updated, List.of(), creates, Set.of());
+    resources.forEach(r -> log.debug("[getDeltaResources] resource = {}", r));
+
+    // The SwitchingSubnet, their child ports, and the VLAN on each parent port are locked.
+    assertTrue(resources.containsAll(creates));
+    assertTrue(resources.size() > creates.size());
+    assertTrue(resources.stream().anyMatch(r -> r.contains("?vlan=3989")));
+    assertTrue(resources.stream().anyMatch(r -> r.contains("?vlan=2012")));
+
+    // A delta touching nothing locks nothing.
+    assertTrue(CsProvider.getDeltaResources(model, updated, List.of(), List.of(), Set.of()).isEmpty());
+  }
+}
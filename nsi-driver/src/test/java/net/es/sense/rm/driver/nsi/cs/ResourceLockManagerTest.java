@@ -0,0 +1,310 @@
+package net.es.sense.rm.driver.nsi.cs;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import lombok.extern.slf4j.Slf4j;
+import net.es.nsi.cs.lib.ClientUtil;
+import net.es.sense.rm.driver.api.ResourceConflictException;
+import net.es.sense.rm.driver.api.mrml.ModelUtil;
+import net.es.sense.rm.driver.nsi.actors.NsiActorSystem;
+import net.es.sense.rm.driver.nsi.cs.db.ConnectionMap;
+import net.es.sense.rm.driver.nsi.cs.db.ConnectionMapService;
+import net.es.sense.rm.driver.nsi.cs.db.DeltaMapRepository;
+import net.es.sense.rm.driver.nsi.cs.db.OperationMapRepository;
+import net.es.sense.rm.driver.nsi.cs.db.Reservation;
+import net.es.sense.rm.driver.nsi.cs.db.ReservationService;
+import net.es.sense.rm.driver.nsi.cs.db.StateType;
+import net.es.sense.rm.driver.nsi.dds.api.DocumentReader;
+import net.es.sense.rm.driver.nsi.properties.NsiProperties;
+import net.es.sense.rm.driver.nsi.spring.SpringExtension;
+import org.apache.jena.ontology.OntModel;
+import org.apache.jena.riot.Lang;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test concurrent deltas processed by CsProvider against a stub NSI provider
+ * confirming each reservation asynchronously.  Deltas on overlapping resources
+ * must be serialized or rejected so the provider never sees them interleaved.
+ *
+ * @author hacksaw
+ */
+@Slf4j
+public class ResourceLockManagerTest {
+  private final static String MRML_MODEL_3 = "src/test/resources/model-3.ttl";
+  private final static String MRML_MODEL_ADDITION_3 = "src/test/resources/addition-3.ttl";
+
+  // How long the stub provider takes to confirm a reservation.
+  private static final long RESERVE_TIME = 500;
+
+  private static final Pattern CORRELATION_ID = Pattern.compile("<(?:\\w+:)?correlationId>([^<]+)<");
+  private static final Pattern GLOBAL_RESERVATION_ID = Pattern.compile("<(?:\\w+:)?globalReservationId>([^<]+)<");
+
+  private static final String RESERVE_RESPONSE = """
+      <soap:Envelope xmlns:soap="http://schemas.xmlsoap.org/soap/envelope/">
+        <soap:Header>
+          <head:nsiHeader xmlns:head="http://schemas.ogf.org/nsi/2013/12/framework/headers">
+            <protocolVersion>application/vnd.ogf.nsi.cs.v2.provider+soap</protocolVersion>
+            <correlationId>%s</correlationId>
+            <requesterNSA>urn:ogf:network:es.net:2013:nsa:sense-rm</requesterNSA>
+            <providerNSA>urn:ogf:network:es.net:2013:nsa:nsi-aggr-west</providerNSA>
+          </head:nsiHeader>
+        </soap:Header>
+        <soap:Body>
+          <types:reserveResponse xmlns:types="http://schemas.ogf.org/nsi/2013/12/connection/types">
+            <connectionId>%s</connectionId>
+          </types:reserveResponse>
+        </soap:Body>
+      </soap:Envelope>
+      """;
+
+  private ResourceLockManager lockManager;
+  private OperationMapRepository operationMap;
+  private StubProvider provider;
+  private HttpServer server;
+  private ExecutorService executor;
+  private String url;
+
+  @BeforeClass
+  public static void beforeClass() {
+    // Both the Glassfish and MOXy JAXB runtimes are on the test classpath, and
+    // CXF only builds its proxies when the default runtime is the Glassfish one.
+    System.setProperty("jakarta.xml.bind.JAXBContextFactory", "org.glassfish.jaxb.runtime.v2.JAXBContextFactory");
+  }
+
+  @AfterClass
+  public static void afterClass() {
+    System.clearProperty("jakarta.xml.bind.JAXBContextFactory");
+  }
+
+  @Before
+  public void before() throws IOException {
+    lockManager = new ResourceLockManager();
+    operationMap = new OperationMapRepository();
+    provider = new StubProvider(operationMap);
+
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext("/provider", provider::handle);
+    server.setExecutor(Executors.newFixedThreadPool(4));
+    server.start();
+    url = "http://localhost:" + server.getAddress().getPort() + "/provider";
+
+    executor = Executors.newFixedThreadPool(4);
+  }
+
+  @After
+  public void after() {
+    executor.shutdownNow();
+    provider.shutdown();
+    server.stop(0);
+    ClientUtil.getPool().clear();
+  }
+
+  /**
+   * A stub NSI provider acknowledging each reserve request and confirming it
+   * RESERVE_TIME later, counting any reservation of a SwitchingSubnet already
+   * being reserved by another request.
+   */
+  private static class StubProvider {
+    private final OperationMapRepository operationMap;
+    private final ScheduledExecutorService callback = Executors.newScheduledThreadPool(4);
+    private final Map<String, String> reserving = new ConcurrentHashMap<>();
+    private final AtomicInteger reserves = new AtomicInteger();
+    private final AtomicInteger conflicts = new AtomicInteger();
+    private volatile CountDownLatch received = new CountDownLatch(1);
+    private volatile CountDownLatch release = new CountDownLatch(0);
+
+    StubProvider(OperationMapRepository operationMap) {
+      this.operationMap = operationMap;
+    }
+
+    void handle(HttpExchange exchange) throws IOException {
+      String request = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+      String correlationId = match(CORRELATION_ID, request);
+      String globalReservationId = match(GLOBAL_RESERVATION_ID, request);
+      String connectionId = "cid-" + reserves.incrementAndGet();
+
+      String current = reserving.putIfAbsent(globalReservationId, correlationId);
+      if (current != null) {
+        log.error("[StubProvider] correlationId = {} overlaps correlationId = {} on {}",
+            correlationId, current, globalReservationId);
+        conflicts.incrementAndGet();
+      }
+
+      byte[] body = String.format(RESERVE_RESPONSE, correlationId, connectionId).getBytes(StandardCharsets.UTF_8);
+      exchange.getResponseHeaders().add("Content-Type", "text/xml; charset=UTF-8");
+      exchange.getResponseHeaders().add("Connection", "close");
+      exchange.sendResponseHeaders(200, body.length);
+      try (OutputStream os = exchange.getResponseBody()) {
+        os.write(body);
+      }
+      received.countDown();
+
+      CountDownLatch hold = release;
+      callback.schedule(() -> {
+        try {
+          hold.await();
+        } catch (InterruptedException ex) {
+          return;
+        }
+        reserving.remove(globalReservationId, correlationId);
+        operationMap.acknowledge(correlationId, StateType.reserved);
+      }, RESERVE_TIME, TimeUnit.MILLISECONDS);
+    }
+
+    private static String match(Pattern pattern, String request) {
+      Matcher matcher = pattern.matcher(request);
+      Assert.assertTrue(matcher.find());
+      return matcher.group(1);
+    }
+
+    int getReserves() {
+      return reserves.get();
+    }
+
+    int getConflicts() {
+      return conflicts.get();
+    }
+
+    void shutdown() {
+      callback.shutdownNow();
+    }
+  }
+
+  /**
+   * Build a CsProvider issuing reservations to the stub provider.
+   *
+   * @param deltaLockWaitTimer Seconds a delta waits on overlapping deltas.
+   * @return The CsProvider.
+   */
+  private CsProvider csProvider(int deltaLockWaitTimer) {
+    NsiProperties properties = new NsiProperties();
+    properties.setNsaId("urn:ogf:network:es.net:2013:nsa:sense-rm");
+    properties.setProviderNsaId("urn:ogf:network:es.net:2013:nsa:nsi-aggr-west");
+    properties.setNetworkId("urn:ogf:network:es.net:2013:");
+    properties.setProviderConnectionURL(url);
+    properties.setOperationWaitTimer(10);
+    properties.setDeltaLockWaitTimer(deltaLockWaitTimer);
+
+    ConnectionMapService connectionMapService = mock(ConnectionMapService.class);
+    when(connectionMapService.store(any(ConnectionMap.class))).thenAnswer(i -> i.getArgument(0));
+
+    ReservationService reservationService = mock(ReservationService.class);
+    when(reservationService.store(any(Reservation.class))).thenAnswer(i -> i.getArgument(0));
+    when(reservationService.setConnectionId(anyLong(), anyString())).thenReturn(1);
+
+    return new CsProvider(properties, connectionMapService, operationMap, new DeltaMapRepository(),
+        reservationService, mock(SpringExtension.class), mock(NsiActorSystem.class), mock(DocumentReader.class),
+        lockManager);
+  }
+
+  /**
+   * Process a delta adding the two SwitchingSubnets of addition-3 to model-3.
+   */
+  private Future<Long> delta(CsProvider csProvider, String deltaId) {
+    return executor.submit(() -> {
+      OntModel model = ModelUtil.unmarshalOntModelFromFile(MRML_MODEL_3, Lang.TURTLE.getName());
+      OntModel updated = ModelUtil.unmarshalOntModelFromFile(MRML_MODEL_3, Lang.TURTLE.getName());
+      OntModel addition = ModelUtil.unmarshalOntModelFromFile(MRML_MODEL_ADDITION_3, Lang.TURTLE.getName());
+      ModelUtil.applyDeltaAddition(updated, addition);
+
+      csProvider.processDelta(model, updated, deltaId, Optional.empty(), Optional.of(addition));
+      return System.nanoTime();
+    });
+  }
+
+  @Test
+  public void testOverlappingSerialized() throws Exception {
+    CsProvider csProvider = csProvider(10);
+
+    // Two deltas reserving the same SwitchingSubnets and VLANs.
+    long start = System.nanoTime();
+    List<Future<Long>> results = new ArrayList<>();
+    results.add(delta(csProvider, "delta-1"));
+    results.add(delta(csProvider, "delta-2"));
+    for (Future<Long> result : results) {
+      result.get();
+    }
+    long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+    // The second delta waits for the first so the provider never sees overlapping reservations.
+    log.info("[ResourceLockManagerTest] {} overlapping deltas in {} ms", results.size(), elapsed);
+    Assert.assertEquals(4, provider.getReserves());
+    Assert.assertEquals(0, provider.getConflicts());
+    Assert.assertTrue("elapsed = " + elapsed, elapsed >= 2 * RESERVE_TIME);
+    Assert.assertEquals(0, lockManager.size());
+  }
+
+  @Test
+  public void testOverlappingRejected() throws Exception {
+    CsProvider csProvider = csProvider(0);
+
+    // Hold the first delta's reservations until the second has been rejected.
+    provider.release = new CountDownLatch(1);
+    Future<Long> first = delta(csProvider, "delta-1");
+    Assert.assertTrue(provider.received.await(10, TimeUnit.SECONDS));
+
+    // A delta overlapping one in progress is rejected immediately when not waiting.
+    try {
+      delta(csProvider, "delta-2").get();
+      Assert.fail("overlapping delta was not rejected");
+    } catch (ExecutionException ex) {
+      Assert.assertTrue(ex.getCause() instanceof ResourceConflictException);
+      Assert.assertTrue(ex.getCause().getMessage().contains("delta-1"));
+    }
+    provider.release.countDown();
+    first.get();
+
+    // The resources are free for the next delta once released.
+    Assert.assertEquals(0, lockManager.size());
+    delta(csProvider, "delta-3").get();
+    Assert.assertEquals(4, provider.getReserves());
+    Assert.assertEquals(0, provider.getConflicts());
+  }
+
+  @Test
+  public void testDisjointAndRelock() throws Exception {
+    Set<String> first = Set.of("subnet-1", "urn:ogf:network:es.net:2013::star-cr6:to_star-cr5?vlan=3989");
+    Set<String> second = Set.of("subnet-2", "urn:ogf:network:es.net:2013::star-cr6:to_star-cr5?vlan=2012");
+
+    try (ResourceLockManager.Lock lock = lockManager.lock("delta-1", first, 0, TimeUnit.SECONDS)) {
+      // A disjoint delta is unaffected.
+      lockManager.lock("delta-2", second, 0, TimeUnit.SECONDS).close();
+
+      // The same delta may lock its own resources again without releasing the original lock.
+      lockManager.lock("delta-1", first, 0, TimeUnit.SECONDS).close();
+      Assert.assertEquals(lock.getResources().size(), lockManager.size());
+    }
+    Assert.assertEquals(0, lockManager.size());
+  }
+}
@@ -0,0 +1,77 @@
+package net.es.sense.rm.driver.nsi.cs.db;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test waiting on outstanding NSI operations completed by a callback thread.
+ *
+ * @author hacksaw
+ */
+public class OperationMapRepositoryTest {
+  private OperationMapRepository operationMap;
+  private ScheduledExecutorService callback;
+
+  @Before
+  public void before() {
+    operationMap = new OperationMapRepository();
+    callback = Executors.newScheduledThreadPool(4);
+  }
+
+  @After
+  public void after() {
+    callback.shutdownNow();
+  }
+
+  private void store(String correlationId) {
+    Operation op = new Operation();
+    op.setCorrelationId(correlationId);
+    op.setOperation(OperationType.reserveCommit);
+    op.setState(StateType.committing);
+    operationMap.store(op);
+  }
+
+  @Test
+  public void testWaitAll() {
+    List<String> ids = List.of("op1", "op2", "op3", "op4");
+    ids.forEach(this::store);
+
+    // Each operation completes after one second on its own callback thread.
+    ids.forEach(id -> callback.schedule(() -> operationMap.acknowledge(id, StateType.committed),
+        1, TimeUnit.SECONDS));
+
+    // All operations are awaited together and all are returned once completed.
+    Map<String, Operation> completed = operationMap.waitAll(ids, 10);
+
+    Assert.assertEquals(ids.size(), completed.size());
+    completed.values().forEach(op -> Assert.assertEquals(StateType.committed, op.getState()));
+  }
+
+  @Test
+  public void testSharedDeadline() {
+    List<String> ids = List.of("op1", "op2", "op3", "unknown");
+    ids.subList(0, 3).forEach(this::store);
+
+    // Only op1 completes, op2 and op3 never receive a callback.
+    callback.execute(() -> operationMap.acknowledge("op1", StateType.committed));
+
+    long start = System.nanoTime();
+    Map<String, Operation> completed = operationMap.waitAll(ids, 1);
+    long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+    // The outstanding operations time out against the deadline and only
+    // those that completed are returned.
+    Assert.assertEquals(Map.of("op1", operationMap.get("op1")), completed);
+    Assert.assertTrue("elapsed = " + elapsed, elapsed >= 1000);
+    Assert.assertFalse(operationMap.wait("op2", 0));
+    Assert.assertFalse(operationMap.wait("unknown", 0));
+    Assert.assertTrue(operationMap.wait("op1", 0));
+  }
+}
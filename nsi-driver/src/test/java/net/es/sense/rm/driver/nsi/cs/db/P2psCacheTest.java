@@ -0,0 +1,78 @@
+package net.es.sense.rm.driver.nsi.cs.db;
+
+import jakarta.xml.bind.JAXBException;
+import net.es.sense.rm.driver.nsi.properties.NsiProperties;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.ogf.schemas.nsi._2013._12.services.point2point.P2PServiceBaseType;
+
+/**
+ * Test the parsed reservation service criteria cache.
+ *
+ * @author hacksaw
+ */
+public class P2psCacheTest {
+  private P2psCache cache;
+
+  @Before
+  public void before() {
+    NsiProperties nsiProperties = new NsiProperties();
+    nsiProperties.setReservationServiceCacheSize(8);
+    cache = new P2psCache(nsiProperties);
+  }
+
+  private Reservation reservation(long id, int version, long capacity) {
+    Reservation r = new Reservation();
+    r.setId(id);
+    r.setVersion(version);
+    r.setService("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n" +
+        "<ns7:p2ps xmlns:ns7=\"http://schemas.ogf.org/nsi/2013/12/services/point2point\">\n" +
+        "    <capacity>" + capacity + "</capacity>\n" +
+        "    <directionality>Bidirectional</directionality>\n" +
+        "    <symmetricPath>true</symmetricPath>\n" +
+        "    <sourceSTP>urn:ogf:network:example.net:2013::a?vlan=100</sourceSTP>\n" +
+        "    <destSTP>urn:ogf:network:example.net:2013::b?vlan=100</destSTP>\n" +
+        "</ns7:p2ps>");
+    return r;
+  }
+
+  @Test
+  public void testHitAndMiss() throws JAXBException {
+    P2PServiceBaseType p2ps = cache.get(reservation(1, 0, 100));
+    Assert.assertEquals(100, p2ps.getCapacity());
+    Assert.assertSame(p2ps, cache.get(reservation(1, 0, 100)));
+    Assert.assertEquals(1, cache.stats().hitCount());
+    Assert.assertEquals(1, cache.stats().missCount());
+  }
+
+  @Test
+  public void testNewVersion() throws JAXBException {
+    cache.get(reservation(1, 0, 100));
+
+    // A new reservation version must not be served from the old entry.
+    Assert.assertEquals(200, cache.get(reservation(1, 1, 200)).getCapacity());
+    Assert.assertEquals(2, cache.stats().missCount());
+    Assert.assertEquals(0, cache.stats().hitCount());
+  }
+
+  @Test
+  public void testInvalidate() throws JAXBException {
+    cache.get(reservation(1, 0, 100));
+    cache.get(reservation(1, 1, 100));
+    P2PServiceBaseType other = cache.get(reservation(2, 0, 300));
+
+    // Every version of the invalidated reservation is removed, other reservations are kept.
+    cache.invalidate(1);
+    Assert.assertEquals(1, cache.size());
+    Assert.assertEquals(200, cache.get(reservation(1, 0, 200)).getCapacity());
+    Assert.assertSame(other, cache.get(reservation(2, 0, 300)));
+  }
+
+  @Test
+  public void testUnsavedNotCached() throws JAXBException {
+    cache.get(reservation(0, 0, 100));
+    Assert.assertEquals(0, cache.size());
+  }
+
+}
@@ -20,6 +20,7 @@
 package net.es.sense.rm.driver.nsi.cs.db;
 
 import lombok.extern.slf4j.Slf4j;
+import net.es.sense.rm.driver.nsi.properties.NsiProperties;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.ogf.schemas.nsi._2013._12.connection.types.LifecycleStateEnumType;
@@ -47,7 +48,7 @@ import static org.junit.Assert.*;
  */
 @Slf4j
 @RunWith(SpringRunner.class)
-@SpringBootTest(classes = { ReservationRepository.class, Reservation.class, DbUnitTestConfiguration.class })
+@SpringBootTest(classes = { ReservationRepository.class, Reservation.class, NsiProperties.class, DbUnitTestConfiguration.class })
 @AutoConfigureTestDatabase
 @EnableAutoConfiguration
 @ActiveProfiles("test")
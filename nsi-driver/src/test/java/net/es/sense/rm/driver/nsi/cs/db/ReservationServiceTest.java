@@ -20,6 +20,7 @@
 package net.es.sense.rm.driver.nsi.cs.db;
 
 import lombok.extern.slf4j.Slf4j;
+import net.es.sense.rm.driver.nsi.properties.NsiProperties;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
@@ -35,7 +36,7 @@ import org.springframework.transaction.annotation.Transactional;
  */
 @Slf4j
 @RunWith(SpringRunner.class)
-@SpringBootTest(classes = { ReservationService.class, ReservationServiceBean.class, ReservationRepository.class, Reservation.class, DbUnitTestConfiguration.class })
+@SpringBootTest(classes = { ReservationService.class, ReservationServiceBean.class, ReservationRepository.class, Reservation.class, P2psCache.class, NsiProperties.class, DbUnitTestConfiguration.class })
 @AutoConfigureTestDatabase
 @EnableAutoConfiguration
 @ActiveProfiles("test")
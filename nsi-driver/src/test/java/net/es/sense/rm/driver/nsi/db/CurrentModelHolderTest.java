@@ -0,0 +1,127 @@
+package net.es.sense.rm.driver.nsi.db;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * Test the in-memory current model holder.
+ *
+ * @author hacksaw
+ */
+public class CurrentModelHolderTest {
+  private static final String TOPOLOGY_ID = "urn:ogf:network:es.net:2013:";
+
+  private ModelService modelService;
+  private CurrentModelHolder holder;
+
+  @Before
+  public void before() {
+    modelService = mock(ModelService.class);
+    holder = new CurrentModelHolder(modelService);
+  }
+
+  private Model model(long idx, String modelId, long created) {
+    Model model = new Model();
+    model.setIdx(idx);
+    model.setTopologyId(TOPOLOGY_ID);
+    model.setModelId(modelId);
+    model.setCreated(created);
+    return model;
+  }
+
+  @Test
+  public void testLoadOnce() {
+    when(modelService.getCurrent(TOPOLOGY_ID)).thenReturn(model(1, "model1", 1000));
+
+    Assert.assertEquals("model1", holder.get(TOPOLOGY_ID).getModelId());
+    Assert.assertEquals("model1", holder.get(TOPOLOGY_ID).getModelId());
+    verify(modelService, times(1)).getCurrent(TOPOLOGY_ID);
+  }
+
+  @Test
+  public void testNoModel() {
+    Assert.assertNull(holder.get(TOPOLOGY_ID));
+
+    // A published model is served without a database read.
+    holder.set(model(1, "model1", 1000));
+    Assert.assertEquals("model1", holder.get(TOPOLOGY_ID).getModelId());
+    verify(modelService, times(1)).getCurrent(TOPOLOGY_ID);
+  }
+
+  @Test
+  public void testNewerReplaces() {
+    holder.set(model(1, "model1", 1000));
+    holder.set(model(2, "model2", 2000));
+    Assert.assertEquals("model2", holder.get(TOPOLOGY_ID).getModelId());
+
+    // Same creation time is resolved by database index.
+    holder.set(model(3, "model3", 2000));
+    Assert.assertEquals("model3", holder.get(TOPOLOGY_ID).getModelId());
+    verify(modelService, never()).getCurrent(anyString());
+  }
+
+  @Test
+  public void testOlderIgnored() {
+    holder.set(model(2, "model2", 2000));
+    Assert.assertEquals("model2", holder.set(model(1, "model1", 1000)).getModelId());
+    Assert.assertEquals("model2", holder.get(TOPOLOGY_ID).getModelId());
+  }
+
+  @Test
+  public void testInvalidate() {
+    when(modelService.getCurrent(TOPOLOGY_ID)).thenReturn(model(1, "model1", 1000));
+    holder.get(TOPOLOGY_ID);
+    holder.invalidate(TOPOLOGY_ID);
+    holder.get(TOPOLOGY_ID);
+    verify(modelService, times(2)).getCurrent(TOPOLOGY_ID);
+  }
+
+  @Test
+  public void testAwaitNewer() throws Exception {
+    holder.set(model(1, "model1", 1000));
+
+    // The current model is already newer.
+    Assert.assertEquals("model1", holder.await(TOPOLOGY_ID, 500).get().getModelId());
+
+    // Otherwise wait for a newer model to be published.
+    CompletableFuture<Model> future = holder.await(TOPOLOGY_ID, 1000);
+    Assert.assertFalse(future.isDone());
+    Assert.assertEquals(1, holder.getWaiting(TOPOLOGY_ID));
+
+    holder.set(model(2, "model2", 1000));
+    Assert.assertFalse(future.isDone());
+
+    // The waiter is completed and removed once the newer model is published.
+    holder.set(model(3, "model3", 2000));
+    Assert.assertEquals("model3", future.get(1, TimeUnit.SECONDS).getModelId());
+    for (int i = 0; i < 100 && holder.getWaiting(TOPOLOGY_ID) != 0; i++) {
+      Thread.sleep(10);
+    }
+    Assert.assertEquals(0, holder.getWaiting(TOPOLOGY_ID));
+  }
+
+  @Test
+  public void testAwaitTimeout() throws Exception {
+    CompletableFuture<Model> future = holder.await(TOPOLOGY_ID, 0).orTimeout(10, TimeUnit.MILLISECONDS);
+    try {
+      future.get();
+      Assert.fail("expected timeout");
+    } catch (ExecutionException ex) {
+      Assert.assertTrue(ex.getCause() instanceof TimeoutException);
+    }
+
+    // The timed out waiter is removed once the completion has been processed.
+    for (int i = 0; i < 100 && holder.getWaiting(TOPOLOGY_ID) != 0; i++) {
+      Thread.sleep(10);
+    }
+    Assert.assertEquals(0, holder.getWaiting(TOPOLOGY_ID));
+  }
+}
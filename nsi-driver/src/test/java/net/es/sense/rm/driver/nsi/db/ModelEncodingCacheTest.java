@@ -0,0 +1,79 @@
+package net.es.sense.rm.driver.nsi.db;
+
+import net.es.sense.rm.driver.api.mrml.ModelUtil;
+import net.es.sense.rm.driver.nsi.properties.NsiProperties;
+import org.apache.jena.riot.Lang;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test the rendered model encoding cache.
+ *
+ * @author hacksaw
+ */
+public class ModelEncodingCacheTest {
+  private static final String TTL = """
+      @prefix nml: <http://schemas.ogf.org/nml/2013/03/base#> .
+      <urn:ogf:network:es.net:2013::ServiceDomain:EVTS.A-GOLE>
+              a nml:SwitchingService ;
+              nml:encoding <http://schemas.ogf.org/nml/2012/10/ethernet> .
+      """;
+
+  private ModelEncodingCache cache;
+
+  @Before
+  public void before() {
+    NsiProperties nsiProperties = new NsiProperties();
+    nsiProperties.setModelEncodingCacheSize(8);
+    cache = new ModelEncodingCache(nsiProperties);
+  }
+
+  private Model model(String modelId) {
+    Model model = new Model();
+    model.setModelId(modelId);
+    model.setBase(TTL);
+    return model;
+  }
+
+  @Test
+  public void testStoredEncoding() {
+    Model model = model("model1");
+    Assert.assertSame(TTL, cache.get(model, Lang.TURTLE.getName()));
+    Assert.assertSame(TTL, cache.get(model, "turtle"));
+    Assert.assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void testRenderOnce() {
+    Model model = model("model1");
+    String xml = cache.get(model, Lang.RDFXML.getName());
+    Assert.assertSame(xml, cache.get(model, Lang.RDFXML.getName()));
+    Assert.assertEquals(1, cache.stats().missCount());
+    Assert.assertEquals(1, cache.stats().hitCount());
+
+    org.apache.jena.rdf.model.Model expected = ModelUtil.unmarshalModel(TTL, Lang.TURTLE.getName());
+    Assert.assertTrue(expected.isIsomorphicWith(ModelUtil.unmarshalModel(xml, Lang.RDFXML.getName())));
+
+    String json = cache.get(model, Lang.RDFJSON.getName());
+    Assert.assertTrue(expected.isIsomorphicWith(ModelUtil.unmarshalModel(json, Lang.RDFJSON.getName())));
+    Assert.assertEquals(2, cache.stats().missCount());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnsupported() {
+    cache.get(model("model1"), Lang.JSONLD.getName());
+  }
+
+  @Test
+  public void testKey() {
+    // Encoding names are matched without case so share one rendering.
+    String xml = cache.get(model("model1"), Lang.RDFXML.getName());
+    Assert.assertSame(xml, cache.get(model("model1"), Lang.RDFXML.getName().toLowerCase()));
+
+    // Each model version is rendered separately.
+    cache.get(model("model2"), Lang.RDFXML.getName());
+    Assert.assertEquals(2, cache.size());
+    Assert.assertEquals(2, cache.stats().missCount());
+  }
+}
@@ -0,0 +1,94 @@
+package net.es.sense.rm.driver.nsi.db;
+
+import net.es.sense.rm.driver.api.mrml.ModelUtil;
+import net.es.sense.rm.driver.api.mrml.SubgraphQuery;
+import net.es.sense.rm.driver.nsi.properties.NsiProperties;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+/**
+ * Test the parsed model graph cache used for subgraph queries and delta propagation.
+ *
+ * @author hacksaw
+ */
+public class ModelGraphCacheTest {
+  private static final String TTL = """
+      @prefix nml: <http://schemas.ogf.org/nml/2013/03/base#> .
+      @prefix mrs: <http://schemas.ogf.org/mrs/2013/12/topology#> .
+      <urn:ogf:network:es.net:2013::ServiceDomain:EVTS.A-GOLE>
+              a nml:SwitchingService ;
+              nml:encoding <http://schemas.ogf.org/nml/2012/10/ethernet> ;
+              mrs:providesSubnet <urn:ogf:network:es.net:2013::switchingSubnet:1> .
+      <urn:ogf:network:es.net:2013::switchingSubnet:1>
+              a mrs:SwitchingSubnet ;
+              nml:belongsTo <urn:ogf:network:es.net:2013::ServiceDomain:EVTS.A-GOLE> .
+      """;
+
+  private ModelGraphCache cache;
+
+  @Before
+  public void before() {
+    NsiProperties nsiProperties = new NsiProperties();
+    nsiProperties.setModelGraphCacheSize(8);
+    cache = new ModelGraphCache(nsiProperties);
+  }
+
+  private Model model(String modelId) {
+    Model model = new Model();
+    model.setModelId(modelId);
+    model.setBase(TTL);
+    return model;
+  }
+
+  @Test
+  public void testQuery() {
+    Model model = model("model1");
+    SubgraphQuery query = SubgraphQuery.of(null, List.of("mrs:SwitchingSubnet"), 0);
+    String result = cache.query(model, Lang.RDFXML.getName(), query);
+
+    org.apache.jena.rdf.model.Model subgraph = ModelUtil.unmarshalModel(result, Lang.RDFXML.getName());
+    Assert.assertEquals(2, subgraph.size());
+    Assert.assertTrue(subgraph.isIsomorphicWith(query.apply(cache.get(model))));
+
+    // The model version is parsed once and shared by subsequent queries.
+    cache.query(model, Lang.TURTLE.getName(), SubgraphQuery.of(null, List.of("nml:SwitchingService"), 1));
+    Assert.assertEquals(1, cache.stats().missCount());
+    Assert.assertEquals(2, cache.stats().hitCount());
+  }
+
+  @Test
+  public void testPut() {
+    Model model = model("model1");
+    cache.put(model, ModelUtil.unmarshalModel(TTL, Lang.TURTLE.getName()));
+
+    // A graph added by the audit is used without parsing and is read-only.
+    org.apache.jena.rdf.model.Model graph = cache.get(model);
+    Assert.assertEquals(5, graph.size());
+    Assert.assertEquals(0, cache.stats().missCount());
+    Assert.assertThrows(Exception.class, () -> graph.add(graph.createResource("urn:test"), RDF.type, RDFS.Class));
+    Assert.assertEquals(5, graph.size());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnsupported() {
+    cache.query(model("model1"), Lang.JSONLD.getName(), SubgraphQuery.of(null, List.of("mrs:SwitchingSubnet"), 0));
+  }
+
+  @Test
+  public void testKey() {
+    // Graphs are shared by model version, not by the stored model instance.
+    org.apache.jena.rdf.model.Model graph = cache.get(model("model1"));
+    Assert.assertSame(graph, cache.get(model("model1")));
+
+    // Each model version is parsed separately.
+    Assert.assertNotSame(graph, cache.get(model("model2")));
+    Assert.assertEquals(2, cache.size());
+    Assert.assertEquals(2, cache.stats().missCount());
+  }
+}
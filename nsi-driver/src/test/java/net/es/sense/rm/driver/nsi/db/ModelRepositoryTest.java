@@ -2,6 +2,7 @@ package net.es.sense.rm.driver.nsi.db;
 
 import jakarta.xml.bind.JAXBException;
 import lombok.extern.slf4j.Slf4j;
+import net.es.sense.rm.driver.nsi.properties.NsiProperties;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -21,7 +22,7 @@ import java.nio.file.Paths;
  */
 @Slf4j
 @RunWith(SpringRunner.class)
-@SpringBootTest(classes = { ModelRepository.class, Model.class, DbUnitTestConfiguration.class })
+@SpringBootTest(classes = { ModelRepository.class, Model.class, NsiProperties.class, DbUnitTestConfiguration.class })
 @AutoConfigureTestDatabase
 @ActiveProfiles("test")
 public class ModelRepositoryTest {
@@ -2,6 +2,7 @@ package net.es.sense.rm.driver.nsi.db;
 
 import jakarta.xml.bind.JAXBException;
 import lombok.extern.slf4j.Slf4j;
+import net.es.sense.rm.driver.nsi.properties.NsiProperties;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -22,7 +23,7 @@ import java.util.List;
  */
 @Slf4j
 @RunWith(SpringRunner.class)
-@SpringBootTest(classes = { ModelService.class, ModelServiceBean.class, ModelRepository.class, Model.class, DbUnitTestConfiguration.class, JsonProxy.class, JsonExclusionStrategy.class })
+@SpringBootTest(classes = { ModelService.class, ModelServiceBean.class, ModelRepository.class, Model.class, NsiProperties.class, DbUnitTestConfiguration.class, JsonProxy.class, JsonExclusionStrategy.class })
 @AutoConfigureTestDatabase
 @ActiveProfiles("test")
 public class ModelServiceTest {
@@ -124,6 +125,7 @@ public class ModelServiceTest {
     newModel.setTopologyId(model.getTopologyId());
     newModel.setModelId(model.getModelId());
     newModel.setBase(model.getBase());
+    newModel.setHash("2c26b46b68ffc68ff99b453c1d30413413422d706483bfa0f98a5e886266e7ae");
     time = System.currentTimeMillis();
     newModel.setCreated(time);
 
@@ -138,6 +140,27 @@ public class ModelServiceTest {
     Assert.assertEquals("urn:ogf:network:es.net:2013:", model.getTopologyId());
     Assert.assertEquals("dd58cadb-55e0-410c-891a-ddb2666e100b", model.getModelId());
     Assert.assertEquals(time, model.getCreated());
+    Assert.assertEquals("2c26b46b68ffc68ff99b453c1d30413413422d706483bfa0f98a5e886266e7ae", model.getHash());
+  }
+
+  @Test
+  public void summary() throws JAXBException, IOException, DatatypeConfigurationException {
+    // Set up test data.
+    buildDatabase();
+
+    ModelSummary summary = modelService.getSummaryByModelId("eb9efcf8-4987-430e-a47e-b456dcd8f46c");
+    Assert.assertNotNull(summary);
+    Assert.assertEquals("eb9efcf8-4987-430e-a47e-b456dcd8f46c", summary.getModelId());
+    Assert.assertEquals(1506766513000L, summary.getCreated());
+    Assert.assertNull(modelService.getSummaryByModelId("not-a-model"));
+
+    // The metadata queries must match the full model queries.
+    Assert.assertEquals(3, modelService.getSummaryByTopologyId("urn:ogf:network:es.net:2013:", 0).size());
+    Assert.assertEquals(0, modelService.getSummaryByTopologyId("urn:ogf:network:es.net:2013:", 1506852913000L).size());
+    Collection<ModelSummary> summaries = modelService.getSummaryByTopologyId("urn:ogf:network:es.net:2013:",
+        1506766513000L);
+    Assert.assertEquals(1, summaries.size());
+    Assert.assertEquals("dd58cadb-55e0-410c-891a-ddb2666e100b", summaries.iterator().next().getModelId());
   }
 
   @Test
@@ -0,0 +1,100 @@
+package net.es.sense.rm.driver.nsi.dds.api;
+
+import net.es.sense.rm.driver.nsi.dds.db.Document;
+import net.es.sense.rm.driver.nsi.properties.NsiProperties;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test the decoded DDS document cache.
+ *
+ * @author hacksaw
+ */
+public class DocumentCacheTest {
+  private DocumentCache cache;
+  private AtomicInteger decodes;
+
+  @Before
+  public void before() {
+    NsiProperties nsiProperties = new NsiProperties();
+    nsiProperties.setDdsDocumentCacheSize(8);
+    cache = new DocumentCache(nsiProperties);
+    decodes = new AtomicInteger();
+  }
+
+  private Document document(String id, long version) {
+    Document document = new Document();
+    document.setId(id);
+    document.setVersion(version);
+    document.setLastDiscovered(version);
+    return document;
+  }
+
+  private String decode(Document document) {
+    decodes.incrementAndGet();
+    return document.getId() + ":" + document.getVersion();
+  }
+
+  @Test
+  public void testHitAndMiss() {
+    Document doc = document("doc1", 1);
+    Assert.assertEquals("doc1:1", cache.get(doc, String.class, () -> decode(doc)));
+    Assert.assertEquals("doc1:1", cache.get(doc, String.class, () -> decode(doc)));
+    Assert.assertEquals(1, decodes.get());
+    Assert.assertEquals(1, cache.stats().hitCount());
+    Assert.assertEquals(1, cache.stats().missCount());
+  }
+
+  @Test
+  public void testNewVersion() {
+    Document doc = document("doc1", 1);
+    cache.get(doc, String.class, () -> decode(doc));
+
+    // A new document version must not be served from the old entry.
+    Document updated = document("doc1", 2);
+    Assert.assertEquals("doc1:2", cache.get(updated, String.class, () -> decode(updated)));
+    Assert.assertEquals(2, decodes.get());
+
+    // Nor may a rediscovered document with the same version.
+    Document rediscovered = document("doc1", 2);
+    rediscovered.setLastDiscovered(3);
+    cache.get(rediscovered, String.class, () -> decode(rediscovered));
+    Assert.assertEquals(3, decodes.get());
+    Assert.assertEquals(0, cache.stats().hitCount());
+  }
+
+  @Test
+  public void testDecodedClass() {
+    // The same document version decoded as a different class is a separate entry.
+    Document doc = document("doc1", 1);
+    Assert.assertEquals("doc1:1", cache.get(doc, String.class, () -> decode(doc)));
+    Assert.assertEquals(Integer.valueOf(2), cache.get(doc, Integer.class, () -> decodes.incrementAndGet()));
+    Assert.assertEquals("doc1:1", cache.get(doc, String.class, () -> decode(doc)));
+    Assert.assertEquals(2, decodes.get());
+  }
+
+  @Test
+  public void testInvalidate() {
+    Document doc = document("doc1", 1);
+    Document other = document("doc2", 1);
+    cache.get(doc, String.class, () -> decode(doc));
+    cache.get(other, String.class, () -> decode(other));
+
+    // Only the entries of the invalidated document are removed.
+    cache.invalidate("doc1");
+    Assert.assertEquals(1, cache.size());
+    cache.get(doc, String.class, () -> decode(doc));
+    cache.get(other, String.class, () -> decode(other));
+    Assert.assertEquals(3, decodes.get());
+  }
+
+  @Test
+  public void testDecodeFailureNotCached() {
+    Document doc = document("doc1", 1);
+    Assert.assertNull(cache.get(doc, String.class, () -> null));
+    Assert.assertEquals(0, cache.size());
+  }
+}
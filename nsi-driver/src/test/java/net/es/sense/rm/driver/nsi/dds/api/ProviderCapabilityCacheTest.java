@@ -0,0 +1,168 @@
+package net.es.sense.rm.driver.nsi.dds.api;
+
+import net.es.nsi.common.constants.Nsi;
+import net.es.nsi.common.util.XmlUtilities;
+import net.es.nsi.dds.lib.jaxb.dds.ContentType;
+import net.es.nsi.dds.lib.jaxb.dds.DocumentType;
+import net.es.nsi.dds.lib.jaxb.nsa.FeatureType;
+import net.es.nsi.dds.lib.jaxb.nsa.InterfaceType;
+import net.es.nsi.dds.lib.jaxb.nsa.NsaType;
+import net.es.sense.rm.driver.nsi.actors.NsiActorSystem;
+import net.es.sense.rm.driver.nsi.dds.DdsClientProvider;
+import net.es.sense.rm.driver.nsi.dds.DdsProvider;
+import net.es.sense.rm.driver.nsi.dds.db.Document;
+import net.es.sense.rm.driver.nsi.dds.db.DocumentService;
+import net.es.sense.rm.driver.nsi.properties.NsiProperties;
+import net.es.sense.rm.driver.nsi.spring.SpringExtension;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test the NSA capability cache is built once and refreshed on DDS updates.
+ *
+ * @author hacksaw
+ */
+public class ProviderCapabilityCacheTest {
+  private static final String NSA_ID = "urn:ogf:network:es.net:2013:nsa";
+
+  private static final net.es.nsi.dds.lib.jaxb.nsa.ObjectFactory NSA_FACTORY =
+      new net.es.nsi.dds.lib.jaxb.nsa.ObjectFactory();
+  private static final net.es.nsi.dds.lib.jaxb.dds.ObjectFactory DDS_FACTORY =
+      new net.es.nsi.dds.lib.jaxb.dds.ObjectFactory();
+
+  private ProviderCapabilityCache cache;
+  private AtomicInteger loads;
+
+  @Before
+  public void before() {
+    cache = new ProviderCapabilityCache();
+    loads = new AtomicInteger();
+  }
+
+  private static NsaType nsa(String version, String url, boolean modify) throws Exception {
+    NsaType nsa = NSA_FACTORY.createNsaType();
+    nsa.setId(NSA_ID);
+    nsa.setVersion(XmlUtilities.xmlGregorianCalendar(version));
+
+    InterfaceType cs = NSA_FACTORY.createInterfaceType();
+    cs.setType(Nsi.NSI_CS_PROVIDER_V2);
+    cs.setHref(url);
+    nsa.getInterface().add(cs);
+
+    if (modify) {
+      FeatureType feature = NSA_FACTORY.createFeatureType();
+      feature.setType(Nsi.NSI_CS_MODIFY);
+      nsa.getFeature().add(feature);
+    }
+    return nsa;
+  }
+
+  private static Document document(NsaType nsa) throws Exception {
+    String xml = XmlUtilities.jaxbToXml(NsaType.class, NSA_FACTORY.createNsa(nsa));
+    ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    try (GZIPOutputStream gz = new GZIPOutputStream(bos)) {
+      gz.write(xml.getBytes(StandardCharsets.UTF_8));
+    }
+
+    ContentType content = DDS_FACTORY.createContentType();
+    content.setContentTransferEncoding("base64");
+    content.setContentType("application/x-gzip");
+    content.setValue(Base64.getEncoder().encodeToString(bos.toByteArray()));
+
+    DocumentType document = DDS_FACTORY.createDocumentType();
+    document.setVersion(nsa.getVersion());
+    document.setExpires(XmlUtilities.xmlGregorianCalendar("2030-01-01T00:00:00.000Z"));
+    document.setType(Nsi.NSI_DOC_TYPE_NSA_V1);
+    document.setNsa(nsa.getId());
+    document.setId(nsa.getId());
+    document.setContent(content);
+    return new Document(document);
+  }
+
+  private NsaType load(NsaType nsa) {
+    loads.incrementAndGet();
+    return nsa;
+  }
+
+  @Test
+  public void testGet() throws Exception {
+    NsaType nsa = nsa("2017-09-06T10:15:05.536Z", "https://oscars.es.net/ConnectionService", true);
+
+    ProviderCapability capability = cache.get(NSA_ID, () -> load(nsa));
+    Assert.assertEquals(NSA_ID, capability.getNsaId());
+    Assert.assertEquals("https://oscars.es.net/ConnectionService", capability.getCsProviderUrl());
+    Assert.assertTrue(capability.isModifySupported());
+    Assert.assertTrue(capability.getFeatures().contains(Nsi.NSI_CS_MODIFY.toLowerCase()));
+
+    // The NSA description is only loaded on the first request.
+    Assert.assertSame(capability, cache.get(NSA_ID, () -> load(nsa)));
+    Assert.assertEquals(1, loads.get());
+
+    // A missing NSA description is not cached.
+    Assert.assertNull(cache.get("urn:unknown", () -> null));
+    Assert.assertEquals(1, cache.size());
+  }
+
+  @Test
+  public void testUpdate() throws Exception {
+    NsaType original = nsa("2017-09-06T10:15:05.536Z", "https://oscars.es.net/ConnectionService", false);
+    Assert.assertFalse(cache.get(NSA_ID, () -> load(original)).isModifySupported());
+
+    // An updated NSA description is decoded into the cache when the DDS document changes.
+    cache.update(document(nsa("2017-09-07T10:15:05.536Z", "https://nsi.es.net/ConnectionService", true)));
+    ProviderCapability capability = cache.get(NSA_ID, () -> load(original));
+    Assert.assertEquals("https://nsi.es.net/ConnectionService", capability.getCsProviderUrl());
+    Assert.assertTrue(capability.isModifySupported());
+    Assert.assertEquals(1, loads.get());
+
+    // An older NSA description never replaces a newer one.
+    cache.update(document(nsa("2017-09-01T10:15:05.536Z", "https://old.es.net/ConnectionService", false)));
+    Assert.assertSame(capability, cache.get(NSA_ID, () -> load(original)));
+
+    // The cache is refreshed again on the next request once the document is removed.
+    cache.remove(document(original));
+    Assert.assertEquals(0, cache.size());
+    Assert.assertEquals("https://oscars.es.net/ConnectionService",
+        cache.get(NSA_ID, () -> load(original)).getCsProviderUrl());
+    Assert.assertEquals(2, loads.get());
+  }
+
+  @Test
+  public void testDeleteDocument() throws Exception {
+    NsaType original = nsa("2017-09-06T10:15:05.536Z", "https://oscars.es.net/ConnectionService", false);
+    Assert.assertNotNull(cache.get(NSA_ID, () -> load(original)));
+
+    Document document = document(original);
+    DocumentService documentService = mock(DocumentService.class);
+    when(documentService.get(document.getId())).thenReturn(document);
+    when(documentService.update(any(Document.class))).thenAnswer(i -> i.getArgument(0));
+
+    NsiProperties properties = new NsiProperties();
+    DdsProvider ddsProvider = new DdsProvider(properties, documentService, mock(SpringExtension.class),
+        mock(NsiActorSystem.class), mock(DdsClientProvider.class), new DocumentCache(properties), cache);
+
+    // Deleting the NSA description through the DDS provider drops its cached capabilities.
+    ddsProvider.deleteDocument(NSA_ID, Nsi.NSI_DOC_TYPE_NSA_V1, NSA_ID);
+    Assert.assertEquals(0, cache.size());
+    cache.get(NSA_ID, () -> load(original));
+    Assert.assertEquals(2, loads.get());
+  }
+
+  @Test
+  public void testUnwatchedIgnored() throws Exception {
+    // Updates for NSAs never requested are not decoded or cached.
+    cache.update(document(nsa("2017-09-06T10:15:05.536Z", "https://oscars.es.net/ConnectionService", true)));
+    Assert.assertEquals(0, cache.size());
+  }
+}
@@ -4,23 +4,42 @@ import com.google.common.collect.Lists;
 import jakarta.xml.bind.JAXBException;
 import lombok.extern.slf4j.Slf4j;
 import net.es.nsi.common.util.XmlUtilities;
+import net.es.nsi.dds.lib.jaxb.Relationships;
+import net.es.nsi.dds.lib.jaxb.nml.NmlSwitchingServiceType;
 import net.es.nsi.dds.lib.jaxb.nml.NmlTopologyType;
+import net.es.sense.rm.driver.api.mrml.ModelUtil;
+import net.es.sense.rm.driver.nsi.cs.db.ConnectionMap;
 import net.es.sense.rm.driver.nsi.cs.db.ConnectionMapService;
+import net.es.sense.rm.driver.nsi.cs.db.Reservation;
 import net.es.sense.rm.driver.nsi.cs.db.ReservationService;
 import net.es.sense.rm.driver.nsi.dds.api.DocumentReader;
+import net.es.sense.rm.driver.schema.Mrs;
 import org.apache.jena.ontology.OntModel;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Resource;
 import org.apache.jena.riot.Lang;
 import org.apache.jena.riot.RDFDataMgr;
 import org.apache.jena.riot.RDFFormat;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+import org.junit.Assert;
 import org.junit.Test;
 import org.mockito.ArgumentMatchers;
 import org.mockito.Mockito;
+import org.ogf.schemas.nsi._2013._12.connection.types.LifecycleStateEnumType;
+import org.ogf.schemas.nsi._2013._12.connection.types.ProvisionStateEnumType;
+import org.ogf.schemas.nsi._2013._12.connection.types.ReservationStateEnumType;
 
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
 
 /**
  *
@@ -38,6 +57,7 @@ public class MrmlFactoryTest {
   private final static String DOCUMENT_NETHERLIGHT = "src/test/resources/topology_netherlight.xml";
   private final static String DOCUMENT_PACWAVE = "src/test/resources/topology_pacwave.xml";
   private final static String NEWORK_ID = "urn:ogf:network:es.net:2013:";
+  private final static String CALTECH_ID = "urn:ogf:network:caltech.edu:2013:";
 
   public NmlTopologyType load(String path) throws IOException, JAXBException {
     File file = new File(path);
@@ -101,6 +121,40 @@ public class MrmlFactoryTest {
     RDFDataMgr.write(System.out, mrml.getBaseModel(), RDFFormat.TURTLE_PRETTY);
   }
 
+  private static int relationCount(NmlTopologyType topology) {
+    return topology.getRelation().stream()
+        .filter(r -> Relationships.HAS_SERVICE.equalsIgnoreCase(r.getType()))
+        .flatMap(r -> r.getService().stream())
+        .filter(NmlSwitchingServiceType.class::isInstance)
+        .mapToInt(ss -> ((NmlSwitchingServiceType) ss).getRelation().size())
+        .sum();
+  }
+
+  @Test
+  public void testWildcardSwitchingServiceShared() throws IOException, JAXBException {
+    // The document cache hands the same decoded topology to every model build.
+    NmlTopologyType topology = load(DOCUMENT_WILDCARD);
+    DocumentReader drMock = Mockito.mock(DocumentReader.class);
+    Mockito.when(drMock.getNmlTopologyAll()).thenReturn(Lists.newArrayList(topology));
+    Mockito.when(drMock.getTopologyById(NEWORK_ID)).thenReturn(Lists.newArrayList(topology));
+
+    int relations = relationCount(topology);
+    List<Integer> populated = new ArrayList<>();
+    for (int i = 0; i < 2; i++) {
+      NmlModel model = new NmlModel(drMock);
+      model.setDefaultServiceType("http://services.ogf.org/nsi/2013/12/descriptions/EVTS.A-GOLE");
+      Collection<NmlSwitchingServiceType> services = model.getSwitchingServices(NEWORK_ID);
+      populated.add(services.stream().mapToInt(ss -> ss.getRelation().size()).sum());
+
+      // Populating the wildcard SwitchingService leaves the cached topology untouched.
+      Assert.assertEquals(relations, relationCount(topology));
+    }
+
+    // Each build populates the wildcard SwitchingService identically.
+    Assert.assertTrue(populated.get(0) > relations);
+    Assert.assertEquals(populated.get(0), populated.get(1));
+  }
+
   @Test
   public void testLargeTopology() throws IOException, JAXBException {
     Collection<NmlTopologyType> nml = Lists.newArrayList(
@@ -129,4 +183,246 @@ public class MrmlFactoryTest {
     OntModel mrml = mrmlFactory.getOntologyModel();
     RDFDataMgr.write(System.out, mrml.getBaseModel(), Lang.TURTLE);
   }
+
+  private Reservation reservation(String connectionId, String src, String dst, long discovered) {
+    Reservation r = new Reservation();
+    r.setDiscovered(discovered);
+    r.setProviderNsa("urn:ogf:network:caltech.edu:2013:nsa");
+    r.setUniqueId(UUID.randomUUID().toString());
+    r.setGlobalReservationId("urn:uuid:" + connectionId);
+    r.setConnectionId(connectionId);
+    r.setTopologyId(CALTECH_ID);
+    r.setServiceType("http://services.ogf.org/nsi/2013/12/descriptions/EVTS.A-GOLE");
+    r.setStartTime(0L);
+    r.setEndTime(Long.MAX_VALUE);
+    r.setReservationState(ReservationStateEnumType.RESERVE_START);
+    r.setProvisionState(ProvisionStateEnumType.PROVISIONED);
+    r.setLifecycleState(LifecycleStateEnumType.CREATED);
+    r.setDataPlaneActive(true);
+    r.setVersion(0);
+    r.setErrorState(Reservation.ErrorState.NONE);
+    r.setService("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n" +
+        "<ns7:p2ps xmlns:ns7=\"http://schemas.ogf.org/nsi/2013/12/services/point2point\">\n" +
+        "    <capacity>1000</capacity>\n" +
+        "    <directionality>Bidirectional</directionality>\n" +
+        "    <symmetricPath>true</symmetricPath>\n" +
+        "    <sourceSTP>" + src + "</sourceSTP>\n" +
+        "    <destSTP>" + dst + "</destSTP>\n" +
+        "</ns7:p2ps>");
+    return r;
+  }
+
+  private MrmlFactory factory(Collection<NmlTopologyType> nml, List<Reservation> reservations) {
+    return factory(nml, reservations, 0);
+  }
+
+  private MrmlFactory factory(Collection<NmlTopologyType> nml, List<Reservation> reservations, long lastDiscovered) {
+    ReservationService rsMock = Mockito.mock(ReservationService.class);
+    Mockito.when(rsMock.getByTopologyId(CALTECH_ID)).thenReturn(reservations);
+    return factory(CALTECH_ID, nml, lastDiscovered, rsMock, Mockito.mock(ConnectionMapService.class));
+  }
+
+  private MrmlFactory factory(String topologyId, Collection<NmlTopologyType> nml, long lastDiscovered,
+                              ReservationService rs, ConnectionMapService cm) {
+    DocumentReader drMock = Mockito.mock(DocumentReader.class);
+    Mockito.when(drMock.getNmlTopologyAll()).thenReturn(Lists.newArrayList(nml));
+    Mockito.when(drMock.getTopologyById(topologyId)).thenReturn(Lists.newArrayList(nml));
+    Mockito.when(drMock.getLastDiscovered()).thenReturn(lastDiscovered);
+
+    NmlModel model = new NmlModel(drMock);
+    model.setDefaultServiceType("http://services.ogf.org/nsi/2013/12/descriptions/EVTS.A-GOLE");
+    model.setDefaultGranularity(1L);
+    model.setDefaultType(MrsBandwidthType.guaranteed);
+    model.setDefaultUnits("bps");
+
+    SwitchingSubnetModel ssm = new SwitchingSubnetModel(rs, cm, model, topologyId);
+    return new MrmlFactory(model, ssm, topologyId);
+  }
+
+  @Test
+  public void testIncrementalOntologyModel() throws IOException, JAXBException {
+    Collection<NmlTopologyType> nml = Lists.newArrayList(load(DOCUMENT_CALTECH));
+    MrmlGraphCache cache = new MrmlGraphCache();
+
+    List<Reservation> reservations = new ArrayList<>();
+    reservations.add(reservation("cid-1", "urn:ogf:network:caltech.edu:2013::CER2024:eth1_24:+?vlan=1000",
+        "urn:ogf:network:caltech.edu:2013::CER2024:eth2_2:+?vlan=1000", 1000L));
+    reservations.add(reservation("cid-2", "urn:ogf:network:caltech.edu:2013::CER2024:eth1_24:+?vlan=1001",
+        "urn:ogf:network:caltech.edu:2013::CER2024:eth2_2:+?vlan=1001", 1001L));
+
+    // An empty cache must generate all sections.
+    MrmlFactory mrml = factory(nml, reservations);
+    OntModel incremental = mrml.getOntologyModel(cache);
+    Assert.assertTrue(incremental.getBaseModel().isIsomorphicWith(mrml.getOntologyModel().getBaseModel()));
+    Assert.assertEquals(0, cache.getReused());
+    Assert.assertEquals(2, cache.getSwitchingSubnets().size());
+
+    // Change the state of one reservation and add another.
+    Reservation changed = reservation("cid-2", "urn:ogf:network:caltech.edu:2013::CER2024:eth1_24:+?vlan=1001",
+        "urn:ogf:network:caltech.edu:2013::CER2024:eth2_2:+?vlan=1001", 2000L);
+    changed.setErrorState(Reservation.ErrorState.NSIERROR);
+    changed.setErrorMessage("provider error");
+    reservations.set(1, changed);
+    reservations.add(reservation("cid-3", "urn:ogf:network:caltech.edu:2013::CER2024:eth2_3:+?vlan=1002",
+        "urn:ogf:network:caltech.edu:2013::CER2024:eth2_2:+?vlan=1002", 2001L));
+
+    // Only the affected SwitchingSubnet sections are regenerated.
+    mrml = factory(nml, reservations);
+    incremental = mrml.getOntologyModel(cache);
+    Assert.assertTrue(incremental.getBaseModel().isIsomorphicWith(mrml.getOntologyModel().getBaseModel()));
+    Assert.assertEquals(2, cache.getGenerated());
+    Assert.assertEquals(3, cache.getReused());
+
+    // Remove a reservation.
+    reservations.remove(0);
+    mrml = factory(nml, reservations);
+    incremental = mrml.getOntologyModel(cache);
+    Assert.assertTrue(incremental.getBaseModel().isIsomorphicWith(mrml.getOntologyModel().getBaseModel()));
+    Assert.assertEquals(0, cache.getGenerated());
+    Assert.assertEquals(2, cache.getSwitchingSubnets().size());
+  }
+
+  @Test
+  public void testIncrementalFullTopologyReused() throws IOException, JAXBException {
+    Collection<NmlTopologyType> nml = Lists.newArrayList(load(DOCUMENT_FULL));
+    MrmlGraphCache cache = new MrmlGraphCache();
+
+    // The first audit generates every section.
+    MrmlFactory mrml = factory(NEWORK_ID, nml, 1000, Mockito.mock(ReservationService.class),
+        Mockito.mock(ConnectionMapService.class));
+    Model first = mrml.getModel(cache);
+    Model topologySection = cache.getTopologySection();
+    Assert.assertEquals(2, cache.getGenerated());
+    Assert.assertEquals(0, cache.getReused());
+
+    // A later audit with an unchanged topology document regenerates no
+    // sections, only reassembling them, yet matches a full rebuild.
+    mrml = factory(NEWORK_ID, nml, 5000, Mockito.mock(ReservationService.class),
+        Mockito.mock(ConnectionMapService.class));
+    Model second = mrml.getModel(cache);
+    Assert.assertEquals(0, cache.getGenerated());
+    Assert.assertEquals(2, cache.getReused());
+    Assert.assertSame(topologySection, cache.getTopologySection());
+    Assert.assertTrue(second.isIsomorphicWith(mrml.getModel()));
+    Assert.assertEquals(first.size(), second.size());
+  }
+
+  @Test
+  public void testReasonerFreeModel() throws IOException, JAXBException {
+    Collection<NmlTopologyType> nml = Lists.newArrayList(load(DOCUMENT_CALTECH));
+    List<Reservation> reservations = new ArrayList<>();
+    reservations.add(reservation("cid-1", "urn:ogf:network:caltech.edu:2013::CER2024:eth1_24:+?vlan=1000",
+        "urn:ogf:network:caltech.edu:2013::CER2024:eth2_2:+?vlan=1000", 1000L));
+
+    // The plain model must serialize identically to the ontology base model.
+    MrmlFactory mrml = factory(nml, reservations);
+    Assert.assertEquals(ModelUtil.marshalModel(mrml.getOntologyModel().getBaseModel(), Lang.TURTLE.getName()),
+        ModelUtil.marshalModel(mrml.getModel(), Lang.TURTLE.getName()));
+    Assert.assertTrue(mrml.getOntologyModel(new MrmlGraphCache()).getBaseModel()
+        .isIsomorphicWith(mrml.getModel(new MrmlGraphCache())));
+  }
+
+  @Test
+  public void testReasonerFreeModelFullTopology() throws IOException, JAXBException {
+    MrmlFactory mrml = factory(NEWORK_ID, Lists.newArrayList(load(DOCUMENT_FULL)), 0,
+        Mockito.mock(ReservationService.class), Mockito.mock(ConnectionMapService.class));
+
+    // The plain model holds exactly the asserted statements of the ontology
+    // model without any inferred statements.
+    OntModel ontology = mrml.getOntologyModel();
+    Model plain = mrml.getModel();
+    Assert.assertFalse(plain instanceof OntModel);
+    Assert.assertEquals(ontology.getBaseModel().size(), plain.size());
+    Assert.assertTrue(ontology.getBaseModel().isIsomorphicWith(plain));
+    Assert.assertEquals(ModelUtil.marshalModel(ontology.getBaseModel(), Lang.TURTLE.getName()),
+        ModelUtil.marshalModel(plain, Lang.TURTLE.getName()));
+  }
+
+  @Test
+  public void testContentHash() throws IOException, JAXBException {
+    Collection<NmlTopologyType> nml = Lists.newArrayList(load(DOCUMENT_CALTECH));
+    List<Reservation> reservations = new ArrayList<>();
+    reservations.add(reservation("cid-1", "urn:ogf:network:caltech.edu:2013::CER2024:eth1_24:+?vlan=1000",
+        "urn:ogf:network:caltech.edu:2013::CER2024:eth2_2:+?vlan=1000", 1000L));
+
+    // Independent builds of the same information hash the same.
+    MrmlFactory mrml = factory(nml, reservations);
+    String hash = mrml.getContentHash(mrml.getModel());
+    mrml = factory(nml, reservations);
+    Assert.assertEquals(hash, mrml.getContentHash(mrml.getModel()));
+
+    // Rediscovering the same topology changes the model version but not the hash.
+    MrmlFactory first = factory(nml, reservations, 5000L);
+    MrmlFactory second = factory(nml, reservations, 9000L);
+    Assert.assertNotEquals(first.getVersion(), second.getVersion());
+    Assert.assertEquals(hash, first.getContentHash(first.getModel()));
+    Assert.assertEquals(hash, second.getContentHash(second.getModel()));
+
+    // A change in reservation state changes the hash.
+    reservations.get(0).setLifecycleState(LifecycleStateEnumType.TERMINATED);
+    mrml = factory(nml, reservations);
+    Assert.assertNotEquals(hash, mrml.getContentHash(mrml.getModel()));
+  }
+
+  @Test
+  public void testContentHashBlankNodes() throws IOException, JAXBException {
+    Collection<NmlTopologyType> nml = Lists.newArrayList(load(DOCUMENT_CALTECH));
+
+    // The topology lifetime and location are blank nodes labelled the same by every build.
+    MrmlFactory first = factory(nml, new ArrayList<>());
+    MrmlFactory second = factory(nml, new ArrayList<>());
+    List<Resource> blank = first.getModel().listSubjects().filterKeep(Resource::isAnon).toList();
+    Assert.assertFalse(blank.isEmpty());
+    Assert.assertEquals(blank.stream().map(r -> r.getId().getLabelString()).collect(Collectors.toSet()),
+        second.getModel().listSubjects().filterKeep(Resource::isAnon)
+            .mapWith(r -> r.getId().getLabelString()).toSet());
+    String hash = first.getContentHash(first.getModel());
+    Assert.assertEquals(hash, second.getContentHash(second.getModel()));
+
+    // The blank node statements are part of the hashed content.
+    Model changed = ModelFactory.createDefaultModel().add(first.getModel());
+    changed.add(blank.get(0), RDFS.comment, "changed");
+    Assert.assertNotEquals(hash, first.getContentHash(changed));
+  }
+
+  @Test
+  public void testBulkReservationLookups() throws IOException, JAXBException {
+    Collection<NmlTopologyType> nml = Lists.newArrayList(load(DOCUMENT_CALTECH));
+
+    // A reservation created through a delta, and a child reservation of a
+    // parent reservation that is present in the database.
+    Reservation created = reservation("cid-1", "urn:ogf:network:caltech.edu:2013::CER2024:eth1_24:+?vlan=1000",
+        "urn:ogf:network:caltech.edu:2013::CER2024:eth2_2:+?vlan=1000", 1000L);
+    Reservation child = reservation("cid-2", "urn:ogf:network:caltech.edu:2013::CER2024:eth1_24:+?vlan=1001",
+        "urn:ogf:network:caltech.edu:2013::CER2024:eth2_2:+?vlan=1001", 1001L);
+    child.setParentConnectionId("parent-1");
+    Reservation parent = reservation("parent-1", "urn:ogf:network:caltech.edu:2013::CER2024:eth1_24:+?vlan=1001",
+        "urn:ogf:network:caltech.edu:2013::CER2024:eth2_2:+?vlan=1001", 1001L);
+
+    ReservationService rsMock = Mockito.mock(ReservationService.class);
+    Mockito.when(rsMock.getByTopologyId(CALTECH_ID)).thenReturn(Lists.newArrayList(created, child));
+    Mockito.when(rsMock.getByConnectionIdIn(ArgumentMatchers.anyCollection())).thenReturn(Lists.newArrayList(parent));
+
+    ConnectionMap cm = new ConnectionMap();
+    cm.setUniqueId(created.getUniqueId());
+    cm.setServiceType("http://services.ogf.org/nsi/2013/12/descriptions/EVTS.A-GOLE");
+    cm.setSwitchingSubnetId("urn:ogf:network:caltech.edu:2013:ServiceDomain:EVTS.A-GOLE:conn+delta-1");
+    cm.setExistsDuringId("urn:ogf:network:caltech.edu:2013:ServiceDomain:EVTS.A-GOLE:conn+delta-1:existsDuring");
+    ConnectionMapService cmMock = Mockito.mock(ConnectionMapService.class);
+    Mockito.when(cmMock.getByUniqueIdIn(ArgumentMatchers.anyCollection())).thenReturn(Lists.newArrayList(cm));
+
+    MrmlFactory mrml = factory(CALTECH_ID, nml, 0, rsMock, cmMock);
+
+    // Only the delta reservation is modelled, using its connection map.
+    List<String> ids = mrml.getModel().listSubjectsWithProperty(RDF.type, Mrs.SwitchingSubnet)
+        .mapWith(Resource::getURI)
+        .toList();
+    Assert.assertEquals(List.of(cm.getSwitchingSubnetId()), ids);
+
+    // Lookups are made in bulk rather than per reservation.
+    Mockito.verify(rsMock, Mockito.times(1)).getByConnectionIdIn(ArgumentMatchers.anyCollection());
+    Mockito.verify(rsMock, Mockito.never()).getByProviderNsaAndConnectionId(ArgumentMatchers.any(), ArgumentMatchers.any());
+    Mockito.verify(cmMock, Mockito.times(1)).getByUniqueIdIn(ArgumentMatchers.anyCollection());
+    Mockito.verify(cmMock, Mockito.never()).getByUniqueId(ArgumentMatchers.any());
+  }
 }
@@ -0,0 +1,130 @@
+package net.es.sense.rm.driver.nsi.mrml;
+
+import com.google.common.collect.Lists;
+import jakarta.xml.bind.JAXBException;
+import net.es.nsi.common.util.XmlUtilities;
+import net.es.nsi.dds.lib.jaxb.nml.NmlTopologyType;
+import net.es.sense.rm.driver.nsi.dds.api.DocumentReader;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+/**
+ * Test the NmlModel port indices against a scan of all ports.
+ *
+ * @author hacksaw
+ */
+public class NmlModelTest {
+  private final static String DOCUMENT_ESNET = "src/test/resources/topology_esnet.xml";
+  private final static String DOCUMENT_CALTECH = "src/test/resources/topology_caltech.xml";
+  private final static String DOCUMENT_PACWAVE = "src/test/resources/topology_pacwave.xml";
+  private final static String CALTECH_ID = "urn:ogf:network:caltech.edu:2013:";
+  private final static String VLAN = "http://schemas.ogf.org/nml/2012/10/ethernet#vlan";
+
+  private NmlModel nml;
+
+  private NmlTopologyType load(String path) throws IOException, JAXBException {
+    File file = new File(path);
+    try (InputStream is = new FileInputStream(file.getAbsoluteFile())) {
+      return XmlUtilities.xmlToJaxb(NmlTopologyType.class, is);
+    }
+  }
+
+  @Before
+  public void before() throws IOException, JAXBException {
+    Collection<NmlTopologyType> topologies = Lists.newArrayList(
+        load(DOCUMENT_ESNET), load(DOCUMENT_CALTECH), load(DOCUMENT_PACWAVE));
+    DocumentReader drMock = Mockito.mock(DocumentReader.class);
+    Mockito.when(drMock.getNmlTopologyAll()).thenReturn(topologies);
+    nml = new NmlModel(drMock);
+  }
+
+  private Map<String, NmlPort> scan(String topologyId, Orientation orientation) {
+    return nml.getPorts().values().stream()
+        .filter(p -> p.getTopologyId().equalsIgnoreCase(topologyId) && p.getOrientation() == orientation)
+        .collect(Collectors.toMap(NmlPort::getId, p -> p));
+  }
+
+  @Test
+  public void testIndexMatchesScan() {
+    for (Orientation orientation : Orientation.values()) {
+      Assert.assertEquals(scan(CALTECH_ID, orientation), nml.getPorts(CALTECH_ID, orientation));
+      Assert.assertEquals(scan(CALTECH_ID.toUpperCase(), orientation),
+          nml.getPorts(CALTECH_ID.toUpperCase(), orientation));
+    }
+
+    Map<String, NmlPort> vlan = nml.getPorts(CALTECH_ID).values().stream()
+        .filter(p -> p.getLabels().stream().anyMatch(l -> VLAN.equals(l.getLabeltype())))
+        .collect(Collectors.toMap(NmlPort::getId, p -> p));
+    Assert.assertFalse(vlan.isEmpty());
+    Assert.assertEquals(vlan, nml.getPortsByLabelType(CALTECH_ID, VLAN));
+    Assert.assertTrue(nml.getPorts("urn:ogf:network:unknown:2013:").isEmpty());
+  }
+
+  @Test
+  public void testAddPortUpdatesIndex() {
+    NmlPort parent = nml.getPorts(CALTECH_ID, Orientation.bidirectional).values().iterator().next();
+    NmlPort child = NmlPort.builder()
+        .id(parent.getId() + ":cid+1")
+        .topologyId(CALTECH_ID)
+        .name(Optional.of("1"))
+        .orientation(Orientation.child)
+        .parentPort(Optional.of(parent.getId()))
+        .build();
+    nml.addPort(child);
+    Assert.assertSame(child, nml.getPorts(CALTECH_ID, Orientation.child).get(child.getId()));
+
+    // Replacing a port must replace the index entry.
+    NmlPort replaced = NmlPort.builder()
+        .id(child.getId())
+        .topologyId(CALTECH_ID)
+        .name(Optional.of("1"))
+        .orientation(Orientation.child)
+        .parentPort(Optional.of(parent.getId()))
+        .build();
+    nml.addPort(replaced);
+    Assert.assertSame(replaced, nml.getPorts(CALTECH_ID, Orientation.child).get(child.getId()));
+    Assert.assertEquals(1, nml.getPorts(CALTECH_ID, Orientation.child).size());
+  }
+
+  @Test
+  public void testParallelLoad() throws IOException, JAXBException {
+    Collection<NmlTopologyType> topologies = Lists.newArrayList(
+        load(DOCUMENT_ESNET), load(DOCUMENT_CALTECH), load(DOCUMENT_PACWAVE));
+    DocumentReader drMock = Mockito.mock(DocumentReader.class);
+    Mockito.when(drMock.getNmlTopologyAll()).thenReturn(topologies);
+
+    ForkJoinPool pool = new ForkJoinPool(3);
+    try {
+      NmlModel parallel = new NmlModel(drMock, pool);
+      Assert.assertEquals(nml.getPorts().keySet(), parallel.getPorts().keySet());
+
+      // The isAlias consolidation must see the ports of all topologies.
+      nml.getPorts().values().forEach(p -> {
+        NmlPort q = parallel.getPort(p.getId());
+        Assert.assertEquals(p.getOrientation(), q.getOrientation());
+        Assert.assertEquals(p.getIsAlias(), q.getIsAlias());
+      });
+      Assert.assertTrue(parallel.getPorts().values().stream()
+          .anyMatch(p -> p.getOrientation() == Orientation.bidirectional && p.getIsAlias().isPresent()));
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testUnmodifiable() {
+    nml.getPorts(CALTECH_ID).clear();
+  }
+}